@@ -32,7 +32,11 @@ public enum Attribute {
 
     UNKNOWN(null),
     DATA_SOURCE("data-source"),
+    EXECUTION_RETENTION("execution-retention"),
+    EXECUTION_UPDATE_INTERVAL("execution-update-interval"),
+    JOB_INSTANCE_CACHE_SIZE("job-instance-cache-size"),
     NAME("name"),
+    PURGE_INTERVAL("purge-interval"),
     VALUE("value");
 
     private final String name;
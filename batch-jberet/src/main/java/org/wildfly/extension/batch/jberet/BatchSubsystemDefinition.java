@@ -42,7 +42,10 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.server.AbstractDeploymentChainStep;
@@ -107,6 +110,34 @@ public class BatchSubsystemDefinition extends SimpleResourceDefinition {
             .setAccessConstraints(SensitiveTargetAccessConstraintDefinition.ELYTRON_SECURITY_DOMAIN_REF)
             .build();
 
+    /**
+     * How the threads of the batch thread pools are shared between jobs. {@code FIFO} executes the tasks in the order
+     * they were submitted, {@code FAIR} gives the next available thread to the job with the fewest active tasks.
+     */
+    public static final SimpleAttributeDefinition JOB_SCHEDULING_POLICY = SimpleAttributeDefinitionBuilder.create("job-scheduling-policy", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode("FIFO"))
+            .setAllowedValues("FIFO", "FAIR")
+            .setValidator(new StringAllowedValuesValidator("FIFO", "FAIR"))
+            .setAttributeParser(AttributeParsers.VALUE)
+            .setAttributeMarshaller(AttributeMarshallers.VALUE)
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The maximum percentage of the threads of a batch thread pool a single job should use while other jobs are
+     * waiting when the {@link #JOB_SCHEDULING_POLICY} is {@code FAIR}.
+     */
+    public static final SimpleAttributeDefinition MAX_JOB_THREAD_SHARE = SimpleAttributeDefinitionBuilder.create("max-job-thread-share", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(100))
+            .setMeasurementUnit(MeasurementUnit.PERCENTAGE)
+            .setValidator(new IntRangeValidator(1, 100, true, true))
+            .setAttributeParser(AttributeParsers.VALUE)
+            .setAttributeMarshaller(AttributeMarshallers.VALUE)
+            .setRestartAllServices()
+            .build();
+
     private final boolean registerRuntimeOnly;
 
     BatchSubsystemDefinition(final boolean registerRuntimeOnly) {
@@ -139,10 +170,13 @@ public class BatchSubsystemDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         super.registerAttributes(resourceRegistration);
-        final OperationStepHandler writeHandler = new ReloadRequiredWriteAttributeHandler(DEFAULT_JOB_REPOSITORY, DEFAULT_THREAD_POOL, SECURITY_DOMAIN);
+        final OperationStepHandler writeHandler = new ReloadRequiredWriteAttributeHandler(DEFAULT_JOB_REPOSITORY, DEFAULT_THREAD_POOL, SECURITY_DOMAIN,
+                JOB_SCHEDULING_POLICY, MAX_JOB_THREAD_SHARE);
         resourceRegistration.registerReadWriteAttribute(DEFAULT_JOB_REPOSITORY, null, writeHandler);
         resourceRegistration.registerReadWriteAttribute(DEFAULT_THREAD_POOL, null, writeHandler);
         resourceRegistration.registerReadWriteAttribute(SECURITY_DOMAIN, null, writeHandler);
+        resourceRegistration.registerReadWriteAttribute(JOB_SCHEDULING_POLICY, null, writeHandler);
+        resourceRegistration.registerReadWriteAttribute(MAX_JOB_THREAD_SHARE, null, writeHandler);
         resourceRegistration.registerReadWriteAttribute(RESTART_JOBS_ON_RESUME, null, new AbstractWriteAttributeHandler<Boolean>(RESTART_JOBS_ON_RESUME) {
             @Override
             protected boolean applyUpdateToRuntime(final OperationContext context, final ModelNode operation, final String attributeName, final ModelNode resolvedValue, final ModelNode currentValue, final HandbackHolder<Boolean> handbackHolder) throws OperationFailedException {
@@ -171,7 +205,8 @@ public class BatchSubsystemDefinition extends SimpleResourceDefinition {
         private final ContextClassLoaderJobOperatorContextSelector selector;
 
         private BatchSubsystemAdd() {
-            super(Collections.singleton(Capabilities.BATCH_CONFIGURATION_CAPABILITY), DEFAULT_JOB_REPOSITORY, DEFAULT_THREAD_POOL, RESTART_JOBS_ON_RESUME, SECURITY_DOMAIN);
+            super(Collections.singleton(Capabilities.BATCH_CONFIGURATION_CAPABILITY), DEFAULT_JOB_REPOSITORY, DEFAULT_THREAD_POOL, RESTART_JOBS_ON_RESUME, SECURITY_DOMAIN,
+                    JOB_SCHEDULING_POLICY, MAX_JOB_THREAD_SHARE);
             selector = new ContextClassLoaderJobOperatorContextSelector(() -> JobOperatorContext.create(DefaultBatchEnvironment.INSTANCE));
             JobOperatorContext.setJobOperatorContextSelector(selector);
         }
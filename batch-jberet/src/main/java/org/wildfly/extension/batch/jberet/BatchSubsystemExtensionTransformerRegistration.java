@@ -22,13 +22,16 @@ import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
 import org.jboss.as.controller.transform.description.ChainedTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.wildfly.extension.batch.jberet.job.repository.JdbcJobRepositoryDefinition;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 public class BatchSubsystemExtensionTransformerRegistration implements ExtensionTransformerRegistration {
     private static final ModelVersion VERSION_1_1_0 = ModelVersion.create(1, 1, 0);
+    private static final ModelVersion VERSION_2_0_0 = ModelVersion.create(2, 0, 0);
 
     @Override
     public String getSubsystemName() {
@@ -39,12 +42,28 @@ public class BatchSubsystemExtensionTransformerRegistration implements Extension
     public void registerTransformers(final SubsystemTransformerRegistration subsystemRegistration) {
         final ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystemRegistration.getCurrentSubsystemVersion());
 
-        chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), VERSION_1_1_0)
+        final ResourceTransformationDescriptionBuilder subsystem = chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), VERSION_2_0_0);
+        subsystem.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, BatchSubsystemDefinition.JOB_SCHEDULING_POLICY, BatchSubsystemDefinition.MAX_JOB_THREAD_SHARE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, BatchSubsystemDefinition.JOB_SCHEDULING_POLICY, BatchSubsystemDefinition.MAX_JOB_THREAD_SHARE)
+                .end();
+        final ResourceTransformationDescriptionBuilder jdbcJobRepository = subsystem.addChildResource(JdbcJobRepositoryDefinition.PATH);
+        jdbcJobRepository.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, JdbcJobRepositoryDefinition.JOB_INSTANCE_CACHE_SIZE,
+                        JdbcJobRepositoryDefinition.EXECUTION_UPDATE_INTERVAL, JdbcJobRepositoryDefinition.PURGE_INTERVAL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, JdbcJobRepositoryDefinition.JOB_INSTANCE_CACHE_SIZE,
+                        JdbcJobRepositoryDefinition.EXECUTION_UPDATE_INTERVAL, JdbcJobRepositoryDefinition.PURGE_INTERVAL)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, JdbcJobRepositoryDefinition.EXECUTION_RETENTION)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, JdbcJobRepositoryDefinition.EXECUTION_RETENTION)
+                .end();
+        jdbcJobRepository.discardOperations(JdbcJobRepositoryDefinition.PURGE_JOB_EXECUTIONS.getName());
+
+        chainedBuilder.createBuilder(VERSION_2_0_0, VERSION_1_1_0)
                 .getAttributeBuilder()
                 .setDiscard(DiscardAttributeChecker.UNDEFINED, BatchSubsystemDefinition.SECURITY_DOMAIN)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, BatchSubsystemDefinition.SECURITY_DOMAIN)
                 .end();
 
-        chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[]{VERSION_1_1_0});
+        chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[]{VERSION_2_0_0, VERSION_1_1_0});
     }
 }
\ No newline at end of file
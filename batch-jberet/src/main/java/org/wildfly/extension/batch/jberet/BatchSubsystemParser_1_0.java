@@ -25,6 +25,7 @@ package org.wildfly.extension.batch.jberet;
 import static org.jboss.as.threads.Namespace.THREADS_1_1;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -52,12 +53,20 @@ import org.wildfly.extension.batch.jberet.thread.pool.BatchThreadPoolResourceDef
 public class BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementReader<List<ModelNode>> {
 
     private final Map<Element, SimpleAttributeDefinition> attributeElements;
+    private final Map<Attribute, SimpleAttributeDefinition> jdbcAttributes;
 
     public BatchSubsystemParser_1_0() {
         this(Collections.emptyMap());
     }
 
     BatchSubsystemParser_1_0(final Map<Element, SimpleAttributeDefinition> additionalElements) {
+        this(additionalElements, Collections.emptyMap());
+    }
+
+    BatchSubsystemParser_1_0(final Map<Element, SimpleAttributeDefinition> additionalElements, final Map<Attribute, SimpleAttributeDefinition> additionalJdbcAttributes) {
+        jdbcAttributes = new EnumMap<>(Attribute.class);
+        jdbcAttributes.put(Attribute.DATA_SOURCE, JdbcJobRepositoryDefinition.DATA_SOURCE);
+        jdbcAttributes.putAll(additionalJdbcAttributes);
         attributeElements = new HashMap<>(additionalElements);
         attributeElements.put(Element.DEFAULT_JOB_REPOSITORY, BatchSubsystemDefinition.DEFAULT_JOB_REPOSITORY);
         attributeElements.put(Element.DEFAULT_THREAD_POOL, BatchSubsystemDefinition.DEFAULT_THREAD_POOL);
@@ -127,9 +136,14 @@ public class BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementR
                 ops.add(Util.createAddOperation(subsystemAddress.append(InMemoryJobRepositoryDefinition.NAME, name)));
                 ParseUtils.requireNoContent(reader);
             } else if (element == Element.JDBC) {
-                final Map<Attribute, String> attributes = AttributeParsers.readRequiredAttributes(reader, EnumSet.of(Attribute.DATA_SOURCE));
+                final Map<Attribute, String> attributes = AttributeParsers.readRequiredAttributes(reader, jdbcAttributes.keySet());
+                if (!attributes.containsKey(Attribute.DATA_SOURCE)) {
+                    throw ParseUtils.missingRequired(reader, Attribute.DATA_SOURCE.getLocalName());
+                }
                 final ModelNode op = Util.createAddOperation(subsystemAddress.append(JdbcJobRepositoryDefinition.NAME, name));
-                JdbcJobRepositoryDefinition.DATA_SOURCE.parseAndSetParameter(attributes.get(Attribute.DATA_SOURCE), op, reader);
+                for (Map.Entry<Attribute, String> entry : attributes.entrySet()) {
+                    jdbcAttributes.get(entry.getKey()).parseAndSetParameter(entry.getValue(), op, reader);
+                }
                 ops.add(op);
                 ParseUtils.requireNoContent(reader);
             } else {
@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.batch.jberet;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLStreamConstants;
+
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.wildfly.extension.batch.jberet.job.repository.JdbcJobRepositoryDefinition;
+
+/**
+ * The subsystem parser for the {@code urn:jboss:domain:batch-jberet:3.0} namespace which adds the job scheduling
+ * elements and the tuning attributes of the {@code jdbc} job repository.
+ */
+class BatchSubsystemParser_3_0 extends BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementReader<List<ModelNode>> {
+
+    public BatchSubsystemParser_3_0() {
+        super(attributeElements(), jdbcAttributes());
+    }
+
+    private static Map<Element, SimpleAttributeDefinition> attributeElements() {
+        final Map<Element, SimpleAttributeDefinition> elements = new EnumMap<>(Element.class);
+        elements.put(Element.SECURITY_DOMAIN, BatchSubsystemDefinition.SECURITY_DOMAIN);
+        elements.put(Element.JOB_SCHEDULING_POLICY, BatchSubsystemDefinition.JOB_SCHEDULING_POLICY);
+        elements.put(Element.MAX_JOB_THREAD_SHARE, BatchSubsystemDefinition.MAX_JOB_THREAD_SHARE);
+        return elements;
+    }
+
+    private static Map<Attribute, SimpleAttributeDefinition> jdbcAttributes() {
+        final Map<Attribute, SimpleAttributeDefinition> attributes = new EnumMap<>(Attribute.class);
+        attributes.put(Attribute.JOB_INSTANCE_CACHE_SIZE, JdbcJobRepositoryDefinition.JOB_INSTANCE_CACHE_SIZE);
+        attributes.put(Attribute.EXECUTION_UPDATE_INTERVAL, JdbcJobRepositoryDefinition.EXECUTION_UPDATE_INTERVAL);
+        attributes.put(Attribute.EXECUTION_RETENTION, JdbcJobRepositoryDefinition.EXECUTION_RETENTION);
+        attributes.put(Attribute.PURGE_INTERVAL, JdbcJobRepositoryDefinition.PURGE_INTERVAL);
+        return attributes;
+    }
+}
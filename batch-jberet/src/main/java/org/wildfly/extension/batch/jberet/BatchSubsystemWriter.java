@@ -49,6 +49,8 @@ public class BatchSubsystemWriter implements XMLElementWriter<SubsystemMarshalli
         BatchSubsystemDefinition.DEFAULT_THREAD_POOL.marshallAsElement(model, writer);
         BatchSubsystemDefinition.RESTART_JOBS_ON_RESUME.marshallAsElement(model, writer);
         BatchSubsystemDefinition.SECURITY_DOMAIN.marshallAsElement(model, writer);
+        BatchSubsystemDefinition.JOB_SCHEDULING_POLICY.marshallAsElement(model, writer);
+        BatchSubsystemDefinition.MAX_JOB_THREAD_SHARE.marshallAsElement(model, writer);
 
         // Write the in-memory job repositories
         if (model.hasDefined(InMemoryJobRepositoryDefinition.NAME)) {
@@ -69,6 +71,10 @@ public class BatchSubsystemWriter implements XMLElementWriter<SubsystemMarshalli
                 writeNameAttribute(writer, property.getName());
                 writer.writeStartElement(Element.JDBC.getLocalName());
                 JdbcJobRepositoryDefinition.DATA_SOURCE.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.JOB_INSTANCE_CACHE_SIZE.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.EXECUTION_UPDATE_INTERVAL.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.EXECUTION_RETENTION.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.PURGE_INTERVAL.marshallAsAttribute(property.getValue(), writer);
                 writer.writeEndElement();
                 writer.writeEndElement(); // end job-repository
             }
@@ -36,6 +36,8 @@ public enum Element {
     JOB_REPOSITORY("job-repository"),
     JDBC("jdbc"),
     IN_MEMORY("in-memory"),
+    JOB_SCHEDULING_POLICY("job-scheduling-policy"),
+    MAX_JOB_THREAD_SHARE("max-job-thread-share"),
     NAMED("named"),
     RESTART_JOBS_ON_RESUME("restart-jobs-on-resume"),
     SECURITY_DOMAIN("security-domain"),
@@ -28,6 +28,7 @@ import javax.batch.operations.JobSecurityException;
 import javax.batch.operations.JobStartException;
 import javax.batch.operations.NoSuchJobException;
 
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.logging.BasicLogger;
@@ -215,4 +216,46 @@ public interface BatchLogger extends BasicLogger {
      */
     @Message(id = 20, value = "Permission denied. User %s does not have %s permissions.")
     JobSecurityException unauthorized(String user, Permission permission);
+
+    /**
+     * Logs a warning message indicating buffered step or partition execution data could not be written to the job
+     * repository.
+     *
+     * @param cause          the cause of the error
+     * @param executionId    the id of the step or partition execution
+     * @param jobExecutionId the id of the job execution
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 21, value = "Failed to write buffered persistent data of step execution %d for job execution %d")
+    void failedToWriteBufferedExecution(@Cause Throwable cause, long executionId, long jobExecutionId);
+
+    /**
+     * Logs a warning message indicating job executions could not be purged from the job repository.
+     *
+     * @param cause the cause of the error
+     * @param name  the name of the job repository
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 22, value = "Failed to purge job executions from job repository %s")
+    void failedToPurgeJobExecutions(@Cause Throwable cause, String name);
+
+    /**
+     * Creates an exception indicating no retention period was given for purging job executions.
+     *
+     * @param name the name of the job repository
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 23, value = "No retention period was specified and job repository %s does not define an execution-retention")
+    OperationFailedException noExecutionRetention(String name);
+
+    /**
+     * Logs a warning message indicating a column used to select the job executions to purge is not indexed.
+     *
+     * @param name        the name of the job repository
+     * @param createIndex the statement which creates the missing index
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 24, value = "Job repository %s purges job executions but the table has no index for the purge, the purge will scan the table. The index can be created with: %s")
+    void purgeIndexMissing(String name, String createIndex);
 }
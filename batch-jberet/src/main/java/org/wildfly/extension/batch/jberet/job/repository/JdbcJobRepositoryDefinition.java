@@ -22,24 +22,37 @@
 
 package org.wildfly.extension.batch.jberet.job.repository;
 
+import java.sql.SQLException;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.sql.DataSource;
 
 import org.jberet.repository.JobRepository;
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.server.ServerService;
 import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
+import org.wildfly.extension.batch.jberet._private.BatchLogger;
 import org.wildfly.extension.batch.jberet._private.Capabilities;
 
 /**
@@ -50,7 +63,7 @@ import org.wildfly.extension.batch.jberet._private.Capabilities;
 public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
 
     public static final String NAME = "jdbc-job-repository";
-    static final PathElement PATH = PathElement.pathElement(NAME);
+    public static final PathElement PATH = PathElement.pathElement(NAME);
 
     /**
      * A data-source attribute which requires the {@link Capabilities#DATA_SOURCE_CAPABILITY}.
@@ -60,6 +73,62 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    /**
+     * The maximum number of job instances cached in memory, 0 disables the cache.
+     */
+    public static final SimpleAttributeDefinition JOB_INSTANCE_CACHE_SIZE = SimpleAttributeDefinitionBuilder.create("job-instance-cache-size", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(0))
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The interval at which the buffered data of running step and partition executions is written, 0 writes the data
+     * at each checkpoint.
+     */
+    public static final SimpleAttributeDefinition EXECUTION_UPDATE_INTERVAL = SimpleAttributeDefinitionBuilder.create("execution-update-interval", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setValidator(new LongRangeValidator(0L, Long.MAX_VALUE, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The time after which ended job executions are purged. If undefined job executions are not purged.
+     */
+    public static final SimpleAttributeDefinition EXECUTION_RETENTION = SimpleAttributeDefinitionBuilder.create("execution-retention", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setMeasurementUnit(MeasurementUnit.MINUTES)
+            .setValidator(new LongRangeValidator(1L, Long.MAX_VALUE, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The interval between the purges of the job executions older than the {@link #EXECUTION_RETENTION}.
+     */
+    public static final SimpleAttributeDefinition PURGE_INTERVAL = SimpleAttributeDefinitionBuilder.create("purge-interval", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(60L))
+            .setMeasurementUnit(MeasurementUnit.MINUTES)
+            .setValidator(new LongRangeValidator(1L, Long.MAX_VALUE, true, true))
+            .setRestartAllServices()
+            .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {DATA_SOURCE, JOB_INSTANCE_CACHE_SIZE, EXECUTION_UPDATE_INTERVAL, EXECUTION_RETENTION, PURGE_INTERVAL};
+
+    static final SimpleAttributeDefinition RETENTION = SimpleAttributeDefinitionBuilder.create("retention", ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MINUTES)
+            .setValidator(new LongRangeValidator(0L, Long.MAX_VALUE, true, false))
+            .build();
+
+    public static final SimpleOperationDefinition PURGE_JOB_EXECUTIONS = new SimpleOperationDefinitionBuilder("purge-job-executions", BatchResourceDescriptionResolver.getResourceDescriptionResolver(NAME))
+            .setParameters(RETENTION)
+            .setReplyType(ModelType.INT)
+            .setRuntimeOnly()
+            .build();
+
     public JdbcJobRepositoryDefinition() {
         super(
                 new Parameters(PATH, BatchResourceDescriptionResolver.getResourceDescriptionResolver(NAME))
@@ -72,13 +141,37 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         super.registerAttributes(resourceRegistration);
-        resourceRegistration.registerReadWriteAttribute(DATA_SOURCE, null, new ReloadRequiredWriteAttributeHandler(DATA_SOURCE));
+        final ReloadRequiredWriteAttributeHandler writeHandler = new ReloadRequiredWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attribute : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, writeHandler);
+        }
+    }
+
+    @Override
+    public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(PURGE_JOB_EXECUTIONS, (context, operation) -> context.addStep((ctx, op) -> {
+            final String name = ctx.getCurrentAddressValue();
+            final ModelNode model = ctx.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+            final ModelNode retentionNode = op.hasDefined(RETENTION.getName()) ? RETENTION.resolveModelAttribute(ctx, op) : EXECUTION_RETENTION.resolveModelAttribute(ctx, model);
+            if (!retentionNode.isDefined()) {
+                throw BatchLogger.LOGGER.noExecutionRetention(name);
+            }
+            final ServiceName serviceName = ctx.getCapabilityServiceName(Capabilities.JOB_REPOSITORY_CAPABILITY.getName(), name, JobRepository.class);
+            final ServiceController<?> controller = ctx.getServiceRegistry(false).getRequiredService(serviceName);
+            final JdbcJobRepositoryService service = (JdbcJobRepositoryService) controller.getService();
+            try {
+                ctx.getResult().set(service.purgeJobExecutions(retentionNode.asLong()));
+            } catch (SQLException | IllegalStateException e) {
+                throw new OperationFailedException(e.getLocalizedMessage(), e);
+            }
+        }, OperationContext.Stage.RUNTIME));
     }
 
     private static class JdbcRepositoryAddHandler extends AbstractAddStepHandler {
 
         JdbcRepositoryAddHandler() {
-            super(Capabilities.JOB_REPOSITORY_CAPABILITY, DATA_SOURCE);
+            super(Capabilities.JOB_REPOSITORY_CAPABILITY, ATTRIBUTES);
         }
 
         @Override
@@ -87,11 +180,16 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
             final String name = context.getCurrentAddressValue();
             final String dsName = DATA_SOURCE.resolveModelAttribute(context, model).asString();
             final ServiceTarget target = context.getServiceTarget();
-            final JdbcJobRepositoryService service = new JdbcJobRepositoryService();
+            final int jobInstanceCacheSize = JOB_INSTANCE_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
+            final long executionUpdateInterval = EXECUTION_UPDATE_INTERVAL.resolveModelAttribute(context, model).asLong();
+            final long executionRetention = EXECUTION_RETENTION.resolveModelAttribute(context, model).asLong(0L);
+            final long purgeInterval = PURGE_INTERVAL.resolveModelAttribute(context, model).asLong();
+            final JdbcJobRepositoryService service = new JdbcJobRepositoryService(name, jobInstanceCacheSize, executionUpdateInterval, executionRetention, purgeInterval);
             Services.addServerExecutorDependency(
                     target.addService(context.getCapabilityServiceName(Capabilities.JOB_REPOSITORY_CAPABILITY.getName(), name, JobRepository.class), service),
                     service.getExecutorServiceInjector())
                     .addDependency(context.getCapabilityServiceName(Capabilities.DATA_SOURCE_CAPABILITY, dsName, DataSource.class), DataSource.class, service.getDataSourceInjector())
+                    .addDependency(ServerService.JBOSS_SERVER_SCHEDULED_EXECUTOR, ScheduledExecutorService.class, service.getScheduledExecutorServiceInjector())
                     .install();
         }
     }
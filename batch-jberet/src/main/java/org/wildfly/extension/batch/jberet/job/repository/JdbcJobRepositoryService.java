@@ -22,12 +22,38 @@
 
 package org.wildfly.extension.batch.jberet.job.repository;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
 import javax.sql.DataSource;
 
+import org.jberet.job.model.Job;
 import org.jberet.repository.JdbcRepository;
 import org.jberet.repository.JobRepository;
+import org.jberet.runtime.AbstractStepExecution;
+import org.jberet.runtime.JobInstanceImpl;
+import org.jberet.runtime.PartitionExecutionImpl;
+import org.jberet.runtime.StepExecutionImpl;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
@@ -38,14 +64,72 @@ import org.wildfly.extension.batch.jberet._private.BatchLogger;
 
 /**
  * A service which provides a JDBC job repository.
+ * <p>
+ * Besides delegating to the jBeret {@link JdbcRepository} the service can optionally:
+ * <ul>
+ *     <li>cache job instances, which never change once created, to avoid repeated queries</li>
+ *     <li>buffer the persistent data written for running step and partition executions at each checkpoint and write
+ *     only the latest state of each execution at a fixed interval. Updates of executions which have ended are always
+ *     written immediately. If the server crashes, a restarted job may reprocess the items of checkpoints which had
+ *     not been written yet.</li>
+ *     <li>periodically purge the job executions which ended before a retention period, along with their step and
+ *     partition executions</li>
+ * </ul>
+ * </p>
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 public class JdbcJobRepositoryService extends JobRepositoryService implements Service<JobRepository> {
 
+    private static final String[][] PURGE_INDEXES = {
+            {"JOB_EXECUTION_ENDTIME_IDX", "JOB_EXECUTION", "ENDTIME"},
+            {"STEP_EXECUTION_JOBEXEC_IDX", "STEP_EXECUTION", "JOBEXECUTIONID"},
+            {"PARTITION_EXEC_STEPEXEC_IDX", "PARTITION_EXECUTION", "STEPEXECUTIONID"},
+    };
+    private static final String PURGE_PARTITION_EXECUTIONS = "DELETE FROM PARTITION_EXECUTION WHERE STEPEXECUTIONID IN " +
+            "(SELECT STEPEXECUTIONID FROM STEP_EXECUTION WHERE JOBEXECUTIONID IN " +
+            "(SELECT JOBEXECUTIONID FROM JOB_EXECUTION WHERE ENDTIME < ?))";
+    private static final String PURGE_STEP_EXECUTIONS = "DELETE FROM STEP_EXECUTION WHERE JOBEXECUTIONID IN " +
+            "(SELECT JOBEXECUTIONID FROM JOB_EXECUTION WHERE ENDTIME < ?)";
+    private static final String PURGE_JOB_EXECUTIONS = "DELETE FROM JOB_EXECUTION WHERE ENDTIME < ?";
+
     private final InjectedValue<DataSource> dataSourceValue = new InjectedValue<>();
     private final InjectedValue<ExecutorService> executor = new InjectedValue<>();
+    private final InjectedValue<ScheduledExecutorService> scheduledExecutor = new InjectedValue<>();
+    private final String name;
+    private final int jobInstanceCacheSize;
+    private final long executionUpdateInterval;
+    private final long executionRetention;
+    private final long purgeInterval;
+    // Snapshots of step and partition executions waiting to be written, keyed by identity as jBeret reuses the instances
+    private final Map<AbstractStepExecution, PendingExecution> pendingExecutions = new IdentityHashMap<>();
     private volatile JdbcRepository jobRepository;
+    private volatile Map<Long, JobInstance> jobInstances;
+    private final List<ScheduledFuture<?>> scheduledTasks = new ArrayList<>();
+
+    public JdbcJobRepositoryService() {
+        this("JDBC", 0, 0L, 0L, 0L);
+    }
+
+    /**
+     * Creates a new JDBC job repository service.
+     *
+     * @param name                    the name of the job repository
+     * @param jobInstanceCacheSize    the maximum number of job instances to cache, 0 disables the cache
+     * @param executionUpdateInterval the interval, in milliseconds, at which buffered step and partition execution
+     *                                data is written, 0 to write every update immediately
+     * @param executionRetention      the time, in minutes, after which ended job executions are purged, 0 to disable
+     *                                the scheduled purge
+     * @param purgeInterval           the interval, in minutes, between scheduled purges
+     */
+    public JdbcJobRepositoryService(final String name, final int jobInstanceCacheSize, final long executionUpdateInterval,
+                                    final long executionRetention, final long purgeInterval) {
+        this.name = name;
+        this.jobInstanceCacheSize = jobInstanceCacheSize;
+        this.executionUpdateInterval = executionUpdateInterval;
+        this.executionRetention = executionRetention;
+        this.purgeInterval = purgeInterval;
+    }
 
     @Override
     public void startJobRepository(final StartContext context) throws StartException {
@@ -54,11 +138,36 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
             try {
                 // Currently in jBeret tables are created in the constructor which is why this is done asynchronously
                 jobRepository = new JdbcRepository(dataSourceValue.getValue());
+                if (executionRetention > 0L) {
+                    checkPurgeIndexes();
+                }
                 context.complete();
             } catch (Exception e) {
                 context.failed(BatchLogger.LOGGER.failedToCreateJobRepository(e, "JDBC"));
             }
         };
+        if (jobInstanceCacheSize > 0) {
+            jobInstances = Collections.synchronizedMap(new LinkedHashMap<Long, JobInstance>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Long, JobInstance> eldest) {
+                    return size() > jobInstanceCacheSize;
+                }
+            });
+        }
+        if (executionUpdateInterval > 0L) {
+            scheduledTasks.add(scheduledExecutor.getValue().scheduleWithFixedDelay(this::writePendingExecutions,
+                    executionUpdateInterval, executionUpdateInterval, TimeUnit.MILLISECONDS));
+        }
+        if (executionRetention > 0L) {
+            scheduledTasks.add(scheduledExecutor.getValue().scheduleWithFixedDelay(() -> {
+                try {
+                    final int removed = purgeJobExecutions(executionRetention);
+                    BatchLogger.LOGGER.debugf("Purged %d job executions from job repository %s", removed, name);
+                } catch (SQLException | RuntimeException e) {
+                    BatchLogger.LOGGER.failedToPurgeJobExecutions(e, name);
+                }
+            }, purgeInterval, purgeInterval, TimeUnit.MINUTES));
+        }
         try {
             service.execute(task);
         } catch (RejectedExecutionException e) {
@@ -70,7 +179,16 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
 
     @Override
     public void stopJobRepository(final StopContext context) {
+        // The scheduled executor is shared by the server, only cancel the tasks of this repository
+        for (ScheduledFuture<?> task : scheduledTasks) {
+            task.cancel(false);
+        }
+        scheduledTasks.clear();
+        if (jobRepository != null) {
+            writePendingExecutions();
+        }
         jobRepository = null;
+        jobInstances = null;
     }
 
     @Override
@@ -78,6 +196,108 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
         return jobRepository;
     }
 
+    @Override
+    public JobInstanceImpl createJobInstance(final Job job, final String applicationName, final ClassLoader classLoader) {
+        final JobInstanceImpl jobInstance = super.createJobInstance(job, applicationName, classLoader);
+        final Map<Long, JobInstance> jobInstances = this.jobInstances;
+        if (jobInstances != null) {
+            jobInstances.put(jobInstance.getInstanceId(), jobInstance);
+        }
+        return jobInstance;
+    }
+
+    @Override
+    public JobInstance getJobInstance(final long jobInstanceId) {
+        final Map<Long, JobInstance> jobInstances = this.jobInstances;
+        if (jobInstances == null) {
+            return super.getJobInstance(jobInstanceId);
+        }
+        JobInstance jobInstance = jobInstances.get(jobInstanceId);
+        if (jobInstance == null) {
+            jobInstance = super.getJobInstance(jobInstanceId);
+            if (jobInstance != null) {
+                jobInstances.put(jobInstanceId, jobInstance);
+            }
+        }
+        return jobInstance;
+    }
+
+    @Override
+    public void removeJobInstance(final long jobInstanceId) {
+        final Map<Long, JobInstance> jobInstances = this.jobInstances;
+        if (jobInstances != null) {
+            jobInstances.remove(jobInstanceId);
+        }
+        super.removeJobInstance(jobInstanceId);
+    }
+
+    @Override
+    public void updateStepExecution(final StepExecution stepExecution) {
+        if (executionUpdateInterval > 0L) {
+            // Make sure the partitions of the step are written before the step itself is updated
+            writePendingExecutions();
+        }
+        super.updateStepExecution(stepExecution);
+    }
+
+    @Override
+    public void savePersistentData(final JobExecution jobExecution, final AbstractStepExecution stepOrPartitionExecution) {
+        if (executionUpdateInterval <= 0L) {
+            super.savePersistentData(jobExecution, stepOrPartitionExecution);
+            return;
+        }
+        if (isRunning(stepOrPartitionExecution.getBatchStatus())) {
+            // The execution keeps changing after this call, so buffer a copy of its current state
+            final PendingExecution pending = new PendingExecution(jobExecution, snapshot(stepOrPartitionExecution));
+            synchronized (pendingExecutions) {
+                pendingExecutions.put(stepOrPartitionExecution, pending);
+            }
+            return;
+        }
+        // Lock on the execution so a buffered state being written concurrently cannot overwrite this one
+        synchronized (stepOrPartitionExecution) {
+            synchronized (pendingExecutions) {
+                pendingExecutions.remove(stepOrPartitionExecution);
+            }
+            super.savePersistentData(jobExecution, stepOrPartitionExecution);
+        }
+    }
+
+    /**
+     * Purges the job executions, including their step and partition executions, which ended before the retention
+     * period.
+     *
+     * @param retention the retention period in minutes
+     *
+     * @return the number of job executions removed
+     *
+     * @throws SQLException if an error occurs removing the job executions
+     */
+    public int purgeJobExecutions(final long retention) throws SQLException {
+        final Timestamp endTime = new Timestamp(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retention));
+        try (Connection connection = dataSourceValue.getValue().getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                // Delete from the child tables first to satisfy the foreign keys
+                executeUpdate(connection, PURGE_PARTITION_EXECUTIONS, endTime);
+                executeUpdate(connection, PURGE_STEP_EXECUTIONS, endTime);
+                final int removed = executeUpdate(connection, PURGE_JOB_EXECUTIONS, endTime);
+                connection.commit();
+                return removed;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
     public InjectedValue<DataSource> getDataSourceInjector() {
         return dataSourceValue;
     }
@@ -85,4 +305,126 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
     public Injector<ExecutorService> getExecutorServiceInjector() {
         return executor;
     }
+
+    public Injector<ScheduledExecutorService> getScheduledExecutorServiceInjector() {
+        return scheduledExecutor;
+    }
+
+    private void writePendingExecutions() {
+        final List<Map.Entry<AbstractStepExecution, PendingExecution>> executions;
+        synchronized (pendingExecutions) {
+            if (pendingExecutions.isEmpty()) {
+                return;
+            }
+            executions = new ArrayList<>(pendingExecutions.entrySet());
+        }
+        final JobRepository delegate = jobRepository;
+        if (delegate == null) {
+            return;
+        }
+        for (Map.Entry<AbstractStepExecution, PendingExecution> entry : executions) {
+            final AbstractStepExecution execution = entry.getKey();
+            final PendingExecution pending = entry.getValue();
+            synchronized (execution) {
+                synchronized (pendingExecutions) {
+                    // Skip the state if it was replaced by a newer one or already written through
+                    if (pendingExecutions.get(execution) != pending) {
+                        continue;
+                    }
+                    pendingExecutions.remove(execution);
+                }
+                try {
+                    delegate.savePersistentData(pending.jobExecution, pending.execution);
+                } catch (RuntimeException e) {
+                    BatchLogger.LOGGER.failedToWriteBufferedExecution(e, execution.getStepExecutionId(), pending.jobExecution.getExecutionId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the columns used to select the job executions to purge are indexed. The tables are owned by
+     * jBeret and are never altered, the administrator is asked to create a missing index instead.
+     */
+    private void checkPurgeIndexes() {
+        try (Connection connection = dataSourceValue.getValue().getConnection()) {
+            final DatabaseMetaData metaData = connection.getMetaData();
+            for (String[] index : PURGE_INDEXES) {
+                if (!hasIndex(metaData, index[1], index[2])) {
+                    BatchLogger.LOGGER.purgeIndexMissing(name, "CREATE INDEX " + index[0] + " ON " + index[1] + " (" + index[2] + ")");
+                }
+            }
+        } catch (SQLException e) {
+            // Not all drivers report index information, the purge works regardless
+            BatchLogger.LOGGER.debugf(e, "Could not check the purge indexes of job repository %s", name);
+        }
+    }
+
+    private static boolean hasIndex(final DatabaseMetaData metaData, final String table, final String column) throws SQLException {
+        // Databases may store unquoted identifiers in either case
+        for (String name : new String[] {table, table.toLowerCase(Locale.ROOT)}) {
+            try (ResultSet indexes = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (indexes.next()) {
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int executeUpdate(final Connection connection, final String sql, final Timestamp endTime) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, endTime);
+            return statement.executeUpdate();
+        }
+    }
+
+    private static boolean isRunning(final BatchStatus status) {
+        return status == BatchStatus.STARTING || status == BatchStatus.STARTED;
+    }
+
+    /**
+     * Copies the state of a step or partition execution written by {@link JdbcRepository#savePersistentData}. The
+     * persistent user data and checkpoints are copied in their serialized form, so later changes to the objects by
+     * the job do not affect the copy.
+     *
+     * @param execution the execution to copy
+     *
+     * @return a detached copy of the execution
+     */
+    static AbstractStepExecution snapshot(final AbstractStepExecution execution) {
+        final AbstractStepExecution snapshot;
+        if (execution instanceof PartitionExecutionImpl) {
+            snapshot = new PartitionExecutionImpl(((PartitionExecutionImpl) execution).getPartitionId(), execution.getStepExecutionId(),
+                    execution.getStepName(), execution.getBatchStatus(), execution.getExitStatus(), execution.getPersistentUserDataSerialized(),
+                    execution.getReaderCheckpointInfoSerialized(), execution.getWriterCheckpointInfoSerialized());
+        } else {
+            final BatchStatus status = execution.getBatchStatus();
+            final StepExecutionImpl stepExecution = new StepExecutionImpl(execution.getStepExecutionId(), execution.getStepName(),
+                    execution.getStartTime(), execution.getEndTime(), (status != null) ? status.name() : null, execution.getExitStatus(),
+                    execution.getPersistentUserDataSerialized(), 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L,
+                    execution.getReaderCheckpointInfoSerialized(), execution.getWriterCheckpointInfoSerialized());
+            for (Metric metric : execution.getMetrics()) {
+                stepExecution.getStepMetrics().set(metric.getType(), metric.getValue());
+            }
+            snapshot = stepExecution;
+        }
+        final Exception exception = execution.getException();
+        if (exception != null) {
+            snapshot.setException(exception);
+        }
+        return snapshot;
+    }
+
+    private static class PendingExecution {
+        final JobExecution jobExecution;
+        final AbstractStepExecution execution;
+
+        PendingExecution(final JobExecution jobExecution, final AbstractStepExecution execution) {
+            this.jobExecution = jobExecution;
+            this.execution = execution;
+        }
+    }
 }
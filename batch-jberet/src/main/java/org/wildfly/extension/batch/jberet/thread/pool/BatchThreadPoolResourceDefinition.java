@@ -29,10 +29,14 @@ import java.util.ResourceBundle;
 import java.util.Set;
 
 import org.jberet.spi.JobExecutor;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
@@ -48,11 +52,14 @@ import org.jboss.as.threads.UnboundedQueueThreadPoolMetricsHandler;
 import org.jboss.as.threads.UnboundedQueueThreadPoolRemove;
 import org.jboss.as.threads.UnboundedQueueThreadPoolWriteAttributeHandler;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
 import org.wildfly.extension.batch.jberet.BatchServiceNames;
+import org.wildfly.extension.batch.jberet.BatchSubsystemDefinition;
 import org.wildfly.extension.batch.jberet._private.Capabilities;
 
 /**
@@ -65,6 +72,27 @@ public class BatchThreadPoolResourceDefinition extends SimpleResourceDefinition
     public static final String NAME = "thread-pool";
     static final PathElement PATH = PathElement.pathElement(NAME);
 
+    private static final SimpleAttributeDefinition JOB_ID = SimpleAttributeDefinitionBuilder.create("id", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition JOB_ACTIVE_COUNT = SimpleAttributeDefinitionBuilder.create("active-count", ModelType.INT, false)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition JOB_QUEUE_SIZE = SimpleAttributeDefinitionBuilder.create("queue-size", ModelType.INT, false)
+            .setStorageRuntime()
+            .build();
+
+    /**
+     * The active and queued tasks, e.g. partitions, of each job when the jobs are scheduled fairly.
+     */
+    static final ObjectListAttributeDefinition JOBS = ObjectListAttributeDefinition.Builder.of("jobs",
+            ObjectTypeAttributeDefinition.Builder.of("job", JOB_ID, JOB_ACTIVE_COUNT, JOB_QUEUE_SIZE).build())
+            .setRequired(false)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
 
     public BatchThreadPoolResourceDefinition(final boolean registerRuntimeOnly) {
@@ -81,6 +109,16 @@ public class BatchThreadPoolResourceDefinition extends SimpleResourceDefinition
         new UnboundedQueueThreadPoolWriteAttributeHandler(BatchServiceNames.BASE_BATCH_THREAD_POOL_NAME).registerAttributes(resourceRegistration);
         if (registerRuntimeOnly) {
             new UnboundedQueueThreadPoolMetricsHandler(BatchServiceNames.BASE_BATCH_THREAD_POOL_NAME).registerAttributes(resourceRegistration);
+            resourceRegistration.registerMetric(JOBS, (context, operation) -> context.addStep((ctx, op) -> {
+                final ServiceController<?> controller = ctx.getServiceRegistry(false)
+                        .getService(ctx.getCapabilityServiceName(Capabilities.THREAD_POOL_CAPABILITY.getName(), ctx.getCurrentAddressValue(), JobExecutor.class));
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    final Object jobExecutor = controller.getValue();
+                    if (jobExecutor instanceof WildFlyJobExecutor) {
+                        ctx.getResult().set(((WildFlyJobExecutor) jobExecutor).getJobs());
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME));
         }
     }
 
@@ -98,7 +136,11 @@ public class BatchThreadPoolResourceDefinition extends SimpleResourceDefinition
             super.performRuntime(context, operation, model);
             final String name = context.getCurrentAddressValue();
             final ServiceTarget target = context.getServiceTarget();
-            final JobExecutorService service = new JobExecutorService();
+            // The job scheduling is configured on the subsystem so it applies to every batch thread pool
+            final ModelNode subsystemModel = context.readResourceFromRoot(context.getCurrentAddress().getParent(), false).getModel();
+            final boolean fairScheduling = "FAIR".equals(BatchSubsystemDefinition.JOB_SCHEDULING_POLICY.resolveModelAttribute(context, subsystemModel).asString());
+            final int maxJobThreadShare = BatchSubsystemDefinition.MAX_JOB_THREAD_SHARE.resolveModelAttribute(context, subsystemModel).asInt();
+            final JobExecutorService service = new JobExecutorService(fairScheduling, maxJobThreadShare);
             final ServiceBuilder<?> serviceBuilder = target.addService(context.getCapabilityServiceName(Capabilities.THREAD_POOL_CAPABILITY.getName(), name, JobExecutor.class),
                     service);
             serviceBuilder.addDependency(serviceNameBase.append(name), ManagedJBossThreadPoolExecutorService.class, service.getThreadPoolInjector());
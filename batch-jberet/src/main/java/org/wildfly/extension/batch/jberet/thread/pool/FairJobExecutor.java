@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.batch.jberet.thread.pool;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * An executor which shares the threads of a batch thread pool fairly between the running jobs.
+ * <p>
+ * A task submitted from a thread which is running a task of this executor, e.g. the partitions of a step, belongs to
+ * the same job as that task. Any other task starts a new job. Tasks are queued per job and only handed to the
+ * underlying thread pool once a thread is available. The next task is always taken from the job with the fewest
+ * active tasks. A job using more than its maximum share of the threads is only given another thread if no other job
+ * has queued tasks, so threads are never left idle while tasks are waiting.
+ * </p>
+ */
+class FairJobExecutor implements Executor {
+
+    private final ManagedJBossThreadPoolExecutorService delegate;
+    private final int maxJobThreadShare;
+    private final ThreadLocal<Job> currentJob = new ThreadLocal<>();
+    // All jobs with active or queued tasks in submission order
+    private final Map<Long, Job> jobs = new LinkedHashMap<>();
+    private long nextJobId;
+    private int activeCount;
+
+    /**
+     * Creates a new executor.
+     *
+     * @param delegate          the thread pool the tasks are executed on
+     * @param maxJobThreadShare the maximum percentage of the threads of the pool a single job should use when other
+     *                          jobs are waiting
+     */
+    FairJobExecutor(final ManagedJBossThreadPoolExecutorService delegate, final int maxJobThreadShare) {
+        this.delegate = delegate;
+        this.maxJobThreadShare = maxJobThreadShare;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        Job job = currentJob.get();
+        synchronized (this) {
+            if (job == null || job.isDone()) {
+                job = new Job(++nextJobId);
+            }
+            jobs.putIfAbsent(job.id, job);
+            job.queue.addLast(task);
+            try {
+                dispatch();
+            } catch (RejectedExecutionException e) {
+                // The rejected task may belong to another job and this task may have been handed to the pool already
+                if (job.queue.removeLastOccurrence(task)) {
+                    if (job.isDone()) {
+                        jobs.remove(job.id);
+                    }
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Describes the active and queued tasks of each job.
+     *
+     * @return a list with an entry for each job with active or queued tasks
+     */
+    synchronized ModelNode getJobs() {
+        final ModelNode result = new ModelNode().setEmptyList();
+        for (Job job : jobs.values()) {
+            final ModelNode entry = new ModelNode();
+            entry.get("id").set(job.id);
+            entry.get("active-count").set(job.activeCount);
+            entry.get("queue-size").set(job.queue.size());
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Hands queued tasks to the thread pool while it has idle threads. Must be called while holding the lock on this
+     * executor.
+     */
+    private void dispatch() {
+        final int maxThreads = delegate.getMaxThreads();
+        final int maxJobThreads = Math.max(1, (maxThreads * maxJobThreadShare + 99) / 100);
+        while (activeCount < maxThreads) {
+            final Job job = nextJob(maxJobThreads);
+            if (job == null) {
+                return;
+            }
+            final Runnable task = job.queue.pollFirst();
+            job.activeCount++;
+            activeCount++;
+            try {
+                delegate.execute(() -> run(job, task));
+            } catch (RejectedExecutionException e) {
+                job.activeCount--;
+                activeCount--;
+                job.queue.addFirst(task);
+                throw e;
+            }
+        }
+    }
+
+    private Job nextJob(final int maxJobThreads) {
+        Job next = null;
+        Job overShare = null;
+        for (Job job : jobs.values()) {
+            if (job.queue.isEmpty()) {
+                continue;
+            }
+            if (job.activeCount >= maxJobThreads) {
+                if (overShare == null || job.activeCount < overShare.activeCount) {
+                    overShare = job;
+                }
+            } else if (next == null || job.activeCount < next.activeCount) {
+                next = job;
+            }
+        }
+        return next == null ? overShare : next;
+    }
+
+    private void run(final Job job, final Runnable task) {
+        final Job previous = currentJob.get();
+        currentJob.set(job);
+        try {
+            task.run();
+        } finally {
+            currentJob.set(previous);
+            synchronized (this) {
+                job.activeCount--;
+                activeCount--;
+                if (job.isDone()) {
+                    jobs.remove(job.id);
+                }
+                try {
+                    dispatch();
+                } catch (RejectedExecutionException ignore) {
+                    // The thread pool is shutting down, the tasks stay queued
+                }
+            }
+        }
+    }
+
+    private static class Job {
+        private final long id;
+        private final Deque<Runnable> queue = new ArrayDeque<>();
+        private int activeCount;
+
+        Job(final long id) {
+            this.id = id;
+        }
+
+        boolean isDone() {
+            return activeCount == 0 && queue.isEmpty();
+        }
+    }
+}
@@ -36,11 +36,31 @@ import org.jboss.msc.value.InjectedValue;
 public class JobExecutorService implements Service<JobExecutor> {
 
     private final InjectedValue<ManagedJBossThreadPoolExecutorService> threadPoolInjector = new InjectedValue<>();
+    private final boolean fairScheduling;
+    private final int maxJobThreadShare;
     private WildFlyJobExecutor jobExecutor;
 
+    /**
+     * Creates a new job executor service.
+     *
+     * @param fairScheduling    {@code true} to share the threads fairly between jobs, {@code false} to execute the
+     *                          tasks in submission order
+     * @param maxJobThreadShare the maximum percentage of the threads a single job should use while other jobs are
+     *                          waiting, only used when scheduling fairly
+     */
+    public JobExecutorService(final boolean fairScheduling, final int maxJobThreadShare) {
+        this.fairScheduling = fairScheduling;
+        this.maxJobThreadShare = maxJobThreadShare;
+    }
+
     @Override
     public synchronized void start(final StartContext context) throws StartException {
-        jobExecutor = new WildFlyJobExecutor(threadPoolInjector.getValue());
+        final ManagedJBossThreadPoolExecutorService threadPool = threadPoolInjector.getValue();
+        if (fairScheduling) {
+            jobExecutor = new WildFlyJobExecutor(threadPool, new FairJobExecutor(threadPool, maxJobThreadShare));
+        } else {
+            jobExecutor = new WildFlyJobExecutor(threadPool);
+        }
     }
 
     @Override
@@ -25,6 +25,7 @@ package org.wildfly.extension.batch.jberet.thread.pool;
 import org.jberet.spi.JobExecutor;
 import org.jberet.spi.JobTask;
 import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
+import org.jboss.dmr.ModelNode;
 import org.wildfly.extension.requestcontroller.ControlPointTask;
 
 /**
@@ -32,10 +33,33 @@ import org.wildfly.extension.requestcontroller.ControlPointTask;
  */
 class WildFlyJobExecutor extends JobExecutor {
     private final ManagedJBossThreadPoolExecutorService delegate;
+    private final FairJobExecutor fairExecutor;
 
     public WildFlyJobExecutor(final ManagedJBossThreadPoolExecutorService delegate) {
         super(delegate);
         this.delegate = delegate;
+        this.fairExecutor = null;
+    }
+
+    /**
+     * Creates a job executor which shares the threads of the pool fairly between the running jobs.
+     *
+     * @param delegate     the thread pool
+     * @param fairExecutor the executor scheduling the tasks of the jobs on the thread pool
+     */
+    WildFlyJobExecutor(final ManagedJBossThreadPoolExecutorService delegate, final FairJobExecutor fairExecutor) {
+        super(fairExecutor);
+        this.delegate = delegate;
+        this.fairExecutor = fairExecutor;
+    }
+
+    /**
+     * Describes the active and queued tasks of each job if the jobs are scheduled fairly.
+     *
+     * @return the description of the jobs or an undefined node if tasks are executed in submission order
+     */
+    ModelNode getJobs() {
+        return fairExecutor == null ? new ModelNode() : fairExecutor.getJobs();
     }
 
     @Override
@@ -59,7 +59,7 @@ public class JBeretSubsystemParsingTestCase extends AbstractBatchTestCase {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-batch-jberet_2_0.xsd";
+        return "schema/wildfly-batch-jberet_3_0.xsd";
     }
 
     @Override
@@ -108,6 +108,16 @@ public class JBeretSubsystemParsingTestCase extends AbstractBatchTestCase {
         assertEquals("Expecting restart-jobs-on-resume " + expectedRestartOnResume + ", but got " + restartOnResume,
                 expectedRestartOnResume, restartOnResume);
 
+        final String expectedJobSchedulingPolicy = "FAIR";
+        final String jobSchedulingPolicy = batchModel.get("job-scheduling-policy").resolve().asString();
+        assertEquals("Expecting job-scheduling-policy " + expectedJobSchedulingPolicy + ", but got " + jobSchedulingPolicy,
+                expectedJobSchedulingPolicy, jobSchedulingPolicy);
+
+        final int expectedMaxJobThreadShare = 50;
+        final int maxJobThreadShare = batchModel.get("max-job-thread-share").resolve().asInt();
+        assertEquals("Expecting max-job-thread-share " + expectedMaxJobThreadShare + ", but got " + maxJobThreadShare,
+                expectedMaxJobThreadShare, maxJobThreadShare);
+
         final ModelNode threadPool = batchModel.get("thread-pool").asProperty().getValue();
         final int expectedMaxThreads = 10;
         final int maxThreads = threadPool.get("max-threads").resolve().asInt();
@@ -129,6 +139,17 @@ public class JBeretSubsystemParsingTestCase extends AbstractBatchTestCase {
         final String threadNamePattern = threadFactory.get("thread-name-pattern").resolve().asString();
         assertEquals("Expecting thread-factory thread-name-pattern " + expectedThreadNamePattern + ", but got " + threadNamePattern,
                 expectedThreadNamePattern, threadNamePattern);
+
+        final ModelNode jdbcJobRepository = batchModel.get("jdbc-job-repository").asProperty().getValue();
+        final int expectedJobInstanceCacheSize = 100;
+        final int jobInstanceCacheSize = jdbcJobRepository.get("job-instance-cache-size").resolve().asInt();
+        assertEquals("Expecting jdbc-job-repository job-instance-cache-size " + expectedJobInstanceCacheSize + ", but got " + jobInstanceCacheSize,
+                expectedJobInstanceCacheSize, jobInstanceCacheSize);
+
+        final long expectedExecutionRetention = 10080L;
+        final long executionRetention = jdbcJobRepository.get("execution-retention").resolve().asLong();
+        assertEquals("Expecting jdbc-job-repository execution-retention " + expectedExecutionRetention + ", but got " + executionRetention,
+                expectedExecutionRetention, executionRetention);
     }
 
     @Test
@@ -0,0 +1,358 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.Metric;
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.jberet.job.model.Job;
+import org.jberet.job.model.JobBuilder;
+import org.jberet.runtime.AbstractStepExecution;
+import org.jberet.runtime.JobExecutionImpl;
+import org.jberet.runtime.JobInstanceImpl;
+import org.jberet.runtime.PartitionExecutionImpl;
+import org.jberet.runtime.StepExecutionImpl;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the job instance cache, the write-behind of step and partition executions and the purge of the
+ * {@link JdbcJobRepositoryService} against an in-memory H2 database.
+ */
+public class JdbcJobRepositoryServiceTestCase {
+
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<JdbcJobRepositoryService> services = new ArrayList<>();
+    private DataSource dataSource;
+    private Connection keepAlive;
+
+    @Before
+    public void setup() throws SQLException {
+        final JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:batch-repository-" + DATABASE_COUNT.incrementAndGet());
+        // Keep the in-memory database open for the duration of the test
+        keepAlive = h2.getConnection();
+        dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getConnection")) {
+                connections.incrementAndGet();
+            }
+            return method.invoke(h2, args);
+        });
+    }
+
+    @After
+    public void cleanup() throws SQLException, InterruptedException {
+        for (JdbcJobRepositoryService service : new ArrayList<>(services)) {
+            stop(service);
+        }
+        keepAlive.close();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertTrue(scheduledExecutor.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void jobInstanceCache() throws Exception {
+        final JdbcJobRepositoryService service = start(10, 0L, 0L, 0L);
+        final JobInstanceImpl jobInstance = createJobInstance(service);
+
+        connections.set(0);
+        final JobInstance cached = service.getJobInstance(jobInstance.getInstanceId());
+        assertSame(jobInstance, cached);
+        assertEquals(0, connections.get());
+
+        // Removing the job instance invalidates the cache, so it is read again from the database
+        service.removeJobInstance(jobInstance.getInstanceId());
+        final JobInstance reloaded = service.getJobInstance(jobInstance.getInstanceId());
+        assertNotSame(jobInstance, reloaded);
+        assertEquals(jobInstance.getInstanceId(), reloaded.getInstanceId());
+        assertTrue(connections.get() > 0);
+
+        connections.set(0);
+        assertSame(reloaded, service.getJobInstance(jobInstance.getInstanceId()));
+        assertEquals(0, connections.get());
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        final ArrayList<Integer> checkpoint = new ArrayList<>(Arrays.asList(1, 2));
+        final PartitionExecutionImpl partition = new PartitionExecutionImpl(3, 7L, "step", BatchStatus.STARTED, "exit", "data", checkpoint, 10);
+        partition.setException(new IllegalStateException("failure"));
+
+        final AbstractStepExecution partitionSnapshot = JdbcJobRepositoryService.snapshot(partition);
+        // The job keeps changing the objects it checkpoints
+        checkpoint.add(3);
+        partition.setReaderCheckpointInfo(checkpoint);
+        partition.setBatchStatus(BatchStatus.STOPPING);
+
+        assertTrue(partitionSnapshot instanceof PartitionExecutionImpl);
+        assertEquals(3, ((PartitionExecutionImpl) partitionSnapshot).getPartitionId());
+        assertEquals(7L, partitionSnapshot.getStepExecutionId());
+        assertEquals("step", partitionSnapshot.getStepName());
+        assertEquals(BatchStatus.STARTED, partitionSnapshot.getBatchStatus());
+        assertEquals("exit", partitionSnapshot.getExitStatus());
+        assertEquals("data", partitionSnapshot.getPersistentUserData());
+        assertEquals(Arrays.asList(1, 2), partitionSnapshot.getReaderCheckpointInfo());
+        assertEquals(10, partitionSnapshot.getWriterCheckpointInfo());
+        assertEquals("failure", partitionSnapshot.getException().getMessage());
+
+        final StepExecutionImpl step = new StepExecutionImpl("step");
+        step.setId(5L);
+        step.setBatchStatus(BatchStatus.STARTED);
+        step.setReaderCheckpointInfo(checkpoint);
+        step.getStepMetrics().set(Metric.MetricType.READ_COUNT, 42L);
+        step.getStepMetrics().set(Metric.MetricType.COMMIT_COUNT, 4L);
+
+        final AbstractStepExecution stepSnapshot = JdbcJobRepositoryService.snapshot(step);
+        checkpoint.add(4);
+        step.setReaderCheckpointInfo(checkpoint);
+        step.getStepMetrics().set(Metric.MetricType.READ_COUNT, 50L);
+
+        assertTrue(stepSnapshot instanceof StepExecutionImpl);
+        assertEquals(5L, stepSnapshot.getStepExecutionId());
+        assertEquals(step.getStartTime(), stepSnapshot.getStartTime());
+        assertEquals(BatchStatus.STARTED, stepSnapshot.getBatchStatus());
+        assertEquals(Arrays.asList(1, 2, 3), stepSnapshot.getReaderCheckpointInfo());
+        assertEquals(42L, stepSnapshot.getStepMetrics().get(Metric.MetricType.READ_COUNT));
+        assertEquals(4L, stepSnapshot.getStepMetrics().get(Metric.MetricType.COMMIT_COUNT));
+        assertNull(stepSnapshot.getException());
+    }
+
+    @Test
+    public void writeBehind() throws Exception {
+        final JdbcJobRepositoryService service = start(0, TimeUnit.HOURS.toMillis(1L), 0L, 0L);
+        final JobExecutionImpl jobExecution = createJobExecution(service);
+        final StepExecutionImpl step = createStepExecution(service, jobExecution);
+
+        final ArrayList<Integer> checkpoint = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            checkpoint.add(i);
+            step.setReaderCheckpointInfo(checkpoint);
+            service.savePersistentData(jobExecution, step);
+        }
+        // Checkpoints of a running execution are buffered
+        assertNull(readCheckpoint("STEP_EXECUTION", "STEPEXECUTIONID", step.getStepExecutionId()));
+
+        // Changes made after the last checkpoint are not written
+        checkpoint.add(4);
+        step.setReaderCheckpointInfo(checkpoint);
+        stop(service);
+        assertEquals(Arrays.asList(1, 2, 3), readCheckpoint("STEP_EXECUTION", "STEPEXECUTIONID", step.getStepExecutionId()));
+    }
+
+    @Test
+    public void endedExecutionIsWrittenThrough() throws Exception {
+        final JdbcJobRepositoryService service = start(0, TimeUnit.HOURS.toMillis(1L), 0L, 0L);
+        final JobExecutionImpl jobExecution = createJobExecution(service);
+        final StepExecutionImpl step = createStepExecution(service, jobExecution);
+
+        step.setReaderCheckpointInfo(1);
+        service.savePersistentData(jobExecution, step);
+        step.setReaderCheckpointInfo(2);
+        step.setBatchStatus(BatchStatus.COMPLETED);
+        service.savePersistentData(jobExecution, step);
+        assertEquals(2, readCheckpoint("STEP_EXECUTION", "STEPEXECUTIONID", step.getStepExecutionId()));
+
+        // The buffered state was replaced, so it never overwrites the final state
+        stop(service);
+        assertEquals(2, readCheckpoint("STEP_EXECUTION", "STEPEXECUTIONID", step.getStepExecutionId()));
+    }
+
+    @Test
+    public void partitionsAreWrittenBeforeStep() throws Exception {
+        final JdbcJobRepositoryService service = start(0, TimeUnit.HOURS.toMillis(1L), 0L, 0L);
+        final JobExecutionImpl jobExecution = createJobExecution(service);
+        final StepExecutionImpl step = createStepExecution(service, jobExecution);
+        final PartitionExecutionImpl partition = new PartitionExecutionImpl(step);
+        partition.setPartitionId(0);
+        partition.setBatchStatus(BatchStatus.STARTED);
+        service.addPartitionExecution(step, partition);
+
+        partition.setReaderCheckpointInfo("partition");
+        service.savePersistentData(jobExecution, partition);
+        assertNull(readCheckpoint("PARTITION_EXECUTION", "STEPEXECUTIONID", step.getStepExecutionId()));
+
+        service.updateStepExecution(step);
+        assertEquals("partition", readCheckpoint("PARTITION_EXECUTION", "STEPEXECUTIONID", step.getStepExecutionId()));
+    }
+
+    @Test
+    public void purgeJobExecutions() throws Exception {
+        final JdbcJobRepositoryService service = start(0, 0L, TimeUnit.DAYS.toMinutes(1L), TimeUnit.DAYS.toMinutes(1L));
+        final JobExecutionImpl expired = createJobExecution(service);
+        final StepExecutionImpl expiredStep = createStepExecution(service, expired);
+        final PartitionExecutionImpl expiredPartition = new PartitionExecutionImpl(expiredStep);
+        expiredPartition.setPartitionId(0);
+        service.addPartitionExecution(expiredStep, expiredPartition);
+        final JobExecutionImpl recent = createJobExecution(service);
+        final StepExecutionImpl recentStep = createStepExecution(service, recent);
+        final JobExecutionImpl running = createJobExecution(service);
+
+        final long now = System.currentTimeMillis();
+        setEndTime(expired, new Timestamp(now - TimeUnit.DAYS.toMillis(2L)));
+        setEndTime(recent, new Timestamp(now - TimeUnit.HOURS.toMillis(1L)));
+
+        assertEquals(1, service.purgeJobExecutions(TimeUnit.DAYS.toMinutes(1L)));
+        assertEquals(0, count("JOB_EXECUTION", "JOBEXECUTIONID", expired.getExecutionId()));
+        assertEquals(0, count("STEP_EXECUTION", "STEPEXECUTIONID", expiredStep.getStepExecutionId()));
+        assertEquals(0, count("PARTITION_EXECUTION", "STEPEXECUTIONID", expiredStep.getStepExecutionId()));
+        assertEquals(1, count("JOB_EXECUTION", "JOBEXECUTIONID", recent.getExecutionId()));
+        assertEquals(1, count("STEP_EXECUTION", "STEPEXECUTIONID", recentStep.getStepExecutionId()));
+        assertEquals(1, count("JOB_EXECUTION", "JOBEXECUTIONID", running.getExecutionId()));
+
+        // Nothing left to purge
+        assertEquals(0, service.purgeJobExecutions(TimeUnit.DAYS.toMinutes(1L)));
+        assertEquals(1, service.purgeJobExecutions(0L));
+        assertEquals(0, count("STEP_EXECUTION", "STEPEXECUTIONID", recentStep.getStepExecutionId()));
+        assertEquals(1, count("JOB_EXECUTION", "JOBEXECUTIONID", running.getExecutionId()));
+
+        // The tables are never altered, a missing index is only reported
+        try (ResultSet indexes = keepAlive.getMetaData().getIndexInfo(null, null, "JOB_EXECUTION", false, true)) {
+            while (indexes.next()) {
+                assertFalse("ENDTIME".equalsIgnoreCase(indexes.getString("COLUMN_NAME")));
+            }
+        }
+    }
+
+    private JdbcJobRepositoryService start(final int jobInstanceCacheSize, final long executionUpdateInterval,
+                                           final long executionRetention, final long purgeInterval) throws Exception {
+        final JdbcJobRepositoryService service = new JdbcJobRepositoryService("test", jobInstanceCacheSize, executionUpdateInterval,
+                executionRetention, purgeInterval);
+        service.getDataSourceInjector().inject(dataSource);
+        service.getExecutorServiceInjector().inject(executor);
+        service.getScheduledExecutorServiceInjector().inject(scheduledExecutor);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<StartException> failure = new AtomicReference<>();
+        final StartContext context = (StartContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {StartContext.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "failed":
+                    failure.set((StartException) args[0]);
+                    latch.countDown();
+                    break;
+                case "complete":
+                    latch.countDown();
+                    break;
+                default:
+                    break;
+            }
+            return null;
+        });
+        service.start(context);
+        assertTrue(latch.await(1, TimeUnit.MINUTES));
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        services.add(service);
+        return service;
+    }
+
+    private void stop(final JdbcJobRepositoryService service) {
+        if (services.remove(service)) {
+            service.stop((StopContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {StopContext.class}, (proxy, method, args) -> null));
+        }
+    }
+
+    private static JobInstanceImpl createJobInstance(final JdbcJobRepositoryService service) {
+        final Job job = new JobBuilder("test-job").build();
+        return service.createJobInstance(job, "test-application", JdbcJobRepositoryServiceTestCase.class.getClassLoader());
+    }
+
+    private static JobExecutionImpl createJobExecution(final JdbcJobRepositoryService service) {
+        return service.createJobExecution(createJobInstance(service), new Properties());
+    }
+
+    private static StepExecutionImpl createStepExecution(final JdbcJobRepositoryService service, final JobExecutionImpl jobExecution) {
+        final StepExecutionImpl step = service.createStepExecution("test-step");
+        step.setBatchStatus(BatchStatus.STARTED);
+        service.addStepExecution(jobExecution, step);
+        return step;
+    }
+
+    private Serializable readCheckpoint(final String table, final String column, final long id) throws SQLException, IOException, ClassNotFoundException {
+        try (PreparedStatement statement = keepAlive.prepareStatement("SELECT READERCHECKPOINTINFO FROM " + table + " WHERE " + column + " = ?")) {
+            statement.setLong(1, id);
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                final byte[] bytes = result.getBytes(1);
+                if (bytes == null) {
+                    return null;
+                }
+                try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return (Serializable) input.readObject();
+                }
+            }
+        }
+    }
+
+    private int count(final String table, final String column, final long id) throws SQLException {
+        try (PreparedStatement statement = keepAlive.prepareStatement("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?")) {
+            statement.setLong(1, id);
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getInt(1);
+            }
+        }
+    }
+
+    private void setEndTime(final JobExecutionImpl jobExecution, final Timestamp endTime) throws SQLException {
+        try (PreparedStatement statement = keepAlive.prepareStatement("UPDATE JOB_EXECUTION SET ENDTIME = ? WHERE JOBEXECUTIONID = ?")) {
+            statement.setTimestamp(1, endTime);
+            statement.setLong(2, jobExecution.getExecutionId());
+            assertEquals(1, statement.executeUpdate());
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.batch.jberet.thread.pool;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.JBossThreadPoolExecutor;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests how the {@link FairJobExecutor} shares the threads of a pool between jobs. The tasks of a job are submitted
+ * from the thread of its first task, as jBeret does for the partitions of a step.
+ */
+public class FairJobExecutorTestCase {
+
+    private final List<BlockingTask> tasks = new CopyOnWriteArrayList<>();
+    private JBossThreadPoolExecutor pool;
+
+    @After
+    public void shutdown() throws Exception {
+        for (BlockingTask task : tasks) {
+            task.release.countDown();
+        }
+        if (pool != null) {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void fairness() throws Exception {
+        final FairJobExecutor executor = new FairJobExecutor(createThreadPool(3), 100);
+        final JobTask first = start(executor);
+        final JobTask second = start(executor);
+        final JobTask third = start(executor);
+        awaitStarted(Collections.singletonList(first));
+        awaitStarted(Collections.singletonList(second));
+        awaitStarted(Collections.singletonList(third));
+        second.submit(3);
+        third.submit(3);
+        assertJobs(executor, "1:1/0,2:1/3,3:1/3");
+
+        // Submission order would give both threads to the second job
+        release(Collections.singletonList(second));
+        release(Collections.singletonList(third));
+        assertJobs(executor, "1:1/0,2:1/2,3:1/2");
+    }
+
+    @Test
+    public void shareCapping() throws Exception {
+        final FairJobExecutor executor = new FairJobExecutor(createThreadPool(4), 50);
+        final JobTask first = start(executor);
+        awaitStarted(Collections.singletonList(first));
+        final List<BlockingTask> firstTasks = first.submit(1);
+        awaitStarted(firstTasks);
+        final JobTask second = start(executor);
+        final JobTask third = start(executor);
+        awaitStarted(Collections.singletonList(second));
+        awaitStarted(Collections.singletonList(third));
+        second.submit(3);
+        third.submit(3);
+        assertJobs(executor, "1:2/0,2:1/3,3:1/3");
+
+        release(firstTasks);
+        release(Collections.singletonList(first));
+        assertJobs(executor, "2:2/2,3:2/2");
+
+        // The third job used its share, the thread goes back to the second job
+        release(Collections.singletonList(second));
+        assertJobs(executor, "2:2/1,3:2/2");
+    }
+
+    @Test
+    public void idleThreads() throws Exception {
+        final FairJobExecutor executor = new FairJobExecutor(createThreadPool(4), 25);
+        // A job may use more than its share while no other job is waiting
+        final JobTask first = start(executor);
+        awaitStarted(Collections.singletonList(first));
+        final List<BlockingTask> firstTasks = first.submit(3);
+        awaitStarted(firstTasks);
+        assertJobs(executor, "1:4/0");
+
+        final JobTask second = start(executor);
+        assertJobs(executor, "1:4/0,2:0/1");
+        release(firstTasks);
+        awaitStarted(Collections.singletonList(second));
+        awaitStarted(second.submit(1));
+        assertJobs(executor, "1:1/0,2:2/0");
+    }
+
+    @Test
+    public void currentJob() throws Exception {
+        final FairJobExecutor executor = new FairJobExecutor(createThreadPool(2), 50);
+        final JobTask job = start(executor);
+        awaitStarted(Collections.singletonList(job));
+        awaitStarted(job.submit(1));
+        assertJobs(executor, "1:2/0");
+
+        // A task submitted from outside a job starts a new job
+        final BlockingTask other = new BlockingTask();
+        tasks.add(other);
+        executor.execute(other);
+        assertJobs(executor, "1:2/0,2:0/1");
+    }
+
+    @Test
+    public void rejectionOfOtherJob() throws Exception {
+        pool = new JBossThreadPoolExecutor(3, 3, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final AtomicInteger permits = new AtomicInteger(3);
+        final FairJobExecutor executor = new FairJobExecutor(new ManagedJBossThreadPoolExecutorService(pool) {
+            @Override
+            public void execute(final Runnable command) {
+                if (permits.getAndUpdate(p -> Math.max(0, p - 1)) == 0) {
+                    throw new RejectedExecutionException();
+                }
+                super.execute(command);
+            }
+        }, 100);
+        final JobTask first = start(executor);
+        awaitStarted(Collections.singletonList(first));
+        final List<BlockingTask> firstTasks = first.submit(3);
+        awaitStarted(firstTasks.subList(0, 2));
+        assertJobs(executor, "1:3/1");
+
+        // The pool rejects the queued task of the first job whenever a thread becomes available
+        release(firstTasks.subList(0, 2));
+        assertJobs(executor, "1:1/1");
+
+        // The task of the second job is accepted before the queued task of the first job is rejected again
+        permits.set(1);
+        final JobTask second = start(executor);
+        awaitStarted(Collections.singletonList(second));
+        assertJobs(executor, "1:1/1,2:1/0");
+
+        // A rejected task of the submitting job is not kept
+        try {
+            start(executor);
+            fail("Expected the task to be rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertJobs(executor, "1:1/1,2:1/0");
+    }
+
+    private ManagedJBossThreadPoolExecutorService createThreadPool(final int maxThreads) {
+        pool = new JBossThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        return new ManagedJBossThreadPoolExecutorService(pool);
+    }
+
+    /**
+     * Starts a new job by submitting its first task from outside the executor.
+     */
+    private JobTask start(final FairJobExecutor executor) {
+        final JobTask task = new JobTask(executor);
+        tasks.add(task);
+        executor.execute(task);
+        return task;
+    }
+
+    private static void awaitStarted(final List<? extends BlockingTask> tasks) throws InterruptedException {
+        for (BlockingTask task : tasks) {
+            assertTrue(task.started.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void release(final List<? extends BlockingTask> tasks) throws InterruptedException {
+        for (BlockingTask task : tasks) {
+            task.release.countDown();
+            assertTrue(task.done.await(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Waits until the jobs reach the expected state, described as a comma separated list of
+     * {@code id:active-count/queue-size} entries.
+     */
+    private static void assertJobs(final FairJobExecutor executor, final String expected) throws InterruptedException {
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String actual = describe(executor.getJobs());
+        while (!expected.equals(actual) && System.nanoTime() < end) {
+            Thread.sleep(10);
+            actual = describe(executor.getJobs());
+        }
+        assertEquals(expected, actual);
+    }
+
+    private static String describe(final ModelNode jobs) {
+        final StringBuilder result = new StringBuilder();
+        for (ModelNode job : jobs.asList()) {
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(job.get("id").asLong()).append(':').append(job.get("active-count").asInt())
+                    .append('/').append(job.get("queue-size").asInt());
+        }
+        return result.toString();
+    }
+
+    private static class BlockingTask implements Runnable {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void run() {
+            started.countDown();
+            try {
+                this.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        }
+
+        void await() throws InterruptedException {
+            release.await();
+        }
+    }
+
+    /**
+     * The first task of a job. Until it is released it submits further tasks of the job from its own thread.
+     */
+    private class JobTask extends BlockingTask {
+        private final FairJobExecutor executor;
+        private final BlockingQueue<Integer> requests = new LinkedBlockingQueue<>();
+        private final BlockingQueue<List<BlockingTask>> submitted = new LinkedBlockingQueue<>();
+
+        JobTask(final FairJobExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        void await() throws InterruptedException {
+            while (!release.await(10, TimeUnit.MILLISECONDS)) {
+                final Integer count = requests.poll();
+                if (count != null) {
+                    final List<BlockingTask> result = new ArrayList<>();
+                    for (int i = 0; i < count; i++) {
+                        final BlockingTask task = new BlockingTask();
+                        tasks.add(task);
+                        result.add(task);
+                        executor.execute(task);
+                    }
+                    submitted.add(result);
+                }
+            }
+        }
+
+        /**
+         * Submits tasks of this job from the thread of this task, which must be running.
+         */
+        List<BlockingTask> submit(final int count) throws InterruptedException {
+            requests.add(count);
+            final List<BlockingTask> result = submitted.poll(10, TimeUnit.SECONDS);
+            assertNotNull(result);
+            return result;
+        }
+    }
+}
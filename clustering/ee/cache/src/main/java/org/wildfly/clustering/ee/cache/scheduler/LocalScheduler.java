@@ -41,6 +41,8 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Scheduler that uses a single scheduled task in concert with an {@link ScheduledEntries}.
+ * If the entries are a {@link TimingWheelScheduledEntries}, the scheduled task instead ticks at the resolution of the wheel,
+ * starting with the first scheduled entry, such that scheduling and canceling never interact with the executor.
  * @author Paul Ferraro
  */
 public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Runnable {
@@ -49,10 +51,25 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
     private final ScheduledEntries<T, Instant> entries;
     private final Predicate<T> task;
     private final Duration closeTimeout;
+    private final TimingWheelScheduledEntries<T> wheel;
 
     private volatile Future<?> future = null;
 
     public LocalScheduler(ScheduledEntries<T, Instant> entries, Predicate<T> task, Duration closeTimeout) {
+        this(entries, task, closeTimeout, null);
+    }
+
+    /**
+     * Creates a scheduler that expires the elapsed buckets of the specified timing wheel in batches, at the resolution of the wheel.
+     * @param entries a timing wheel
+     * @param task the task to perform on each expired entry
+     * @param closeTimeout the duration to wait for the scheduled task to complete on close
+     */
+    public LocalScheduler(TimingWheelScheduledEntries<T> entries, Predicate<T> task, Duration closeTimeout) {
+        this(entries, task, closeTimeout, entries);
+    }
+
+    private LocalScheduler(ScheduledEntries<T, Instant> entries, Predicate<T> task, Duration closeTimeout, TimingWheelScheduledEntries<T> wheel) {
         ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(this.getClass()));
         executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
         executor.setRemoveOnCancelPolicy(entries.isSorted());
@@ -60,11 +77,17 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
         this.entries = entries;
         this.task = task;
         this.closeTimeout = closeTimeout;
+        this.wheel = wheel;
     }
 
     @Override
     public void schedule(T id, Instant instant) {
         this.entries.add(id, instant);
+        if (this.wheel != null) {
+            // Timing wheel is polled periodically
+            this.tickIfAbsent();
+            return;
+        }
         if (this.entries.isSorted()) {
             this.cancelIfPresent(id);
         }
@@ -128,6 +151,10 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
 
     @Override
     public void run() {
+        if (this.wheel != null) {
+            this.wheel.expire(Instant.now(), this.task);
+            return;
+        }
         Iterator<Map.Entry<T, Instant>> entries = this.entries.iterator();
         while (entries.hasNext()) {
             if (Thread.currentThread().isInterrupted()) return;
@@ -169,6 +196,21 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Iterable<T>, Ru
         }
     }
 
+    private void tickIfAbsent() {
+        if (this.future == null) {
+            synchronized (this) {
+                if (this.future == null) {
+                    long resolution = this.wheel.getResolution().toMillis();
+                    try {
+                        this.future = this.executor.scheduleWithFixedDelay(this, resolution, resolution, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // Scheduler was closed
+                    }
+                }
+            }
+        }
+    }
+
     private void cancelIfPresent(T id) {
         if (this.future != null) {
             synchronized (this) {
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+import org.jboss.logging.Logger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Resolves the resolution of the {@link TimingWheelScheduledEntries} of a {@link LocalScheduler} from a system property.
+ */
+public class TimingWheelResolution {
+
+    // No logger interface for this module and no reason to create one for this class only
+    private static final Logger LOGGER = Logger.getLogger(TimingWheelResolution.class);
+
+    /**
+     * Returns the timing wheel resolution defined by the specified system property, as an ISO-8601 duration.
+     * @param property a system property name
+     * @return a positive resolution, or null if the property is undefined or its value is not a positive duration, in which case a warning is logged
+     */
+    public static Duration fromSystemProperty(String property) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value == null) return null;
+        try {
+            Duration resolution = Duration.parse(value);
+            if (!resolution.isNegative() && !resolution.isZero()) {
+                return resolution;
+            }
+        } catch (DateTimeParseException e) {
+            // Fall through
+        }
+        LOGGER.warnf("Ignoring invalid value '%s' of system property %s, expecting a positive ISO-8601 duration, e.g. PT1S", value, property);
+        return null;
+    }
+
+    private TimingWheelResolution() {
+        // Hide
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * {@link ScheduledEntries} implemented as a hashed timing wheel, i.e. a circular array of buckets, each containing the entries that expire within the same tick.
+ * Entries expiring beyond the horizon of the wheel (i.e. its size multiplied by its resolution) are kept in a sorted overflow set,
+ * and move into the wheel as it advances.
+ * Both {@link #add(Object, Instant)} and {@link #remove(Object)} run in O(1) time for entries within the horizon of the wheel.
+ * Iteration order is chronological, to the resolution of the wheel.
+ * Expiration is driven by {@link #expire(Instant, Predicate)}, which processes all elapsed buckets as a batch.
+ */
+public class TimingWheelScheduledEntries<K> implements ScheduledEntries<K, Instant> {
+
+    private static final int DEFAULT_SIZE = 4096;
+    private static final Slot OVERFLOW = new Slot(null, null);
+
+    private final long resolution;
+    private final ConcurrentDirectDeque<Node<K>>[] buckets;
+    private final int mask;
+    private final NavigableSet<Node<K>> overflow = new ConcurrentSkipListSet<>(Comparator.<Node<K>, Instant>comparing(Node::getValue).thenComparingLong(Node::getSequence));
+    private final Map<K, Node<K>> nodes = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // Tick of the oldest bucket that has not yet expired
+    private volatile long cursor;
+
+    /**
+     * Creates a timing wheel of default size using the specified resolution.
+     * @param resolution the duration of a tick
+     */
+    public TimingWheelScheduledEntries(Duration resolution) {
+        this(resolution, DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a timing wheel using the specified resolution and size.
+     * @param resolution the duration of a tick
+     * @param size the number of buckets of this wheel, rounded up to the next power of 2
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheelScheduledEntries(Duration resolution, int size) {
+        this.resolution = Math.max(resolution.toMillis(), 1L);
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        this.buckets = new ConcurrentDirectDeque[capacity];
+        for (int i = 0; i < capacity; ++i) {
+            this.buckets[i] = ConcurrentDirectDeque.newInstance();
+        }
+        this.mask = capacity - 1;
+        this.cursor = Math.floorDiv(System.currentTimeMillis(), this.resolution);
+    }
+
+    /**
+     * Returns the duration of a tick of this wheel.
+     * @return the resolution of this wheel
+     */
+    public Duration getResolution() {
+        return Duration.ofMillis(this.resolution);
+    }
+
+    @Override
+    public boolean isSorted() {
+        return false;
+    }
+
+    @Override
+    public void add(K key, Instant value) {
+        Node<K> node = new Node<>(key, value, this.sequence.incrementAndGet());
+        Node<K> previous = this.nodes.put(key, node);
+        if (previous != null) {
+            this.cancel(previous);
+        }
+        this.insert(node);
+    }
+
+    @Override
+    public void remove(K key) {
+        Node<K> node = this.nodes.remove(key);
+        if (node != null) {
+            this.cancel(node);
+        }
+    }
+
+    /**
+     * Advances this wheel to the specified instant, applying the specified task to the expired entries of every elapsed bucket.
+     * Entries for which the task was not successful are retried on the next tick.
+     * This method must not be invoked concurrently.
+     * @param now the current time
+     * @param task the task to apply to each expired entry, returning true if successful
+     */
+    void expire(Instant now, Predicate<K> task) {
+        long current = Math.floorDiv(now.toEpochMilli(), this.resolution);
+        long first = this.cursor;
+        if (current < first) return;
+        // Entries subsequently added for an elapsed tick will go to the next bucket
+        this.cursor = current + 1;
+        this.migrate();
+        // Visit each bucket at most once, even if the wheel has fallen behind by more than a revolution
+        for (long tick = Math.max(first, current - this.mask); tick <= current; ++tick) {
+            Iterator<Node<K>> nodes = this.buckets[(int) (tick & this.mask)].iterator();
+            while (nodes.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) return;
+                Node<K> node = nodes.next();
+                // Skip canceled entries and entries belonging to a later revolution of the wheel
+                if (node.isCanceled() || (this.tick(node.getValue()) > current)) continue;
+                if (this.test(task, node.getKey())) {
+                    this.remove(node);
+                } else {
+                    this.unlink(node);
+                    this.insert(node);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, Instant>> iterator() {
+        ConcurrentDirectDeque<Node<K>>[] buckets = this.buckets;
+        NavigableSet<Node<K>> overflow = this.overflow;
+        long cursor = this.cursor;
+        return new Iterator<Map.Entry<K, Instant>>() {
+            // Index of the current bucket relative to the cursor, where buckets.length denotes the overflow set
+            private int index = 0;
+            private Iterator<Node<K>> bucket = buckets[(int) (cursor & TimingWheelScheduledEntries.this.mask)].iterator();
+            private Node<K> next = null;
+            private Node<K> current = null;
+
+            @Override
+            public boolean hasNext() {
+                while (this.next == null) {
+                    while (!this.bucket.hasNext()) {
+                        if (this.index == buckets.length) return false;
+                        this.index += 1;
+                        this.bucket = (this.index < buckets.length) ? buckets[(int) ((cursor + this.index) & TimingWheelScheduledEntries.this.mask)].iterator() : overflow.iterator();
+                    }
+                    Node<K> node = this.bucket.next();
+                    if (!node.isCanceled()) {
+                        this.next = node;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Map.Entry<K, Instant> next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.current = this.next;
+                this.next = null;
+                return this.current;
+            }
+
+            @Override
+            public void remove() {
+                if (this.current == null) {
+                    throw new IllegalStateException();
+                }
+                TimingWheelScheduledEntries.this.remove(this.current);
+                this.current = null;
+            }
+        };
+    }
+
+    private boolean test(Predicate<K> task, K key) {
+        try {
+            return task.test(key);
+        } catch (RuntimeException e) {
+            // Treat as unsuccessful, so that the entry is retried on the next tick
+            return false;
+        }
+    }
+
+    // Round up, such that a bucket only contains entries that have expired once its tick has elapsed
+    private long tick(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli() + this.resolution - 1, this.resolution);
+    }
+
+    private void insert(Node<K> node) {
+        long tick = this.tick(node.getValue());
+        while (!node.isCanceled()) {
+            long cursor = this.cursor;
+            if (tick - cursor >= this.buckets.length) {
+                node.setSlot(OVERFLOW);
+                this.overflow.add(node);
+            } else {
+                long target = Math.max(tick, cursor);
+                ConcurrentDirectDeque<Node<K>> bucket = this.buckets[(int) (target & this.mask)];
+                node.setSlot(new Slot(bucket, bucket.offerLastAndReturnToken(node)));
+                if (target < this.cursor) {
+                    // The wheel advanced past the target bucket concurrently, so retry using the current cursor
+                    this.unlink(node);
+                    continue;
+                }
+            }
+            // Handle concurrent cancellation
+            if (node.isCanceled()) {
+                this.unlink(node);
+            }
+            return;
+        }
+    }
+
+    // Moves the overflow entries that are now within the horizon of the wheel into their bucket
+    private void migrate() {
+        long horizon = this.cursor + this.buckets.length;
+        Iterator<Node<K>> nodes = this.overflow.iterator();
+        while (nodes.hasNext()) {
+            Node<K> node = nodes.next();
+            if (this.tick(node.getValue()) >= horizon) break;
+            nodes.remove();
+            if (node.compareAndSetSlot(OVERFLOW, null)) {
+                this.insert(node);
+            }
+        }
+    }
+
+    private void remove(Node<K> node) {
+        this.nodes.remove(node.getKey(), node);
+        this.cancel(node);
+    }
+
+    private void cancel(Node<K> node) {
+        node.cancel();
+        this.unlink(node);
+    }
+
+    private void unlink(Node<K> node) {
+        Slot slot = node.setSlot(null);
+        if (slot == OVERFLOW) {
+            this.overflow.remove(node);
+        } else if (slot != null) {
+            slot.remove();
+        }
+    }
+
+    /**
+     * Location of a node within a bucket.
+     */
+    private static class Slot {
+        private final ConcurrentDirectDeque<?> bucket;
+        private final Object token;
+
+        Slot(ConcurrentDirectDeque<?> bucket, Object token) {
+            this.bucket = bucket;
+            this.token = token;
+        }
+
+        void remove() {
+            this.bucket.removeToken(this.token);
+        }
+    }
+
+    private static class Node<K> extends SimpleImmutableEntry<K, Instant> {
+        private static final long serialVersionUID = 2497437413316624232L;
+
+        private final long sequence;
+        private final transient AtomicReference<Slot> slot = new AtomicReference<>();
+        private volatile boolean canceled = false;
+
+        Node(K key, Instant value, long sequence) {
+            super(key, value);
+            this.sequence = sequence;
+        }
+
+        long getSequence() {
+            return this.sequence;
+        }
+
+        boolean isCanceled() {
+            return this.canceled;
+        }
+
+        void cancel() {
+            this.canceled = true;
+        }
+
+        Slot setSlot(Slot slot) {
+            return this.slot.getAndSet(slot);
+        }
+
+        boolean compareAndSetSlot(Slot expected, Slot slot) {
+            return this.slot.compareAndSet(expected, slot);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return this == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        @Override
+        public String toString() {
+            return this.getKey().toString();
+        }
+    }
+}
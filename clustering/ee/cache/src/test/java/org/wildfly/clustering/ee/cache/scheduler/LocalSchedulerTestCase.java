@@ -28,6 +28,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -135,4 +136,40 @@ public class LocalSchedulerTestCase {
             verify(entries).remove(entry.getKey());
         }
     }
+
+    @Test
+    public void timingWheel() {
+        TimingWheelScheduledEntries<UUID> entries = new TimingWheelScheduledEntries<>(Duration.ofMillis(10));
+        Predicate<UUID> task = mock(Predicate.class);
+
+        UUID expiring = UUID.randomUUID();
+        UUID canceled = UUID.randomUUID();
+        UUID failing = UUID.randomUUID();
+        UUID future = UUID.randomUUID();
+
+        // Wait for any in-progress tick to complete on close
+        try (Scheduler<UUID, Instant> scheduler = new LocalScheduler<>(entries, task, Duration.ofSeconds(5))) {
+            when(task.test(expiring)).thenReturn(true);
+            when(task.test(failing)).thenReturn(false, true);
+
+            scheduler.schedule(expiring, Instant.now());
+            scheduler.schedule(canceled, Instant.now().plusMillis(100));
+            scheduler.schedule(failing, Instant.now());
+            scheduler.schedule(future, Instant.now().plus(Duration.ofHours(1)));
+            scheduler.cancel(canceled);
+
+            verify(task, timeout(5000)).test(expiring);
+            // Verify that unsuccessful task was retried on a subsequent tick
+            verify(task, timeout(5000).times(2)).test(failing);
+        }
+
+        verify(task, never()).test(canceled);
+        verify(task, never()).test(future);
+
+        // Verify that only the future entry remains
+        Iterator<Map.Entry<UUID, Instant>> remaining = entries.iterator();
+        Assert.assertTrue(remaining.hasNext());
+        Assert.assertSame(future, remaining.next().getKey());
+        Assert.assertFalse(remaining.hasNext());
+    }
 }
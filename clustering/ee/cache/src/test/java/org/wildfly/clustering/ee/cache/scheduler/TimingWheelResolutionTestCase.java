@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.Duration;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimingWheelResolution}
+ */
+public class TimingWheelResolutionTestCase {
+
+    private static final String PROPERTY = "test.expiration-resolution";
+
+    @After
+    public void clear() {
+        System.clearProperty(PROPERTY);
+    }
+
+    @Test
+    public void undefined() {
+        assertNull(TimingWheelResolution.fromSystemProperty(PROPERTY));
+    }
+
+    @Test
+    public void valid() {
+        System.setProperty(PROPERTY, "PT0.5S");
+        assertEquals(Duration.ofMillis(500), TimingWheelResolution.fromSystemProperty(PROPERTY));
+    }
+
+    @Test
+    public void invalid() {
+        for (String value : new String[] { "PT0S", "-PT1S", "1000" }) {
+            System.setProperty(PROPERTY, value);
+            assertNull(value, TimingWheelResolution.fromSystemProperty(PROPERTY));
+        }
+    }
+}
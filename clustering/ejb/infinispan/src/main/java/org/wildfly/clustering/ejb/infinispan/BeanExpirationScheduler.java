@@ -31,6 +31,8 @@ import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
 import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntries;
 import org.wildfly.clustering.ee.cache.scheduler.LinkedScheduledEntries;
 import org.wildfly.clustering.ee.cache.scheduler.SortedScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.TimingWheelResolution;
+import org.wildfly.clustering.ee.cache.scheduler.TimingWheelScheduledEntries;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.scheduler.Scheduler;
 import org.wildfly.clustering.ejb.infinispan.bean.InfinispanBeanKey;
@@ -47,6 +49,8 @@ import org.wildfly.clustering.infinispan.spi.distribution.Locality;
  * @param <T> the bean type
  */
 public class BeanExpirationScheduler<I, T> implements Scheduler<I, ImmutableBeanEntry<I>>, Predicate<I> {
+    // If defined, expire beans using a timing wheel that ticks at the specified resolution, instead of rescheduling on every invocation
+    private static final String EXPIRATION_RESOLUTION_PROPERTY = "jboss.ejb.stateful.expiration-resolution";
 
     private final LocalScheduler<I> scheduler;
     private final Batcher<TransactionBatch> batcher;
@@ -55,8 +59,13 @@ public class BeanExpirationScheduler<I, T> implements Scheduler<I, ImmutableBean
     private final BeanRemover<I, T> remover;
 
     public BeanExpirationScheduler(Group group, Batcher<TransactionBatch> batcher, BeanFactory<I, T> factory, ExpirationConfiguration<T> expiration, BeanRemover<I, T> remover, Duration closeTimeout) {
-        ScheduledEntries<I, Instant> entries = group.isSingleton() ? new LinkedScheduledEntries<>() : new SortedScheduledEntries<>();
-        this.scheduler = new LocalScheduler<>(entries, this, closeTimeout);
+        Duration resolution = TimingWheelResolution.fromSystemProperty(EXPIRATION_RESOLUTION_PROPERTY);
+        if (resolution != null) {
+            this.scheduler = new LocalScheduler<>(new TimingWheelScheduledEntries<>(resolution), this, closeTimeout);
+        } else {
+            ScheduledEntries<I, Instant> entries = group.isSingleton() ? new LinkedScheduledEntries<>() : new SortedScheduledEntries<>();
+            this.scheduler = new LocalScheduler<>(entries, this, closeTimeout);
+        }
         this.batcher = batcher;
         this.factory = factory;
         this.expiration = expiration;
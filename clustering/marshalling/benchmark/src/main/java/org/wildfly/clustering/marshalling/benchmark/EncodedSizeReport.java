@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Prints the encoded size, in bytes, of each {@link Payload} for each {@link MarshallerFactory}.
+ * Run via: <code>mvn -f clustering/marshalling/benchmark/pom.xml exec:java -Dexec.mainClass=org.wildfly.clustering.marshalling.benchmark.EncodedSizeReport</code>
+ */
+public class EncodedSizeReport {
+
+    public static void main(String... args) throws IOException {
+        report(System.out);
+    }
+
+    static void report(PrintStream out) throws IOException {
+        ClassLoader loader = EncodedSizeReport.class.getClassLoader();
+        Map<MarshallerFactory, ByteBufferMarshaller> marshallers = new EnumMap<>(MarshallerFactory.class);
+        for (MarshallerFactory factory : MarshallerFactory.values()) {
+            marshallers.put(factory, factory.createMarshaller(loader));
+        }
+        out.printf("%-20s", "payload");
+        for (MarshallerFactory factory : marshallers.keySet()) {
+            out.printf("%12s", factory);
+        }
+        out.println();
+        for (Payload payload : Payload.values()) {
+            Object object = payload.get();
+            out.printf("%-20s", payload);
+            for (ByteBufferMarshaller marshaller : marshallers.values()) {
+                out.printf("%12d", marshaller.write(object).remaining());
+            }
+            out.println();
+        }
+    }
+}
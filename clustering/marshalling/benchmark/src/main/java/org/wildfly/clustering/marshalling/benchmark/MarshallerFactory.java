@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import org.infinispan.protostream.ImmutableSerializationContext;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.wildfly.clustering.marshalling.jboss.DynamicClassTable;
+import org.wildfly.clustering.marshalling.jboss.ExternalizerObjectTable;
+import org.wildfly.clustering.marshalling.jboss.JBossByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.jboss.MarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.protostream.SerializationContextBuilder;
+import org.wildfly.clustering.marshalling.protostream.SimpleClassLoaderMarshaller;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Enumerates the marshalling stacks to benchmark.
+ */
+public enum MarshallerFactory {
+    /**
+     * Baseline using plain Java serialization.
+     */
+    JAVA {
+        @Override
+        public ByteBufferMarshaller createMarshaller(ClassLoader loader) {
+            return new ByteBufferMarshaller() {
+                @Override
+                public boolean isMarshallable(Object object) {
+                    return (object == null) || (object instanceof Serializable);
+                }
+
+                @Override
+                public Object readFrom(InputStream input) throws IOException {
+                    try {
+                        return new ObjectInputStream(input).readObject();
+                    } catch (ClassNotFoundException e) {
+                        InvalidClassException exception = new InvalidClassException(e.getMessage());
+                        exception.initCause(e);
+                        throw exception;
+                    }
+                }
+
+                @Override
+                public void writeTo(OutputStream output, Object object) throws IOException {
+                    ObjectOutputStream out = new ObjectOutputStream(output);
+                    out.writeObject(object);
+                    out.flush();
+                }
+            };
+        }
+    },
+    /**
+     * JBoss Marshalling, using the externalizers provided by wildfly-clustering-marshalling-spi.
+     */
+    JBOSS {
+        @Override
+        public ByteBufferMarshaller createMarshaller(ClassLoader loader) {
+            MarshallingConfiguration configuration = new MarshallingConfiguration();
+            configuration.setClassTable(new DynamicClassTable(loader));
+            configuration.setObjectTable(new ExternalizerObjectTable(loader));
+            MarshallingConfigurationRepository repository = new MarshallingConfigurationRepository() {
+                @Override
+                public int getCurrentMarshallingVersion() {
+                    return 0;
+                }
+
+                @Override
+                public MarshallingConfiguration getMarshallingConfiguration(int version) {
+                    return configuration;
+                }
+            };
+            return new JBossByteBufferMarshaller(repository, loader);
+        }
+    },
+    /**
+     * ProtoStream, using the marshallers provided by wildfly-clustering-marshalling-protostream.
+     */
+    PROTOSTREAM {
+        @Override
+        public ByteBufferMarshaller createMarshaller(ClassLoader loader) {
+            ImmutableSerializationContext context = new SerializationContextBuilder(new SimpleClassLoaderMarshaller(loader)).load(loader).build();
+            return new ProtoStreamByteBufferMarshaller(context);
+        }
+    };
+
+    /**
+     * Creates a marshaller for this stack.
+     * @param loader the class loader of the marshalled types
+     * @return a marshaller
+     */
+    public abstract ByteBufferMarshaller createMarshaller(ClassLoader loader);
+}
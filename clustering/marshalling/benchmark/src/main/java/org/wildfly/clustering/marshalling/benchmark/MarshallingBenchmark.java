@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Measures the marshalling and unmarshalling throughput of each {@link Payload} for each {@link MarshallerFactory}.
+ * Allocation per operation is reported when run with the GC profiler, i.e. <code>-prof gc</code>.
+ * The encoded size of each payload is reported by {@link EncodedSizeReport}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallingBenchmark {
+
+    @Param
+    public MarshallerFactory marshaller;
+
+    @Param
+    public Payload payload;
+
+    private ByteBufferMarshaller byteBufferMarshaller;
+    private Object object;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() throws IOException {
+        this.byteBufferMarshaller = this.marshaller.createMarshaller(MarshallingBenchmark.class.getClassLoader());
+        this.object = this.payload.get();
+        this.buffer = this.byteBufferMarshaller.write(this.object);
+        // Fail fast if the payload does not survive a round trip
+        Object result = this.byteBufferMarshaller.read(this.buffer.duplicate());
+        if (!this.object.getClass().equals(result.getClass())) {
+            throw new IllegalStateException(String.format("%s unmarshalled %s as %s", this.marshaller, this.payload, result.getClass().getName()));
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer write() throws IOException {
+        return this.byteBufferMarshaller.write(this.object);
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        return this.byteBufferMarshaller.read(this.buffer.duplicate());
+    }
+}
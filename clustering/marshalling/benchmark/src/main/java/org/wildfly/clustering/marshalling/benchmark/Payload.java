@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.benchmark;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Enumerates the objects to marshal, covering the types handled by the spi externalizers and ProtoStream marshallers,
+ * as well as composite payloads representative of distributed web sessions and stateful session beans.
+ * All payloads are deterministic, so that results are comparable across runs.
+ */
+public enum Payload implements Supplier<Object> {
+    INTEGER(() -> Integer.valueOf(Integer.MAX_VALUE)),
+    STRING(() -> "The quick brown fox jumps over the lazy dog"),
+    UUID(() -> new UUID(0x0123456789abcdefL, 0xfedcba9876543210L)),
+    LOCALE(() -> Locale.US),
+    DURATION(() -> Duration.ofSeconds(1800, 123_456_789)),
+    INSTANT(() -> Instant.ofEpochSecond(1_600_000_000L, 123_456_789)),
+    LOCAL_DATE_TIME(() -> LocalDateTime.of(2021, 1, 1, 12, 30, 15)),
+    MONTH_DAY(() -> MonthDay.of(12, 31)),
+    PERIOD(() -> Period.of(1, 2, 3)),
+    YEAR_MONTH(() -> YearMonth.of(2021, 1)),
+    INET_ADDRESS(InetAddress::getLoopbackAddress),
+    INET_SOCKET_ADDRESS(() -> InetSocketAddress.createUnresolved("localhost", 8080)),
+    URL(() -> url("http://localhost:8080/context/path?query=value")),
+    TIMESTAMP(() -> Timestamp.from(Instant.ofEpochSecond(1_600_000_000L, 123_456_789))),
+    DATE(() -> new Date(1_600_000_000_000L)),
+    CALENDAR(() -> {
+        Calendar calendar = Calendar.getInstance(Locale.US);
+        calendar.setTimeInMillis(1_600_000_000_000L);
+        return calendar;
+    }),
+    BIT_SET(() -> BitSet.valueOf(new long[] { 0x5555555555555555L, 0xaaaaaaaaaaaaaaaaL })),
+    ARRAY_LIST(() -> strings(new ArrayList<>(), 100)),
+    TREE_SET(() -> strings(new TreeSet<>(), 100)),
+    HASH_MAP(() -> {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            map.put(Integer.toString(i), i);
+        }
+        return map;
+    }),
+    CONCURRENT_HASH_MAP(() -> {
+        Map<UUID, Instant> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            map.put(new UUID(0, i), Instant.ofEpochSecond(1_600_000_000L + i));
+        }
+        return map;
+    }),
+    /**
+     * The attributes of a typical web session, as replicated using coarse granularity.
+     */
+    SESSION_ATTRIBUTES(() -> {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("user", "jdoe");
+        attributes.put("locale", Locale.US);
+        attributes.put("csrf-token", new UUID(0x0123456789abcdefL, 0xfedcba9876543210L));
+        attributes.put("last-login", Instant.ofEpochSecond(1_600_000_000L));
+        attributes.put("page-size", Integer.valueOf(25));
+        attributes.put("recently-viewed", strings(new ArrayList<>(), 20));
+        Map<String, String> preferences = new LinkedHashMap<>();
+        for (int i = 0; i < 10; ++i) {
+            preferences.put("preference-" + i, "value-" + i);
+        }
+        attributes.put("preferences", preferences);
+        return attributes;
+    }),
+    /**
+     * Approximates the conversational state of a stateful session bean, i.e. a shopping cart, as a map of its fields.
+     * ProtoStream cannot marshal application classes without a schema, so the bean fields are represented using JDK types.
+     */
+    BEAN_STATE(() -> {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("customerId", Long.valueOf(1234567890L));
+        fields.put("created", Instant.ofEpochSecond(1_600_000_000L));
+        fields.put("timeout", Duration.ofMinutes(30));
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 50; ++i) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("sku", String.format("SKU-%08d", i));
+            item.put("quantity", Integer.valueOf(i % 5 + 1));
+            item.put("priceInCents", Long.valueOf(999L * (i + 1)));
+            items.add(item);
+        }
+        fields.put("items", items);
+        return fields;
+    });
+
+    private final Supplier<Object> factory;
+
+    Payload(Supplier<Object> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public Object get() {
+        return this.factory.get();
+    }
+
+    private static <C extends Collection<String>> C strings(C collection, int size) {
+        for (int i = 0; i < size; ++i) {
+            collection.add(String.format("item-%04d", i));
+        }
+        return collection;
+    }
+
+    private static URL url(String spec) {
+        try {
+            return new URL(spec);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -73,10 +73,9 @@ public class DefaultProtoStreamWriter implements ProtoStreamWriter {
         try (ByteBufferOutputStream output = new ByteBufferOutputStream(size)) {
             ProtobufUtil.writeTo(this.context, output, value);
             ByteBuffer buffer = output.getBuffer();
-            int offset = buffer.arrayOffset();
-            int length = buffer.limit() - offset;
+            int length = buffer.remaining();
             this.output.writeUInt32NoTag(length);
-            this.output.writeRawBytes(buffer.array(), offset, length);
+            this.output.writeRawBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
         }
     }
 
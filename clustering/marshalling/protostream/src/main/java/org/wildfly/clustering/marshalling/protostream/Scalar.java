@@ -230,10 +230,9 @@ public enum Scalar implements ScalarMarshallerProvider {
 
         @Override
         public void writeTo(ProtoStreamWriter writer, ByteBuffer buffer) throws IOException {
-            int offset = buffer.arrayOffset();
-            int size = buffer.limit() - offset;
+            int size = buffer.remaining();
             writer.writeUInt32NoTag(size);
-            writer.writeRawBytes(buffer.array(), offset, size);
+            writer.writeRawBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), size);
         }
 
         @Override
@@ -29,6 +29,10 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 
 /**
+ * {@link MarshalledValue} implementation that uses a {@link ByteBufferMarshaller}.
+ * The marshalled form of the wrapped object is retained until the object is next accessed via {@link #get(ByteBufferMarshaller)}.
+ * Consequently, changes to the wrapped object made after {@link #getBuffer()} but without accessing the object via {@link #get(ByteBufferMarshaller)}
+ * are not reflected by the marshalled form.  Callers that retain a reference to the wrapped object must create a new marshalled value after mutating it.
  * @author Paul Ferraro
  * @param <T> the type wrapped by this marshalled value
  */
@@ -61,11 +65,22 @@ public class ByteBufferMarshalledValue<T> implements MarshalledValue<T, ByteBuff
         return (this.buffer == null) && (this.object == null);
     }
 
+    /**
+     * Returns the marshalled form of the wrapped object, marshalling it if necessary.
+     * The marshalled form is retained, and returned by subsequent invocations, until the wrapped object is accessed via {@link #get(ByteBufferMarshaller)}.
+     * @return a view of the marshalled form of the wrapped object, or null, if there is no object.
+     * @throws IOException if the object could not be marshalled
+     */
     public synchronized ByteBuffer getBuffer() throws IOException {
         ByteBuffer buffer = this.buffer;
-        if (buffer != null) return buffer;
-        if (this.object == null) return null;
-        return this.marshaller.write(this.object);
+        if (buffer == null) {
+            if (this.object == null) return null;
+            // Retain the marshalled form, since it is typically requested more than once per write, e.g. to compute its size
+            buffer = this.marshaller.write(this.object);
+            this.buffer = buffer;
+        }
+        // Return a view, so that consumers cannot disturb the position of our buffer
+        return buffer.duplicate();
     }
 
     @SuppressWarnings("unchecked")
@@ -75,9 +90,10 @@ public class ByteBufferMarshalledValue<T> implements MarshalledValue<T, ByteBuff
             this.marshaller = marshaller;
             if (this.buffer != null) {
                 this.object = (T) this.marshaller.read(this.buffer);
-                this.buffer = null;
             }
         }
+        // The caller may mutate the returned object, so discard any marshalled form
+        this.buffer = null;
         return this.object;
     }
 
@@ -46,10 +46,10 @@ public class ByteBufferMarshalledValueExternalizer implements Externalizer<ByteB
     }
 
     static void writeBuffer(ObjectOutput output, ByteBuffer buffer) throws IOException {
-        int length = (buffer != null) ? buffer.limit() - buffer.arrayOffset() : 0;
+        int length = (buffer != null) ? buffer.remaining() : 0;
         IndexSerializer.VARIABLE.writeInt(output, length);
         if (length > 0) {
-            output.write(buffer.array(), buffer.arrayOffset(), length);
+            output.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
         }
     }
 
@@ -73,7 +73,7 @@ public class ByteBufferMarshalledValueExternalizer implements Externalizer<ByteB
     public OptionalInt size(ByteBufferMarshalledValue<Object> value) {
         try {
             ByteBuffer buffer = value.getBuffer();
-            int length = (buffer != null) ? buffer.limit() - buffer.arrayOffset() : 0;
+            int length = (buffer != null) ? buffer.remaining() : 0;
             return OptionalInt.of(IndexSerializer.VARIABLE.size(length) + length);
         } catch (IOException e) {
             return OptionalInt.empty();
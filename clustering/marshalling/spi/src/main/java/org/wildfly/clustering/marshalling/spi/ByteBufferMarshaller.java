@@ -51,17 +51,19 @@ public interface ByteBufferMarshaller extends Marshaller<Object, ByteBuffer> {
     @Override
     default ByteBuffer write(Object object) throws IOException {
         OptionalInt size = this.size(object);
-        try (ByteBufferOutputStream output = new ByteBufferOutputStream(size)) {
+        // If the marshaller cannot predict the size, presize the buffer based on previously marshalled objects of the same type
+        try (ByteBufferOutputStream output = new ByteBufferOutputStream(size.isPresent() ? size : MarshalledSizeHint.INSTANCE.size(object))) {
             this.writeTo(output, object);
             ByteBuffer buffer = output.getBuffer();
+            int actualSize = buffer.remaining();
             if (size.isPresent()) {
                 int predictedSize = size.getAsInt();
-                int actualSize = buffer.limit() - buffer.arrayOffset();
                 if (predictedSize < actualSize) {
                     LOGGER.debugf("Buffer size prediction too small for %s (%s), predicted = %d, actual = %d", object, (object != null) ? object.getClass().getCanonicalName() : null, predictedSize, actualSize);
                 }
             } else {
                 LOGGER.tracef("Buffer size prediction missing for %s (%s)", object, (object != null) ? object.getClass().getCanonicalName() : null);
+                buffer = MarshalledSizeHint.INSTANCE.update(object, buffer);
             }
             return buffer;
         }
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the marshalled size of objects per type, used to presize output buffers when a marshaller cannot predict the size of an object.
+ * Hints grow immediately to the largest observed size, and decay slowly toward smaller observed sizes.
+ * Hints are stored via {@link ClassValue}, so they do not prevent a deployment's classes from being unloaded.
+ */
+class MarshalledSizeHint extends ClassValue<AtomicInteger> {
+
+    static final MarshalledSizeHint INSTANCE = new MarshalledSizeHint();
+
+    // Buffers are typically retained by a marshalled value, so oversized buffers are trimmed if they waste more than this many bytes
+    private static final int TRIM_THRESHOLD = 4096;
+
+    MarshalledSizeHint() {
+    }
+
+    @Override
+    protected AtomicInteger computeValue(Class<?> type) {
+        return new AtomicInteger();
+    }
+
+    /**
+     * Returns the suggested buffer size for the specified object, if its type was previously marshalled.
+     * @param object an object to be marshalled
+     * @return the suggested buffer size, or empty if no hint is available.
+     */
+    OptionalInt size(Object object) {
+        if (object == null) return OptionalInt.empty();
+        int hint = this.get(object.getClass()).get();
+        // Allow some slack to avoid growing the buffer for marginally larger objects
+        return (hint > 0) ? OptionalInt.of(hint + (hint >>> 3)) : OptionalInt.empty();
+    }
+
+    /**
+     * Records the actual marshalled size of the specified object.
+     * @param object a marshalled object
+     * @param size the marshalled size of the object
+     */
+    void update(Object object, int size) {
+        if (object == null) return;
+        this.get(object.getClass()).updateAndGet(hint -> (size >= hint) ? size : hint - ((hint - size) >>> 3));
+    }
+
+    /**
+     * Records the marshalled size of the specified object, and trims the specified buffer if the hint overshot.
+     * @param object a marshalled object
+     * @param buffer the marshalled form of the object
+     * @return the specified buffer, or a copy of its content, if the buffer was oversized
+     */
+    ByteBuffer update(Object object, ByteBuffer buffer) {
+        int size = buffer.remaining();
+        this.update(object, size);
+        return (buffer.capacity() - size > Math.max(size, TRIM_THRESHOLD)) ? ByteBuffer.wrap(Arrays.copyOfRange(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.arrayOffset() + buffer.position() + size)) : buffer;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Verifies the retention of the marshalled form by {@link ByteBufferMarshalledValue}.
+ */
+public class ByteBufferMarshalledValueTestCase {
+
+    private final ByteBufferMarshaller marshaller = JavaByteBufferMarshaller.INSTANCE;
+
+    @Test
+    public void retention() throws Exception {
+        List<String> list = new ArrayList<>(Arrays.asList("foo"));
+        ByteBufferMarshalledValue<List<String>> value = new ByteBufferMarshalledValue<>(list, this.marshaller);
+
+        ByteBuffer buffer = value.getBuffer();
+        // Consuming the returned view does not affect the retained buffer
+        buffer.position(buffer.limit());
+        assertEquals(this.marshaller.write(new ArrayList<>(Arrays.asList("foo"))), value.getBuffer());
+
+        // Mutations without accessing the object via get(...) are not reflected by the retained marshalled form
+        list.add("bar");
+        assertEquals(Arrays.asList("foo"), this.marshaller.read(value.getBuffer()));
+
+        // Accessing the object discards the marshalled form, so subsequent mutations are marshalled
+        value.get(this.marshaller).add("baz");
+        assertEquals(Arrays.asList("foo", "bar", "baz"), this.marshaller.read(value.getBuffer()));
+    }
+
+    @Test
+    public void replica() throws Exception {
+        ByteBuffer buffer = this.marshaller.write(new ArrayList<>(Arrays.asList("foo")));
+        ByteBufferMarshalledValue<List<String>> value = new ByteBufferMarshalledValue<>(buffer);
+
+        List<String> list = value.get(this.marshaller);
+        assertEquals(Arrays.asList("foo"), list);
+        list.add("bar");
+        ByteBuffer result = value.getBuffer();
+        assertNotSame(buffer, result);
+        assertEquals(Arrays.asList("foo", "bar"), this.marshaller.read(result));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.util.OptionalInt;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MarshalledSizeHint}.
+ */
+public class MarshalledSizeHintTestCase {
+
+    private final MarshalledSizeHint hint = new MarshalledSizeHint();
+
+    @Test
+    public void size() {
+        assertFalse(this.hint.size(null).isPresent());
+        assertFalse(this.hint.size("foo").isPresent());
+
+        this.hint.update("foo", 800);
+        // Hint includes some slack
+        assertEquals(OptionalInt.of(900), this.hint.size("bar"));
+        // Hints are tracked per type
+        assertFalse(this.hint.size(1).isPresent());
+
+        // Larger sizes are adopted immediately
+        this.hint.update("foo", 1600);
+        assertEquals(OptionalInt.of(1800), this.hint.size("bar"));
+
+        // Smaller sizes decay slowly
+        this.hint.update("foo", 800);
+        assertEquals(OptionalInt.of(1687), this.hint.size("bar"));
+
+        this.hint.update(null, 100);
+    }
+
+    @Test
+    public void trim() {
+        // Small overshoot is retained
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        buffer.limit(100);
+        assertSame(buffer, this.hint.update("foo", buffer));
+
+        // Overshoot relative to the content is retained, if it does not exceed the threshold
+        buffer = ByteBuffer.allocate(8192);
+        buffer.limit(5000);
+        assertSame(buffer, this.hint.update("foo", buffer));
+
+        // Large overshoot is trimmed
+        buffer = ByteBuffer.allocate(10000);
+        buffer.put(0, (byte) 1);
+        buffer.put(99, (byte) 2);
+        buffer.limit(100);
+        ByteBuffer result = this.hint.update("foo", buffer);
+        assertEquals(100, result.capacity());
+        assertEquals(100, result.remaining());
+        assertEquals(1, result.get(0));
+        assertEquals(2, result.get(99));
+    }
+}
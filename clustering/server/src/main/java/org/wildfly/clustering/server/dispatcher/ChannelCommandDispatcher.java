@@ -143,7 +143,7 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
     private <R> Buffer createBuffer(Command<R, ? super CC> command) {
         try {
             ByteBuffer buffer = this.marshaller.marshal(command);
-            return new Buffer(buffer.array(), buffer.arrayOffset(), buffer.limit() - buffer.arrayOffset());
+            return new Buffer(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
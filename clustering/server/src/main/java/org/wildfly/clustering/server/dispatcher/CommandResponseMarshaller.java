@@ -47,9 +47,9 @@ public class CommandResponseMarshaller implements org.jgroups.blocks.Marshaller
     public void objectToStream(Object object, DataOutput stream) throws IOException {
         ByteBuffer buffer = this.marshaller.write(object);
 
-        int length = buffer.limit() - buffer.arrayOffset();
+        int length = buffer.remaining();
         IndexSerializer.VARIABLE.writeInt(stream, length);
-        stream.write(buffer.array(), buffer.arrayOffset(), length);
+        stream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
     }
 
     @Override
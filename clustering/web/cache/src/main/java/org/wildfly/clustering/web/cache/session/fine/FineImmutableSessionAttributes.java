@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import org.wildfly.clustering.marshalling.spi.Marshaller;
@@ -40,12 +41,22 @@ public class FineImmutableSessionAttributes<K, V> implements ImmutableSessionAtt
     private final Function<UUID, K> keyFactory;
     private final Map<K, V> attributeCache;
     private final Marshaller<Object, V> marshaller;
+    private final BiConsumer<String, IOException> readFailureHandler;
 
     public FineImmutableSessionAttributes(AtomicReference<Map<String, UUID>> names, Function<UUID, K> keyFactory, Map<K, V> attributeCache, Marshaller<Object, V> marshaller) {
+        this(names, keyFactory, attributeCache, marshaller, (name, e) -> {});
+    }
+
+    /**
+     * Creates session attributes whose values may not have been validated, i.e. unmarshalled, on construction.
+     * @param readFailureHandler notified of the name of an attribute whose value could not be unmarshalled
+     */
+    public FineImmutableSessionAttributes(AtomicReference<Map<String, UUID>> names, Function<UUID, K> keyFactory, Map<K, V> attributeCache, Marshaller<Object, V> marshaller, BiConsumer<String, IOException> readFailureHandler) {
         this.names = names;
         this.keyFactory = keyFactory;
         this.attributeCache = attributeCache;
         this.marshaller = marshaller;
+        this.readFailureHandler = readFailureHandler;
     }
 
     @Override
@@ -58,14 +69,15 @@ public class FineImmutableSessionAttributes<K, V> implements ImmutableSessionAtt
         UUID attributeId = this.names.get().get(name);
         if (attributeId == null) return null;
         K key = this.keyFactory.apply(attributeId);
-        return this.read(this.attributeCache.get(key));
+        return this.read(name, this.attributeCache.get(key));
     }
 
-    private Object read(V value) {
+    private Object read(String name, V value) {
         try {
             return this.marshaller.read(value);
         } catch (IOException e) {
-            // This should not happen here, since attributes were pre-activated when session was constructed
+            // Attribute values are not necessarily unmarshalled when the session is constructed, so this may fail for an incompatible value
+            this.readFailureHandler.accept(name, e);
             throw new IllegalStateException(e);
         }
     }
@@ -31,6 +31,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import org.wildfly.clustering.ee.Immutability;
@@ -56,8 +57,17 @@ public class FineSessionAttributes<NK, K, V> implements SessionAttributes {
     private final CacheProperties properties;
     private final SessionAttributeActivationNotifier notifier;
     private final AtomicReference<Map<String, UUID>> names;
+    private final BiConsumer<String, IOException> readFailureHandler;
 
     public FineSessionAttributes(NK key, AtomicReference<Map<String, UUID>> names, Map<NK, Map<String, UUID>> namesCache, Function<UUID, K> keyFactory, Map<K, V> attributeCache, Marshaller<Object, V> marshaller, MutatorFactory<K, V> mutatorFactory, Immutability immutability, CacheProperties properties, SessionAttributeActivationNotifier notifier) {
+        this(key, names, namesCache, keyFactory, attributeCache, marshaller, mutatorFactory, immutability, properties, notifier, (name, e) -> {});
+    }
+
+    /**
+     * Creates session attributes whose values may not have been validated, i.e. unmarshalled, on construction.
+     * @param readFailureHandler notified of the name of an attribute whose value could not be unmarshalled
+     */
+    public FineSessionAttributes(NK key, AtomicReference<Map<String, UUID>> names, Map<NK, Map<String, UUID>> namesCache, Function<UUID, K> keyFactory, Map<K, V> attributeCache, Marshaller<Object, V> marshaller, MutatorFactory<K, V> mutatorFactory, Immutability immutability, CacheProperties properties, SessionAttributeActivationNotifier notifier, BiConsumer<String, IOException> readFailureHandler) {
         this.key = key;
         this.names = names;
         this.namesCache = namesCache;
@@ -68,6 +78,7 @@ public class FineSessionAttributes<NK, K, V> implements SessionAttributes {
         this.immutability = immutability;
         this.properties = properties;
         this.notifier = notifier;
+        this.readFailureHandler = readFailureHandler;
     }
 
     @Override
@@ -80,7 +91,7 @@ public class FineSessionAttributes<NK, K, V> implements SessionAttributes {
 
             K key = this.keyFactory.apply(attributeId);
 
-            Object result = this.read(this.attributeCache.remove(key));
+            Object result = this.read(name, this.attributeCache.remove(key));
             if (result != null) {
                 this.mutations.remove(key);
 
@@ -117,7 +128,7 @@ public class FineSessionAttributes<NK, K, V> implements SessionAttributes {
                 this.notifier.prePassivate(attribute);
             }
 
-            Object result = this.read(this.attributeCache.put(key, value));
+            Object result = this.read(name, this.attributeCache.put(key, value));
 
             if (this.properties.isTransactional()) {
                 // Add an empty value to prevent any subsequent mutable getAttribute(...) from triggering a redundant mutation on close.
@@ -157,7 +168,7 @@ public class FineSessionAttributes<NK, K, V> implements SessionAttributes {
                 return mutableValue.get();
             }
 
-            Object result = this.read(this.attributeCache.get(key));
+            Object result = this.read(name, this.attributeCache.get(key));
             if (result != null) {
                 if (this.properties.isPersistent()) {
                     this.notifier.postActivate(result);
@@ -205,11 +216,12 @@ public class FineSessionAttributes<NK, K, V> implements SessionAttributes {
         }
     }
 
-    private Object read(V value) {
+    private Object read(String name, V value) {
         try {
             return this.marshaller.read(value);
         } catch (IOException e) {
-            // This should not happen here, since attributes were pre-activated during session construction
+            // Attribute values are not necessarily unmarshalled when the session is constructed, so this may fail for an incompatible value
+            this.readFailureHandler.accept(name, e);
             throw new IllegalStateException(e);
         }
     }
@@ -29,6 +29,8 @@ import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Remover;
 import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
 import org.wildfly.clustering.ee.cache.scheduler.SortedScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.TimingWheelResolution;
+import org.wildfly.clustering.ee.cache.scheduler.TimingWheelScheduledEntries;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.GroupedKey;
 import org.wildfly.clustering.ee.infinispan.scheduler.Scheduler;
@@ -43,6 +45,8 @@ import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
  * @author Paul Ferraro
  */
 public class SessionExpirationScheduler<MV> implements Scheduler<String, ImmutableSessionMetaData>, Predicate<String> {
+    // If defined, expire sessions using a timing wheel that ticks at the specified resolution, instead of rescheduling on every request
+    private static final String EXPIRATION_RESOLUTION_PROPERTY = "jboss.web.session.expiration-resolution";
 
     private final LocalScheduler<String> scheduler;
     private final Batcher<TransactionBatch> batcher;
@@ -50,7 +54,8 @@ public class SessionExpirationScheduler<MV> implements Scheduler<String, Immutab
     private final ImmutableSessionMetaDataFactory<MV> metaDataFactory;
 
     public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, ImmutableSessionMetaDataFactory<MV> metaDataFactory, Remover<String> remover, Duration closeTimeout) {
-        this.scheduler = new LocalScheduler<>(new SortedScheduledEntries<>(), this, closeTimeout);
+        Duration resolution = TimingWheelResolution.fromSystemProperty(EXPIRATION_RESOLUTION_PROPERTY);
+        this.scheduler = (resolution != null) ? new LocalScheduler<>(new TimingWheelScheduledEntries<>(resolution), this, closeTimeout) : new LocalScheduler<>(new SortedScheduledEntries<>(), this, closeTimeout);
         this.batcher = batcher;
         this.metaDataFactory = metaDataFactory;
         this.remover = remover;
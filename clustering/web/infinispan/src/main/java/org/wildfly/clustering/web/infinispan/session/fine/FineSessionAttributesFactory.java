@@ -23,13 +23,19 @@
 package org.wildfly.clustering.web.infinispan.session.fine;
 
 import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import org.infinispan.Cache;
@@ -64,7 +70,7 @@ import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
  * @author Paul Ferraro
  */
 @Listener(sync = false)
-public class FineSessionAttributesFactory<S, C, L, V> implements SessionAttributesFactory<C, AtomicReference<Map<String, UUID>>> {
+public class FineSessionAttributesFactory<S, C, L, V> implements SessionAttributesFactory<C, Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, V>>> {
 
     private final Cache<SessionAttributeNamesKey, Map<String, UUID>> namesCache;
     private final Cache<SessionAttributeKey, V> attributeCache;
@@ -85,43 +91,42 @@ public class FineSessionAttributesFactory<S, C, L, V> implements SessionAttribut
     }
 
     @Override
-    public AtomicReference<Map<String, UUID>> createValue(String id, Void context) {
-        return new AtomicReference<>(Collections.emptyMap());
+    public Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, V>> createValue(String id, Void context) {
+        return new SimpleImmutableEntry<>(new AtomicReference<>(Collections.emptyMap()), Collections.emptyMap());
     }
 
     @Override
-    public AtomicReference<Map<String, UUID>> findValue(String id) {
+    public Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, V>> findValue(String id) {
         return this.getValue(id, true);
     }
 
     @Override
-    public AtomicReference<Map<String, UUID>> tryValue(String id) {
+    public Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, V>> tryValue(String id) {
         return this.getValue(id, false);
     }
 
-    private AtomicReference<Map<String, UUID>> getValue(String id, boolean purgeIfInvalid) {
+    private Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, V>> getValue(String id, boolean purgeIfInvalid) {
         Map<String, UUID> names = this.namesCache.get(new SessionAttributeNamesKey(id));
-        if (names != null) {
-            for (Map.Entry<String, UUID> nameEntry : names.entrySet()) {
-                V value = this.attributeCache.get(new SessionAttributeKey(id, nameEntry.getValue()));
-                if (value != null) {
-                    try {
-                        this.marshaller.read(value);
-                        continue;
-                    } catch (IOException e) {
-                        InfinispanWebLogger.ROOT_LOGGER.failedToActivateSessionAttribute(e, id, nameEntry.getKey());
-                    }
-                } else {
-                    InfinispanWebLogger.ROOT_LOGGER.missingSessionAttributeCacheEntry(id, nameEntry.getKey());
-                }
+        if ((names == null) || names.isEmpty()) {
+            return this.createValue(id, null);
+        }
+        // Attribute entries are grouped with the session, so load them all via a single invocation on the session owner
+        Set<SessionAttributeKey> keys = new HashSet<>();
+        for (UUID attributeId : names.values()) {
+            keys.add(new SessionAttributeKey(id, attributeId));
+        }
+        Map<SessionAttributeKey, V> values = this.attributeCache.getAll(keys);
+        for (Map.Entry<String, UUID> nameEntry : names.entrySet()) {
+            // Values are only unmarshalled when first read, so validate their existence only, see readFailureHandler(...)
+            if (values.get(new SessionAttributeKey(id, nameEntry.getValue())) == null) {
+                InfinispanWebLogger.ROOT_LOGGER.missingSessionAttributeCacheEntry(id, nameEntry.getKey());
                 if (purgeIfInvalid) {
                     this.purge(id);
                 }
                 return null;
             }
-            return new AtomicReference<>(names);
         }
-        return new AtomicReference<>(Collections.emptyMap());
+        return new SimpleImmutableEntry<>(new AtomicReference<>(names), new ConcurrentHashMap<>(values));
     }
 
     @Override
@@ -137,22 +142,44 @@ public class FineSessionAttributesFactory<S, C, L, V> implements SessionAttribut
     private boolean delete(String id, Flag... flags) {
         Map<String, UUID> names = this.namesCache.getAdvancedCache().withFlags(EnumSet.of(Flag.FORCE_SYNCHRONOUS, flags)).remove(new SessionAttributeNamesKey(id));
         if (names != null) {
-            for (UUID attributeId : names.values()) {
-                this.attributeCache.getAdvancedCache().withFlags(EnumSet.of(Flag.IGNORE_RETURN_VALUES, flags)).remove(new SessionAttributeKey(id, attributeId));
+            Cache<SessionAttributeKey, V> cache = this.attributeCache.getAdvancedCache().withFlags(EnumSet.of(Flag.IGNORE_RETURN_VALUES, flags));
+            if (this.properties.isTransactional()) {
+                // Removes are batched per owner when the transaction commits
+                for (UUID attributeId : names.values()) {
+                    cache.remove(new SessionAttributeKey(id, attributeId));
+                }
+            } else {
+                // Issue removes concurrently, rather than waiting for each round trip in turn
+                List<CompletableFuture<V>> futures = new ArrayList<>(names.size());
+                for (UUID attributeId : names.values()) {
+                    futures.add(cache.removeAsync(new SessionAttributeKey(id, attributeId)));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
             }
         }
         return true;
     }
 
     @Override
-    public SessionAttributes createSessionAttributes(String id, AtomicReference<Map<String, UUID>> names, ImmutableSessionMetaData metaData, C context) {
-        SessionAttributeActivationNotifier notifier = new ImmutableSessionAttributeActivationNotifier<>(this.provider, new CompositeImmutableSession(id, metaData, this.createImmutableSessionAttributes(id, names)), context);
-        return new FineSessionAttributes<>(new SessionAttributeNamesKey(id), names, this.namesCache, getKeyFactory(id), this.attributeCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS), this.marshaller, this.mutatorFactory, this.immutability, this.properties, notifier);
+    public SessionAttributes createSessionAttributes(String id, Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, V>> entry, ImmutableSessionMetaData metaData, C context) {
+        SessionAttributeActivationNotifier notifier = new ImmutableSessionAttributeActivationNotifier<>(this.provider, new CompositeImmutableSession(id, metaData, this.createImmutableSessionAttributes(id, entry)), context);
+        Map<SessionAttributeKey, V> attributeCache = new PreloadedSessionAttributeMap<>(this.attributeCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS), entry.getValue());
+        return new FineSessionAttributes<>(new SessionAttributeNamesKey(id), entry.getKey(), this.namesCache, getKeyFactory(id), attributeCache, this.marshaller, this.mutatorFactory, this.immutability, this.properties, notifier, this.readFailureHandler(id));
     }
 
     @Override
-    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, AtomicReference<Map<String, UUID>> names) {
-        return new FineImmutableSessionAttributes<>(names, getKeyFactory(id), this.attributeCache, this.marshaller);
+    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, V>> entry) {
+        return new FineImmutableSessionAttributes<>(entry.getKey(), getKeyFactory(id), new PreloadedSessionAttributeMap<>(this.attributeCache, entry.getValue()), this.marshaller, this.readFailureHandler(id));
+    }
+
+    /**
+     * Since attribute values are no longer unmarshalled when the session is loaded, purge the session attributes once a value fails to unmarshal.
+     */
+    private BiConsumer<String, IOException> readFailureHandler(String id) {
+        return (name, e) -> {
+            InfinispanWebLogger.ROOT_LOGGER.failedToActivateSessionAttribute(e, id, name);
+            this.purge(id);
+        };
     }
 
     private static Function<UUID, SessionAttributeKey> getKeyFactory(String id) {
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decorates the attribute cache of a session with the attribute values that were bulk loaded with the session,
+ * so that reading an attribute does not require an additional cache lookup.
+ * Writing or removing an attribute discards its preloaded value, thus the map of preloaded values must be thread-safe if non-empty.
+ * @param <K> the attribute key type
+ * @param <V> the attribute value type
+ */
+class PreloadedSessionAttributeMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> cache;
+    private final Map<K, V> preloaded;
+
+    PreloadedSessionAttributeMap(Map<K, V> cache, Map<K, V> preloaded) {
+        this.cache = cache;
+        this.preloaded = preloaded;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = this.preloaded.get(key);
+        return (value != null) ? value : this.cache.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        this.preloaded.remove(key);
+        return this.cache.put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        this.preloaded.remove(key);
+        return this.cache.remove(key);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return this.cache.entrySet();
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.InfinispanSessionAttributesFactoryConfiguration;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+
+/**
+ * Unit test for {@link FineSessionAttributesFactory}.
+ */
+public class FineSessionAttributesFactoryTestCase {
+
+    private final Cache<Object, Object> cache = mock(Cache.class);
+    private final AdvancedCache<Object, Object> advancedCache = mock(AdvancedCache.class);
+    private final Marshaller<Object, Object> marshaller = mock(Marshaller.class);
+    private final CacheProperties properties = mock(CacheProperties.class);
+    private FineSessionAttributesFactory<Object, Object, Object, Object> factory;
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Before
+    public void init() {
+        InfinispanSessionAttributesFactoryConfiguration<Object, Object, Object, Object, Object> configuration = mock(InfinispanSessionAttributesFactoryConfiguration.class);
+        when(configuration.getCache()).thenReturn((Cache) this.cache);
+        when(configuration.getMarshaller()).thenReturn(this.marshaller);
+        when(configuration.getCacheProperties()).thenReturn(this.properties);
+        when(configuration.getImmutability()).thenReturn(mock(Immutability.class));
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(ArgumentMatchers.<Collection<Flag>>any())).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(any(Flag.class))).thenReturn(this.advancedCache);
+
+        this.factory = new FineSessionAttributesFactory<>(configuration);
+    }
+
+    @Test
+    public void findValue() {
+        String id = "session";
+        UUID fooId = UUID.randomUUID();
+        UUID barId = UUID.randomUUID();
+        Map<String, UUID> names = new HashMap<>();
+        names.put("foo", fooId);
+        names.put("bar", barId);
+        SessionAttributeKey fooKey = new SessionAttributeKey(id, fooId);
+        SessionAttributeKey barKey = new SessionAttributeKey(id, barId);
+        Map<Object, Object> values = new HashMap<>();
+        values.put(fooKey, "foo-value");
+        values.put(barKey, "bar-value");
+
+        when(this.cache.get(new SessionAttributeNamesKey(id))).thenReturn(names);
+        when(this.cache.getAll(new HashSet<>(values.keySet()))).thenReturn(values);
+
+        Map.Entry<AtomicReference<Map<String, UUID>>, Map<SessionAttributeKey, Object>> result = this.factory.findValue(id);
+
+        assertNotNull(result);
+        assertSame(names, result.getKey().get());
+        assertEquals(values, result.getValue());
+        // Attributes are loaded via a single bulk read, and not validated by unmarshalling
+        verify(this.cache).getAll(anySet());
+        verify(this.cache, never()).get(fooKey);
+        verify(this.cache, never()).get(barKey);
+        verifyZeroInteractions(this.marshaller);
+    }
+
+    @Test
+    public void findValueMissingAttribute() {
+        String id = "session";
+        UUID fooId = UUID.randomUUID();
+        Map<String, UUID> names = Collections.singletonMap("foo", fooId);
+
+        when(this.cache.get(new SessionAttributeNamesKey(id))).thenReturn(names);
+        when(this.cache.getAll(anySet())).thenReturn(Collections.emptyMap());
+        when(this.advancedCache.remove(new SessionAttributeNamesKey(id))).thenReturn(names);
+        when(this.advancedCache.removeAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertNull(this.factory.findValue(id));
+
+        // Invalid sessions are purged
+        verify(this.advancedCache).remove(new SessionAttributeNamesKey(id));
+        verify(this.advancedCache).removeAsync(new SessionAttributeKey(id, fooId));
+    }
+
+    @Test
+    public void tryValueMissingAttribute() {
+        String id = "session";
+        Map<String, UUID> names = Collections.singletonMap("foo", UUID.randomUUID());
+
+        when(this.cache.get(new SessionAttributeNamesKey(id))).thenReturn(names);
+        when(this.cache.getAll(anySet())).thenReturn(Collections.emptyMap());
+
+        assertNull(this.factory.tryValue(id));
+
+        verify(this.advancedCache, never()).remove(any());
+    }
+
+    @Test
+    public void removeNonTransactional() {
+        String id = "session";
+        UUID fooId = UUID.randomUUID();
+        UUID barId = UUID.randomUUID();
+        Map<String, UUID> names = new HashMap<>();
+        names.put("foo", fooId);
+        names.put("bar", barId);
+        CompletableFuture<Object> fooFuture = new CompletableFuture<>();
+        CompletableFuture<Object> barFuture = CompletableFuture.completedFuture(null);
+
+        when(this.properties.isTransactional()).thenReturn(false);
+        when(this.advancedCache.remove(new SessionAttributeNamesKey(id))).thenReturn(names);
+        when(this.advancedCache.removeAsync(new SessionAttributeKey(id, fooId))).thenReturn(fooFuture);
+        when(this.advancedCache.removeAsync(new SessionAttributeKey(id, barId))).thenReturn(barFuture);
+
+        // Complete the first remove only after both were issued
+        CompletableFuture.runAsync(() -> {
+            verify(this.advancedCache, timeout(5000)).removeAsync(new SessionAttributeKey(id, barId));
+            fooFuture.complete(null);
+        });
+
+        assertTrue(this.factory.remove(id));
+
+        assertTrue(fooFuture.isDone());
+        verify(this.advancedCache, never()).remove(new SessionAttributeKey(id, fooId));
+        verify(this.advancedCache, never()).remove(new SessionAttributeKey(id, barId));
+    }
+
+    @Test
+    public void removeTransactional() {
+        String id = "session";
+        UUID fooId = UUID.randomUUID();
+        Map<String, UUID> names = Collections.singletonMap("foo", fooId);
+
+        when(this.properties.isTransactional()).thenReturn(true);
+        when(this.advancedCache.remove(new SessionAttributeNamesKey(id))).thenReturn(names);
+
+        assertTrue(this.factory.remove(id));
+
+        verify(this.advancedCache).remove(new SessionAttributeKey(id, fooId));
+        verify(this.advancedCache, never()).removeAsync(any());
+    }
+
+    @Test
+    public void purgeOnReadFailure() throws IOException {
+        String id = "session";
+        UUID fooId = UUID.randomUUID();
+        SessionAttributeKey fooKey = new SessionAttributeKey(id, fooId);
+        Map<String, UUID> names = Collections.singletonMap("foo", fooId);
+        Map<SessionAttributeKey, Object> values = Collections.singletonMap(fooKey, "invalid");
+
+        when(this.marshaller.read("invalid")).thenThrow(new IOException());
+        when(this.advancedCache.remove(new SessionAttributeNamesKey(id))).thenReturn(names);
+        when(this.advancedCache.removeAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        ImmutableSessionAttributes attributes = this.factory.createImmutableSessionAttributes(id, new SimpleImmutableEntry<>(new AtomicReference<>(names), values));
+
+        try {
+            attributes.getAttribute("foo");
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        verify(this.advancedCache).remove(new SessionAttributeNamesKey(id));
+        verify(this.advancedCache).removeAsync(fooKey);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PreloadedSessionAttributeMap}.
+ */
+public class PreloadedSessionAttributeMapTestCase {
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, String> cache = mock(Map.class);
+    private final Map<String, String> preloaded = new ConcurrentHashMap<>();
+    private final Map<String, String> map = new PreloadedSessionAttributeMap<>(this.cache, this.preloaded);
+
+    @Test
+    public void get() {
+        this.preloaded.put("foo", "preloaded");
+        when(this.cache.get("bar")).thenReturn("cached");
+
+        assertEquals("preloaded", this.map.get("foo"));
+        verify(this.cache, never()).get("foo");
+
+        assertEquals("cached", this.map.get("bar"));
+    }
+
+    @Test
+    public void put() {
+        this.preloaded.put("foo", "preloaded");
+        when(this.cache.put("foo", "new")).thenReturn("previous");
+        when(this.cache.get("foo")).thenReturn("new");
+
+        assertEquals("previous", this.map.put("foo", "new"));
+        assertFalse(this.preloaded.containsKey("foo"));
+        // Subsequent reads no longer return the stale preloaded value
+        assertEquals("new", this.map.get("foo"));
+    }
+
+    @Test
+    public void remove() {
+        this.preloaded.put("foo", "preloaded");
+        when(this.cache.remove("foo")).thenReturn("preloaded");
+
+        assertEquals("preloaded", this.map.remove("foo"));
+        assertFalse(this.preloaded.containsKey("foo"));
+        assertNull(this.map.get("foo"));
+    }
+}
@@ -24,6 +24,7 @@ package org.jboss.as.connector.services.resourceadapters;
 
 import org.jboss.as.naming.ContextListAndJndiViewManagedReferenceFactory;
 import org.jboss.as.naming.ContextListManagedReferenceFactory;
+import org.jboss.as.naming.ImmutableManagedReferenceFactory;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.as.naming.ValueManagedReference;
@@ -40,7 +41,7 @@ import org.jboss.msc.value.InjectedValue;
  * Service responsible for exposing a {@link ManagedReferenceFactory} for an admin object
  * @author @author <a href="mailto:stefano.maestri@redhat.com">Stefano Maestri</a>
  */
-public class AdminObjectReferenceFactoryService implements Service<ManagedReferenceFactory>, ContextListAndJndiViewManagedReferenceFactory {
+public class AdminObjectReferenceFactoryService implements Service<ManagedReferenceFactory>, ContextListAndJndiViewManagedReferenceFactory, ImmutableManagedReferenceFactory {
     public static final ServiceName SERVICE_NAME_BASE =
         ServiceName.JBOSS.append("connector").append("admin-object").append("reference-factory");
 
@@ -24,7 +24,9 @@ package org.jboss.as.connector.services.workmanager;
 
 import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
 
+import java.time.Duration;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.jboss.as.connector.security.ElytronSecurityIntegration;
 import org.jboss.as.connector.services.workmanager.transport.CommandDispatcherTransport;
@@ -61,15 +63,25 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
 
     private final InjectedValue<CommandDispatcherFactory> dispatcherFactory = new InjectedValue<>();
 
+    private final InjectedValue<ScheduledExecutorService> scheduledExecutor = new InjectedValue<>();
+
+    private final Duration statisticsFlushInterval;
+
+    private final int statisticsFlushThreshold;
+
     /**
      * create an instance
      *
      * @param value the work manager
+     * @param statisticsFlushInterval the interval at which accumulated distributed statistics are sent
+     * @param statisticsFlushThreshold the number of accumulated distributed statistics updates that triggers an early flush
      */
-    public DistributedWorkManagerService(NamedDistributedWorkManager value) {
+    public DistributedWorkManagerService(NamedDistributedWorkManager value, Duration statisticsFlushInterval, int statisticsFlushThreshold) {
         super();
         ROOT_LOGGER.debugf("Building DistributedWorkManager");
         this.value = value;
+        this.statisticsFlushInterval = statisticsFlushInterval;
+        this.statisticsFlushThreshold = statisticsFlushThreshold;
     }
 
     @Override
@@ -81,7 +93,7 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
     public void start(StartContext context) throws StartException {
         ROOT_LOGGER.debugf("Starting JCA DistributedWorkManager: ", value.getName());
 
-        CommandDispatcherTransport transport = new CommandDispatcherTransport(this.dispatcherFactory.getValue(), this.value.getName());
+        CommandDispatcherTransport transport = new CommandDispatcherTransport(this.dispatcherFactory.getValue(), this.value.getName(), this.scheduledExecutor.getValue(), this.statisticsFlushInterval, this.statisticsFlushThreshold);
 
         this.value.setTransport(transport);
 
@@ -153,4 +165,8 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
     public Injector<CommandDispatcherFactory> getCommandDispatcherFactoryInjector() {
         return this.dispatcherFactory;
     }
+
+    public Injector<ScheduledExecutorService> getScheduledExecutorInjector() {
+        return this.scheduledExecutor;
+    }
 }
@@ -23,6 +23,7 @@
 package org.jboss.as.connector.services.workmanager.transport;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -31,6 +32,10 @@ import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.resource.spi.work.DistributableWork;
 import javax.resource.spi.work.WorkException;
@@ -62,16 +67,35 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> implements GroupListener {
 
     private final ServiceExecutor executor = new StampedLockServiceExecutor();
+    private final DeltaStatisticsAccumulator statistics = new DeltaStatisticsAccumulator();
     private final CommandDispatcherFactory dispatcherFactory;
     private final String name;
+    private final ScheduledExecutorService scheduledExecutor;
+    private final Duration statisticsFlushInterval;
+    private final int statisticsFlushThreshold;
 
     private volatile CommandDispatcher<CommandDispatcherTransport> dispatcher;
     private volatile Registration groupListenerRegistration;
     private volatile boolean initialized = false;
+    private volatile ScheduledFuture<?> statisticsFlushFuture;
 
     public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name) {
+        this(dispatcherFactory, name, null, Duration.ZERO, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a transport that accumulates distributed statistics deltas and free thread updates,
+     * and sends them to each member as a single command per flush.
+     * @param scheduledExecutor the executor that runs the flushes, only used if the interval is positive
+     * @param statisticsFlushInterval the interval at which accumulated statistics are sent, accumulation is disabled if zero or negative
+     * @param statisticsFlushThreshold the number of accumulated updates that triggers a flush before the interval elapses
+     */
+    public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name, ScheduledExecutorService scheduledExecutor, Duration statisticsFlushInterval, int statisticsFlushThreshold) {
         this.dispatcherFactory = dispatcherFactory;
         this.name = name;
+        this.scheduledExecutor = scheduledExecutor;
+        this.statisticsFlushInterval = statisticsFlushInterval;
+        this.statisticsFlushThreshold = statisticsFlushThreshold;
     }
 
     @Override
@@ -83,11 +107,23 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
     public void startup() throws Exception {
         this.dispatcher = this.dispatcherFactory.createCommandDispatcher(this.name, this, WildFlySecurityManager.getClassLoaderPrivileged(this.getClass()));
         this.groupListenerRegistration = this.dispatcherFactory.getGroup().register(this);
+        if (!this.statisticsFlushInterval.isNegative() && !this.statisticsFlushInterval.isZero()) {
+            this.statistics.setMembers(this.dispatcherFactory.getGroup().getMembership().getMembers());
+            long interval = this.statisticsFlushInterval.toMillis();
+            this.statisticsFlushFuture = this.scheduledExecutor.scheduleWithFixedDelay(this::flushStatistics, interval, interval, TimeUnit.MILLISECONDS);
+        }
         this.broadcast(new JoinCommand());
     }
 
     @Override
     public void shutdown() {
+        ScheduledFuture<?> flushFuture = this.statisticsFlushFuture;
+        if (flushFuture != null) {
+            this.statisticsFlushFuture = null;
+            flushFuture.cancel(false);
+            // Send any remaining statistics
+            this.flushStatistics();
+        }
         this.executor.close(() -> {
             try {
                 this.broadcast(new LeaveCommand(this.getOwnAddress()));
@@ -115,9 +151,49 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
         return this.dispatcherFactory.getGroup().getLocalMember();
     }
 
+    /**
+     * Returns the number of messages saved by sending accumulated statistics in batches.
+     * @return the number of statistics messages that were not sent
+     */
+    public long getSavedStatisticsMessages() {
+        return this.statistics.getSavedMessages();
+    }
+
     @Override
     protected Serializable sendMessage(Node physicalAddress, Request request, Serializable... parameters) throws WorkException {
-        Command<?, CommandDispatcherTransport> command = createCommand(request, parameters);
+        if (this.statisticsFlushFuture != null) {
+            if (DeltaStatisticsAccumulator.isAccumulable(request)) {
+                if (this.statistics.add(physicalAddress, request, parameters) == this.statisticsFlushThreshold) {
+                    try {
+                        this.scheduledExecutor.execute(this::flushStatistics);
+                    } catch (RejectedExecutionException e) {
+                        // Server is shutting down
+                    }
+                }
+                return null;
+            }
+            if (request == Request.CLEAR_DISTRIBUTED_STATISTICS) {
+                // Statistics accumulated prior to clearing are obsolete
+                this.statistics.discard(physicalAddress, (Address) parameters[0]);
+            }
+        }
+        return this.send(physicalAddress, createCommand(request, parameters));
+    }
+
+    private void flushStatistics() {
+        // Flushes may overlap on the shared scheduled executor, so drain and send under a lock to preserve the order of free thread updates
+        synchronized (this.statistics) {
+            for (Map.Entry<Node, DeltaStatisticsCommand> entry : this.statistics.drain().entrySet()) {
+                try {
+                    this.send(entry.getKey(), entry.getValue());
+                } catch (WorkException e) {
+                    ConnectorLogger.ROOT_LOGGER.warn(e.getLocalizedMessage(), e);
+                }
+            }
+        }
+    }
+
+    private Serializable send(Node physicalAddress, Command<?, CommandDispatcherTransport> command) throws WorkException {
         CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
         ExceptionSupplier<Optional<Serializable>, WorkException> task = new ExceptionSupplier<Optional<Serializable>, WorkException>() {
             @Override
@@ -230,6 +306,8 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
 
     @Override
     public void membershipChanged(Membership previousMembership, Membership membership, boolean merged) {
+        // Stop accumulating statistics for leavers immediately
+        this.statistics.setMembers(membership.getMembers());
         Runnable task = () -> {
             Set<Node> leavers = new HashSet<>(previousMembership.getMembers());
             leavers.removeAll(membership.getMembers());
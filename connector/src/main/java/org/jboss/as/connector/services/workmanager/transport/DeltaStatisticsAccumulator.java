@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.wildfly.clustering.group.Node;
+
+/**
+ * Accumulates the distributed statistics deltas and free thread updates destined for each member,
+ * so that they can be sent as a single {@link DeltaStatisticsCommand} per member, rather than as a command per event.
+ */
+class DeltaStatisticsAccumulator {
+
+    enum Delta {
+        DOWORK_ACCEPTED(Request.DELTA_DOWORK_ACCEPTED) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaDoWorkAccepted(address);
+            }
+        },
+        DOWORK_REJECTED(Request.DELTA_DOWORK_REJECTED) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaDoWorkRejected(address);
+            }
+        },
+        SCHEDULEWORK_ACCEPTED(Request.DELTA_SCHEDULEWORK_ACCEPTED) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaScheduleWorkAccepted(address);
+            }
+        },
+        SCHEDULEWORK_REJECTED(Request.DELTA_SCHEDULEWORK_REJECTED) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaScheduleWorkRejected(address);
+            }
+        },
+        STARTWORK_ACCEPTED(Request.DELTA_STARTWORK_ACCEPTED) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaStartWorkAccepted(address);
+            }
+        },
+        STARTWORK_REJECTED(Request.DELTA_STARTWORK_REJECTED) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaStartWorkRejected(address);
+            }
+        },
+        WORK_FAILED(Request.DELTA_WORK_FAILED) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaWorkFailed(address);
+            }
+        },
+        WORK_SUCCESSFUL(Request.DELTA_WORK_SUCCESSFUL) {
+            @Override
+            void apply(CommandDispatcherTransport transport, Address address) {
+                transport.localDeltaWorkSuccessful(address);
+            }
+        },
+        ;
+        private final Request request;
+
+        Delta(Request request) {
+            this.request = request;
+        }
+
+        abstract void apply(CommandDispatcherTransport transport, Address address);
+
+        static Delta forRequest(Request request) {
+            for (Delta delta : values()) {
+                if (delta.request == request) {
+                    return delta;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final int SHORT_RUNNING_FREE = Delta.values().length;
+    static final int LONG_RUNNING_FREE = SHORT_RUNNING_FREE + 1;
+    static final long UNCHANGED = Long.MIN_VALUE;
+
+    private final ConcurrentMap<Node, ConcurrentMap<Address, AtomicLongArray>> statistics = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder saved = new LongAdder();
+
+    /**
+     * Indicates whether the specified request can be accumulated.
+     * @param request a transport request
+     * @return true, if the specified request can be accumulated, false otherwise
+     */
+    static boolean isAccumulable(Request request) {
+        return (request == Request.UPDATE_SHORTRUNNING_FREE) || (request == Request.UPDATE_LONGRUNNING_FREE) || (Delta.forRequest(request) != null);
+    }
+
+    /**
+     * Updates the members to which statistics may be accumulated.
+     * Any statistics accumulated for members not contained in the specified collection are discarded.
+     * @param members the current group members
+     */
+    void setMembers(Collection<Node> members) {
+        this.statistics.keySet().retainAll(members);
+        for (Node member : members) {
+            this.statistics.putIfAbsent(member, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Accumulates the specified request destined for the specified member.
+     * Requests destined for a non-member are dropped.
+     * @param member the target member
+     * @param request an accumulable request
+     * @param parameters the request parameters
+     * @return the number of requests accumulated since the last drain, or 0 if the request was dropped
+     */
+    int add(Node member, Request request, Serializable... parameters) {
+        Map<Address, AtomicLongArray> addresses = this.statistics.get(member);
+        if (addresses == null) {
+            return 0;
+        }
+        Address address = (Address) parameters[0];
+        AtomicLongArray values = addresses.computeIfAbsent(address, key -> createValues());
+        if (request == Request.UPDATE_SHORTRUNNING_FREE) {
+            values.set(SHORT_RUNNING_FREE, (Long) parameters[1]);
+        } else if (request == Request.UPDATE_LONGRUNNING_FREE) {
+            values.set(LONG_RUNNING_FREE, (Long) parameters[1]);
+        } else {
+            values.incrementAndGet(Delta.forRequest(request).ordinal());
+        }
+        return this.pending.incrementAndGet();
+    }
+
+    /**
+     * Discards any statistics accumulated for the specified address destined for the specified member.
+     * @param member the target member
+     * @param address a work manager address
+     */
+    void discard(Node member, Address address) {
+        Map<Address, AtomicLongArray> addresses = this.statistics.get(member);
+        if (addresses != null) {
+            addresses.remove(address);
+        }
+    }
+
+    /**
+     * Drains the accumulated statistics.
+     * @return a command per member
+     */
+    Map<Node, DeltaStatisticsCommand> drain() {
+        int accumulated = this.pending.getAndSet(0);
+        Map<Node, DeltaStatisticsCommand> commands = new HashMap<>();
+        for (Map.Entry<Node, ConcurrentMap<Address, AtomicLongArray>> entry : this.statistics.entrySet()) {
+            Map<Address, long[]> memberStatistics = new HashMap<>();
+            for (Map.Entry<Address, AtomicLongArray> addressEntry : entry.getValue().entrySet()) {
+                AtomicLongArray values = addressEntry.getValue();
+                long[] snapshot = new long[values.length()];
+                boolean changed = false;
+                for (int i = 0; i < snapshot.length; ++i) {
+                    long value = values.getAndSet(i, (i < SHORT_RUNNING_FREE) ? 0L : UNCHANGED);
+                    snapshot[i] = value;
+                    changed |= (i < SHORT_RUNNING_FREE) ? (value != 0L) : (value != UNCHANGED);
+                }
+                if (changed) {
+                    memberStatistics.put(addressEntry.getKey(), snapshot);
+                }
+            }
+            if (!memberStatistics.isEmpty()) {
+                commands.put(entry.getKey(), new DeltaStatisticsCommand(memberStatistics));
+            }
+        }
+        this.saved.add(Math.max(accumulated - commands.size(), 0));
+        return commands;
+    }
+
+    /**
+     * Returns the number of messages saved by sending accumulated requests in batches.
+     * @return the number of messages that were not sent
+     */
+    long getSavedMessages() {
+        return this.saved.sum();
+    }
+
+    private static AtomicLongArray createValues() {
+        AtomicLongArray values = new AtomicLongArray(LONG_RUNNING_FREE + 1);
+        values.set(SHORT_RUNNING_FREE, UNCHANGED);
+        values.set(LONG_RUNNING_FREE, UNCHANGED);
+        return values;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.wildfly.clustering.dispatcher.Command;
+
+/**
+ * Applies a batch of distributed statistics deltas and free thread updates, accumulated by a {@link DeltaStatisticsAccumulator}.
+ * Equivalent to sending the corresponding {@code Delta*Command} and {@code Update*RunningFreeCommand} instances individually.
+ */
+public class DeltaStatisticsCommand implements Command<Void, CommandDispatcherTransport> {
+    private static final long serialVersionUID = 6482539405786915743L;
+
+    private final Map<Address, long[]> statistics;
+
+    public DeltaStatisticsCommand(Map<Address, long[]> statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Void execute(CommandDispatcherTransport transport) {
+        for (Map.Entry<Address, long[]> entry : this.statistics.entrySet()) {
+            Address address = entry.getKey();
+            long[] values = entry.getValue();
+            for (DeltaStatisticsAccumulator.Delta delta : DeltaStatisticsAccumulator.Delta.values()) {
+                for (long i = values[delta.ordinal()]; i > 0; --i) {
+                    delta.apply(transport, address);
+                }
+            }
+            long shortRunningFree = values[DeltaStatisticsAccumulator.SHORT_RUNNING_FREE];
+            if (shortRunningFree != DeltaStatisticsAccumulator.UNCHANGED) {
+                transport.localUpdateShortRunningFree(address, shortRunningFree);
+            }
+            long longRunningFree = values[DeltaStatisticsAccumulator.LONG_RUNNING_FREE];
+            if (longRunningFree != DeltaStatisticsAccumulator.UNCHANGED) {
+                transport.localUpdateLongRunningFree(address, longRunningFree);
+            }
+        }
+        return null;
+    }
+}
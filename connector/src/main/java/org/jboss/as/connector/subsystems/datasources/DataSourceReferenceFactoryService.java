@@ -26,6 +26,7 @@ import javax.sql.DataSource;
 
 import org.jboss.as.naming.ContextListAndJndiViewManagedReferenceFactory;
 import org.jboss.as.naming.ContextListManagedReferenceFactory;
+import org.jboss.as.naming.ImmutableManagedReferenceFactory;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.as.naming.ValueManagedReference;
@@ -43,7 +44,7 @@ import org.jboss.msc.value.InjectedValue;
  *
  * @author John Bailey
  */
-public class DataSourceReferenceFactoryService implements Service<ManagedReferenceFactory>, ContextListAndJndiViewManagedReferenceFactory {
+public class DataSourceReferenceFactoryService implements Service<ManagedReferenceFactory>, ContextListAndJndiViewManagedReferenceFactory, ImmutableManagedReferenceFactory {
     public static final ServiceName SERVICE_NAME_BASE = AbstractDataSourceService.SERVICE_NAME_BASE.append("reference-factory");
     private final InjectedValue<DataSource> dataSourceValue = new InjectedValue<DataSource>();
 
@@ -62,7 +62,11 @@ public enum Attribute {
 
     JGROUPS_CLUSTER("jgroups-cluster"),
 
-    REQUEST_TIMEOUT("request-timeout");
+    REQUEST_TIMEOUT("request-timeout"),
+
+    INTERVAL("interval"),
+
+    THRESHOLD("threshold");
 
     private final String name;
 
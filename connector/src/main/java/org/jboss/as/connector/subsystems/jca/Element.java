@@ -74,7 +74,10 @@ public enum Element {
     TRACER("tracer"),
 
     /** elytron-enabled element **/
-    ELYTRON_ENABLED("elytron-enabled");
+    ELYTRON_ENABLED("elytron-enabled"),
+
+    /** statistics-flush element **/
+    STATISTICS_FLUSH("statistics-flush");
 
 
 
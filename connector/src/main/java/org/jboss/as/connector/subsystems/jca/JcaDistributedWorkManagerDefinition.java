@@ -30,19 +30,31 @@ import static org.jboss.as.connector.subsystems.jca.JcaWorkManagerDefinition.reg
 import java.util.EnumSet;
 
 import org.jboss.as.connector.metadata.api.common.Security;
+import org.jboss.as.connector.services.workmanager.NamedDistributedWorkManager;
+import org.jboss.as.connector.services.workmanager.transport.CommandDispatcherTransport;
+import org.jboss.as.connector.util.ConnectorServices;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PropertiesAttributeDefinition;
 import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.jca.core.spi.workmanager.transport.Transport;
+import org.jboss.msc.service.ServiceController;
 import org.wildfly.clustering.spi.ClusteringDefaultRequirement;
 
 /**
@@ -50,6 +62,9 @@ import org.wildfly.clustering.spi.ClusteringDefaultRequirement;
  */
 public class JcaDistributedWorkManagerDefinition extends SimpleResourceDefinition {
     protected static final PathElement PATH_DISTRIBUTED_WORK_MANAGER = PathElement.pathElement(DISTRIBUTED_WORKMANAGER);
+    static final SimpleAttributeDefinition SAVED_STATISTICS_MESSAGES = new SimpleAttributeDefinitionBuilder("saved-statistics-messages", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
     private final boolean registerRuntimeOnly;
 
     private JcaDistributedWorkManagerDefinition(final boolean registerRuntimeOnly) {
@@ -76,6 +91,25 @@ public class JcaDistributedWorkManagerDefinition extends SimpleResourceDefinitio
             resourceRegistration.registerReadWriteAttribute(ad, null, JcaDistributedWorkManagerWriteHandler.INSTANCE);
         }
 
+        OperationStepHandler reloadWriteHandler = new ReloadRequiredWriteAttributeHandler(DWmParameters.getReloadAttributeDefinitions());
+        for (final AttributeDefinition ad : DWmParameters.getReloadAttributeDefinitions()) {
+            resourceRegistration.registerReadWriteAttribute(ad, null, reloadWriteHandler);
+        }
+
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(SAVED_STATISTICS_MESSAGES, new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    ServiceController<?> controller = context.getServiceRegistry(false).getService(ConnectorServices.WORKMANAGER_SERVICE.append(context.getCurrentAddressValue()));
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        Transport transport = ((NamedDistributedWorkManager) controller.getValue()).getTransport();
+                        if (transport instanceof CommandDispatcherTransport) {
+                            context.getResult().set(((CommandDispatcherTransport) transport).getSavedStatisticsMessages());
+                        }
+                    }
+                }
+            });
+        }
     }
 
     @Override
@@ -129,6 +163,21 @@ public class JcaDistributedWorkManagerDefinition extends SimpleResourceDefinitio
                 .setXmlName(Security.Tag.ELYTRON_ENABLED.getLocalName())
                 .setAllowExpression(true)
                 .setDefaultValue(new ModelNode(ELYTRON_MANAGED_SECURITY))
+                .build()),
+        STATISTICS_FLUSH_INTERVAL(new SimpleAttributeDefinitionBuilder("statistics-flush-interval", ModelType.LONG, true)
+                .setXmlName(Attribute.INTERVAL.getLocalName())
+                .setAllowExpression(true)
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setValidator(new LongRangeValidator(0L, Long.MAX_VALUE, true, true))
+                .setDefaultValue(new ModelNode(0L))
+                .setRestartAllServices()
+                .build()),
+        STATISTICS_FLUSH_THRESHOLD(new SimpleAttributeDefinitionBuilder("statistics-flush-threshold", ModelType.INT, true)
+                .setXmlName(Attribute.THRESHOLD.getLocalName())
+                .setAllowExpression(true)
+                .setValidator(new IntRangeValidator(1, true, true))
+                .setDefaultValue(new ModelNode(1024))
+                .setRestartAllServices()
                 .build());
 
 
@@ -152,6 +201,13 @@ public class JcaDistributedWorkManagerDefinition extends SimpleResourceDefinitio
             };
         }
 
+        public static AttributeDefinition[] getReloadAttributeDefinitions() {
+            return new AttributeDefinition[]{
+                    STATISTICS_FLUSH_INTERVAL.getAttribute(),
+                    STATISTICS_FLUSH_THRESHOLD.getAttribute()
+            };
+        }
+
         public static AttributeDefinition[] getReadOnlyAttributeDefinitions() {
             return new AttributeDefinition[]{
                     NAME.getAttribute()
@@ -80,7 +80,7 @@ public class JcaExtension implements Extension {
 
     public static final String SUBSYSTEM_NAME = "jca";
 
-    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(5, 0, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(6, 0, 0);
 
     private static final String RESOURCE_NAME = JcaExtension.class.getPackage().getName() + ".LocalDescriptions";
 
@@ -113,6 +113,7 @@ public class JcaExtension implements Extension {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_3_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_4_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_5_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.JCA_6_0.getUriString(), () -> ConnectorSubsystemParser.INSTANCE);
     }
 
     static final class ConnectorSubsystemParser implements XMLStreamConstants, XMLElementReader<List<ModelNode>>,
@@ -200,6 +201,13 @@ public class JcaExtension implements Extension {
 
                     JcaDistributedWorkManagerDefinition.DWmParameters.ELYTRON_ENABLED.getAttribute().marshallAsElement(workManager, writer);
 
+                    if (workManager.hasDefined(JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_INTERVAL.getAttribute().getName()) ||
+                            workManager.hasDefined(JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_THRESHOLD.getAttribute().getName())) {
+                        writer.writeEmptyElement(Element.STATISTICS_FLUSH.getLocalName());
+                        ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_INTERVAL.getAttribute()).marshallAsAttribute(workManager, writer);
+                        ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_THRESHOLD.getAttribute()).marshallAsAttribute(workManager, writer);
+                    }
+
                     for (Property prop : workManager.asPropertyList()) {
                         if (WORKMANAGER_LONG_RUNNING.equals(prop.getName()) && prop.getValue().isDefined() && prop.getValue().asPropertyList().size() != 0) {
                             ThreadsParser.getInstance().writeBoundedQueueThreadPool(writer, prop.getValue().asProperty(), Element.LONG_RUNNING_THREADS.getLocalName(), false, true);
@@ -325,6 +333,7 @@ public class JcaExtension implements Extension {
             while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
 
                 switch (Namespace.forUri(reader.getNamespaceURI())) {
+                    case JCA_6_0:
                     case JCA_5_0:
                     case JCA_4_0:
                     case JCA_3_0:
@@ -385,7 +394,8 @@ public class JcaExtension implements Extension {
                             case TRACER: {
                                 if (Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_3_0) ||
                                     Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_4_0) ||
-                                    Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_5_0)) {
+                                    Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_5_0) ||
+                                    Namespace.forUri(reader.getNamespaceURI()).equals(Namespace.JCA_6_0)) {
                                     list.add(parseTracer(reader, address));
                                 } else {
                                     throw unexpectedElement(reader);
@@ -524,7 +534,8 @@ public class JcaExtension implements Extension {
                     }
                     case ELYTRON_ENABLED: {
                         switch (readerNS) {
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 String value = rawElementText(reader);
                                 JcaWorkManagerDefinition.WmParameters.ELYTRON_ENABLED.getAttribute().parseAndSetParameter(value, workManagerOperation, reader);
                                 break;
@@ -603,7 +614,8 @@ public class JcaExtension implements Extension {
                             case JCA_2_0:
                             case JCA_3_0:
                             case JCA_4_0:
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 parsePolicy(reader, distributedWorkManagerOperation);
                                 break;
                             }
@@ -618,7 +630,8 @@ public class JcaExtension implements Extension {
                             case JCA_2_0:
                             case JCA_3_0:
                             case JCA_4_0:
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 parseSelector(reader, distributedWorkManagerOperation);
                                 break;
                             }
@@ -630,7 +643,8 @@ public class JcaExtension implements Extension {
                     }
                     case ELYTRON_ENABLED: {
                         switch (readerNS) {
-                            case JCA_5_0: {
+                            case JCA_5_0:
+                            case JCA_6_0: {
                                 String value = rawElementText(reader);
                                 ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.ELYTRON_ENABLED.getAttribute()).parseAndSetParameter(value, distributedWorkManagerOperation, reader);
                                 break;
@@ -641,6 +655,18 @@ public class JcaExtension implements Extension {
                         }
                         break;
                     }
+                    case STATISTICS_FLUSH: {
+                        switch (readerNS) {
+                            case JCA_6_0: {
+                                parseStatisticsFlush(reader, distributedWorkManagerOperation);
+                                break;
+                            }
+                            default: {
+                                throw unexpectedElement(reader);
+                            }
+                        }
+                        break;
+                    }
                     default:
                         throw unexpectedElement(reader);
                 }
@@ -688,6 +714,30 @@ public class JcaExtension implements Extension {
             }
         }
 
+        private void parseStatisticsFlush(final XMLExtendedStreamReader reader, final ModelNode operation) throws XMLStreamException {
+
+            final int cnt = reader.getAttributeCount();
+            for (int i = 0; i < cnt; i++) {
+                final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+                switch (attribute) {
+                    case INTERVAL: {
+                        String value = rawAttributeText(reader, attribute.getLocalName());
+                        ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_INTERVAL.getAttribute()).parseAndSetParameter(value, operation, reader);
+                        break;
+                    }
+                    case THRESHOLD: {
+                        String value = rawAttributeText(reader, attribute.getLocalName());
+                        ((SimpleAttributeDefinition) JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_THRESHOLD.getAttribute()).parseAndSetParameter(value, operation, reader);
+                        break;
+                    }
+                    default: {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                }
+            }
+            requireNoContent(reader);
+        }
+
         private void parseSelector(final XMLExtendedStreamReader reader, final ModelNode operation) throws XMLStreamException {
 
 
@@ -36,6 +36,7 @@ public class JcaTransformers implements ExtensionTransformerRegistration{
 
     private static final ModelVersion EAP_6_2 = ModelVersion.create(1, 2, 0);
     private static final ModelVersion EAP_7_0 = ModelVersion.create(4, 0, 0);
+    private static final ModelVersion EAP_7_3 = ModelVersion.create(5, 0, 0);
 
     @Override
     public String getSubsystemName() {
@@ -45,8 +46,19 @@ public class JcaTransformers implements ExtensionTransformerRegistration{
     @Override
     public void registerTransformers(SubsystemTransformerRegistration subsystemRegistration) {
         ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystemRegistration.getCurrentSubsystemVersion());
-        ResourceTransformationDescriptionBuilder parentBuilder = chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), EAP_7_0);
+        ResourceTransformationDescriptionBuilder parentBuilder = chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), EAP_7_3);
         ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_DISTRIBUTED_WORK_MANAGER);
+        builder.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE,
+                        JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_INTERVAL.getAttribute(),
+                        JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_THRESHOLD.getAttribute())
+                .addRejectCheck(RejectAttributeChecker.DEFINED,
+                        JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_INTERVAL.getAttribute(),
+                        JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_THRESHOLD.getAttribute())
+                .end();
+
+        parentBuilder = chainedBuilder.createBuilder(EAP_7_3, EAP_7_0);
+        builder = parentBuilder.addChildResource(PATH_DISTRIBUTED_WORK_MANAGER);
         builder.getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, ModelNode.FALSE),
                         JcaDistributedWorkManagerDefinition.DWmParameters.ELYTRON_ENABLED.getAttribute())
@@ -66,6 +78,7 @@ public class JcaTransformers implements ExtensionTransformerRegistration{
         chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[]{
                 EAP_6_2,
                 EAP_7_0,
+                EAP_7_3,
         });
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import static org.junit.Assert.*;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.junit.Test;
+import org.wildfly.clustering.group.Node;
+
+/**
+ * Unit test for {@link DeltaStatisticsAccumulator}.
+ */
+public class DeltaStatisticsAccumulatorTestCase {
+
+    private final Node member1 = new TestNode("member1");
+    private final Node member2 = new TestNode("member2");
+    private final Address address1 = new Address("wm1", "workmanager1", "transport");
+    private final Address address2 = new Address("wm2", "workmanager2", "transport");
+
+    @Test
+    public void accumulable() {
+        for (Request request : Request.values()) {
+            boolean expected = (request == Request.UPDATE_SHORTRUNNING_FREE) || (request == Request.UPDATE_LONGRUNNING_FREE) || request.name().startsWith("DELTA_");
+            assertEquals(request.name(), expected, DeltaStatisticsAccumulator.isAccumulable(request));
+        }
+    }
+
+    @Test
+    public void drain() {
+        DeltaStatisticsAccumulator accumulator = new DeltaStatisticsAccumulator();
+        accumulator.setMembers(Arrays.asList(this.member1, this.member2));
+
+        assertEquals(1, accumulator.add(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address1));
+        assertEquals(2, accumulator.add(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address1));
+        assertEquals(3, accumulator.add(this.member1, Request.DELTA_WORK_FAILED, this.address1));
+        assertEquals(4, accumulator.add(this.member1, Request.UPDATE_SHORTRUNNING_FREE, this.address1, 5L));
+        assertEquals(5, accumulator.add(this.member1, Request.UPDATE_SHORTRUNNING_FREE, this.address1, 3L));
+        assertEquals(6, accumulator.add(this.member1, Request.DELTA_STARTWORK_REJECTED, this.address2));
+        assertEquals(7, accumulator.add(this.member2, Request.UPDATE_LONGRUNNING_FREE, this.address2, 7L));
+
+        Map<Node, DeltaStatisticsCommand> commands = accumulator.drain();
+
+        assertEquals(2, commands.size());
+
+        RecordingTransport transport = new RecordingTransport();
+        commands.get(this.member1).execute(transport);
+
+        assertEquals(2, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.DOWORK_ACCEPTED));
+        assertEquals(1, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.WORK_FAILED));
+        assertEquals(0, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.WORK_SUCCESSFUL));
+        // Only the latest free thread count is applied
+        assertEquals(Collections.singletonList(3L), transport.getShortRunningFreeUpdates(this.address1));
+        assertEquals(Collections.emptyList(), transport.getLongRunningFreeUpdates(this.address1));
+        assertEquals(1, transport.getCount(this.address2, DeltaStatisticsAccumulator.Delta.STARTWORK_REJECTED));
+        assertEquals(Collections.emptyList(), transport.getShortRunningFreeUpdates(this.address2));
+
+        transport = new RecordingTransport();
+        commands.get(this.member2).execute(transport);
+
+        assertEquals(Collections.singletonList(7L), transport.getLongRunningFreeUpdates(this.address2));
+        assertEquals(Collections.emptyList(), transport.getShortRunningFreeUpdates(this.address2));
+        for (DeltaStatisticsAccumulator.Delta delta : DeltaStatisticsAccumulator.Delta.values()) {
+            assertEquals(0, transport.getCount(this.address2, delta));
+        }
+
+        // 7 requests sent as 2 commands
+        assertEquals(5L, accumulator.getSavedMessages());
+
+        // Drain resets accumulated statistics
+        assertTrue(accumulator.drain().isEmpty());
+        assertEquals(1, accumulator.add(this.member1, Request.DELTA_WORK_SUCCESSFUL, this.address1));
+        commands = accumulator.drain();
+        assertEquals(Collections.singleton(this.member1), commands.keySet());
+
+        transport = new RecordingTransport();
+        commands.get(this.member1).execute(transport);
+
+        assertEquals(1, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.WORK_SUCCESSFUL));
+        assertEquals(0, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.DOWORK_ACCEPTED));
+        assertEquals(Collections.emptyList(), transport.getShortRunningFreeUpdates(this.address1));
+        assertEquals(5L, accumulator.getSavedMessages());
+    }
+
+    @Test
+    public void nonMember() {
+        DeltaStatisticsAccumulator accumulator = new DeltaStatisticsAccumulator();
+
+        // Updates are dropped until a target becomes a member
+        assertEquals(0, accumulator.add(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address1));
+        assertTrue(accumulator.drain().isEmpty());
+
+        accumulator.setMembers(Arrays.asList(this.member1, this.member2));
+
+        assertEquals(1, accumulator.add(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address1));
+        assertEquals(2, accumulator.add(this.member2, Request.DELTA_DOWORK_ACCEPTED, this.address1));
+
+        // Statistics accumulated for a leaver are discarded
+        accumulator.setMembers(Collections.singletonList(this.member2));
+
+        assertEquals(0, accumulator.add(this.member1, Request.DELTA_DOWORK_REJECTED, this.address1));
+
+        Map<Node, DeltaStatisticsCommand> commands = accumulator.drain();
+
+        assertEquals(Collections.singleton(this.member2), commands.keySet());
+
+        // Leaver must not be recreated by subsequent updates
+        assertEquals(0, accumulator.add(this.member1, Request.UPDATE_SHORTRUNNING_FREE, this.address1, 1L));
+        assertTrue(accumulator.drain().isEmpty());
+    }
+
+    @Test
+    public void discard() {
+        DeltaStatisticsAccumulator accumulator = new DeltaStatisticsAccumulator();
+        accumulator.setMembers(Collections.singletonList(this.member1));
+
+        accumulator.add(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address1);
+        accumulator.add(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address2);
+
+        accumulator.discard(this.member1, this.address1);
+        // Discarding for a non-member is a no-op
+        accumulator.discard(this.member2, this.address1);
+
+        Map<Node, DeltaStatisticsCommand> commands = accumulator.drain();
+
+        assertEquals(Collections.singleton(this.member1), commands.keySet());
+
+        RecordingTransport transport = new RecordingTransport();
+        commands.get(this.member1).execute(transport);
+
+        assertEquals(0, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.DOWORK_ACCEPTED));
+        assertEquals(1, transport.getCount(this.address2, DeltaStatisticsAccumulator.Delta.DOWORK_ACCEPTED));
+    }
+
+    static class TestNode implements Node {
+        private final String name;
+
+        TestNode(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public InetSocketAddress getSocketAddress() {
+            return null;
+        }
+    }
+}
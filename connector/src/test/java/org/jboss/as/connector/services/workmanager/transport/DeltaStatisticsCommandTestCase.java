@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.group.Node;
+
+/**
+ * Unit test for {@link DeltaStatisticsCommand}.
+ */
+public class DeltaStatisticsCommandTestCase {
+
+    private final Address address1 = new Address("wm1", "workmanager1", "transport");
+    private final Address address2 = new Address("wm2", "workmanager2", "transport");
+
+    @Test
+    public void equivalence() throws Exception {
+        // Individual commands, in the order they would have been sent
+        List<Command<Void, CommandDispatcherTransport>> individual = Arrays.asList(
+                new DeltaDoWorkAcceptedCommand(this.address1),
+                new UpdateShortRunningFreeCommand(this.address1, 9L),
+                new DeltaDoWorkRejectedCommand(this.address1),
+                new DeltaScheduleWorkAcceptedCommand(this.address1),
+                new DeltaScheduleWorkRejectedCommand(this.address2),
+                new DeltaStartWorkAcceptedCommand(this.address2),
+                new DeltaStartWorkRejectedCommand(this.address1),
+                new DeltaWorkFailedCommand(this.address2),
+                new DeltaWorkSuccessfulCommand(this.address1),
+                new DeltaWorkSuccessfulCommand(this.address1),
+                new UpdateLongRunningFreeCommand(this.address2, 4L),
+                new UpdateShortRunningFreeCommand(this.address1, 8L));
+
+        RecordingTransport expected = new RecordingTransport();
+        for (Command<Void, CommandDispatcherTransport> command : individual) {
+            command.execute(expected);
+        }
+
+        Node member = new DeltaStatisticsAccumulatorTestCase.TestNode("member");
+        DeltaStatisticsAccumulator accumulator = new DeltaStatisticsAccumulator();
+        accumulator.setMembers(Collections.singletonList(member));
+        accumulator.add(member, Request.DELTA_DOWORK_ACCEPTED, this.address1);
+        accumulator.add(member, Request.UPDATE_SHORTRUNNING_FREE, this.address1, 9L);
+        accumulator.add(member, Request.DELTA_DOWORK_REJECTED, this.address1);
+        accumulator.add(member, Request.DELTA_SCHEDULEWORK_ACCEPTED, this.address1);
+        accumulator.add(member, Request.DELTA_SCHEDULEWORK_REJECTED, this.address2);
+        accumulator.add(member, Request.DELTA_STARTWORK_ACCEPTED, this.address2);
+        accumulator.add(member, Request.DELTA_STARTWORK_REJECTED, this.address1);
+        accumulator.add(member, Request.DELTA_WORK_FAILED, this.address2);
+        accumulator.add(member, Request.DELTA_WORK_SUCCESSFUL, this.address1);
+        accumulator.add(member, Request.DELTA_WORK_SUCCESSFUL, this.address1);
+        accumulator.add(member, Request.UPDATE_LONGRUNNING_FREE, this.address2, 4L);
+        accumulator.add(member, Request.UPDATE_SHORTRUNNING_FREE, this.address1, 8L);
+
+        RecordingTransport result = new RecordingTransport();
+        accumulator.drain().get(member).execute(result);
+
+        for (Address address : Arrays.asList(this.address1, this.address2)) {
+            for (DeltaStatisticsAccumulator.Delta delta : DeltaStatisticsAccumulator.Delta.values()) {
+                assertEquals(delta.name(), expected.getCount(address, delta), result.getCount(address, delta));
+            }
+            // Only the final free thread count is observable
+            assertEquals(last(expected.getShortRunningFreeUpdates(address)), last(result.getShortRunningFreeUpdates(address)));
+            assertEquals(last(expected.getLongRunningFreeUpdates(address)), last(result.getLongRunningFreeUpdates(address)));
+        }
+    }
+
+    @Test
+    public void unchanged() {
+        long[] values = new long[DeltaStatisticsAccumulator.LONG_RUNNING_FREE + 1];
+        values[DeltaStatisticsAccumulator.SHORT_RUNNING_FREE] = DeltaStatisticsAccumulator.UNCHANGED;
+        values[DeltaStatisticsAccumulator.LONG_RUNNING_FREE] = DeltaStatisticsAccumulator.UNCHANGED;
+        values[DeltaStatisticsAccumulator.Delta.WORK_FAILED.ordinal()] = 3L;
+
+        RecordingTransport transport = new RecordingTransport();
+        new DeltaStatisticsCommand(Collections.singletonMap(this.address1, values)).execute(transport);
+
+        assertEquals(3, transport.getUpdates().size());
+        assertEquals(3, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.WORK_FAILED));
+    }
+
+    @Test
+    public void serialization() throws IOException, ClassNotFoundException {
+        long[] values = new long[DeltaStatisticsAccumulator.LONG_RUNNING_FREE + 1];
+        values[DeltaStatisticsAccumulator.Delta.DOWORK_ACCEPTED.ordinal()] = 2L;
+        values[DeltaStatisticsAccumulator.SHORT_RUNNING_FREE] = 5L;
+        values[DeltaStatisticsAccumulator.LONG_RUNNING_FREE] = DeltaStatisticsAccumulator.UNCHANGED;
+        Map<Address, long[]> statistics = new HashMap<>();
+        statistics.put(this.address1, values);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(new DeltaStatisticsCommand(statistics));
+        }
+        DeltaStatisticsCommand command;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            command = (DeltaStatisticsCommand) input.readObject();
+        }
+
+        RecordingTransport transport = new RecordingTransport();
+        command.execute(transport);
+
+        assertEquals(2, transport.getCount(this.address1, DeltaStatisticsAccumulator.Delta.DOWORK_ACCEPTED));
+        assertEquals(Collections.singletonList(5L), transport.getShortRunningFreeUpdates(this.address1));
+        assertEquals(Collections.emptyList(), transport.getLongRunningFreeUpdates(this.address1));
+    }
+
+    private static Long last(List<Long> values) {
+        return values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+
+/**
+ * {@link CommandDispatcherTransport} that records the distributed statistics updates applied to it.
+ */
+class RecordingTransport extends CommandDispatcherTransport {
+
+    private final List<Object[]> updates = new ArrayList<>();
+
+    RecordingTransport() {
+        super(null, "test", Duration.ZERO, 1);
+    }
+
+    List<Object[]> getUpdates() {
+        return Collections.unmodifiableList(this.updates);
+    }
+
+    int getCount(Address address, DeltaStatisticsAccumulator.Delta delta) {
+        int count = 0;
+        for (Object[] update : this.updates) {
+            if (update[0].equals(address) && (update[1] == delta)) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    List<Long> getShortRunningFreeUpdates(Address address) {
+        return this.getFree(address, DeltaStatisticsAccumulator.SHORT_RUNNING_FREE);
+    }
+
+    List<Long> getLongRunningFreeUpdates(Address address) {
+        return this.getFree(address, DeltaStatisticsAccumulator.LONG_RUNNING_FREE);
+    }
+
+    private List<Long> getFree(Address address, int index) {
+        List<Long> values = new ArrayList<>();
+        for (Object[] update : this.updates) {
+            if (update[0].equals(address) && Integer.valueOf(index).equals(update[1])) {
+                values.add((Long) update[2]);
+            }
+        }
+        return values;
+    }
+
+    private void record(Address address, DeltaStatisticsAccumulator.Delta delta) {
+        this.updates.add(new Object[] { address, delta });
+    }
+
+    @Override
+    public void localDeltaDoWorkAccepted(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.DOWORK_ACCEPTED);
+    }
+
+    @Override
+    public void localDeltaDoWorkRejected(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.DOWORK_REJECTED);
+    }
+
+    @Override
+    public void localDeltaScheduleWorkAccepted(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.SCHEDULEWORK_ACCEPTED);
+    }
+
+    @Override
+    public void localDeltaScheduleWorkRejected(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.SCHEDULEWORK_REJECTED);
+    }
+
+    @Override
+    public void localDeltaStartWorkAccepted(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.STARTWORK_ACCEPTED);
+    }
+
+    @Override
+    public void localDeltaStartWorkRejected(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.STARTWORK_REJECTED);
+    }
+
+    @Override
+    public void localDeltaWorkFailed(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.WORK_FAILED);
+    }
+
+    @Override
+    public void localDeltaWorkSuccessful(Address address) {
+        this.record(address, DeltaStatisticsAccumulator.Delta.WORK_SUCCESSFUL);
+    }
+
+    @Override
+    public void localUpdateShortRunningFree(Address address, Long freeCount) {
+        this.updates.add(new Object[] { address, DeltaStatisticsAccumulator.SHORT_RUNNING_FREE, freeCount });
+    }
+
+    @Override
+    public void localUpdateLongRunningFree(Address address, Long freeCount) {
+        this.updates.add(new Object[] { address, DeltaStatisticsAccumulator.LONG_RUNNING_FREE, freeCount });
+    }
+}
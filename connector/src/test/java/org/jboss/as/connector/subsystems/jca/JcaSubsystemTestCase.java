@@ -23,6 +23,8 @@ package org.jboss.as.connector.subsystems.jca;
 
 import static org.jboss.as.connector.subsystems.jca.Constants.WORKMANAGER_SHORT_RUNNING;
 import static org.jboss.as.connector.subsystems.jca.JcaDistributedWorkManagerDefinition.DWmParameters.ELYTRON_ENABLED;
+import static org.jboss.as.connector.subsystems.jca.JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_INTERVAL;
+import static org.jboss.as.connector.subsystems.jca.JcaDistributedWorkManagerDefinition.DWmParameters.STATISTICS_FLUSH_THRESHOLD;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -67,7 +69,7 @@ public class JcaSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-jca_5_0.xsd";
+        return "schema/wildfly-jca_6_0.xsd";
     }
 
     @Override
@@ -215,6 +217,16 @@ public class JcaSubsystemTestCase extends AbstractSubsystemBaseTest {
     public void testTransformerEAP7Elytron() throws Exception {
         testRejectingTransformerElytronEnabled(ModelTestControllerVersion.EAP_7_0_0, ModelVersion.create(4, 0, 0), "jca-full-elytron.xml");
     }
+
+    @Test
+    public void testTransformerEAP73() throws Exception {
+        testTransformer7(ModelTestControllerVersion.EAP_7_3_0, ModelVersion.create(5, 0, 0), "jca-full.xml");
+    }
+
+    @Test
+    public void testTransformerEAP73StatisticsFlush() throws Exception {
+        testRejectingTransformerStatisticsFlush(ModelTestControllerVersion.EAP_7_3_0, ModelVersion.create(5, 0, 0), "jca-full-elytron.xml");
+    }
     /**
      * Tests transformation of model from 1.2.0 version into 1.1.0 version.
      *
@@ -315,11 +327,42 @@ public class JcaSubsystemTestCase extends AbstractSubsystemBaseTest {
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, xmlOps,
                 new FailedOperationTransformationConfig()
                         .addFailedAttribute(PathAddress.pathAddress(JcaSubsystemRootDefinition.PATH_SUBSYSTEM, JcaDistributedWorkManagerDefinition.PATH_DISTRIBUTED_WORK_MANAGER),
-                                new FailedOperationTransformationConfig.NewAttributesConfig(ELYTRON_ENABLED.getAttribute()))
+                                new FailedOperationTransformationConfig.NewAttributesConfig(ELYTRON_ENABLED.getAttribute(), STATISTICS_FLUSH_INTERVAL.getAttribute(), STATISTICS_FLUSH_THRESHOLD.getAttribute()))
                         .addFailedAttribute(PathAddress.pathAddress(JcaSubsystemRootDefinition.PATH_SUBSYSTEM, JcaWorkManagerDefinition.PATH_WORK_MANAGER),
                                 new FailedOperationTransformationConfig.NewAttributesConfig(ELYTRON_ENABLED.getAttribute())));
     }
 
+    /**
+     * Tests rejection of the statistics flush attributes by a legacy version that does not support them.
+     *
+     * @throws Exception
+     */
+    private void testRejectingTransformerStatisticsFlush(ModelTestControllerVersion controllerVersion, ModelVersion modelVersion, String xmlResourceName) throws Exception {
+        // create builder for current subsystem version
+        KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization());
+
+        // create builder for legacy subsystem version
+        builder.createLegacyKernelServicesBuilder(null, controllerVersion, modelVersion)
+                .addMavenResourceURL(controllerVersion.getMavenGroupId() + ":wildfly-connector:" + controllerVersion.getMavenGavVersion())
+                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-threads:" + controllerVersion.getCoreVersion())
+                .setExtensionClassName("org.jboss.as.connector.subsystems.jca.JcaExtension")
+                .excludeFromParent(SingleClassFilter.createFilter(ConnectorLogger.class));
+
+        KernelServices mainServices = builder.build();
+        KernelServices legacyServices = mainServices.getLegacyServices(modelVersion);
+
+        Assert.assertNotNull(legacyServices);
+        assertTrue("main services did not boot", mainServices.isSuccessfulBoot());
+        assertTrue(legacyServices.isSuccessfulBoot());
+
+        List<ModelNode> xmlOps = builder.parseXmlResource(xmlResourceName);
+
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, xmlOps,
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(PathAddress.pathAddress(JcaSubsystemRootDefinition.PATH_SUBSYSTEM, JcaDistributedWorkManagerDefinition.PATH_DISTRIBUTED_WORK_MANAGER),
+                                new FailedOperationTransformationConfig.NewAttributesConfig(STATISTICS_FLUSH_INTERVAL.getAttribute(), STATISTICS_FLUSH_THRESHOLD.getAttribute())));
+    }
+
     @Override
     protected void compareXml(String configId, String original, String marshalled) throws Exception {
         super.compareXml(configId, original, marshalled, true);
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.concurrent.ContextService;
+
+import org.jboss.as.ee.concurrent.handle.ClassLoaderContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.NamingContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.OtherEESetupActionsContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
+import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures saving, setting up and resetting the invocation context of a {@link ConcurrentContext}, as done per task submitted to a managed executor,
+ * with the handles of context invariant factories shared by all saves, or saved per submit.
+ * The allocations per submit are reported by the GC profiler (gc.alloc.rate.norm), which the module runs with by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextSetupBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean shared;
+
+    private ConcurrentContext context;
+
+    @Setup
+    public void setup() {
+        this.context = new ConcurrentContext();
+        this.context.addFactory(this.factory(new ClassLoaderContextHandleFactory(ContextSetupBenchmark.class.getClassLoader())));
+        this.context.addFactory(this.factory(new NamingContextHandleFactory(null, null)));
+        this.context.addFactory(this.factory(new OtherEESetupActionsContextHandleFactory(Collections.emptyList())));
+    }
+
+    private ContextHandleFactory factory(ContextHandleFactory factory) {
+        return this.shared ? factory : new PerSaveContextHandleFactory(factory);
+    }
+
+    @Benchmark
+    public ResetContextHandle submit() {
+        SetupContextHandle handle = this.context.saveContext(null, null);
+        ResetContextHandle resetHandle = handle.setup();
+        resetHandle.reset();
+        return resetHandle;
+    }
+
+    /**
+     * Saves a handle per invocation context save, as any factory did before context invariant handles were shared.
+     */
+    private static class PerSaveContextHandleFactory implements ContextHandleFactory {
+        private final ContextHandleFactory factory;
+
+        PerSaveContextHandleFactory(ContextHandleFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            return this.factory.saveContext(contextService, contextObjectProperties);
+        }
+
+        @Override
+        public int getChainPriority() {
+            return this.factory.getChainPriority();
+        }
+
+        @Override
+        public String getName() {
+            return this.factory.getName();
+        }
+
+        @Override
+        public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) throws IOException {
+            this.factory.writeSetupContextHandle(contextHandle, out);
+        }
+
+        @Override
+        public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            return this.factory.readSetupContextHandle(in);
+        }
+    }
+}
@@ -41,9 +41,10 @@ import java.io.ObjectOutputStream;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
@@ -96,7 +97,7 @@ public class ConcurrentContext {
     }
 
     private final Map<String, ContextHandleFactory> factoryMap = new HashMap<>();
-    private List<ContextHandleFactory> factoryOrderedList;
+    private volatile HandleChain handleChain = new HandleChain(this, Collections.emptyList());
 
     private volatile ServiceName serviceName;
 
@@ -126,7 +127,7 @@ public class ConcurrentContext {
         };
         SortedSet<ContextHandleFactory> sortedSet = new TreeSet<>(comparator);
         sortedSet.addAll(factoryMap.values());
-        factoryOrderedList = new ArrayList<>(sortedSet);
+        handleChain = new HandleChain(this, new ArrayList<>(sortedSet));
     }
 
     /**
@@ -136,11 +137,46 @@ public class ConcurrentContext {
      * @return
      */
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        final List<SetupContextHandle> handles = new ArrayList<>(factoryOrderedList.size());
-        for (ContextHandleFactory factory : factoryOrderedList) {
-            handles.add(factory.saveContext(contextService, contextObjectProperties));
+        final HandleChain handleChain = this.handleChain;
+        if (handleChain.sharedHandle != null) {
+            return handleChain.sharedHandle;
+        }
+        final SetupContextHandle[] handles = new SetupContextHandle[handleChain.factories.length];
+        for (int i = 0; i < handles.length; i++) {
+            final SetupContextHandle invariantHandle = handleChain.invariantHandles[i];
+            handles[i] = invariantHandle != null ? invariantHandle : handleChain.factories[i].saveContext(contextService, contextObjectProperties);
+        }
+        return new ChainedSetupContextHandle(this, Arrays.asList(handles));
+    }
+
+    /**
+     * The ordered factories, with the handles of the context invariant ones saved once and shared by all saves.
+     */
+    private static class HandleChain {
+
+        private final ContextHandleFactory[] factories;
+        /**
+         * the shared handles of the context invariant factories, null elements for the other factories
+         */
+        private final SetupContextHandle[] invariantHandles;
+        /**
+         * the chained handle shared by all saves, if all factories are context invariant, otherwise null
+         */
+        private final ChainedSetupContextHandle sharedHandle;
+
+        private HandleChain(ConcurrentContext concurrentContext, List<ContextHandleFactory> factories) {
+            this.factories = factories.toArray(new ContextHandleFactory[factories.size()]);
+            this.invariantHandles = new SetupContextHandle[this.factories.length];
+            boolean invariant = true;
+            for (int i = 0; i < this.factories.length; i++) {
+                if (this.factories[i].isContextInvariant()) {
+                    this.invariantHandles[i] = this.factories[i].saveContext(null, null);
+                } else {
+                    invariant = false;
+                }
+            }
+            this.sharedHandle = invariant ? new ChainedSetupContextHandle(concurrentContext, Arrays.asList(this.invariantHandles)) : null;
         }
-        return new ChainedSetupContextHandle(this, handles);
     }
 
     /**
@@ -159,12 +195,12 @@ public class ConcurrentContext {
 
         @Override
         public ResetContextHandle setup() throws IllegalStateException {
-            final LinkedList<ResetContextHandle> resetHandles = new LinkedList<>();
+            final List<ResetContextHandle> resetHandles = new ArrayList<>(setupHandles.size());
             final ResetContextHandle resetContextHandle = new ChainedResetContextHandle(resetHandles);
             try {
                 ConcurrentContext.pushCurrent(concurrentContext);
                 for (SetupContextHandle handle : setupHandles) {
-                    resetHandles.addFirst(handle.setup());
+                    resetHandles.add(handle.setup());
                 }
             } catch (Error | RuntimeException e) {
                 resetContextHandle.reset();
@@ -281,9 +317,10 @@ public class ConcurrentContext {
         @Override
         public void reset() {
             if(resetHandles != null) {
-                for (ResetContextHandle handle : resetHandles) {
+                // reset in the reverse order of setup
+                for (int i = resetHandles.size() - 1; i >= 0; i--) {
                     try {
-                        handle.reset();
+                        resetHandles.get(i).reset();
                     } catch (Throwable e) {
                         EeLogger.ROOT_LOGGER.debug("failed to reset handle",e);
                     }
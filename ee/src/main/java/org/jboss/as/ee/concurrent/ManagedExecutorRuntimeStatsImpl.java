@@ -17,8 +17,6 @@
  */
 package org.jboss.as.ee.concurrent;
 
-import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
-
 import java.util.Collection;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -28,16 +26,16 @@ import java.util.concurrent.ThreadPoolExecutor;
  */
 class ManagedExecutorRuntimeStatsImpl implements ManagedExecutorRuntimeStats {
 
-    private final AbstractManagedExecutorService abstractManagedExecutorService;
+    private final ManagedExecutorWithHungThreads executorWithHungThreads;
     private final ThreadPoolExecutor threadPoolExecutor;
 
     ManagedExecutorRuntimeStatsImpl(ManagedExecutorServiceImpl executorService) {
-        this.abstractManagedExecutorService = executorService;
+        this.executorWithHungThreads = executorService;
         this.threadPoolExecutor = executorService.getThreadPoolExecutor();
     }
 
     ManagedExecutorRuntimeStatsImpl(ManagedScheduledExecutorServiceImpl executorService) {
-        this.abstractManagedExecutorService = executorService;
+        this.executorWithHungThreads = executorService;
         this.threadPoolExecutor = executorService.getThreadPoolExecutor();
     }
 
@@ -58,8 +56,8 @@ class ManagedExecutorRuntimeStatsImpl implements ManagedExecutorRuntimeStats {
 
     @Override
     public int getHungThreadsCount() {
-        final Collection hungThreads = abstractManagedExecutorService.getHungThreads();
-        return hungThreads != null ? hungThreads.size() : 0;
+        final Collection hungThreads = executorWithHungThreads.getHungThreads();
+        return (hungThreads != null ? hungThreads.size() : 0) + executorWithHungThreads.getHungVirtualThreadTasks().size();
     }
 
     @Override
@@ -24,8 +24,11 @@ package org.jboss.as.ee.concurrent;
 
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
 import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.jboss.as.ee.concurrent.ManagedThreadFactoryImpl.VirtualThreadTask;
 import org.wildfly.extension.requestcontroller.ControlPoint;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
@@ -43,17 +46,23 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
 
     private final ControlPoint controlPoint;
     private final ManagedExecutorRuntimeStats runtimeStats;
+    private final long hungTaskThreshold;
+    private final boolean longRunningTasks;
 
     public ManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, ContextServiceImpl contextService, RejectPolicy rejectPolicy, BlockingQueue<Runnable> queue, ControlPoint controlPoint) {
         super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, contextService, rejectPolicy, queue);
         this.controlPoint = controlPoint;
         this.runtimeStats = new ManagedExecutorRuntimeStatsImpl(this);
+        this.hungTaskThreshold = hungTaskThreshold;
+        this.longRunningTasks = longRunningTasks;
     }
 
     public ManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, ContextServiceImpl contextService, RejectPolicy rejectPolicy, ControlPoint controlPoint) {
         super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService, rejectPolicy);
         this.controlPoint = controlPoint;
         this.runtimeStats = new ManagedExecutorRuntimeStatsImpl(this);
+        this.hungTaskThreshold = hungTaskThreshold;
+        this.longRunningTasks = longRunningTasks;
     }
 
     @Override
@@ -105,6 +114,14 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
         return (ThreadPoolExecutor) super.getThreadPoolExecutor();
     }
 
+    @Override
+    public Collection<VirtualThreadTask> getHungVirtualThreadTasks() {
+        if (longRunningTasks || hungTaskThreshold <= 0 || !(getManagedThreadFactory() instanceof org.jboss.as.ee.concurrent.ManagedThreadFactoryImpl)) {
+            return Collections.emptyList();
+        }
+        return ((org.jboss.as.ee.concurrent.ManagedThreadFactoryImpl) getManagedThreadFactory()).getHungVirtualThreadTasks(hungTaskThreshold);
+    }
+
     /**
      *
      * @return the executor's runtime stats
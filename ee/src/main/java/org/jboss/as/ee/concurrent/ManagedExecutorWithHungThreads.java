@@ -18,9 +18,11 @@
 package org.jboss.as.ee.concurrent;
 
 import org.glassfish.enterprise.concurrent.AbstractManagedThread;
+import org.jboss.as.ee.concurrent.ManagedThreadFactoryImpl.VirtualThreadTask;
 import org.jboss.as.ee.logging.EeLogger;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * A managed executor with support for hung threads.
@@ -58,6 +60,18 @@ public interface ManagedExecutorWithHungThreads {
                 }
             }
         }
+        for (VirtualThreadTask task : getHungVirtualThreadTasks()) {
+            final String threadName = task.getThreadName();
+            try {
+                if (task.cancel()) {
+                    EeLogger.ROOT_LOGGER.hungTaskCancelled(executorName, threadName);
+                } else {
+                    EeLogger.ROOT_LOGGER.hungTaskNotCancelled(executorName, threadName);
+                }
+            } catch (Throwable throwable) {
+                EeLogger.ROOT_LOGGER.huntTaskTerminationFailure(throwable, executorName, threadName);
+            }
+        }
     }
 
     /**
@@ -65,4 +79,12 @@ public interface ManagedExecutorWithHungThreads {
      * @return the executor's hung threads
      */
     Collection<AbstractManagedThread> getHungThreads();
+
+    /**
+     *
+     * @return the executor's hung tasks running on virtual threads
+     */
+    default Collection<VirtualThreadTask> getHungVirtualThreadTasks() {
+        return Collections.emptyList();
+    }
 }
@@ -33,6 +33,13 @@ import javax.enterprise.concurrent.ManagedThreadFactory;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * {@link ManagedThreadFactory} implementation ensuring {@link SecurityIdentity} propagation into new threads.
@@ -51,10 +58,32 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
      */
     private final AccessControlContext accessControlContext;
 
+    /**
+     * the factory of virtual threads, null if the factory creates platform threads
+     */
+    private final ThreadFactory virtualThreadFactory;
+
+    /**
+     * the tasks currently running on virtual threads created by the factory
+     */
+    private final Map<Thread, VirtualThreadTask> virtualThreadTasks = new ConcurrentHashMap<>();
+
     public ManagedThreadFactoryImpl(String name, ContextServiceImpl contextService, int priority) {
+        this(name, contextService, priority, false);
+    }
+
+    /**
+     *
+     * @param name
+     * @param contextService
+     * @param priority
+     * @param virtualThreads if true the factory creates virtual threads, which requires {@link VirtualThreads#isSupported()}
+     */
+    public ManagedThreadFactoryImpl(String name, ContextServiceImpl contextService, int priority, boolean virtualThreads) {
         super(name, contextService, priority);
         this.priority = priority;
         this.accessControlContext = AccessController.getContext();
+        this.virtualThreadFactory = virtualThreads ? VirtualThreads.newThreadFactory(name + "-VirtualThread-") : null;
     }
 
     /**
@@ -65,6 +94,25 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
         return priority;
     }
 
+    /**
+     *
+     * @return true if the factory creates virtual threads, false otherwise
+     */
+    public boolean isVirtual() {
+        return virtualThreadFactory != null;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        if (virtualThreadFactory == null) {
+            return super.newThread(r);
+        }
+        // virtual threads are only used as executor workers, whose tasks setup their own context
+        final Thread t = AccessController.doPrivileged((PrivilegedAction<Thread>) () -> virtualThreadFactory.newThread(r), accessControlContext);
+        resetContextClassLoader(t);
+        return t;
+    }
+
     protected AbstractManagedThread createThread(Runnable r, final ContextHandle contextHandleForSetup) {
         if (contextHandleForSetup != null) {
             // app thread, do identity wrap
@@ -72,6 +120,11 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
         }
         // use the factory's acc as privileged, otherwise the new thread inherits current thread's acc
         final AbstractManagedThread t = AccessController.doPrivileged(new CreateThreadAction(r, contextHandleForSetup), accessControlContext);
+        resetContextClassLoader(t);
+        return t;
+    }
+
+    private static void resetContextClassLoader(final Thread t) {
         // reset thread classloader to prevent leaks
         if (!WildFlySecurityManager.isChecking()) {
             t.setContextClassLoader(null);
@@ -81,7 +134,6 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
                 return null;
             });
         }
-        return t;
     }
 
     @Override
@@ -89,6 +141,8 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
         super.taskStarting(t, task);
         if (t instanceof ManagedThread) {
             ((ManagedThread)t).task = task;
+        } else if (virtualThreadFactory != null) {
+            virtualThreadTasks.put(t, new VirtualThreadTask(t, task));
         }
     }
 
@@ -97,7 +151,28 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
         super.taskDone(t);
         if (t instanceof ManagedThread) {
             ((ManagedThread)t).task = null;
+        } else if (virtualThreadFactory != null) {
+            virtualThreadTasks.remove(t);
+        }
+    }
+
+    /**
+     *
+     * @param hungTaskThreshold the time, in milliseconds, after which a running task is considered hung
+     * @return the tasks running on the factory's virtual threads for longer than the specified threshold
+     */
+    Collection<VirtualThreadTask> getHungVirtualThreadTasks(long hungTaskThreshold) {
+        if (virtualThreadTasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final long now = System.currentTimeMillis();
+        final List<VirtualThreadTask> hungTasks = new ArrayList<>();
+        for (VirtualThreadTask task : virtualThreadTasks.values()) {
+            if (now - task.startTime > hungTaskThreshold) {
+                hungTasks.add(task);
+            }
         }
+        return hungTasks;
     }
 
     private final class CreateThreadAction implements PrivilegedAction<AbstractManagedThread> {
@@ -141,4 +216,35 @@ public class ManagedThreadFactoryImpl extends org.glassfish.enterprise.concurren
             return false;
         }
     }
+
+    /**
+     * A task running on a virtual thread, which unlike a {@link ManagedThread} can't track its own task.
+     */
+    public static class VirtualThreadTask {
+        private final Thread thread;
+        private final ManagedFutureTask task;
+        private final long startTime;
+
+        VirtualThreadTask(Thread thread, ManagedFutureTask task) {
+            this.thread = thread;
+            this.task = task;
+            this.startTime = System.currentTimeMillis();
+        }
+
+        /**
+         *
+         * @return the name of the virtual thread running the task
+         */
+        public String getThreadName() {
+            return thread.getName();
+        }
+
+        /**
+         * Cancel the task, interrupting the virtual thread if the task is running.
+         * @return false if the task could not be cancelled, typically because it has already completed, true otherwise
+         */
+        boolean cancel() {
+            return task.cancel(true);
+        }
+    }
 }
@@ -60,6 +60,11 @@ public class ClassLoaderContextHandleFactory implements ContextHandleFactory {
         return 100;
     }
 
+    @Override
+    public boolean isContextInvariant() {
+        return true;
+    }
+
     @Override
     public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) throws IOException {
     }
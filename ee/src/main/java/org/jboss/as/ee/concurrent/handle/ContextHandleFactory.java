@@ -48,6 +48,14 @@ public interface ContextHandleFactory {
      */
     int getChainPriority();
 
+    /**
+     * Retrieves whether the handles saved by the factory are immutable and do not depend on the invocation context, and thus a single handle, saved once, may be shared by all saves.
+     * @return
+     */
+    default boolean isContextInvariant() {
+        return false;
+    }
+
     /**
      * Retrieves the factory's name.
      * @return
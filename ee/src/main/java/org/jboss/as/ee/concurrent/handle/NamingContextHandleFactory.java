@@ -64,6 +64,11 @@ public class NamingContextHandleFactory implements ContextHandleFactory {
         return 200;
     }
 
+    @Override
+    public boolean isContextInvariant() {
+        return true;
+    }
+
     @Override
     public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) throws IOException {
     }
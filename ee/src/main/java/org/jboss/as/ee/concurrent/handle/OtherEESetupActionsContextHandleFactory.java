@@ -63,6 +63,11 @@ public class OtherEESetupActionsContextHandleFactory implements ContextHandleFac
         return 400;
     }
 
+    @Override
+    public boolean isContextInvariant() {
+        return true;
+    }
+
     @Override
     public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) throws IOException {
     }
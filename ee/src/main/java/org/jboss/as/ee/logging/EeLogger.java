@@ -1204,4 +1204,21 @@ public interface EeLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 130, value = "%s hung task %s not cancelled")
     void hungTaskNotCancelled(String executorName, String taskName);
+
+    /**
+     * Logs a warning message indicating a managed executor configured to use virtual threads falls back to platform threads.
+     * @param executorName the name of the executor.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 131, value = "Virtual threads are not supported by the running JVM, managed executor service %s will use platform threads")
+    void virtualThreadsNotSupported(String executorName);
+
+    /**
+     * Logs a warning message indicating pool attributes of a managed executor using virtual threads are ignored.
+     * @param executorName the name of the executor.
+     * @param attributes the names of the ignored attributes.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 132, value = "Managed executor service %s runs its tasks on virtual threads, the attributes %s are ignored")
+    void virtualThreadsIgnoredAttributes(String executorName, Collection<String> attributes);
 }
@@ -58,6 +58,8 @@ public class EETransformers implements ExtensionTransformerRegistration {
 
         ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystem.getCurrentSubsystemVersion());
 
+        registerTransformers7_0(chainedBuilder.createBuilder(EESubsystemModel.Version.v7_0_0, EESubsystemModel.Version.v6_0_0));
+
         registerTransformers6_0(chainedBuilder.createBuilder(EESubsystemModel.Version.v6_0_0, EESubsystemModel.Version.v5_0_0));
 
         registerTransformers5_0(chainedBuilder.createBuilder(EESubsystemModel.Version.v5_0_0, EESubsystemModel.Version.v4_0_0));
@@ -92,7 +94,8 @@ public class EETransformers implements ExtensionTransformerRegistration {
                 EESubsystemModel.Version.v1_1_0,
                 EESubsystemModel.Version.v3_0_0,
                 EESubsystemModel.Version.v4_0_0,
-                EESubsystemModel.Version.v5_0_0
+                EESubsystemModel.Version.v5_0_0,
+                EESubsystemModel.Version.v6_0_0
         });
 
     }
@@ -108,6 +111,10 @@ public class EETransformers implements ExtensionTransformerRegistration {
         ManagedScheduledExecutorServiceResourceDefinition.registerTransformers6_0(builder);
     }
 
+    private static void registerTransformers7_0(ResourceTransformationDescriptionBuilder builder) {
+        ManagedExecutorServiceResourceDefinition.registerTransformers7_0(builder);
+    }
+
     /**
      * Reject global-modules values with new fields if they differ from the legacy default. If not rejected
      * the converter removes the new fields.
@@ -29,6 +29,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.ee.concurrent.ContextServiceImpl;
 import org.jboss.as.ee.concurrent.ManagedThreadFactoryImpl;
+import org.jboss.as.ee.concurrent.VirtualThreads;
 import org.jboss.as.ee.concurrent.service.ConcurrentServiceNames;
 import org.jboss.as.ee.concurrent.service.ManagedExecutorHungTasksPeriodicTerminationService;
 import org.jboss.as.ee.concurrent.service.ManagedExecutorServiceService;
@@ -38,6 +39,8 @@ import org.jboss.dmr.ModelNode;
 import org.wildfly.common.cpu.ProcessorInfo;
 import org.wildfly.extension.requestcontroller.RequestController;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -115,9 +118,23 @@ public class ManagedExecutorServiceAdd extends AbstractAddStepHandler {
             threadPriority = null;
         }
 
+        final boolean virtualThreads = ManagedExecutorServiceResourceDefinition.VIRTUAL_THREADS_AD.resolveModelAttribute(context, model).asBoolean();
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            // the pool attributes only apply if the executor falls back to platform threads
+            final List<String> ignoredAttributes = new ArrayList<>();
+            for (String attribute : new String[] { ManagedExecutorServiceResourceDefinition.CORE_THREADS, ManagedExecutorServiceResourceDefinition.MAX_THREADS, ManagedExecutorServiceResourceDefinition.QUEUE_LENGTH }) {
+                if (model.hasDefined(attribute)) {
+                    ignoredAttributes.add(attribute);
+                }
+            }
+            if (!ignoredAttributes.isEmpty()) {
+                EeLogger.ROOT_LOGGER.virtualThreadsIgnoredAttributes(name, ignoredAttributes);
+            }
+        }
+
         final CapabilityServiceBuilder serviceBuilder = context.getCapabilityServiceTarget().addCapability(ManagedExecutorServiceResourceDefinition.CAPABILITY);
         final Supplier<ManagedExecutorHungTasksPeriodicTerminationService> hungTasksPeriodicTerminationService = serviceBuilder.requires(ConcurrentServiceNames.HUNG_TASK_PERIODIC_TERMINATION_SERVICE_NAME);
-        final ManagedExecutorServiceService service = new ManagedExecutorServiceService(name, jndiName, hungTaskThreshold, hungTaskTerminationPeriod, longRunningTasks, coreThreads, maxThreads, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueLength, rejectPolicy, threadPriority, hungTasksPeriodicTerminationService);
+        final ManagedExecutorServiceService service = new ManagedExecutorServiceService(name, jndiName, hungTaskThreshold, hungTaskTerminationPeriod, longRunningTasks, coreThreads, maxThreads, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueLength, rejectPolicy, threadPriority, virtualThreads, hungTasksPeriodicTerminationService);
         serviceBuilder.setInstance(service);
         String contextService = null;
         if(model.hasDefined(ManagedExecutorServiceResourceDefinition.CONTEXT_SERVICE)) {
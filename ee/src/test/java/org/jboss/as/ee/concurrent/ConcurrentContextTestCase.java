@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.concurrent.ContextService;
+
+import org.jboss.as.ee.concurrent.handle.ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
+import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
+import org.junit.Test;
+
+/**
+ * Tests the sharing of the handles of context invariant factories, and the order of setup and reset, of a {@link ConcurrentContext}.
+ */
+public class ConcurrentContextTestCase {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    public void testInvariantHandlesShared() {
+        ConcurrentContext context = new ConcurrentContext();
+        TestContextHandleFactory first = new TestContextHandleFactory("first", 100, true);
+        TestContextHandleFactory second = new TestContextHandleFactory("second", 200, true);
+        context.addFactory(first);
+        context.addFactory(second);
+        int firstSaves = first.saves.get();
+        int secondSaves = second.saves.get();
+
+        SetupContextHandle handle = context.saveContext(null, null);
+        assertSame(handle, context.saveContext(null, null));
+        assertEquals(firstSaves, first.saves.get());
+        assertEquals(secondSaves, second.saves.get());
+
+        // adding a factory rebuilds the shared handle
+        context.addFactory(new TestContextHandleFactory("third", 300, true));
+        assertNotSame(handle, context.saveContext(null, null));
+    }
+
+    @Test
+    public void testVariantHandlesSavedPerSave() {
+        ConcurrentContext context = new ConcurrentContext();
+        TestContextHandleFactory invariant = new TestContextHandleFactory("invariant", 100, true);
+        TestContextHandleFactory variant = new TestContextHandleFactory("variant", 200, false);
+        context.addFactory(invariant);
+        context.addFactory(variant);
+        int invariantSaves = invariant.saves.get();
+
+        assertNotSame(context.saveContext(null, null), context.saveContext(null, null));
+        assertEquals(invariantSaves, invariant.saves.get());
+        assertEquals(2, variant.saves.get());
+
+        context.saveContext(null, null).setup().reset();
+        assertEquals(Arrays.asList("setup invariant", "setup variant", "reset variant", "reset invariant"), this.events);
+    }
+
+    @Test
+    public void testResetInReverseOrder() {
+        ConcurrentContext context = new ConcurrentContext();
+        // added out of order, the chain is ordered by priority
+        context.addFactory(new TestContextHandleFactory("second", 200, true));
+        context.addFactory(new TestContextHandleFactory("third", 300, false));
+        context.addFactory(new TestContextHandleFactory("first", 100, true));
+
+        ResetContextHandle resetHandle = context.saveContext(null, null).setup();
+        assertSame(context, ConcurrentContext.current());
+        resetHandle.reset();
+
+        assertEquals(Arrays.asList("setup first", "setup second", "setup third", "reset third", "reset second", "reset first"), this.events);
+        assertNull(ConcurrentContext.current());
+    }
+
+    private class TestContextHandleFactory implements ContextHandleFactory {
+        private final String name;
+        private final int priority;
+        private final boolean invariant;
+        final AtomicInteger saves = new AtomicInteger();
+
+        TestContextHandleFactory(String name, int priority, boolean invariant) {
+            this.name = name;
+            this.priority = priority;
+            this.invariant = invariant;
+        }
+
+        @Override
+        public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            this.saves.incrementAndGet();
+            return new SetupContextHandle() {
+                @Override
+                public ResetContextHandle setup() {
+                    events.add("setup " + name);
+                    return new ResetContextHandle() {
+                        @Override
+                        public void reset() {
+                            events.add("reset " + name);
+                        }
+
+                        @Override
+                        public String getFactoryName() {
+                            return name;
+                        }
+                    };
+                }
+
+                @Override
+                public String getFactoryName() {
+                    return name;
+                }
+            };
+        }
+
+        @Override
+        public int getChainPriority() {
+            return this.priority;
+        }
+
+        @Override
+        public boolean isContextInvariant() {
+            return this.invariant;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) {
+        }
+
+        @Override
+        public SetupContextHandle readSetupContextHandle(ObjectInputStream in) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
+import org.glassfish.enterprise.concurrent.AbstractManagedThread;
+import org.jboss.as.ee.concurrent.ManagedThreadFactoryImpl.VirtualThreadTask;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests a {@link ManagedExecutorServiceImpl} running its tasks on virtual threads, configured as done by the
+ * managed executor service when its virtual-threads attribute is enabled. Skipped on JVMs without virtual threads.
+ */
+public class ManagedExecutorServiceImplVirtualThreadsTestCase {
+
+    private static final long HUNG_TASK_THRESHOLD = 100;
+
+    private ManagedThreadFactoryImpl threadFactory;
+    private ManagedExecutorServiceImpl executor;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("JVM does not support virtual threads", VirtualThreads.isSupported());
+        this.threadFactory = new ManagedThreadFactoryImpl("test", null, Thread.NORM_PRIORITY, true);
+        this.executor = new ManagedExecutorServiceImpl("test", this.threadFactory, HUNG_TASK_THRESHOLD, false, 0, Integer.MAX_VALUE, 60000, TimeUnit.MILLISECONDS, 0L, null, AbstractManagedExecutorService.RejectPolicy.ABORT, new SynchronousQueue<>(), null);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testVirtualThreadFactory() {
+        assertTrue(this.threadFactory.isVirtual());
+        final Thread thread = this.threadFactory.newThread(() -> { });
+        assertFalse(thread instanceof AbstractManagedThread);
+        assertTrue(thread.getName(), thread.getName().startsWith("test-VirtualThread-"));
+        assertNull(thread.getContextClassLoader());
+    }
+
+    @Test
+    public void testTasksRunConcurrentlyOnVirtualThreads() throws Exception {
+        // more tasks than any platform pool sized by core-threads, which would otherwise queue or reject them
+        final int tasks = Runtime.getRuntime().availableProcessors() * 4;
+        final CountDownLatch started = new CountDownLatch(tasks);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < tasks; i++) {
+            this.executor.submit(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            });
+        }
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testTaskRunsOnVirtualThread() throws Exception {
+        final Future<Thread> future = this.executor.submit(Thread::currentThread);
+        final Thread thread = future.get(5, TimeUnit.SECONDS);
+        assertFalse(thread instanceof AbstractManagedThread);
+        assertTrue(thread.getName(), thread.getName().startsWith("test-VirtualThread-"));
+        assertNotEquals(Thread.currentThread(), thread);
+    }
+
+    @Test
+    public void testHungTaskTermination() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final Future<?> future = this.executor.submit(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(this.executor.getHungVirtualThreadTasks().isEmpty());
+
+        Thread.sleep(HUNG_TASK_THRESHOLD * 2);
+        final Collection<VirtualThreadTask> hungTasks = this.executor.getHungVirtualThreadTasks();
+        assertEquals(1, hungTasks.size());
+        assertTrue(hungTasks.iterator().next().getThreadName().startsWith("test-VirtualThread-"));
+        assertEquals(1, this.executor.getRuntimeStats().getHungThreadsCount());
+
+        this.executor.terminateHungTasks();
+        assertTrue(future.isCancelled());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -64,7 +64,7 @@ public class EeSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/jboss-as-ee_6_0.xsd";
+        return "schema/jboss-as-ee_7_0.xsd";
     }
 
     @Override
@@ -92,12 +92,29 @@ public class EeSubsystemTestCase extends AbstractSubsystemBaseTest {
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, legacyVersion, xmlOps, config);
     }
 
+    @Test
+    public void testTransformers7_0() throws Exception {
+        final ModelTestControllerVersion controllerVersion = ModelTestControllerVersion.MASTER;
+        final ModelVersion legacyVersion = ModelVersion.create(6,0);
+        final KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization());
+        final List<ModelNode> xmlOps = builder.parseXml(readResource("subsystem.xml"));
+        builder.createLegacyKernelServicesBuilder(null, controllerVersion, legacyVersion)
+                .addMavenResourceURL(controllerVersion.getMavenGroupId() + ":wildfly-ee:" + controllerVersion.getMavenGavVersion());
+        final KernelServices mainServices = builder.build();
+        Assert.assertTrue(mainServices.isSuccessfulBoot());
+        final FailedOperationTransformationConfig config =  new FailedOperationTransformationConfig()
+                .addFailedAttribute(PathAddress.pathAddress(EeExtension.PATH_SUBSYSTEM, PathElement.pathElement(EESubsystemModel.MANAGED_EXECUTOR_SERVICE)),
+                        new FailedOperationTransformationConfig.NewAttributesConfig(ManagedExecutorServiceResourceDefinition.VIRTUAL_THREADS_AD));
+
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, legacyVersion, xmlOps, config);
+    }
+
     @Test
     public void testTransformers6_0() throws Exception {
         final ModelTestControllerVersion controllerVersion = ModelTestControllerVersion.MASTER;
         final ModelVersion legacyVersion = ModelVersion.create(5,0);
         final KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization());
-        final List<ModelNode> xmlOps = builder.parseXml(readResource("subsystem.xml"));
+        final List<ModelNode> xmlOps = builder.parseXml(readResource("subsystem_6_0.xml"));
         builder.createLegacyKernelServicesBuilder(null, controllerVersion, legacyVersion)
                 .addMavenResourceURL(controllerVersion.getMavenGroupId() + ":wildfly-ee:" + controllerVersion.getMavenGavVersion());
         final KernelServices mainServices = builder.build();
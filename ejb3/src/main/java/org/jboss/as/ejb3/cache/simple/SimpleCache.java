@@ -23,6 +23,8 @@ package org.jboss.as.ejb3.cache.simple;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -45,6 +47,8 @@ import org.wildfly.clustering.ejb.IdentifierFactory;
 
 /**
  * Simple {@link Cache} implementation using in-memory storage and eager expiration.
+ * If a maximum size is specified, the least recently used idle beans are evicted, i.e. destroyed, once the cache exceeds it.
+ * Beans that are in use are never evicted, thus the cache may temporarily exceed its maximum size if all of its beans are in use.
  *
  * @param <K> the cache key type
  * @param <V> the cache value type
@@ -58,10 +62,16 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
     private final Duration timeout;
     private final ServerEnvironment environment;
     private final Scheduler<K, Instant> scheduler = new LocalScheduler<>(new LinkedScheduledEntries<>(), this, Duration.ZERO);
+    private final int maxSize;
+    // Idle entries, in least recently used order, guarded by itself
+    private final Map<K, Entry<V>> idleEntries = new LinkedHashMap<>();
+    private final SimpleCacheStatistics statistics;
 
-    public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment) {
+    public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, int maxSize, SimpleCacheStatistics statistics) {
         this.factory = factory;
         this.identifierFactory = identifierFactory;
+        this.maxSize = maxSize;
+        this.statistics = statistics;
 
         // A value of -1 means the bean will never be removed due to timeout
         if (timeout == null || timeout.getValue() < 0) {
@@ -85,6 +95,9 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
             this.factory.destroyInstance(entry.getValue().getValue());
         }
         this.entries.clear();
+        synchronized (this.idleEntries) {
+            this.idleEntries.clear();
+        }
     }
 
     @Override
@@ -109,19 +122,29 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
             throw EjbLogger.ROOT_LOGGER.incompatibleCaches();
         }
         V bean = this.factory.createInstance();
-        this.entries.put(bean.getId(), new Entry<>(bean));
+        K id = bean.getId();
+        Entry<V> entry = new Entry<>(bean);
+        this.entries.put(id, entry);
+        if (this.entries.size() > this.maxSize) {
+            this.evict();
+        }
+        // Register the new bean as idle only after eviction, so that it cannot evict itself
+        this.addIdle(id, entry);
         return bean;
     }
 
     @Override
     public void discard(V value) {
-        this.entries.remove(value.getId());
+        K id = value.getId();
+        this.entries.remove(id);
+        this.removeIdle(id);
     }
 
     @Override
     public void remove(K key) {
         Entry<V> entry = this.entries.remove(key);
         if (entry != null) {
+            this.removeIdle(key);
             this.factory.destroyInstance(entry.getValue());
         }
     }
@@ -129,9 +152,14 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
     @Override
     public V get(K key) {
         Entry<V> entry = this.entries.get(key);
-        if (entry == null) return null;
+        // An entry that lost a race with eviction is no longer usable
+        if ((entry == null) || !entry.use()) {
+            this.statistics.miss();
+            return null;
+        }
+        this.statistics.hit();
         this.scheduler.cancel(key);
-        entry.use();
+        this.removeIdle(key);
         return entry.getValue();
     }
 
@@ -145,6 +173,7 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
         K id = bean.getId();
         Entry<V> entry = this.entries.get(id);
         if ((entry != null) && entry.done()) {
+            this.addIdle(id, entry);
             if (this.timeout != null) {
                 if (!this.timeout.isZero()) {
                     this.scheduler.schedule(id, Instant.now().plus(this.timeout));
@@ -178,22 +207,82 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V>, P
         return true;
     }
 
+    private void addIdle(K key, Entry<V> entry) {
+        if (this.maxSize < Integer.MAX_VALUE) {
+            synchronized (this.idleEntries) {
+                // Recheck, since the bean may have been used again or removed concurrently
+                if (entry.isIdle() && (this.entries.get(key) == entry)) {
+                    this.idleEntries.put(key, entry);
+                }
+            }
+        }
+    }
+
+    private void removeIdle(K key) {
+        if (this.maxSize < Integer.MAX_VALUE) {
+            synchronized (this.idleEntries) {
+                this.idleEntries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Destroys the least recently used idle beans until this cache no longer exceeds its maximum size, or no idle beans remain.
+     */
+    private void evict() {
+        while (this.entries.size() > this.maxSize) {
+            K key;
+            Entry<V> entry;
+            synchronized (this.idleEntries) {
+                Iterator<Map.Entry<K, Entry<V>>> idle = this.idleEntries.entrySet().iterator();
+                if (!idle.hasNext()) return;
+                Map.Entry<K, Entry<V>> eldest = idle.next();
+                idle.remove();
+                key = eldest.getKey();
+                entry = eldest.getValue();
+            }
+            // Skip entries that were used concurrently
+            if (entry.evict() && this.entries.remove(key, entry)) {
+                this.scheduler.cancel(key);
+                this.statistics.evicted();
+                EjbLogger.ROOT_LOGGER.tracef("Evicting stateful session bean %s from cache", key);
+                this.factory.destroyInstance(entry.getValue());
+            }
+        }
+    }
+
     static class Entry<V> {
         private final V value;
+        // The number of concurrent users of this entry, or -1 if evicted
         private final AtomicInteger usage = new AtomicInteger();
 
         Entry(V value) {
             this.value = value;
         }
 
-        void use() {
-            this.usage.incrementAndGet();
+        boolean use() {
+            int current = this.usage.get();
+            while (current >= 0) {
+                if (this.usage.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                current = this.usage.get();
+            }
+            return false;
         }
 
         boolean done() {
             return this.usage.decrementAndGet() == 0;
         }
 
+        boolean isIdle() {
+            return this.usage.get() == 0;
+        }
+
+        boolean evict() {
+            return this.usage.compareAndSet(0, -1);
+        }
+
         V getValue() {
             return this.value;
         }
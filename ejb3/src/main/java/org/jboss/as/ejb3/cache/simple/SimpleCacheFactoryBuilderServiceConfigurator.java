@@ -48,8 +48,16 @@ import org.wildfly.clustering.service.ServiceConfigurator;
  */
 public class SimpleCacheFactoryBuilderServiceConfigurator<K, V extends Identifiable<K>> extends CacheFactoryBuilderServiceNameProvider implements ServiceConfigurator, CacheFactoryBuilder<K, V> {
 
-    public SimpleCacheFactoryBuilderServiceConfigurator(String name) {
+    private final int maxSize;
+    private final SimpleCacheStatistics statistics = new SimpleCacheStatistics();
+
+    /**
+     * @param name the cache name
+     * @param maxSize the maximum number of beans held by each cache, beyond which the least recently used idle beans are evicted
+     */
+    public SimpleCacheFactoryBuilderServiceConfigurator(String name, int maxSize) {
         super(name);
+        this.maxSize = maxSize;
     }
 
     @Override
@@ -68,7 +76,15 @@ public class SimpleCacheFactoryBuilderServiceConfigurator<K, V extends Identifia
 
     @Override
     public CapabilityServiceConfigurator getServiceConfigurator(ServiceName name, StatefulComponentDescription description, ComponentConfiguration configuration) {
-        return new SimpleCacheFactoryServiceConfigurator<>(name, description);
+        return new SimpleCacheFactoryServiceConfigurator<>(name, description, this.maxSize, this.statistics);
+    }
+
+    /**
+     * Returns the statistics of the caches created via this builder.
+     * @return the cache statistics
+     */
+    public SimpleCacheStatistics getStatistics() {
+        return this.statistics;
     }
 
     @Override
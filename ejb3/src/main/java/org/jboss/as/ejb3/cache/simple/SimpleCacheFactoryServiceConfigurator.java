@@ -52,11 +52,15 @@ import org.wildfly.clustering.service.SupplierDependency;
 public class SimpleCacheFactoryServiceConfigurator<K, V extends Identifiable<K>> extends SimpleServiceNameProvider implements CapabilityServiceConfigurator, CacheFactory<K, V> {
 
     private final StatefulComponentDescription componentDescription;
+    private final int maxSize;
+    private final SimpleCacheStatistics statistics;
     private final SupplierDependency<ServerEnvironment> environment = new ServiceSupplierDependency<>(ServerEnvironmentService.SERVICE_NAME);
 
-    public SimpleCacheFactoryServiceConfigurator(ServiceName name, StatefulComponentDescription description) {
+    public SimpleCacheFactoryServiceConfigurator(ServiceName name, StatefulComponentDescription description, int maxSize, SimpleCacheStatistics statistics) {
         super(name);
         this.componentDescription = description;
+        this.maxSize = maxSize;
+        this.statistics = statistics;
     }
 
     @Override
@@ -71,6 +75,6 @@ public class SimpleCacheFactoryServiceConfigurator<K, V extends Identifiable<K>>
     @Override
     public Cache<K, V> createCache(IdentifierFactory<K> identifierFactory, StatefulObjectFactory<V> factory, PassivationListener<V> passivationListener) {
         final StatefulTimeoutInfo timeout = this.componentDescription.getStatefulTimeout();
-        return new SimpleCache<>(factory, identifierFactory, this.componentDescription.getStatefulTimeout(), this.environment.get());
+        return new SimpleCache<>(factory, identifierFactory, this.componentDescription.getStatefulTimeout(), this.environment.get(), this.maxSize, this.statistics);
     }
 }
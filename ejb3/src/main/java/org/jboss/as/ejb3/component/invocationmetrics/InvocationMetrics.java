@@ -29,22 +29,33 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Invocation metrics of an EJB component, in aggregate and per method.
+ * Counters are striped, and latencies are recorded in histograms, so that recording an invocation neither allocates nor retries.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
+    static final double[] PERCENTILES = { 0.5d, 0.99d, 0.999d };
+
     public static class Values {
         final long invocations;
         final long executionTime;
         final long waitTime;
+        final double[] executionTimePercentiles;
+        final double[] waitTimePercentiles;
 
-        private Values(final long invocations, final long waitTime, final long executionTime) {
+        private Values(final long invocations, final long waitTime, final long executionTime, final double[] waitTimePercentiles, final double[] executionTimePercentiles) {
             this.invocations = invocations;
             this.executionTime = executionTime;
             this.waitTime = waitTime;
+            this.executionTimePercentiles = executionTimePercentiles;
+            this.waitTimePercentiles = waitTimePercentiles;
         }
 
         public long getExecutionTime() {
@@ -58,40 +69,106 @@ public class InvocationMetrics {
         public long getWaitTime() {
             return waitTime;
         }
+
+        /**
+         * @return the median execution time, in milliseconds
+         */
+        public double getExecutionTimeP50() {
+            return executionTimePercentiles[0];
+        }
+
+        /**
+         * @return the 99th percentile execution time, in milliseconds
+         */
+        public double getExecutionTimeP99() {
+            return executionTimePercentiles[1];
+        }
+
+        /**
+         * @return the 99.9th percentile execution time, in milliseconds
+         */
+        public double getExecutionTimeP999() {
+            return executionTimePercentiles[2];
+        }
+
+        /**
+         * @return the median wait time, in milliseconds
+         */
+        public double getWaitTimeP50() {
+            return waitTimePercentiles[0];
+        }
+
+        /**
+         * @return the 99th percentile wait time, in milliseconds
+         */
+        public double getWaitTimeP99() {
+            return waitTimePercentiles[1];
+        }
+
+        /**
+         * @return the 99.9th percentile wait time, in milliseconds
+         */
+        public double getWaitTimeP999() {
+            return waitTimePercentiles[2];
+        }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
-    private final AtomicLong concurrent = new AtomicLong(0);
-    private final AtomicLong peakConcurrent = new AtomicLong(0);
+    /**
+     * Accumulates the metrics of a set of invocations.
+     * Times are accumulated in nanoseconds, but reported in milliseconds.
+     */
+    static class Recorder {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder executionTime = new LongAdder();
+        private final LongAdder waitTime = new LongAdder();
+        private final LatencyHistogram executionTimes = new LatencyHistogram();
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+        void record(final long waitTime, final long executionTime) {
+            this.invocations.increment();
+            this.waitTime.add(waitTime);
+            this.executionTime.add(executionTime);
+            this.waitTimes.record(waitTime);
+            this.executionTimes.record(executionTime);
+        }
 
-    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
-        concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
+        long getInvocations() {
+            return this.invocations.sum();
+        }
+
+        long getExecutionTime() {
+            return TimeUnit.NANOSECONDS.toMillis(this.executionTime.sum());
+        }
+
+        long getWaitTime() {
+            return TimeUnit.NANOSECONDS.toMillis(this.waitTime.sum());
+        }
+
+        Values getValues() {
+            return new Values(this.getInvocations(), this.getWaitTime(), this.getExecutionTime(), this.waitTimes.percentiles(PERCENTILES), this.executionTimes.percentiles(PERCENTILES));
         }
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private final Recorder recorder = new Recorder();
+    private final AtomicLong concurrent = new AtomicLong(0);
+    private final LongAccumulator peakConcurrent = new LongAccumulator(Math::max, 0);
+
+    private final ConcurrentMap<String, Recorder> methods = new ConcurrentHashMap<String, Recorder>();
+
+    /**
+     * Records a completed invocation.
+     * @param method the invoked method
+     * @param invocationWaitTime the time spent waiting to obtain an instance, in nanoseconds
+     * @param invocationExecutionTime the time spent within the bean method, in nanoseconds
+     */
+    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
+        concurrent.decrementAndGet();
+        recorder.record(invocationWaitTime, invocationExecutionTime);
+        Recorder methodRecorder = methods.get(method.getName());
+        if (methodRecorder == null) {
+            methodRecorder = methods.computeIfAbsent(method.getName(), name -> new Recorder());
         }
-        return ref;
+        methodRecorder.record(invocationWaitTime, invocationExecutionTime);
     }
 
     public long getConcurrent() {
@@ -99,11 +176,19 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return recorder.getExecutionTime();
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return recorder.getInvocations();
+    }
+
+    /**
+     * Returns a snapshot of the aggregate metrics of all invocations, including latency percentiles.
+     * @return a snapshot of invocation metrics
+     */
+    public Values getValues() {
+        return recorder.getValues();
     }
 
     public Map<String, Values> getMethods() {
@@ -113,7 +198,7 @@ public class InvocationMetrics {
                 return new AbstractSet<Entry<String, Values>>() {
                     @Override
                     public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
+                        final Iterator<Entry<String, Recorder>> delegate = methods.entrySet().iterator();
                         return new Iterator<Entry<String, Values>>() {
                             @Override
                             public boolean hasNext() {
@@ -122,7 +207,7 @@ public class InvocationMetrics {
 
                             @Override
                             public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
+                                final Entry<String, Recorder> next = delegate.next();
                                 return new Entry<String, Values>() {
                                     @Override
                                     public String getKey() {
@@ -131,7 +216,7 @@ public class InvocationMetrics {
 
                                     @Override
                                     public Values getValue() {
-                                        return next.getValue().get();
+                                        return next.getValue().getValues();
                                     }
 
                                     @Override
@@ -162,13 +247,13 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return recorder.getWaitTime();
     }
 
     void startInvocation() {
         final long v = concurrent.incrementAndGet();
-        // concurrent might decrement here, but we take that missing peak for granted.
+        // Avoid writing to the accumulator unless we have a new peak
         if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+            peakConcurrent.accumulate(v);
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free histogram of recent latencies, using log-linear buckets in the style of HdrHistogram.
+ * Latencies are recorded with microsecond resolution and a relative error of at most 1/16 (i.e. ~6%).
+ * Percentiles reflect the latencies recorded during the current and the previous window, i.e. during the last 1 to 2 windows.
+ * Each window counts latencies with striped counters, allocated on demand for each power of 2 actually recorded,
+ * such that contended recording does not retry and an idle histogram retains almost no memory.
+ */
+class LatencyHistogram {
+    // Each power of 2 is divided into 2^SUB_BUCKET_BITS linear sub-buckets
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+    // Latencies larger than ~19 hours are recorded in the last bucket
+    private static final long MAX_VALUE = (1L << 36) - 1;
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+    private static final int MAGNITUDES = (BUCKETS + SUB_BUCKET_MASK) >>> SUB_BUCKET_BITS;
+    static final long DEFAULT_WINDOW = TimeUnit.MINUTES.toNanos(1);
+
+    private final long window;
+    private final LongSupplier nanoTime;
+    private volatile Window current;
+    private volatile Window previous;
+
+    LatencyHistogram() {
+        this(DEFAULT_WINDOW, System::nanoTime);
+    }
+
+    LatencyHistogram(long window, LongSupplier nanoTime) {
+        this.window = window;
+        this.nanoTime = nanoTime;
+    }
+
+    void record(long nanos) {
+        this.currentWindow(this.nanoTime.getAsLong()).increment(index(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0L), MAX_VALUE)));
+    }
+
+    /**
+     * Computes the specified percentiles of the recently recorded latencies, in milliseconds, in a single pass.
+     * @param percentiles ascending percentiles, each between 0 and 1
+     * @return the latencies corresponding to each percentile, or 0 if nothing was recorded recently
+     */
+    double[] percentiles(double... percentiles) {
+        long now = this.nanoTime.getAsLong();
+        long[] counts = new long[BUCKETS];
+        Window previous = this.previous;
+        Window current = this.current;
+        if ((previous != null) && (now - previous.start < 2 * this.window)) {
+            previous.addTo(counts);
+        }
+        if ((current != null) && (now - current.start < 2 * this.window)) {
+            current.addTo(counts);
+        }
+        long total = 0L;
+        for (long count : counts) {
+            total += count;
+        }
+        double[] result = new double[percentiles.length];
+        if (total == 0L) return result;
+        int bucket = 0;
+        long cumulative = counts[0];
+        for (int i = 0; i < percentiles.length; ++i) {
+            long rank = Math.max((long) Math.ceil(percentiles[i] * total), 1L);
+            while (cumulative < rank && bucket < BUCKETS - 1) {
+                cumulative += counts[++bucket];
+            }
+            result[i] = value(bucket) / 1000d;
+        }
+        return result;
+    }
+
+    private Window currentWindow(long now) {
+        Window current = this.current;
+        if ((current == null) || (now - current.start >= this.window)) {
+            synchronized (this) {
+                current = this.current;
+                if ((current == null) || (now - current.start >= this.window)) {
+                    // Retain the expired window, unless it is too old to contribute to percentiles
+                    this.previous = ((current != null) && (now - current.start < 2 * this.window)) ? current : null;
+                    current = new Window(now);
+                    this.current = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    /**
+     * Returns the midpoint of the range of values recorded in the specified bucket.
+     */
+    private static double value(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS + (index & SUB_BUCKET_MASK)) << shift;
+        return lowest + ((1L << shift) - 1) / 2d;
+    }
+
+    /**
+     * The bucket counts of a window, allocated per power of 2 on first use.
+     */
+    private static class Window {
+        final long start;
+        private final AtomicReferenceArray<LongAdder[]> magnitudes = new AtomicReferenceArray<>(MAGNITUDES);
+
+        Window(long start) {
+            this.start = start;
+        }
+
+        void increment(int index) {
+            int magnitude = index >>> SUB_BUCKET_BITS;
+            LongAdder[] counts = this.magnitudes.get(magnitude);
+            if (counts == null) {
+                LongAdder[] created = new LongAdder[SUB_BUCKETS];
+                for (int i = 0; i < SUB_BUCKETS; ++i) {
+                    created[i] = new LongAdder();
+                }
+                counts = this.magnitudes.compareAndSet(magnitude, null, created) ? created : this.magnitudes.get(magnitude);
+            }
+            counts[index & SUB_BUCKET_MASK].increment();
+        }
+
+        void addTo(long[] result) {
+            for (int magnitude = 0; magnitude < MAGNITUDES; ++magnitude) {
+                LongAdder[] counts = this.magnitudes.get(magnitude);
+                if (counts != null) {
+                    int offset = magnitude << SUB_BUCKET_BITS;
+                    for (int i = 0; (i < SUB_BUCKETS) && (offset + i < BUCKETS); ++i) {
+                        result[offset + i] += counts[i].sum();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -48,10 +48,10 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
     private volatile Derive derive;
 
 
-    public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit) {
+    public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit, boolean sharded) {
         this.declaredMaxSize = declaredMaxSize;
         this.derive = derive;
-        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit);
+        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit, sharded);
     }
 
     @Override
@@ -106,6 +106,10 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
         poolConfig.setTimeoutUnit(timeUnit);
     }
 
+    public void setSharded(boolean sharded) {
+        poolConfig.setSharded(sharded);
+    }
+
     @Override
     public void stop(StopContext context) {
 
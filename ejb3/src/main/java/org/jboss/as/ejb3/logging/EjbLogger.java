@@ -32,6 +32,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InvalidClassException;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.rmi.RemoteException;
 import java.sql.SQLException;
 import java.util.Date;
@@ -3238,4 +3239,20 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 525, value = "The 'mappedName' in EJB annotations is not supported. Value of '%s' for EJB '%s' will be ignored.")
     void mappedNameNotSupported(String mappedName, String ejb);
 
+    @LogMessage(level = WARN)
+    @Message(id = 526, value = "The timer table has no LAST_MODIFIED column, timer refresh will reload all timers. The column can be added with: %s")
+    void timerModificationColumnMissing(String addColumn);
+
+    @LogMessage(level = WARN)
+    @Message(id = 527, value = "Discarding %d bytes of incomplete or corrupted data at the end of timer journal %s")
+    void discardingTimerJournalTail(long bytes, Path journal);
+
+    @LogMessage(level = WARN)
+    @Message(id = 528, value = "The max-size of cache %s is ignored, since its size is bounded by passivation store %s")
+    void cacheMaxSizeIgnored(String cacheName, String passivationStore);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 529, value = "Failed to write the timer changes of a transaction, marking the transaction for rollback")
+    void timerUpdatesFailed(@Cause SQLException e);
+
 }
@@ -0,0 +1,300 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A pool with a maximum size, whose permits and free instances are striped across a number of shards.
+ * Each thread is mapped to a home shard, from which it acquires permits and instances and to which it
+ * returns them. When the home shard is exhausted, permits and instances are stolen from the other shards.
+ * Threads only block, up to the configured timeout, once every shard has run out of permits.
+ * <p/>
+ * Semantically equivalent to {@link StrictMaxPool}, but avoids funneling every invocation through
+ * a single semaphore and queue head.
+ */
+public class ShardedStrictMaxPool<T> extends AbstractPool<T> {
+
+    private final Shard<T>[] shards;
+    private final int mask;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for a permit.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+
+    /**
+     * Threads waiting for a permit park on this condition.
+     * Releasing threads only need to acquire the lock when {@link #waiters} is non-zero.
+     */
+    private final Lock lock = new ReentrantLock();
+    private final Condition available = this.lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    private final LongAdder contentionCount = new LongAdder();
+    private final LongAdder stealCount = new LongAdder();
+
+    public ShardedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    ShardedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrency) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // Round up to a power of 2, but don't bother creating more shards than there are permits
+        int size = Math.max(1, Math.min(concurrency, maxSize));
+        int count = Integer.highestOneBit(size);
+        if (count < size) {
+            count <<= 1;
+        }
+        this.shards = new Shard[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; ++i) {
+            this.shards[i] = new Shard<>(maxSize / count + ((i < maxSize % count) ? 1 : 0));
+        }
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        this.releasePermit(this.homeShard());
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        int count = 0;
+        for (Shard<T> shard : this.shards) {
+            count += shard.permits.get();
+        }
+        return count;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw EjbLogger.ROOT_LOGGER.methodNotImplemented();
+    }
+
+    /**
+     * Returns the number of requests that found no free permit in any shard and had to wait for one.
+     * @return a number of contended requests
+     */
+    public long getContentionCount() {
+        return this.contentionCount.sum();
+    }
+
+    /**
+     * Returns the number of pooled instances that were taken from a shard other than the home shard of the requesting thread.
+     * @return a number of stolen instances
+     */
+    public long getStealCount() {
+        return this.stealCount.sum();
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        int home = this.homeShard();
+        try {
+            if (!this.acquirePermit(home)) {
+                throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+            }
+        } catch (InterruptedException e) {
+            throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+        }
+
+        T bean = this.poll(home);
+
+        if (bean != null) {
+            //we found a bean instance in the pool, return it
+            return bean;
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                this.releasePermit(home);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.maxSize - this.getAvailableCount(), this.maxSize, this);
+        }
+
+        int home = this.homeShard();
+        this.shards[home].instances.offerFirst(obj);
+
+        this.releasePermit(home);
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        this.releasePermit(this.homeShard());
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (Shard<T> shard : this.shards) {
+            for (T obj = shard.instances.poll(); obj != null; obj = shard.instances.poll()) {
+                destroy(obj);
+            }
+        }
+    }
+
+    private int homeShard() {
+        // Thread ids are assigned sequentially, so spread them before masking
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & this.mask;
+    }
+
+    /**
+     * Polls the home shard for the most recently released instance, otherwise steals the least recently released instance of another shard.
+     */
+    private T poll(int home) {
+        T bean = this.shards[home].instances.pollFirst();
+        if (bean != null) {
+            return bean;
+        }
+        for (int i = 1; i < this.shards.length; ++i) {
+            bean = this.shards[(home + i) & this.mask].instances.pollLast();
+            if (bean != null) {
+                this.stealCount.increment();
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    private boolean acquirePermit(int home) throws InterruptedException {
+        if (this.tryAcquirePermit(home)) {
+            return true;
+        }
+        this.contentionCount.increment();
+        long nanos = this.timeUnit.toNanos(this.timeout);
+        this.lock.lockInterruptibly();
+        try {
+            this.waiters.incrementAndGet();
+            try {
+                // Re-check after registering as a waiter, so that a concurrent release cannot go unnoticed
+                while (!this.tryAcquirePermit(home)) {
+                    if (nanos <= 0L) {
+                        return false;
+                    }
+                    nanos = this.available.awaitNanos(nanos);
+                }
+                return true;
+            } finally {
+                this.waiters.decrementAndGet();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean tryAcquirePermit(int home) {
+        for (int i = 0; i < this.shards.length; ++i) {
+            AtomicInteger permits = this.shards[(home + i) & this.mask].permits;
+            int current = permits.get();
+            while (current > 0) {
+                if (permits.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+                current = permits.get();
+            }
+        }
+        return false;
+    }
+
+    private void releasePermit(int home) {
+        this.shards[home].permits.incrementAndGet();
+        if (this.waiters.get() > 0) {
+            this.lock.lock();
+            try {
+                this.available.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    private static class Shard<T> {
+        final AtomicInteger permits;
+        final Deque<T> instances = new ConcurrentLinkedDeque<>();
+
+        Shard(int permits) {
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+}
@@ -21,17 +21,27 @@
  */
 package org.jboss.as.ejb3.subsystem;
 
+import java.util.function.ToLongFunction;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.cache.CacheFactoryBuilderServiceNameProvider;
+import org.jboss.as.ejb3.cache.simple.SimpleCacheFactoryBuilderServiceConfigurator;
+import org.jboss.as.ejb3.cache.simple.SimpleCacheStatistics;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * Defines a CacheFactoryBuilder instance which, during deployment, is used to configure, build and install a CacheFactory for the SFSB being deployed.
@@ -58,17 +68,40 @@ public class CacheFactoryResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_NONE)
                     .build();
 
-    private static final AttributeDefinition[] ATTRIBUTES = { ALIASES, PASSIVATION_STORE };
+    // Only applicable to caches without a passivation store, whose size is otherwise unbounded
+    public static final SimpleAttributeDefinition MAX_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MAX_SIZE, ModelType.INT, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.MAX_SIZE.getLocalName())
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    // Statistics of simple caches, undefined for caches with a passivation store
+    static final AttributeDefinition HIT_COUNT = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.HIT_COUNT, ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    static final AttributeDefinition MISS_COUNT = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MISS_COUNT, ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    static final AttributeDefinition EVICTION_COUNT = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.EVICTION_COUNT, ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition[] ATTRIBUTES = { ALIASES, PASSIVATION_STORE, MAX_SIZE };
     private static final CacheFactoryAdd ADD_HANDLER = new CacheFactoryAdd(ATTRIBUTES);
     private static final CacheFactoryRemove REMOVE_HANDLER = new CacheFactoryRemove(ADD_HANDLER);
 
-    public static final CacheFactoryResourceDefinition INSTANCE = new CacheFactoryResourceDefinition();
+    private final boolean registerRuntimeOnly;
 
-    private CacheFactoryResourceDefinition() {
+    CacheFactoryResourceDefinition(boolean registerRuntimeOnly) {
         super(PathElement.pathElement(EJB3SubsystemModel.CACHE),
                 EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.CACHE),
                 ADD_HANDLER, REMOVE_HANDLER,
                 OperationEntry.Flag.RESTART_NONE, OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
@@ -77,5 +110,33 @@ public class CacheFactoryResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attribute: ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(attribute,  null, handler);
         }
+        if (this.registerRuntimeOnly) {
+            resourceRegistration.registerMetric(HIT_COUNT, new CacheStatisticsHandler(SimpleCacheStatistics::getHitCount));
+            resourceRegistration.registerMetric(MISS_COUNT, new CacheStatisticsHandler(SimpleCacheStatistics::getMissCount));
+            resourceRegistration.registerMetric(EVICTION_COUNT, new CacheStatisticsHandler(SimpleCacheStatistics::getEvictionCount));
+        }
+    }
+
+    /**
+     * Reads a statistic of the simple caches created via this cache resource.
+     */
+    private static class CacheStatisticsHandler extends AbstractRuntimeOnlyHandler {
+        private final ToLongFunction<SimpleCacheStatistics> statistic;
+
+        CacheStatisticsHandler(ToLongFunction<SimpleCacheStatistics> statistic) {
+            this.statistic = statistic;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(new CacheFactoryBuilderServiceNameProvider(context.getCurrentAddressValue()).getServiceName());
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                Object builder = controller.getValue();
+                // Caches with a passivation store do not track statistics
+                if (builder instanceof SimpleCacheFactoryBuilderServiceConfigurator) {
+                    context.getResult().set(this.statistic.applyAsLong(((SimpleCacheFactoryBuilderServiceConfigurator<?, ?>) builder).getStatistics()));
+                }
+            }
+        }
     }
 }
@@ -327,6 +327,18 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                 .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, EJB3SubsystemModel.LEGACY_COMPLIANT_PRINCIPAL_PROPAGATION)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemModel.LEGACY_COMPLIANT_PRINCIPAL_PROPAGATION)
                 .end();
+        // Reject attribute sharded
+        subsystemBuilder.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, StrictMaxPoolResourceDefinition.SHARDED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, StrictMaxPoolResourceDefinition.SHARDED)
+                .end();
+        // Reject attribute max-size
+        subsystemBuilder.addChildResource(PathElement.pathElement(EJB3SubsystemModel.CACHE))
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, CacheFactoryResourceDefinition.MAX_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, CacheFactoryResourceDefinition.MAX_SIZE)
+                .end();
     }
     /*
      * This transformer is used with the datastores in /subsystem=ejb3/service=timer
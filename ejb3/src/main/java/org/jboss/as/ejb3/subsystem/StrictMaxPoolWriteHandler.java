@@ -79,6 +79,9 @@ class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Void> {
                 } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName().equals(attributeName)) {
                     String timeoutUnit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, model).asString();
                     smpc.setTimeoutUnit(TimeUnit.valueOf(timeoutUnit));
+                } else if (StrictMaxPoolResourceDefinition.SHARDED.getName().equals(attributeName)) {
+                    boolean sharded = StrictMaxPoolResourceDefinition.SHARDED.resolveModelAttribute(context, model).asBoolean();
+                    smpc.setSharded(sharded);
                 }
             }
         }
@@ -34,6 +34,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -104,9 +105,17 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
             .build();
 
+    private static final AttributeDefinition EXECUTION_TIME_P50 = createPercentile("execution-time-p50");
+    private static final AttributeDefinition EXECUTION_TIME_P99 = createPercentile("execution-time-p99");
+    private static final AttributeDefinition EXECUTION_TIME_P999 = createPercentile("execution-time-p999");
+    private static final AttributeDefinition WAIT_TIME_P50 = createPercentile("wait-time-p50");
+    private static final AttributeDefinition WAIT_TIME_P99 = createPercentile("wait-time-p99");
+    private static final AttributeDefinition WAIT_TIME_P999 = createPercentile("wait-time-p999");
+
     private static final AttributeDefinition METHODS = ObjectMapAttributeDefinition.Builder.of(
             "methods",
-            ObjectTypeAttributeDefinition.Builder.of("complex", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
+            ObjectTypeAttributeDefinition.Builder.of("complex", EXECUTION_TIME, INVOCATIONS, WAIT_TIME,
+                    EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_P999, WAIT_TIME_P50, WAIT_TIME_P99, WAIT_TIME_P999)
             .build())
             .setRequired(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -154,9 +163,21 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_CONTENTION_COUNT = new SimpleAttributeDefinitionBuilder("pool-contention-count", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
+    public static final SimpleAttributeDefinition POOL_STEAL_COUNT = new SimpleAttributeDefinitionBuilder("pool-steal-count", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
 
     final EJBComponentType componentType;
 
+    private static AttributeDefinition createPercentile(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.DOUBLE)
+                .setUndefinedMetricValue(new ModelNode(0d))
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
     public AbstractEJBComponentResourceDefinition(final EJBComponentType componentType) {
         super(PathElement.pathElement(componentType.getResourceType()),
                 EJB3Extension.getResourceDescriptionResolver(componentType.getResourceType()));
@@ -191,6 +212,8 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(POOL_REMOVE_COUNT, handler);
             resourceRegistration.registerReadOnlyAttribute(POOL_CURRENT_SIZE, handler);
             resourceRegistration.registerReadWriteAttribute(POOL_MAX_SIZE, handler, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_CONTENTION_COUNT, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_STEAL_COUNT, handler);
         }
 
         if (componentType.equals(EJBComponentType.STATEFUL)) {
@@ -238,6 +261,42 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        resourceRegistration.registerMetric(EXECUTION_TIME_P50, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().set(component.getInvocationMetrics().getValues().getExecutionTimeP50());
+            }
+        });
+        resourceRegistration.registerMetric(EXECUTION_TIME_P99, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().set(component.getInvocationMetrics().getValues().getExecutionTimeP99());
+            }
+        });
+        resourceRegistration.registerMetric(EXECUTION_TIME_P999, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().set(component.getInvocationMetrics().getValues().getExecutionTimeP999());
+            }
+        });
+        resourceRegistration.registerMetric(WAIT_TIME_P50, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().set(component.getInvocationMetrics().getValues().getWaitTimeP50());
+            }
+        });
+        resourceRegistration.registerMetric(WAIT_TIME_P99, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().set(component.getInvocationMetrics().getValues().getWaitTimeP99());
+            }
+        });
+        resourceRegistration.registerMetric(WAIT_TIME_P999, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                context.getResult().set(component.getInvocationMetrics().getValues().getWaitTimeP999());
+            }
+        });
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
@@ -248,6 +307,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     result.get("execution-time").set(values.getExecutionTime());
                     result.get("invocations").set(values.getInvocations());
                     result.get("wait-time").set(values.getWaitTime());
+                    result.get(EXECUTION_TIME_P50.getName()).set(values.getExecutionTimeP50());
+                    result.get(EXECUTION_TIME_P99.getName()).set(values.getExecutionTimeP99());
+                    result.get(EXECUTION_TIME_P999.getName()).set(values.getExecutionTimeP999());
+                    result.get(WAIT_TIME_P50.getName()).set(values.getWaitTimeP50());
+                    result.get(WAIT_TIME_P99.getName()).set(values.getWaitTimeP99());
+                    result.get(WAIT_TIME_P999.getName()).set(values.getWaitTimeP999());
                     context.getResult().get(entry.getKey()).set(result);
                 }
             }
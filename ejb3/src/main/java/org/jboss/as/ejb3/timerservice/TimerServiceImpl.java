@@ -1007,10 +1007,15 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             return Collections.emptyList();
         }
         final ContextTransactionManager transactionManager = ContextTransactionManager.getInstance();
-        List<TimerImpl> persistedTimers;
+        final List<TimerImpl> activeTimers = new ArrayList<TimerImpl>();
         try {
             transactionManager.begin();
-            persistedTimers = timerPersistence.getValue().loadActiveTimers(timedObjectId, this);
+            timerPersistence.getValue().loadActiveTimers(timedObjectId, this, persistedTimer -> {
+                if (!ineligibleTimerStates.contains(persistedTimer.getState())) {
+                    // add it to the list of timers which will be restored
+                    activeTimers.add(persistedTimer);
+                }
+            });
             transactionManager.commit();
         } catch (Exception e) {
             try {
@@ -1018,17 +1023,9 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             } catch (Exception ee) {
                 // omit;
             }
-            persistedTimers = Collections.emptyList();
+            activeTimers.clear();
             EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, "unavailable", e);
         }
-        final List<TimerImpl> activeTimers = new ArrayList<TimerImpl>();
-        for (final TimerImpl persistedTimer : persistedTimers) {
-            if (ineligibleTimerStates.contains(persistedTimer.getState())) {
-                continue;
-            }
-            // add it to the list of timers which will be restored
-            activeTimers.add(persistedTimer);
-        }
 
         return activeTimers;
     }
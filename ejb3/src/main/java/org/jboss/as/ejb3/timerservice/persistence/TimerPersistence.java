@@ -23,6 +23,7 @@ package org.jboss.as.ejb3.timerservice.persistence;
 
 import java.io.Closeable;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.transaction.TransactionManager;
 
@@ -81,6 +82,17 @@ public interface TimerPersistence {
      */
     List<TimerImpl> loadActiveTimers(String timedObjectId, final TimerServiceImpl timerService);
 
+    /**
+     * Load all active timers for the given object and pass them to the given consumer as they are read, without
+     * holding the complete result in memory.
+     *
+     * @param timedObjectId The timed object id to load timers for
+     * @param consumer Receives each loaded timer
+     */
+    default void loadActiveTimers(String timedObjectId, final TimerServiceImpl timerService, final Consumer<TimerImpl> consumer) {
+        loadActiveTimers(timedObjectId, timerService).forEach(consumer);
+    }
+
     /**
      *
      * Registers a listener to listed for new timers that are added to the database.
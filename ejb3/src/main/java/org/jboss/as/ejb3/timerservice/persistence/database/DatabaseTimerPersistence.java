@@ -52,7 +52,10 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import javax.sql.DataSource;
@@ -60,7 +63,10 @@ import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
 import javax.transaction.NotSupportedException;
 import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
+import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
@@ -107,6 +113,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
 
+    /** Timer statements deferred until the completion of the transaction which issued them */
+    private final Map<Transaction, StatementBatch> pendingBatches = new ConcurrentHashMap<>();
+
     /** Identifier for the database dialect to be used for the timer-sql.properties */
     private String database;
     /** List of extracted known dialects*/
@@ -125,6 +134,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
     private RefreshTask refreshTask;
+    /** Flag whether the timer table has the LAST_MODIFIED column used to refresh only changed timers*/
+    private volatile boolean trackModifications;
 
     /** Names for the different SQL commands stored in the properties*/
     private static final String CREATE_TABLE = "create-table";
@@ -134,6 +145,22 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
+    private static final String ADD_MODIFIED_COLUMN = "add-modified-column";
+    private static final String CREATE_TIMER_TRACKED = "create-timer-tracked";
+    private static final String UPDATE_TIMER_TRACKED = "update-timer-tracked";
+    private static final String UPDATE_RUNNING_TRACKED = "update-running-tracked";
+    private static final String LOAD_TIMER_IDS = "load-timer-ids";
+    private static final String COUNT_TIMERS = "count-timers";
+    private static final String LOAD_CHANGED_TIMERS = "load-changed-timers";
+    /** Number of rows fetched per round trip when loading timers */
+    private static final int FETCH_SIZE = 500;
+    /**
+     * Changes made up to this long before the previous refresh are loaded again, to cover clock skew
+     * between cluster nodes and transactions which committed after the previous refresh started.
+     */
+    private static final long REFRESH_OVERLAP = TimeUnit.MINUTES.toMillis(1);
+    /** Number of consecutive incremental refreshes of a timed object, after which all of its timers are reloaded */
+    private static final int MAX_INCREMENTAL_REFRESHES = 10;
     /** The format for scheduler start and end date*/
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
     /** Pattern to pickout MSSQL */
@@ -270,6 +297,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
      * and create the timer table if necessary.
      */
     private void checkDatabase() {
+        boolean created = false;
         String loadTimer = sql(LOAD_TIMER);
         Connection connection = null;
         Statement statement = null;
@@ -300,6 +328,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                             safeClose(statement);
                         }
                     }
+                    created = true;
                 } catch (SQLException e1) {
                     EjbLogger.EJB3_TIMER_LOGGER.couldNotCreateTable(e1);
                 }
@@ -312,6 +341,37 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             safeClose(statement);
             safeClose(connection);
         }
+        // a table created by the current create-table statement always has the LAST_MODIFIED column
+        trackModifications = created || checkModificationColumn();
+    }
+
+    /**
+     * Checks whether an existing timer table has the LAST_MODIFIED column. Tables created by previous versions do not
+     * have it, the table is never altered though, the administrator is asked to add the column instead.
+     *
+     * @return {@code true} if the column is available
+     */
+    private boolean checkModificationColumn() {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql(LOAD_CHANGED_TIMERS));
+            statement.setString(1, "NON-EXISTENT");
+            statement.setString(2, "NON-EXISTENT");
+            statement.setLong(3, 0L);
+            resultSet = statement.executeQuery();
+            return true;
+        } catch (SQLException e) {
+            EjbLogger.EJB3_TIMER_LOGGER.timerModificationColumnMissing(sql(ADD_MODIFIED_COLUMN));
+            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Query using the LAST_MODIFIED column failed");
+            return false;
+        } finally {
+            safeClose(resultSet);
+            safeClose(statement);
+            safeClose(connection);
+        }
     }
 
     private String sql(final String key) {
@@ -333,67 +393,116 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             }
         }
 
-        String createTimer = sql(CREATE_TIMER);
-        Connection connection = null;
-        PreparedStatement statement = null;
+        final boolean tracked = trackModifications;
+        final long modified = System.currentTimeMillis();
         try {
             synchronized (this) {
                 knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
             }
-            connection = dataSource.getConnection();
-            statement = connection.prepareStatement(createTimer);
-            statementParameters(timerEntity, statement);
-            statement.execute();
+            final StatementParameters parameters = new StatementParameters();
+            statementParameters(timerEntity, parameters);
+            if (tracked) {
+                parameters.setLong(27, modified);
+            }
+            execute(sql(tracked ? CREATE_TIMER_TRACKED : CREATE_TIMER), parameters);
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            safeClose(statement);
-            safeClose(connection);
         }
     }
 
     @Override
     public void persistTimer(final TimerImpl timerEntity) {
-        Connection connection = null;
-        PreparedStatement statement = null;
+        final String timedObjectId = timerEntity.getTimedObjectId();
+        final String id = timerEntity.getId();
         try {
-            connection = dataSource.getConnection();
             if (timerEntity.getState() == TimerState.CANCELED ||
                     timerEntity.getState() == TimerState.EXPIRED) {
-                String deleteTimer = sql(DELETE_TIMER);
-                statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
-                statement.execute();
+                deleteTimer(timedObjectId, id);
                 synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
+                    knownTimerIds.get(timedObjectId).remove(id);
                 }
             } else {
                 synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
+                    knownTimerIds.get(timedObjectId).add(id);
+                }
+                final boolean tracked = trackModifications;
+                final long modified = System.currentTimeMillis();
+                final StatementParameters parameters = new StatementParameters();
+                int index = 1;
+                parameters.setTimestamp(index++, timestamp(timerEntity.getNextExpiration()));
+                parameters.setTimestamp(index++, timestamp(timerEntity.getPreviousRun()));
+                parameters.setString(index++, timerEntity.getState().name());
+                setNodeName(timerEntity.getState(), parameters, index++);
+                if (tracked) {
+                    parameters.setLong(index++, modified);
                 }
-                String updateTimer = sql(UPDATE_TIMER);
-                statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
                 // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
-                statement.execute();
+                parameters.setString(index++, timedObjectId);
+                parameters.setString(index++, id);
+                parameters.setString(index++, partition);
+                parameters.setString(index, nodeName);   // only persist if this node or empty
+                execute(sql(tracked ? UPDATE_TIMER_TRACKED : UPDATE_TIMER), parameters);
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        }
+    }
+
+    private void deleteTimer(final String timedObjectId, final String id) throws SQLException {
+        execute(sql(DELETE_TIMER), new StatementParameters()
+                .setString(1, timedObjectId)
+                .setString(2, id)
+                .setString(3, partition));
+    }
+
+    /**
+     * Executes a timer update. If a transaction is active the statement is deferred until the transaction completes,
+     * so that all timer updates of the transaction are sent to the database as JDBC batches.
+     * The parameters hold the values of the timer at the time of this call, so a deferred statement behaves as if executed right away.
+     */
+    private void execute(final String sql, final StatementParameters parameters) throws SQLException {
+        final StatementBatch batch = currentBatch();
+        if (batch != null) {
+            batch.add(new PendingStatement(sql, parameters));
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql);
+            parameters.bind(statement);
+            statement.execute();
         } finally {
             safeClose(statement);
             safeClose(connection);
         }
     }
 
+    /**
+     * Returns the batch collecting the timer updates of the current transaction, or {@code null} if there is no active
+     * transaction the updates can be deferred to.
+     */
+    private StatementBatch currentBatch() {
+        try {
+            final Transaction transaction = ContextTransactionManager.getInstance().getTransaction();
+            if (transaction == null || transaction.getStatus() != Status.STATUS_ACTIVE) {
+                return null;
+            }
+            StatementBatch batch = pendingBatches.get(transaction);
+            if (batch == null) {
+                batch = new StatementBatch(transaction);
+                transaction.registerSynchronization(batch);
+                pendingBatches.put(transaction, batch);
+            }
+            return batch;
+        } catch (SystemException | RollbackException | IllegalStateException e) {
+            // execute the statement right away
+            EjbLogger.EJB3_TIMER_LOGGER.tracef(e, "Unable to defer timer update to transaction completion");
+            return null;
+        }
+    }
+
     @Override
     public boolean shouldRun(TimerImpl timer, @Deprecated TransactionManager ignored) {
         final ContextTransactionManager tm = ContextTransactionManager.getInstance();
@@ -401,7 +510,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             //timers never execute on this node
             return false;
         }
-        String loadTimer = sql(UPDATE_RUNNING);
+        final boolean tracked = trackModifications;
+        String loadTimer = sql(tracked ? UPDATE_RUNNING_TRACKED : UPDATE_RUNNING);
         Connection connection = null;
         PreparedStatement statement = null;
         try {
@@ -409,15 +519,19 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             try {
                 connection = dataSource.getConnection();
                 statement = connection.prepareStatement(loadTimer);
-                statement.setString(1, TimerState.IN_TIMEOUT.name());
-                setNodeName(TimerState.IN_TIMEOUT, statement, 2);
-                statement.setString(3, timer.getId());
-                statement.setString(4, TimerState.IN_TIMEOUT.name());
-                statement.setString(5, TimerState.RETRY_TIMEOUT.name());
+                int index = 1;
+                statement.setString(index++, TimerState.IN_TIMEOUT.name());
+                statement.setString(index++, nodeName);
+                if (tracked) {
+                    statement.setLong(index++, System.currentTimeMillis());
+                }
+                statement.setString(index++, timer.getId());
+                statement.setString(index++, TimerState.IN_TIMEOUT.name());
+                statement.setString(index++, TimerState.RETRY_TIMEOUT.name());
                 if (timer.getNextExpiration() == null) {
-                    statement.setTimestamp(6, null);
+                    statement.setTimestamp(index, null);
                 } else {
-                    statement.setTimestamp(6, timestamp(timer.getNextExpiration()));
+                    statement.setTimestamp(index, timestamp(timer.getNextExpiration()));
                 }
             } catch (SQLException e) {
                 try {
@@ -455,6 +569,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     @Override
     public synchronized void timerUndeployed(final String timedObjectId) {
         knownTimerIds.remove(timedObjectId);
+        if (refreshTask != null) {
+            refreshTask.history.remove(timedObjectId);
+        }
     }
 
     @Override
@@ -464,10 +581,17 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        final List<TimerImpl> timers = new ArrayList<>();
+        loadActiveTimers(timedObjectId, timerService, timers::add);
+        return timers;
+    }
+
+    @Override
+    public void loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService, final Consumer<TimerImpl> consumer) {
         if(!knownTimerIds.containsKey(timedObjectId)) {
             // if the timedObjectId has not being deployed
             EjbLogger.EJB3_TIMER_LOGGER.timerNotDeployed(timedObjectId);
-            return Collections.emptyList();
+            return;
         }
         String loadTimer = sql(LOAD_ALL_TIMERS);
         Connection connection = null;
@@ -476,54 +600,37 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         try {
             connection = dataSource.getConnection();
             statement = connection.prepareStatement(loadTimer);
+            statement.setFetchSize(FETCH_SIZE);
             statement.setString(1, timedObjectId);
             statement.setString(2, partition);
             resultSet = statement.executeQuery();
-            final List<Holder> timers = new ArrayList<>();
             while (resultSet.next()) {
                 try {
-                    final Holder timerImpl = timerFromResult(resultSet, timerService);
-                    if (timerImpl != null) {
-                        timers.add(timerImpl);
-                    } else {
-                        final String deleteTimer = sql(DELETE_TIMER);
-                        try (PreparedStatement deleteStatement = connection.prepareStatement(deleteTimer)) {
-                            deleteStatement.setString(1, resultSet.getString(2));
-                            deleteStatement.setString(2, resultSet.getString(1));
-                            deleteStatement.setString(3, partition);
-                            deleteStatement.execute();
+                    final Holder timer = timerFromResult(resultSet, timerService);
+                    if (timer == null) {
+                        deleteTimer(resultSet.getString(2), resultSet.getString(1));
+                        continue;
+                    }
+                    synchronized (this) {
+                        // ids should be always be not null
+                        knownTimerIds.get(timedObjectId).add(timer.timer.getId());
+                        if(timer.requiresReset) {
+                            TimerImpl ret = timer.timer;
+                            EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
+                            if(ret.getNextExpiration() == null) {
+                                ret.setTimerState(TimerState.CANCELED);
+                                persistTimer(ret);
+                            } else {
+                                ret.setTimerState(TimerState.ACTIVE);
+                                persistTimer(ret);
+                            }
                         }
                     }
+                    consumer.accept(timer.timer);
                 } catch (Exception e) {
                     EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                 }
             }
-            synchronized (this) {
-                // ids should be always be not null
-                Set<String> ids = knownTimerIds.get(timedObjectId);
-                for (Holder timer : timers) {
-                    ids.add(timer.timer.getId());
-                }
-
-                for(Holder timer : timers) {
-                    if(timer.requiresReset) {
-                        TimerImpl ret = timer.timer;
-                        EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
-                        if(ret.getNextExpiration() == null) {
-                            ret.setTimerState(TimerState.CANCELED);
-                            persistTimer(ret);
-                        } else {
-                            ret.setTimerState(TimerState.ACTIVE);
-                            persistTimer(ret);
-                        }
-                    }
-                }
-            }
-            List<TimerImpl> ret = new ArrayList<>();
-            for(Holder timer : timers) {
-                ret.add(timer.timer);
-            }
-            return ret;
         } catch (SQLException e) {
             throw new RuntimeException(e);
         } finally {
@@ -613,35 +720,35 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return new Holder(ret, requiresReset);
     }
 
-    private void statementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
-        statement.setString(1, timerEntity.getId());
-        statement.setString(2, timerEntity.getTimedObjectId());
-        statement.setTimestamp(3, timestamp(timerEntity.getInitialExpiration()));
-        statement.setLong(4, timerEntity.getInterval());
-        statement.setTimestamp(5, timestamp(timerEntity.getNextExpiration()));
-        statement.setTimestamp(6, timestamp(timerEntity.getPreviousRun()));
-        statement.setString(7, serialize((Serializable) timerEntity.getPrimaryKey()));
-        statement.setString(8, serialize(timerEntity.getTimerInfo()));
-        statement.setString(9, timerEntity.getState().name());
+    private void statementParameters(final TimerImpl timerEntity, final StatementParameters parameters) {
+        parameters.setString(1, timerEntity.getId());
+        parameters.setString(2, timerEntity.getTimedObjectId());
+        parameters.setTimestamp(3, timestamp(timerEntity.getInitialExpiration()));
+        parameters.setLong(4, timerEntity.getInterval());
+        parameters.setTimestamp(5, timestamp(timerEntity.getNextExpiration()));
+        parameters.setTimestamp(6, timestamp(timerEntity.getPreviousRun()));
+        parameters.setString(7, serialize((Serializable) timerEntity.getPrimaryKey()));
+        parameters.setString(8, serialize(timerEntity.getTimerInfo()));
+        parameters.setString(9, timerEntity.getState().name());
 
         if (timerEntity instanceof CalendarTimer) {
             final CalendarTimer c = (CalendarTimer) timerEntity;
-            statement.setString(10, c.getScheduleExpression().getSecond());
-            statement.setString(11, c.getScheduleExpression().getMinute());
-            statement.setString(12, c.getScheduleExpression().getHour());
-            statement.setString(13, c.getScheduleExpression().getDayOfWeek());
-            statement.setString(14, c.getScheduleExpression().getDayOfMonth());
-            statement.setString(15, c.getScheduleExpression().getMonth());
-            statement.setString(16, c.getScheduleExpression().getYear());
+            parameters.setString(10, c.getScheduleExpression().getSecond());
+            parameters.setString(11, c.getScheduleExpression().getMinute());
+            parameters.setString(12, c.getScheduleExpression().getHour());
+            parameters.setString(13, c.getScheduleExpression().getDayOfWeek());
+            parameters.setString(14, c.getScheduleExpression().getDayOfMonth());
+            parameters.setString(15, c.getScheduleExpression().getMonth());
+            parameters.setString(16, c.getScheduleExpression().getYear());
             // WFLY-9054: Oracle ojdbc6/7 store a timestamp as '06-JUL-17 01.54.00.269000000 PM'
             //            but expect 'YYYY-MM-DD hh:mm:ss.fffffffff' as all other DB
-            statement.setString(17, schedulerDateAsString(c.getScheduleExpression().getStart()));
-            statement.setString(18, schedulerDateAsString(c.getScheduleExpression().getEnd()));
-            statement.setString(19, c.getScheduleExpression().getTimezone());
-            statement.setBoolean(20, c.isAutoTimer());
+            parameters.setString(17, schedulerDateAsString(c.getScheduleExpression().getStart()));
+            parameters.setString(18, schedulerDateAsString(c.getScheduleExpression().getEnd()));
+            parameters.setString(19, c.getScheduleExpression().getTimezone());
+            parameters.setBoolean(20, c.isAutoTimer());
             if (c.isAutoTimer()) {
-                statement.setString(21, c.getTimeoutMethod().getDeclaringClass().getName());
-                statement.setString(22, c.getTimeoutMethod().getName());
+                parameters.setString(21, c.getTimeoutMethod().getDeclaringClass().getName());
+                parameters.setString(22, c.getTimeoutMethod().getName());
                 StringBuilder params = new StringBuilder();
                 final Class<?>[] parameterTypes = c.getTimeoutMethod().getParameterTypes();
                 for (int i = 0; i < parameterTypes.length; ++i) {
@@ -650,32 +757,32 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                         params.append(";");
                     }
                 }
-                statement.setString(23, params.toString());
+                parameters.setString(23, params.toString());
             } else {
-                statement.setString(21, null);
-                statement.setString(22, null);
-                statement.setString(23, null);
+                parameters.setString(21, null);
+                parameters.setString(22, null);
+                parameters.setString(23, null);
             }
-            statement.setBoolean(24, true);
+            parameters.setBoolean(24, true);
         } else {
-            statement.setString(10, null);
-            statement.setString(11, null);
-            statement.setString(12, null);
-            statement.setString(13, null);
-            statement.setString(14, null);
-            statement.setString(15, null);
-            statement.setString(16, null);
-            statement.setTimestamp(17, null);
-            statement.setTimestamp(18, null);
-            statement.setString(19, null);
-            statement.setBoolean(20, false);
-            statement.setString(21, null);
-            statement.setString(22, null);
-            statement.setString(23, null);
-            statement.setBoolean(24, false);
-        }
-        statement.setString(25, partition);
-        setNodeName(timerEntity.getState(), statement, 26);
+            parameters.setString(10, null);
+            parameters.setString(11, null);
+            parameters.setString(12, null);
+            parameters.setString(13, null);
+            parameters.setString(14, null);
+            parameters.setString(15, null);
+            parameters.setString(16, null);
+            parameters.setTimestamp(17, null);
+            parameters.setTimestamp(18, null);
+            parameters.setString(19, null);
+            parameters.setBoolean(20, false);
+            parameters.setString(21, null);
+            parameters.setString(22, null);
+            parameters.setString(23, null);
+            parameters.setBoolean(24, false);
+        }
+        parameters.setString(25, partition);
+        setNodeName(timerEntity.getState(), parameters, 26);
     }
 
     private String serialize(final Serializable serializable) {
@@ -753,11 +860,11 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     /**
      * Set the node name for persistence if the state is IN_TIMEOUT or RETRY_TIMEOUT to show which node is current active for the timer.
      */
-    private void setNodeName(final TimerState timerState, PreparedStatement statement, int paramIndex) throws SQLException {
+    private void setNodeName(final TimerState timerState, StatementParameters parameters, int paramIndex) {
         if(timerState == TimerState.IN_TIMEOUT || timerState == TimerState.RETRY_TIMEOUT) {
-            statement.setString(paramIndex, nodeName);
+            parameters.setString(paramIndex, nodeName);
         } else {
-            statement.setNull(paramIndex, Types.VARCHAR);
+            parameters.setNull(paramIndex, Types.VARCHAR);
         }
     }
 
@@ -817,6 +924,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private class RefreshTask extends TimerTask {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
+        private final RefreshHistory history = new RefreshHistory(REFRESH_OVERLAP, MAX_INCREMENTAL_REFRESHES);
 
         @Override
         public void run() {
@@ -835,21 +943,30 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                         synchronized (DatabaseTimerPersistence.this) {
                             existing = new HashSet<>(knownTimerIds.get(timedObjectId));
                         }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
+                        final long refreshStart = System.currentTimeMillis();
+                        final Long changedSince = trackModifications ? history.changedSince(timedObjectId) : null;
                         Connection connection = null;
                         PreparedStatement statement = null;
                         ResultSet resultSet = null;
                         try {
                             connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
+                            if (changedSince != null) {
+                                statement = connection.prepareStatement(sql(LOAD_CHANGED_TIMERS));
+                                statement.setLong(3, changedSince);
+                            } else {
+                                statement = connection.prepareStatement(sql(LOAD_ALL_TIMERS));
+                            }
+                            statement.setFetchSize(FETCH_SIZE);
                             statement.setString(1, timedObjectId);
                             statement.setString(2, partition);
                             resultSet = statement.executeQuery();
+                            final Set<String> loaded = new HashSet<>();
                             final TimerServiceImpl timerService = listener.getTimerService();
                             while (resultSet.next()) {
                                 try {
                                     String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
+                                    loaded.add(id);
+                                    if (!existing.contains(id)) {
                                         final Holder holder = timerFromResult(resultSet, timerService);
                                         if(holder != null) {
                                             synchronized (DatabaseTimerPersistence.this) {
@@ -880,10 +997,35 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                                     EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                                 }
                             }
+                            final Set<String> stored;
+                            boolean complete = true;
+                            if (changedSince == null) {
+                                stored = loaded;
+                            } else {
+                                // unchanged timers were not loaded, a count of the stored timers tells whether any were removed
+                                final Set<String> expected = new HashSet<>(existing);
+                                expected.addAll(loaded);
+                                if (countTimers(connection, timedObjectId) == expected.size()) {
+                                    stored = expected;
+                                } else {
+                                    stored = loadTimerIds(connection, timedObjectId);
+                                    // new timers without a recent modification time (e.g. written by a node with
+                                    // a skewed clock) are picked up by a full refresh next time
+                                    for (String id : stored) {
+                                        if (!existing.contains(id) && !loaded.contains(id)) {
+                                            complete = false;
+                                            break;
+                                        }
+                                    }
+                                }
+                            }
 
                             synchronized (DatabaseTimerPersistence.this) {
                                 Set<String> timers = knownTimerIds.get(timedObjectId);
                                 for (String timer : existing) {
+                                    if (stored.contains(timer)) {
+                                        continue;
+                                    }
                                     TimerImpl timer1 = timerService.getTimer(timer);
                                     if (timer1 != null && timer1.getState() != TimerState.CREATED) {
                                         timers.remove(timer);
@@ -891,6 +1033,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                                     }
                                 }
                             }
+
+                            if (trackModifications && complete) {
+                                history.refreshed(timedObjectId, refreshStart, changedSince != null);
+                            } else {
+                                history.remove(timedObjectId);
+                            }
                         } catch (SQLException e) {
                             EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
                         } finally {
@@ -905,8 +1053,224 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             }
 
         }
+
+        private int countTimers(final Connection connection, final String timedObjectId) throws SQLException {
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(sql(COUNT_TIMERS));
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+            }
+        }
+
+        private Set<String> loadTimerIds(final Connection connection, final String timedObjectId) throws SQLException {
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(sql(LOAD_TIMER_IDS));
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                final Set<String> ids = new HashSet<>();
+                while (resultSet.next()) {
+                    ids.add(resultSet.getString(1));
+                }
+                return ids;
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+            }
+        }
+    }
+
+    /**
+     * Tracks the refreshes of each timed object, to decide whether the next refresh may only load the timers changed since.
+     */
+    static final class RefreshHistory {
+        private final long overlap;
+        private final int maxIncrementalRefreshes;
+        private final Map<String, Refresh> refreshes = new ConcurrentHashMap<>();
+
+        RefreshHistory(long overlap, int maxIncrementalRefreshes) {
+            this.overlap = overlap;
+            this.maxIncrementalRefreshes = maxIncrementalRefreshes;
+        }
+
+        /**
+         * Returns the modification time from which the timers of the given timed object need to be loaded,
+         * or {@code null} if all of its timers need to be loaded.
+         */
+        Long changedSince(String timedObjectId) {
+            final Refresh refresh = refreshes.get(timedObjectId);
+            if (refresh == null || refresh.incrementalRefreshes >= maxIncrementalRefreshes) {
+                return null;
+            }
+            return refresh.start - overlap;
+        }
+
+        /**
+         * Records a refresh of the given timed object which loaded every timer changed since the previous refresh.
+         */
+        void refreshed(String timedObjectId, long start, boolean incremental) {
+            final Refresh previous = refreshes.get(timedObjectId);
+            final int incrementalRefreshes = incremental && previous != null ? previous.incrementalRefreshes + 1 : 0;
+            refreshes.put(timedObjectId, new Refresh(start, incrementalRefreshes));
+        }
+
+        void remove(String timedObjectId) {
+            refreshes.remove(timedObjectId);
+        }
+
+        private static final class Refresh {
+            final long start;
+            final int incrementalRefreshes;
+
+            Refresh(long start, int incrementalRefreshes) {
+                this.start = start;
+                this.incrementalRefreshes = incrementalRefreshes;
+            }
+        }
+    }
+
+    /**
+     * Binds the parameters of a timer statement.
+     */
+    interface StatementBinder {
+        void bind(PreparedStatement statement) throws SQLException;
     }
 
+    static final class PendingStatement {
+        final String sql;
+        final StatementBinder binder;
+
+        PendingStatement(String sql, StatementBinder binder) {
+            this.sql = sql;
+            this.binder = binder;
+        }
+    }
+
+    /**
+     * The parameters of a timer statement. Each parameter is recorded as a binder of its value at the time it is set,
+     * so that the statement can be executed later, e.g. before the transaction completes.
+     */
+    static final class StatementParameters implements StatementBinder {
+        private final List<StatementBinder> binders = new ArrayList<>();
+
+        StatementParameters setString(final int index, final String value) {
+            binders.add(statement -> statement.setString(index, value));
+            return this;
+        }
+
+        StatementParameters setLong(final int index, final long value) {
+            binders.add(statement -> statement.setLong(index, value));
+            return this;
+        }
+
+        StatementParameters setBoolean(final int index, final boolean value) {
+            binders.add(statement -> statement.setBoolean(index, value));
+            return this;
+        }
+
+        StatementParameters setTimestamp(final int index, final Timestamp value) {
+            binders.add(statement -> statement.setTimestamp(index, value));
+            return this;
+        }
+
+        StatementParameters setNull(final int index, final int sqlType) {
+            binders.add(statement -> statement.setNull(index, sqlType));
+            return this;
+        }
+
+        @Override
+        public void bind(final PreparedStatement statement) throws SQLException {
+            for (StatementBinder binder : binders) {
+                binder.bind(statement);
+            }
+        }
+    }
+
+    /**
+     * Executes the given statements in order. Consecutive statements with the same SQL are sent as one JDBC batch.
+     */
+    static void executeStatements(final Connection connection, final List<PendingStatement> statements) throws SQLException {
+        int i = 0;
+        while (i < statements.size()) {
+            final String sql = statements.get(i).sql;
+            int end = i + 1;
+            while (end < statements.size() && statements.get(end).sql.equals(sql)) {
+                end++;
+            }
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(sql);
+                if (end - i == 1) {
+                    statements.get(i).binder.bind(statement);
+                    statement.execute();
+                } else {
+                    for (int j = i; j < end; j++) {
+                        statements.get(j).binder.bind(statement);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            } finally {
+                safeClose(statement);
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * Collects the timer statements issued within a transaction and executes them before the transaction completes.
+     * If they fail, the transaction is marked for rollback.
+     */
+    private class StatementBatch implements Synchronization {
+        private final Transaction transaction;
+        private final List<PendingStatement> statements = new ArrayList<>();
+
+        StatementBatch(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        synchronized void add(PendingStatement statement) {
+            statements.add(statement);
+        }
+
+        @Override
+        public synchronized void beforeCompletion() {
+            pendingBatches.remove(transaction);
+            if (statements.isEmpty()) {
+                return;
+            }
+            Connection connection = null;
+            try {
+                connection = dataSource.getConnection();
+                executeStatements(connection, statements);
+            } catch (SQLException e) {
+                EjbLogger.EJB3_TIMER_LOGGER.timerUpdatesFailed(e);
+                try {
+                    transaction.setRollbackOnly();
+                } catch (IllegalStateException | SystemException rbe) {
+                    EjbLogger.EJB3_TIMER_LOGGER.timerUpdateFailedAndRollbackNotPossible(rbe);
+                }
+            } finally {
+                statements.clear();
+                safeClose(connection);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            pendingBatches.remove(transaction);
+        }
+    }
 
     static final class Holder {
         final TimerImpl timer;
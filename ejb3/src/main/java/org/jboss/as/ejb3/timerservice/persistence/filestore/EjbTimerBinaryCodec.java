@@ -0,0 +1,219 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Binary encoding of persistent EJB timers, used for the records of the {@link TimerJournal}. It holds the same
+ * information as the XML format written by {@link EjbTimerXmlPersister}.
+ */
+public class EjbTimerBinaryCodec {
+
+    private static final byte TIMER = 0;
+    private static final byte CALENDAR_TIMER = 1;
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    public EjbTimerBinaryCodec(MarshallerFactory factory, MarshallingConfiguration configuration) {
+        this.factory = factory;
+        this.configuration = configuration;
+    }
+
+    public byte[] encode(TimerImpl timer) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(timer instanceof CalendarTimer ? CALENDAR_TIMER : TIMER);
+        writeDate(out, timer.getInitialExpiration());
+        out.writeLong(timer.getInterval());
+        writeDate(out, timer.getNextExpiration());
+        writeDate(out, timer.getPreviousRun());
+        out.writeUTF(timer.getState().name());
+        writeObject(out, timer.getTimerInfo());
+        writeObject(out, timer.getPrimaryKey());
+        if (timer instanceof CalendarTimer) {
+            final CalendarTimer calendarTimer = (CalendarTimer) timer;
+            final ScheduleExpression schedule = calendarTimer.getScheduleExpression();
+            writeString(out, schedule.getSecond());
+            writeString(out, schedule.getMinute());
+            writeString(out, schedule.getHour());
+            writeString(out, schedule.getDayOfWeek());
+            writeString(out, schedule.getDayOfMonth());
+            writeString(out, schedule.getMonth());
+            writeString(out, schedule.getYear());
+            writeDate(out, schedule.getStart());
+            writeDate(out, schedule.getEnd());
+            writeString(out, schedule.getTimezone());
+            out.writeBoolean(calendarTimer.isAutoTimer());
+            if (calendarTimer.isAutoTimer()) {
+                final Method timeoutMethod = calendarTimer.getTimeoutMethod();
+                out.writeUTF(timeoutMethod.getDeclaringClass().getName());
+                out.writeUTF(timeoutMethod.getName());
+                final Class<?>[] parameterTypes = timeoutMethod.getParameterTypes();
+                out.writeInt(parameterTypes.length);
+                for (Class<?> parameterType : parameterTypes) {
+                    out.writeUTF(parameterType.getName());
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a timer.
+     *
+     * @return the timer, or {@code null} if the timeout method of an automatic timer no longer exists
+     */
+    public TimerImpl decode(String timedObjectId, String id, byte[] data, TimerServiceImpl timerService, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        final boolean calendar = in.readByte() == CALENDAR_TIMER;
+        final Date initialDate = readDate(in);
+        final long repeatInterval = in.readLong();
+        final Date nextDate = readDate(in);
+        final Date previousRun = readDate(in);
+        final TimerState state = TimerState.valueOf(in.readUTF());
+        final Serializable info = (Serializable) readObject(in);
+        final Object primaryKey = readObject(in);
+
+        final TimerImpl.Builder builder;
+        if (calendar) {
+            final CalendarTimer.Builder calendarBuilder = CalendarTimer.builder();
+            calendarBuilder.setScheduleExprSecond(readString(in));
+            calendarBuilder.setScheduleExprMinute(readString(in));
+            calendarBuilder.setScheduleExprHour(readString(in));
+            calendarBuilder.setScheduleExprDayOfWeek(readString(in));
+            calendarBuilder.setScheduleExprDayOfMonth(readString(in));
+            calendarBuilder.setScheduleExprMonth(readString(in));
+            calendarBuilder.setScheduleExprYear(readString(in));
+            calendarBuilder.setScheduleExprStartDate(readDate(in));
+            calendarBuilder.setScheduleExprEndDate(readDate(in));
+            calendarBuilder.setScheduleExprTimezone(readString(in));
+            final boolean autoTimer = in.readBoolean();
+            calendarBuilder.setAutoTimer(autoTimer);
+            if (autoTimer) {
+                final String declaringClass = in.readUTF();
+                final String methodName = in.readUTF();
+                final String[] params = new String[in.readInt()];
+                for (int i = 0; i < params.length; i++) {
+                    params[i] = in.readUTF();
+                }
+                final Method timeoutMethod = CalendarTimer.getTimeoutMethod(new TimeoutMethod(declaringClass, methodName, params), classLoader);
+                if (timeoutMethod == null) {
+                    return null;
+                }
+                calendarBuilder.setTimeoutMethod(timeoutMethod);
+            }
+            builder = calendarBuilder;
+        } else {
+            builder = TimerImpl.builder();
+        }
+        builder.setId(id);
+        builder.setTimedObjectId(timedObjectId);
+        builder.setInitialDate(initialDate);
+        builder.setRepeatInterval(repeatInterval);
+        builder.setNextDate(nextDate);
+        builder.setPreviousRun(previousRun);
+        builder.setTimerState(state);
+        builder.setInfo(info);
+        builder.setPrimaryKey(primaryKey);
+        builder.setPersistent(true);
+        return builder.build(timerService);
+    }
+
+    private void writeObject(DataOutput out, Object object) throws IOException {
+        if (object == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        marshaller.start(new OutputStreamByteOutput(bytes));
+        marshaller.writeObject(object);
+        marshaller.finish();
+        out.writeInt(bytes.size());
+        out.write(bytes.toByteArray());
+    }
+
+    private Object readObject(DataInput in) throws IOException, ClassNotFoundException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] data = new byte[length];
+        in.readFully(data);
+        final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+        unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(data)));
+        try {
+            return unmarshaller.readObject();
+        } finally {
+            unmarshaller.close();
+        }
+    }
+
+    private static void writeDate(DataOutput out, Date date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -48,20 +48,17 @@ import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.nio.file.Paths;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -75,6 +72,9 @@ import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
 /**
  * File based persistent timer store.
  * <p/>
+ * The timers of each timed object are stored in a {@link TimerJournal}. Timers stored in the XML format of previous
+ * versions, one file per timer, are moved into the journal when the timed object is first accessed.
+ * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
  *
  * @author Stuart Douglas
@@ -87,6 +87,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private final boolean createIfNotExists;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
+    private EjbTimerBinaryCodec codec;
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
@@ -97,6 +98,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, TimerJournal> journals = new ConcurrentHashMap<String, TimerJournal>();
 
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
         final SecurityManager sm = System.getSecurityManager();
@@ -130,6 +132,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
         this.configuration = configuration;
         this.factory = factory;
+        this.codec = new EjbTimerBinaryCodec(factory, configuration);
         if (pathRelativeTo != null) {
             callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
         }
@@ -150,6 +153,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public void stop(final StopContext context) {
+        for (TimerJournal journal : journals.values()) {
+            safeClose(journal);
+        }
+        journals.clear();
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -157,6 +164,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
         factory = null;
         configuration = null;
+        codec = null;
     }
 
     @Override
@@ -201,6 +209,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
         final Lock lock = getLock(timer.getTimedObjectId());
+        TimerJournal journal = null;
+        long sequence = 0;
         try {
             final int status = ContextTransactionManager.getInstance().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -213,17 +223,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (status == Status.STATUS_NO_TRANSACTION ||
                     status == Status.STATUS_UNKNOWN || isBeforeCompletion()
                     || status == Status.STATUS_COMMITTED) {
-                Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                if (timer.getState() == TimerState.CANCELED ||
-                        timer.getState() == TimerState.EXPIRED) {
-                    map.remove(timer.getId());
-                    writeFile(timer);
-                } else if (newTimer || map.containsKey(timer.getId())) {
-                    //if it is not a new timer and is not in the map then it has
-                    //been removed by another thread.
-                    map.put(timer.getId(), timer);
-                    writeFile(timer);
-                }
+                journal = getJournal(timer.getTimedObjectId(), timer.getTimerService());
+                sequence = writeTimer(journal, timer, newTimer);
             } else {
 
                 final String key = timerTransactionKey(timer);
@@ -240,6 +241,42 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         } finally {
             lock.unlock();
         }
+        // wait for the write outside of the lock, so concurrent changes are written together
+        sync(journal, sequence);
+    }
+
+    /**
+     * Appends the current state of the timer to the journal. Should be called under lock
+     *
+     * @return the sequence number to sync the journal to, {@code 0} if nothing was written
+     */
+    private long writeTimer(final TimerJournal journal, final TimerImpl timer, final boolean newTimer) {
+        if (timer.getState() == TimerState.CANCELED ||
+                timer.getState() == TimerState.EXPIRED) {
+            return journal.remove(timer.getId());
+        } else if (newTimer || journal.contains(timer.getId())) {
+            //if it is not a new timer and is not in the journal then it has
+            //been removed by another thread.
+            final byte[] data;
+            try {
+                data = codec.encode(timer);
+            } catch (IOException e) {
+                EJB3_TIMER_LOGGER.failedToPersistTimer(timer, e);
+                return 0;
+            }
+            return journal.put(timer.getId(), data);
+        }
+        return 0;
+    }
+
+    private static void sync(final TimerJournal journal, final long sequence) {
+        if (journal != null && sequence != 0) {
+            try {
+                journal.sync(sequence);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 
     private String timerTransactionKey(final TimerImpl TimerImpl) {
@@ -253,6 +290,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            safeClose(journals.remove(timedObjectId));
         } finally {
             lock.unlock();
         }
@@ -270,18 +308,34 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
         final Lock lock = getLock(timedObjectId);
+        TimerJournal journal = null;
+        long sequence = 0;
+        final List<TimerImpl> entities = new ArrayList<TimerImpl>();
         try {
             lock.lock();
-            final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
-
-            final List<TimerImpl> entities = new ArrayList<TimerImpl>();
-            for (Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
-                entities.add(mostRecentEntityVersion(entry.getValue()));
+            journal = getJournal(timedObjectId, timerService);
+            final ClassLoader classLoader = timerService.getTimedObjectInvoker().getValue().getClassLoader();
+            for (Map.Entry<String, byte[]> entry : journal.getTimers().entrySet()) {
+                final TimerImpl timer;
+                try {
+                    timer = codec.decode(timedObjectId, entry.getKey(), entry.getValue(), timerService, classLoader);
+                } catch (Exception e) {
+                    EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), e);
+                    continue;
+                }
+                if (timer == null) {
+                    // the timeout method of the auto timer no longer exists
+                    EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), null);
+                    sequence = Math.max(sequence, journal.remove(entry.getKey()));
+                    continue;
+                }
+                entities.add(mostRecentEntityVersion(timer));
             }
-            return entities;
         } finally {
             lock.unlock();
         }
+        sync(journal, sequence);
+        return entities;
     }
 
     @Override
@@ -325,34 +379,48 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
     /**
-     * Gets the timer map, loading from the persistent store if necessary. Should be called under lock
+     * Gets the journal of the timed object, opening it if necessary. Should be called under lock
      *
      * @param timedObjectId The timed object id
-     * @return The timers for the object
+     * @return The journal holding the timers of the object
      */
-    private Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
-        return loadTimersFromFile(timedObjectId, timerService);
+    private TimerJournal getJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        TimerJournal journal = journals.get(timedObjectId);
+        if (journal == null) {
+            try {
+                journal = TimerJournal.open(Paths.get(getDirectory(timedObjectId), TimerJournal.FILE_NAME));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            migrateTimers(timedObjectId, timerService, journal);
+            journals.put(timedObjectId, journal);
+        }
+        return journal;
     }
 
-    private Map<String, TimerImpl> loadTimersFromFile(String timedObjectId, TimerServiceImpl timerService) {
-        Map<String, TimerImpl> timers = new HashMap<>();
+    /**
+     * Moves timers stored in the legacy and XML formats into the journal.
+     */
+    private void migrateTimers(String timedObjectId, TimerServiceImpl timerService, TimerJournal journal) {
         String directory = getDirectory(timedObjectId);
+        long sequence = 0;
 
-        timers.putAll(LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration));
-        for(Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
-            writeFile(entry.getValue()); //write legacy timers into the new format
+        for (TimerImpl timer : LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration).values()) {
             //the legacy code handling code will write a marker file, to make sure that the old timers will not be loaded on next restart.
+            sequence = Math.max(sequence, writeTimer(journal, timer, true));
         }
         final File file = new File(directory);
         if (!file.exists()) {
             //no timers exist yet
-            return timers;
+            sync(journal, sequence);
+            return;
         } else if (!file.isDirectory()) {
             EJB3_TIMER_LOGGER.failToRestoreTimers(file);
-            return timers;
+            return;
         }
 
         final XMLMapper mapper = createMapper(timerService);
+        final List<File> migrated = new ArrayList<>();
 
         for (File timerFile : file.listFiles()) {
             if (!timerFile.getName().endsWith(".xml")) {
@@ -371,11 +439,11 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     mapper.parseDocument(timerList, streamReader);
                     for (TimerImpl timer : timerList) {
                         if (timer.getId().equals("deleted-timer")) {
-                            timerFile.delete();
                             break;
                         }
-                        timers.put(timer.getId(), timer);
+                        sequence = Math.max(sequence, writeTimer(journal, timer, true));
                     }
+                    migrated.add(timerFile);
                 } finally {
                     safeClose(in);
                 }
@@ -392,7 +460,11 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 }
             }
         }
-        return timers;
+        // only remove the XML files once their timers are durable in the journal
+        sync(journal, sequence);
+        for (File timerFile : migrated) {
+            timerFile.delete();
+        }
     }
 
     private XMLMapper createMapper(TimerServiceImpl timerService) {
@@ -402,10 +474,6 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
 
-    private File fileName(String timedObjectId, String timerId) {
-        return new File(getDirectory(timedObjectId) + File.separator + timerId.replace(File.separator, "-") + ".xml");
-    }
-
     /**
      * Gets the directory for a given timed object, making sure it exists.
      *
@@ -457,24 +525,20 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     if (timer == null) {
                         return null;
                     }
+                    TimerJournal journal = null;
+                    long sequence = 0;
                     try {
                         lock.lock();
                         if (status == Status.STATUS_COMMITTED) {
-                            final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                            if (timer.getState() == TimerState.CANCELED ||
-                                    timer.getState() == TimerState.EXPIRED) {
-                                map.remove(timer.getId());
-                            } else {
-                                if (newTimer || map.containsKey(timer.getId())) {
-                                    //if an existing timer is not in the map it has been cancelled by another thread
-                                    map.put(timer.getId(), timer);
-                                }
-                            }
-                            writeFile(timer);
+                            journal = getJournal(timer.getTimedObjectId(), timer.getTimerService());
+                            //if an existing timer is not in the journal it has been cancelled by another thread
+                            sequence = writeTimer(journal, timer, newTimer);
                         }
                     } finally {
                         lock.unlock();
                     }
+                    // concurrently completing transactions share the write to the journal
+                    sync(journal, sequence);
                     return null;
                 }
             });
@@ -483,34 +547,6 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     }
 
-    private void writeFile(TimerImpl timer) {
-        final File file = fileName(timer.getTimedObjectId(), timer.getId());
-
-        //if the timer is expired or cancelled delete the file
-        if (timer.getState() == TimerState.CANCELED ||
-                timer.getState() == TimerState.EXPIRED) {
-            if (file.exists()) {
-                file.delete();
-            }
-            return;
-        }
-        try {
-            FileOutputStream out = new FileOutputStream(file);
-
-            try {
-                XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
-                XMLMapper mapper = createMapper(timer.getTimerService());
-                mapper.deparseDocument(new EjbTimerXmlPersister(factory, configuration), Collections.singletonList(timer), writer);
-                writer.flush();
-                writer.close();
-            } finally {
-                safeClose(out);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
         return transactionSynchronizationRegistry;
     }
@@ -54,7 +54,7 @@ public class LegacyFileStore {
             }
             Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
             for (File timerFile : file.listFiles()) {
-                if(timerFile.getName().endsWith(".xml")) {
+                if(timerFile.getName().endsWith(".xml") || timerFile.getName().startsWith(TimerJournal.FILE_NAME)) {
                     continue;
                 }
                 FileInputStream in = null;
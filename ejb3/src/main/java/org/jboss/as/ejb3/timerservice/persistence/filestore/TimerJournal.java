@@ -0,0 +1,381 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal holding the persistent timers of a single timed object.
+ * <p/>
+ * Every timer change appends a checksummed record to the journal file. The latest version of each live timer is kept
+ * in memory, which allows the file to be rewritten once superseded records dominate it. Changes are enqueued with
+ * {@link #put(String, byte[])} and {@link #remove(String)}, which are cheap and can be called under the timed object
+ * lock, and made durable with {@link #sync(long)} afterwards, so that the changes of concurrently completing
+ * transactions share a single write and fsync.
+ */
+final class TimerJournal implements Closeable {
+
+    static final String FILE_NAME = "timers.journal";
+
+    private static final int MAGIC = 0x454a4254; // EJBT
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    /** The journal is compacted once it holds more than this many records and less than half of them are live */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    private final Path file;
+    private final Object writeLock = new Object();
+
+    // guarded by this
+    private final Map<String, byte[]> timers = new LinkedHashMap<>();
+    private final List<ByteBuffer> pending = new ArrayList<>();
+    private long appended;
+    private int records;
+
+    // guarded by writeLock
+    private FileChannel channel;
+    private boolean rewrite;
+    private boolean closed;
+    private volatile long durable;
+
+    private TimerJournal(final Path file, final FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal, replaying any existing content.
+     *
+     * @param file the journal file, created if it does not exist
+     * @return the journal
+     */
+    static TimerJournal open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final TimerJournal journal = new TimerJournal(file, channel);
+        try {
+            synchronized (journal.writeLock) {
+                journal.replay();
+                if (journal.compactionRequired()) {
+                    journal.compact();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * Records the latest state of a timer.
+     *
+     * @return the sequence number to pass to {@link #sync(long)}
+     */
+    synchronized long put(final String id, final byte[] data) {
+        timers.put(id, data);
+        return enqueue(record(PUT, id, data));
+    }
+
+    /**
+     * Records the removal of a timer.
+     *
+     * @return the sequence number to pass to {@link #sync(long)}, or {@code 0} if the timer was not known
+     */
+    synchronized long remove(final String id) {
+        if (timers.remove(id) == null) {
+            return 0;
+        }
+        return enqueue(record(REMOVE, id, null));
+    }
+
+    synchronized boolean contains(final String id) {
+        return timers.containsKey(id);
+    }
+
+    /**
+     * @return the encoded state of all live timers, keyed by timer id
+     */
+    synchronized Map<String, byte[]> getTimers() {
+        return new LinkedHashMap<>(timers);
+    }
+
+    /**
+     * Makes all changes up to the given sequence number durable. Changes enqueued by other threads in the meantime are
+     * written with the same write and fsync.
+     */
+    void sync(final long sequence) throws IOException {
+        if (sequence <= durable) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (sequence <= durable) {
+                return;
+            }
+            if (closed) {
+                // close() flushed everything enqueued before it, so the change failed to be written
+                throw new ClosedChannelException();
+            }
+            write();
+            if (compactionRequired()) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Makes all pending changes durable and closes the journal. A sync running concurrently completes first.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                write();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes and fsyncs all pending records. Must be called holding the write lock.
+     */
+    private void write() throws IOException {
+        if (rewrite) {
+            compact();
+            return;
+        }
+        final ByteBuffer[] buffers;
+        final long upTo;
+        synchronized (this) {
+            buffers = pending.toArray(new ByteBuffer[pending.size()]);
+            pending.clear();
+            upTo = appended;
+        }
+        try {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // the records are lost from the file, rewrite it from memory with the next sync
+            rewrite = true;
+            throw e;
+        }
+        durable = upTo;
+    }
+
+    private long enqueue(final ByteBuffer record) {
+        pending.add(record);
+        records++;
+        return ++appended;
+    }
+
+    private synchronized boolean compactionRequired() {
+        return records > COMPACTION_THRESHOLD && records > 2 * timers.size();
+    }
+
+    /**
+     * Replaces the journal with one holding a single record per live timer. Must be called holding the write lock.
+     * Only the snapshot of the live timers is taken under the monitor, changes made while the compacted journal is
+     * written stay pending and are appended to it by the next sync.
+     */
+    private void compact() throws IOException {
+        final Map<String, byte[]> snapshot;
+        final long upTo;
+        synchronized (this) {
+            snapshot = new LinkedHashMap<>(timers);
+            upTo = appended;
+            // the state of the pending records is contained in the snapshot
+            pending.clear();
+            records = timers.size();
+            // until the compacted journal replaced the current one, the snapshot is only held in memory
+            rewrite = true;
+        }
+        final Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            writeHeader(out);
+            for (Map.Entry<String, byte[]> entry : snapshot.entrySet()) {
+                final ByteBuffer record = record(PUT, entry.getKey(), entry.getValue());
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+            // the open channel follows the file when it is moved
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+        syncDirectory(file.getParent());
+        final FileChannel previous = channel;
+        channel = out;
+        rewrite = false;
+        durable = upTo;
+        try {
+            previous.close();
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.tracef(e, "Failed to close %s", file);
+        }
+    }
+
+    /**
+     * Makes the replacement of the journal file durable. Not every platform allows a directory to be opened, in which
+     * case the move is as durable as the platform allows.
+     */
+    private static void syncDirectory(final Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.tracef(e, "Failed to sync directory %s", directory);
+        }
+    }
+
+    private void replay() throws IOException {
+        final long size = channel.size();
+        if (size < HEADER_SIZE) {
+            // new journal, or the creation did not complete
+            channel.truncate(0);
+            writeHeader(channel);
+            channel.force(true);
+            return;
+        }
+        channel.position(0);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException(file + " is not a timer journal");
+        }
+        long position = HEADER_SIZE;
+        synchronized (this) {
+            while (size - position >= RECORD_HEADER_SIZE) {
+                final int length = in.readInt();
+                final int checksum = in.readInt();
+                if (length <= 0 || length > size - position - RECORD_HEADER_SIZE) {
+                    break;
+                }
+                final byte[] payload = new byte[length];
+                in.readFully(payload);
+                final CRC32 crc = new CRC32();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum || !apply(payload)) {
+                    break;
+                }
+                position += RECORD_HEADER_SIZE + length;
+            }
+        }
+        if (position < size) {
+            // a write was interrupted, e.g. by a crash, the remainder was never acknowledged
+            EJB3_TIMER_LOGGER.discardingTimerJournalTail(size - position, file);
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+    }
+
+    private boolean apply(final byte[] payload) throws IOException {
+        final ByteArrayInputStream bytes = new ByteArrayInputStream(payload);
+        final DataInputStream in = new DataInputStream(bytes);
+        final byte type = in.readByte();
+        final String id = in.readUTF();
+        switch (type) {
+            case PUT:
+                timers.put(id, Arrays.copyOfRange(payload, payload.length - bytes.available(), payload.length));
+                break;
+            case REMOVE:
+                timers.remove(id);
+                break;
+            default:
+                return false;
+        }
+        records++;
+        return true;
+    }
+
+    private static void writeHeader(final FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private static ByteBuffer record(final byte type, final String id, final byte[] data) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_HEADER_SIZE + 64 + (data == null ? 0 : data.length));
+        try {
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(type);
+            out.writeUTF(id);
+            if (data != null) {
+                out.write(data);
+            }
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        final byte[] record = bytes.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER_SIZE, record.length - RECORD_HEADER_SIZE);
+        final ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.putInt(0, record.length - RECORD_HEADER_SIZE);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.jboss.as.ejb3.cache.Cache;
+import org.jboss.as.ejb3.cache.Identifiable;
+import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.junit.Test;
+
+/**
+ * Unit test for the maximum size and statistics of {@link SimpleCache}.
+ */
+public class SimpleCacheTestCase {
+
+    private final List<Bean> destroyed = new ArrayList<>();
+    private final SimpleCacheStatistics statistics = new SimpleCacheStatistics();
+
+    private Cache<UUID, Bean> createCache(int maxSize) {
+        StatefulObjectFactory<Bean> factory = new StatefulObjectFactory<Bean>() {
+            @Override
+            public Bean createInstance() {
+                return new Bean();
+            }
+
+            @Override
+            public void destroyInstance(Bean instance) {
+                SimpleCacheTestCase.this.destroyed.add(instance);
+            }
+        };
+        return new SimpleCache<>(factory, UUID::randomUUID, null, null, maxSize, this.statistics);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        Cache<UUID, Bean> cache = this.createCache(2);
+
+        Bean first = cache.create();
+        Bean second = cache.create();
+
+        // Use the first bean, such that the second bean becomes the least recently used
+        assertSame(first, cache.get(first.getId()));
+        cache.release(first);
+
+        Bean third = cache.create();
+
+        assertEquals(2, cache.getCacheSize());
+        assertEquals(1, this.destroyed.size());
+        assertSame(second, this.destroyed.get(0));
+        assertTrue(cache.contains(first.getId()));
+        assertFalse(cache.contains(second.getId()));
+        assertTrue(cache.contains(third.getId()));
+
+        assertNull(cache.get(second.getId()));
+
+        assertEquals(1, this.statistics.getHitCount());
+        assertEquals(1, this.statistics.getMissCount());
+        assertEquals(1, this.statistics.getEvictionCount());
+
+        cache.stop();
+    }
+
+    @Test
+    public void doNotEvictBeansInUse() {
+        Cache<UUID, Bean> cache = this.createCache(1);
+
+        Bean first = cache.create();
+        assertSame(first, cache.get(first.getId()));
+
+        // The only other bean is in use, so the cache must temporarily exceed its maximum size
+        Bean second = cache.create();
+
+        assertEquals(2, cache.getCacheSize());
+        assertTrue(this.destroyed.isEmpty());
+        assertEquals(0, this.statistics.getEvictionCount());
+
+        // Once released, the least recently used idle bean is evicted by the next creation
+        cache.release(first);
+        Bean third = cache.create();
+
+        assertEquals(1, cache.getCacheSize());
+        assertEquals(2, this.destroyed.size());
+        assertTrue(this.destroyed.contains(first));
+        assertTrue(this.destroyed.contains(second));
+        assertTrue(cache.contains(third.getId()));
+        assertEquals(2, this.statistics.getEvictionCount());
+
+        cache.stop();
+    }
+
+    @Test
+    public void unbounded() {
+        Cache<UUID, Bean> cache = this.createCache(Integer.MAX_VALUE);
+
+        for (int i = 0; i < 100; ++i) {
+            cache.create();
+        }
+
+        assertEquals(100, cache.getCacheSize());
+        assertTrue(this.destroyed.isEmpty());
+        assertEquals(0, this.statistics.getEvictionCount());
+
+        cache.stop();
+
+        assertEquals(100, this.destroyed.size());
+    }
+
+    static class Bean implements Identifiable<UUID> {
+        private final UUID id = UUID.randomUUID();
+
+        @Override
+        public UUID getId() {
+            return this.id;
+        }
+    }
+}
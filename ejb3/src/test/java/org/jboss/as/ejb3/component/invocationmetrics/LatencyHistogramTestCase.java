@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTestCase {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final LatencyHistogram histogram = new LatencyHistogram(WINDOW, this.nanoTime::get);
+
+    @Test
+    public void empty() {
+        double[] result = this.histogram.percentiles(InvocationMetrics.PERCENTILES);
+        assertEquals(0d, result[0], 0d);
+        assertEquals(0d, result[1], 0d);
+        assertEquals(0d, result[2], 0d);
+    }
+
+    @Test
+    public void percentiles() {
+        // 1000 invocations of 1ms, 10 of 100ms, 1 of 1s
+        for (int i = 0; i < 1000; ++i) {
+            this.histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < 10; ++i) {
+            this.histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        this.histogram.record(TimeUnit.SECONDS.toNanos(1));
+
+        double[] result = this.histogram.percentiles(0.5d, 0.98d, 0.995d, 1d);
+        // Relative error is at most 1/16
+        assertEquals(1d, result[0], 1d / 16);
+        assertEquals(1d, result[1], 1d / 16);
+        assertEquals(100d, result[2], 100d / 16);
+        assertEquals(1000d, result[3], 1000d / 16);
+    }
+
+    @Test
+    public void smallAndNegativeLatencies() {
+        this.histogram.record(-1L);
+        this.histogram.record(0L);
+        this.histogram.record(TimeUnit.MICROSECONDS.toNanos(5));
+
+        double[] result = this.histogram.percentiles(0.5d, 1d);
+        assertEquals(0d, result[0], 0d);
+        assertEquals(0.005d, result[1], 0d);
+    }
+
+    @Test
+    public void expiry() {
+        this.histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Latencies of the previous window still count
+        this.nanoTime.addAndGet(WINDOW);
+        this.histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        double[] result = this.histogram.percentiles(0.5d, 1d);
+        assertEquals(1d, result[0], 1d / 16);
+        assertEquals(100d, result[1], 100d / 16);
+
+        // Latencies older than the previous window no longer count
+        this.nanoTime.addAndGet(WINDOW);
+        this.histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        result = this.histogram.percentiles(1d);
+        assertEquals(1d, result[0], 1d / 16);
+
+        // Nothing recorded during the last 2 windows
+        this.nanoTime.addAndGet(2 * WINDOW);
+        result = this.histogram.percentiles(1d);
+        assertEquals(0d, result[0], 0d);
+    }
+
+    @Test
+    public void maxValue() {
+        this.histogram.record(Long.MAX_VALUE);
+        double[] result = this.histogram.percentiles(1d);
+        // Recorded in the last bucket, i.e. ~19 hours
+        assertEquals(TimeUnit.HOURS.toMillis(19), result[0], TimeUnit.HOURS.toMillis(1));
+    }
+}
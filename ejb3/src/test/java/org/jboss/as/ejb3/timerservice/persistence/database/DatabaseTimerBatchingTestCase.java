@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence.PendingStatement;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence.RefreshHistory;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence.StatementParameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+/**
+ * Tests the batching of deferred timer statements and the bookkeeping of incremental timer refreshes.
+ */
+public class DatabaseTimerBatchingTestCase {
+
+    @Test
+    public void consecutiveStatementsAreBatched() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement update = mock(PreparedStatement.class);
+        PreparedStatement delete = mock(PreparedStatement.class);
+        PreparedStatement update2 = mock(PreparedStatement.class);
+        when(connection.prepareStatement("update")).thenReturn(update, update2);
+        when(connection.prepareStatement("delete")).thenReturn(delete);
+
+        DatabaseTimerPersistence.executeStatements(connection, Arrays.asList(
+                new PendingStatement("update", statement -> statement.setString(1, "a")),
+                new PendingStatement("update", statement -> statement.setString(1, "b")),
+                new PendingStatement("delete", statement -> statement.setString(1, "c")),
+                new PendingStatement("update", statement -> statement.setString(1, "d"))));
+
+        InOrder order = inOrder(connection, update, delete, update2);
+        order.verify(connection).prepareStatement("update");
+        order.verify(update).setString(1, "a");
+        order.verify(update).addBatch();
+        order.verify(update).setString(1, "b");
+        order.verify(update).addBatch();
+        order.verify(update).executeBatch();
+        order.verify(update).close();
+        order.verify(connection).prepareStatement("delete");
+        order.verify(delete).setString(1, "c");
+        order.verify(delete).execute();
+        order.verify(delete).close();
+        order.verify(connection).prepareStatement("update");
+        order.verify(update2).setString(1, "d");
+        order.verify(update2).execute();
+        order.verify(update2).close();
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void parametersAreBoundInOrder() throws SQLException {
+        StatementParameters parameters = new StatementParameters()
+                .setString(1, "ACTIVE")
+                .setLong(2, 42L)
+                .setTimestamp(3, null)
+                .setBoolean(4, true)
+                .setNull(5, Types.VARCHAR);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        parameters.bind(statement);
+
+        InOrder order = inOrder(statement);
+        order.verify(statement).setString(1, "ACTIVE");
+        order.verify(statement).setLong(2, 42L);
+        order.verify(statement).setTimestamp(3, null);
+        order.verify(statement).setBoolean(4, true);
+        order.verify(statement).setNull(5, Types.VARCHAR);
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void parametersPropagateSQLException() throws SQLException {
+        SQLException failure = new SQLException();
+        StatementParameters parameters = new StatementParameters().setString(1, "a").setString(2, "b");
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doThrow(failure).when(statement).setString(1, "a");
+        try {
+            parameters.bind(statement);
+            Assert.fail();
+        } catch (SQLException e) {
+            Assert.assertSame(failure, e);
+        }
+        verify(statement, never()).setString(2, "b");
+    }
+
+    @Test
+    public void refreshHistory() {
+        RefreshHistory history = new RefreshHistory(10L, 2);
+        Assert.assertNull(history.changedSince("a"));
+
+        history.refreshed("a", 100L, false);
+        Assert.assertEquals(Long.valueOf(90L), history.changedSince("a"));
+        Assert.assertNull(history.changedSince("b"));
+
+        history.refreshed("a", 200L, true);
+        Assert.assertEquals(Long.valueOf(190L), history.changedSince("a"));
+        history.refreshed("a", 300L, true);
+        // the maximum number of incremental refreshes was reached, all timers are reloaded
+        Assert.assertNull(history.changedSince("a"));
+
+        history.refreshed("a", 400L, false);
+        Assert.assertEquals(Long.valueOf(390L), history.changedSince("a"));
+
+        history.remove("a");
+        Assert.assertNull(history.changedSince("a"));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EjbTimerBinaryCodecTestCase {
+
+    private static final String TIMED_OBJECT_ID = "timed-object";
+
+    private final EjbTimerBinaryCodec codec = new EjbTimerBinaryCodec(new RiverMarshallerFactory(), configuration());
+    private TimerServiceImpl timerService;
+
+    private static MarshallingConfiguration configuration() {
+        MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setVersion(3);
+        return configuration;
+    }
+
+    @Before
+    public void setUp() {
+        TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+        when(invoker.getTimedObjectId()).thenReturn(TIMED_OBJECT_ID);
+        this.timerService = mock(TimerServiceImpl.class);
+        when(this.timerService.getInvoker()).thenReturn(invoker);
+    }
+
+    @Test
+    public void testIntervalTimer() throws Exception {
+        TimerImpl timer = TimerImpl.builder()
+                .setId("interval")
+                .setTimedObjectId(TIMED_OBJECT_ID)
+                .setInitialDate(new Date(1000L))
+                .setRepeatInterval(5000L)
+                .setNextDate(new Date(6000L))
+                .setPreviousRun(new Date(1000L))
+                .setTimerState(TimerState.ACTIVE)
+                .setInfo("info")
+                .setPrimaryKey(42)
+                .setPersistent(true)
+                .build(this.timerService);
+
+        TimerImpl result = this.codec.decode(TIMED_OBJECT_ID, "interval", this.codec.encode(timer), this.timerService, getClass().getClassLoader());
+
+        assertFalse(result instanceof CalendarTimer);
+        assertEquals("interval", result.getId());
+        assertEquals(TIMED_OBJECT_ID, result.getTimedObjectId());
+        assertEquals(new Date(1000L), result.getInitialExpiration());
+        assertEquals(5000L, result.getInterval());
+        assertEquals(new Date(6000L), result.getNextExpiration());
+        assertEquals(new Date(1000L), result.getPreviousRun());
+        assertEquals(TimerState.ACTIVE, result.getState());
+        assertEquals("info", result.getTimerInfo());
+        assertEquals(42, result.getPrimaryKey());
+        assertTrue(result.isPersistent());
+    }
+
+    @Test
+    public void testNullValues() throws Exception {
+        TimerImpl timer = TimerImpl.builder()
+                .setId("single")
+                .setTimedObjectId(TIMED_OBJECT_ID)
+                .setInitialDate(new Date(1000L))
+                .setTimerState(TimerState.CREATED)
+                .setPersistent(true)
+                .build(this.timerService);
+
+        TimerImpl result = this.codec.decode(TIMED_OBJECT_ID, "single", this.codec.encode(timer), this.timerService, getClass().getClassLoader());
+
+        assertEquals(new Date(1000L), result.getInitialExpiration());
+        assertNull(result.getNextExpiration());
+        assertNull(result.getPreviousRun());
+        assertNull(result.getTimerInfo());
+        assertNull(result.getPrimaryKey());
+        assertEquals(TimerState.CREATED, result.getState());
+    }
+
+    @Test
+    public void testCalendarTimer() throws Exception {
+        CalendarTimer.Builder builder = CalendarTimer.builder();
+        builder.setScheduleExprSecond("0");
+        builder.setScheduleExprMinute("*/5");
+        builder.setScheduleExprHour("*");
+        builder.setScheduleExprDayOfWeek("Mon-Fri");
+        builder.setScheduleExprDayOfMonth("*");
+        builder.setScheduleExprMonth("*");
+        builder.setScheduleExprYear("*");
+        builder.setScheduleExprStartDate(new Date(1000L));
+        builder.setScheduleExprTimezone("UTC");
+        builder.setAutoTimer(false);
+        builder.setId("calendar");
+        builder.setTimedObjectId(TIMED_OBJECT_ID);
+        builder.setInitialDate(new Date(1000L));
+        builder.setNextDate(new Date(300000L));
+        builder.setTimerState(TimerState.ACTIVE);
+        builder.setPersistent(true);
+        TimerImpl timer = builder.build(this.timerService);
+
+        TimerImpl result = this.codec.decode(TIMED_OBJECT_ID, "calendar", this.codec.encode(timer), this.timerService, getClass().getClassLoader());
+
+        assertTrue(result instanceof CalendarTimer);
+        CalendarTimer calendarTimer = (CalendarTimer) result;
+        assertFalse(calendarTimer.isAutoTimer());
+        assertEquals(new Date(300000L), calendarTimer.getNextExpiration());
+        ScheduleExpression schedule = calendarTimer.getScheduleExpression();
+        assertEquals("0", schedule.getSecond());
+        assertEquals("*/5", schedule.getMinute());
+        assertEquals("*", schedule.getHour());
+        assertEquals("Mon-Fri", schedule.getDayOfWeek());
+        assertEquals("*", schedule.getDayOfMonth());
+        assertEquals("*", schedule.getMonth());
+        assertEquals("*", schedule.getYear());
+        assertEquals(new Date(1000L), schedule.getStart());
+        assertNull(schedule.getEnd());
+        assertEquals("UTC", schedule.getTimezone());
+    }
+}
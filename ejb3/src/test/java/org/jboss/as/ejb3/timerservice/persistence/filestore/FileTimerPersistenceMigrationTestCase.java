@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies that timers stored in the XML format of previous versions are moved into the journal.
+ */
+public class FileTimerPersistenceMigrationTestCase {
+
+    private static final String TIMED_OBJECT_ID = "timed-object";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MarshallerFactory factory = new RiverMarshallerFactory();
+    private final MarshallingConfiguration configuration = new MarshallingConfiguration();
+    private TimerServiceImpl timerService;
+    private FileTimerPersistence persistence;
+
+    @Before
+    public void setUp() throws Exception {
+        this.configuration.setVersion(3);
+        TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+        when(invoker.getTimedObjectId()).thenReturn(TIMED_OBJECT_ID);
+        when(invoker.getClassLoader()).thenReturn(getClass().getClassLoader());
+        InjectedValue<TimedObjectInvoker> invokerValue = new InjectedValue<>();
+        invokerValue.inject(invoker);
+        this.timerService = mock(TimerServiceImpl.class);
+        when(this.timerService.getInvoker()).thenReturn(invoker);
+        when(this.timerService.getTimedObjectInvoker()).thenReturn(invokerValue);
+
+        // the fields initialized by start()
+        this.persistence = new FileTimerPersistence(true, null, null);
+        set("factory", this.factory);
+        set("configuration", this.configuration);
+        set("codec", new EjbTimerBinaryCodec(this.factory, this.configuration));
+        set("baseDir", this.folder.getRoot());
+    }
+
+    private void set(String name, Object value) throws Exception {
+        Field field = FileTimerPersistence.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(this.persistence, value);
+    }
+
+    @Test
+    public void testMigration() throws Exception {
+        File directory = new File(this.folder.getRoot(), TIMED_OBJECT_ID);
+        assertTrue(directory.mkdirs());
+        File xmlFile = new File(directory, "timer.xml");
+        writeXml(xmlFile, TimerImpl.builder()
+                .setId("timer")
+                .setTimedObjectId(TIMED_OBJECT_ID)
+                .setInitialDate(new Date(1000L))
+                .setRepeatInterval(5000L)
+                .setNextDate(new Date(6000L))
+                .setTimerState(TimerState.ACTIVE)
+                .setInfo("info")
+                .setPersistent(true)
+                .build(this.timerService));
+
+        List<TimerImpl> timers = this.persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService);
+
+        assertEquals(1, timers.size());
+        TimerImpl timer = timers.get(0);
+        assertEquals("timer", timer.getId());
+        assertEquals(new Date(1000L), timer.getInitialExpiration());
+        assertEquals(5000L, timer.getInterval());
+        assertEquals(new Date(6000L), timer.getNextExpiration());
+        assertEquals("info", timer.getTimerInfo());
+        // the XML file is removed once the timer is durable in the journal
+        assertFalse(xmlFile.exists());
+
+        this.persistence.timerUndeployed(TIMED_OBJECT_ID);
+        try (TimerJournal journal = TimerJournal.open(directory.toPath().resolve(TimerJournal.FILE_NAME))) {
+            Map<String, byte[]> stored = journal.getTimers();
+            assertEquals(Collections.singleton("timer"), stored.keySet());
+        }
+
+        // the journal is not migrated again
+        timers = this.persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService);
+        assertEquals(1, timers.size());
+        this.persistence.timerUndeployed(TIMED_OBJECT_ID);
+    }
+
+    private void writeXml(File file, TimerImpl timer) throws Exception {
+        try (OutputStream out = new FileOutputStream(file)) {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+            XMLMapper.Factory.create().deparseDocument(new EjbTimerXmlPersister(this.factory, this.configuration), Collections.singletonList(timer), writer);
+            writer.flush();
+            writer.close();
+        }
+    }
+}
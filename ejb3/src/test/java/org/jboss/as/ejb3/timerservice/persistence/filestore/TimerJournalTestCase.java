@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TimerJournalTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReplay() throws Exception {
+        Path file = folder.getRoot().toPath().resolve(TimerJournal.FILE_NAME);
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            journal.sync(journal.put("a", new byte[] { 1, 2, 3 }));
+            journal.sync(journal.put("b", new byte[] { 4 }));
+            journal.sync(journal.put("a", new byte[] { 5 }));
+            journal.sync(journal.put("c", new byte[0]));
+            journal.sync(journal.remove("c"));
+            assertEquals(0, journal.remove("unknown"));
+        }
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            Map<String, byte[]> timers = journal.getTimers();
+            assertEquals(2, timers.size());
+            assertArrayEquals(new byte[] { 5 }, timers.get("a"));
+            assertArrayEquals(new byte[] { 4 }, timers.get("b"));
+            assertFalse(journal.contains("c"));
+        }
+    }
+
+    @Test
+    public void testTruncatedTail() throws Exception {
+        Path file = folder.getRoot().toPath().resolve(TimerJournal.FILE_NAME);
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            journal.sync(journal.put("a", new byte[] { 1 }));
+            journal.sync(journal.put("b", new byte[] { 2 }));
+        }
+        byte[] content = Files.readAllBytes(file);
+        // simulate a crash while the last record was written
+        Files.write(file, Arrays.copyOf(content, content.length - 1));
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            assertTrue(journal.contains("a"));
+            assertFalse(journal.contains("b"));
+            journal.sync(journal.put("c", new byte[] { 3 }));
+        }
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            assertEquals(2, journal.getTimers().size());
+            assertTrue(journal.contains("c"));
+        }
+    }
+
+    @Test
+    public void testCorruptedRecord() throws Exception {
+        Path file = folder.getRoot().toPath().resolve(TimerJournal.FILE_NAME);
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            journal.sync(journal.put("a", new byte[] { 1 }));
+            journal.sync(journal.put("b", new byte[] { 2 }));
+        }
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 1] ^= 1;
+        Files.write(file, content);
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            assertTrue(journal.contains("a"));
+            assertFalse(journal.contains("b"));
+        }
+    }
+
+    @Test
+    public void testCloseWritesPendingChanges() throws Exception {
+        Path file = folder.getRoot().toPath().resolve(TimerJournal.FILE_NAME);
+        TimerJournal journal = TimerJournal.open(file);
+        long sequence = journal.put("a", new byte[] { 1 });
+        journal.close();
+        // a sync racing with close finds its changes already durable
+        journal.sync(sequence);
+        try (TimerJournal reopened = TimerJournal.open(file)) {
+            assertArrayEquals(new byte[] { 1 }, reopened.getTimers().get("a"));
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        Path file = folder.getRoot().toPath().resolve(TimerJournal.FILE_NAME);
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            for (int i = 0; i < 10000; i++) {
+                journal.sync(journal.put("timer-" + (i % 10), new byte[] { (byte) i }));
+            }
+        }
+        // each live timer is stored once after compaction, plus at most the threshold of superseded records
+        assertTrue(Files.size(file) < 1100 * 20);
+        assertFalse(Files.exists(file.resolveSibling(TimerJournal.FILE_NAME + ".compact")));
+        try (TimerJournal journal = TimerJournal.open(file)) {
+            assertEquals(10, journal.getTimers().size());
+            assertArrayEquals(new byte[] { (byte) 9999 }, journal.getTimers().get("timer-9"));
+        }
+    }
+}
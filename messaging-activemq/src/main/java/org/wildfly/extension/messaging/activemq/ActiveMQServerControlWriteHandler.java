@@ -151,6 +151,8 @@ public class ActiveMQServerControlWriteHandler extends AbstractWriteAttributeHan
                 } else {
                     serverControl.disableMessageCounters();
                 }
+            } else if (attributeName.equals(ServerDefinition.DESTINATION_STATISTICS_TTL.getName())) {
+                // read from the model by the jms-queue and jms-topic read-attribute handlers
             } else {
                 // Bug! Someone added the attribute to the set but did not implement
                 throw MessagingLogger.ROOT_LOGGER.unsupportedRuntimeAttribute(attributeName);
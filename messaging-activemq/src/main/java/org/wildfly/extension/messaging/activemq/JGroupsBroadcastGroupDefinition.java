@@ -24,6 +24,7 @@ package org.wildfly.extension.messaging.activemq;
 import static org.jboss.as.controller.SimpleAttributeDefinitionBuilder.create;
 import static org.jboss.as.controller.client.helpers.MeasurementUnit.MILLISECONDS;
 import static org.jboss.as.controller.registry.AttributeAccess.Flag.STORAGE_RUNTIME;
+import static org.jboss.dmr.ModelType.INT;
 import static org.jboss.dmr.ModelType.LONG;
 import static org.jboss.dmr.ModelType.STRING;
 import static org.wildfly.extension.messaging.activemq.CommonAttributes.CONNECTORS;
@@ -35,6 +36,10 @@ import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.AttributeMarshaller;
 import org.jboss.as.controller.AttributeParser;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
@@ -44,11 +49,14 @@ import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.capability.DynamicNameMappers;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.clustering.spi.ClusteringDefaultRequirement;
 import org.wildfly.clustering.spi.ClusteringRequirement;
+import org.wildfly.extension.messaging.activemq.broadcast.BroadcastManager;
+import org.wildfly.extension.messaging.activemq.broadcast.CommandDispatcherBroadcastEndpointFactory;
 /**
  * Broadcast group definition using Jgroups.
  *
@@ -99,6 +107,14 @@ public class JGroupsBroadcastGroupDefinition extends PersistentResourceDefinitio
     public static final AttributeDefinition[] ATTRIBUTES = {JGROUPS_CHANNEL_FACTORY, JGROUPS_CHANNEL, JGROUPS_CLUSTER,
         BROADCAST_PERIOD, CONNECTOR_REFS};
 
+    public static final SimpleAttributeDefinition PENDING_BROADCASTS = create("pending-broadcasts", INT)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition DROPPED_BROADCASTS = create("dropped-broadcasts", LONG)
+            .setStorageRuntime()
+            .build();
+
     public static final String GET_CONNECTOR_PAIRS_AS_JSON = "get-connector-pairs-as-json";
 
     private final boolean registerRuntimeOnly;
@@ -127,6 +143,12 @@ public class JGroupsBroadcastGroupDefinition extends PersistentResourceDefinitio
         }
 
         BroadcastGroupControlHandler.INSTANCE.registerAttributes(registry);
+
+        if (registerRuntimeOnly) {
+            OperationStepHandler metricHandler = new BroadcastMetricHandler();
+            registry.registerMetric(PENDING_BROADCASTS, metricHandler);
+            registry.registerMetric(DROPPED_BROADCASTS, metricHandler);
+        }
     }
 
     @Override
@@ -145,4 +167,20 @@ public class JGroupsBroadcastGroupDefinition extends PersistentResourceDefinitio
         }
     }
 
+    /**
+     * Reads the metrics of the {@link BroadcastManager} shared by the endpoints of the jgroups cluster of this broadcast group.
+     */
+    private static class BroadcastMetricHandler implements OperationStepHandler {
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+            BroadcastManager manager = CommandDispatcherBroadcastEndpointFactory.getBroadcastManager(JGROUPS_CLUSTER.resolveModelAttribute(context, model).asString());
+            String name = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (PENDING_BROADCASTS.getName().equals(name)) {
+                context.getResult().set((manager != null) ? manager.getPendingBroadcasts() : 0);
+            } else if (DROPPED_BROADCASTS.getName().equals(name)) {
+                context.getResult().set((manager != null) ? manager.getDroppedBroadcasts() : 0L);
+            }
+        }
+    }
 }
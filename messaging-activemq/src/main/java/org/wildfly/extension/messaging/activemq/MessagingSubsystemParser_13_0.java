@@ -216,6 +216,7 @@ public class MessagingSubsystemParser_13_0 extends PersistentResourceXMLParser {
                                         ServerDefinition.STATISTICS_ENABLED,
                                         ServerDefinition.MESSAGE_COUNTER_SAMPLE_PERIOD,
                                         ServerDefinition.MESSAGE_COUNTER_MAX_DAY_HISTORY,
+                                        ServerDefinition.DESTINATION_STATISTICS_TTL,
                                         // transaction
                                         ServerDefinition.TRANSACTION_TIMEOUT,
                                         ServerDefinition.TRANSACTION_TIMEOUT_SCAN_PERIOD,
@@ -629,6 +630,10 @@ public class MessagingSubsystemParser_13_0 extends PersistentResourceXMLParser {
                                         JMSBridgeDefinition.SUBSCRIPTION_NAME,
                                         CommonAttributes.CLIENT_ID,
                                         JMSBridgeDefinition.ADD_MESSAGE_ID_IN_HEADER,
+                                        JMSBridgeDefinition.ADAPTIVE_BATCHING,
+                                        JMSBridgeDefinition.FORWARDING_LANES,
+                                        JMSBridgeDefinition.COMPRESS_MESSAGES,
+                                        JMSBridgeDefinition.TARGET_COMMIT_LATENCY,
                                         JMSBridgeDefinition.SOURCE_CONNECTION_FACTORY,
                                         JMSBridgeDefinition.SOURCE_DESTINATION,
                                         JMSBridgeDefinition.SOURCE_USER,
@@ -51,6 +51,7 @@ import org.jboss.dmr.ModelNode;
 import org.kohsuke.MetaInfServices;
 import org.wildfly.extension.messaging.activemq.ha.HAAttributes;
 import org.wildfly.extension.messaging.activemq.jms.ConnectionFactoryAttributes;
+import org.wildfly.extension.messaging.activemq.jms.JMSServerControlHandler;
 import org.wildfly.extension.messaging.activemq.jms.JMSTopicControlHandler;
 import org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition;
 
@@ -106,11 +107,19 @@ public class MessagingTransformerRegistration implements ExtensionTransformerReg
                 ServerDefinition.CRITICAL_ANALYZER_ENABLED,
                 ServerDefinition.CRITICAL_ANALYZER_POLICY,
                 ServerDefinition.CRITICAL_ANALYZER_TIMEOUT,
-                ServerDefinition.JOURNAL_MAX_ATTIC_FILES);
-        server.discardOperations(PrintDataOperation.OPERATION_NAME);
+                ServerDefinition.JOURNAL_MAX_ATTIC_FILES,
+                ServerDefinition.DESTINATION_STATISTICS_TTL);
+        server.discardOperations(PrintDataOperation.OPERATION_NAME, JMSServerControlHandler.READ_DESTINATION_STATISTICS);
 
         ResourceTransformationDescriptionBuilder bridge = server.addChildResource(MessagingExtension.BRIDGE_PATH);
         rejectDefinedAttributeWithDefaultValue(bridge, BridgeDefinition.CALL_TIMEOUT);
+
+        ResourceTransformationDescriptionBuilder jmsBridge = subsystem.addChildResource(MessagingExtension.JMS_BRIDGE_PATH);
+        rejectDefinedAttributeWithDefaultValue(jmsBridge,
+                JMSBridgeDefinition.ADAPTIVE_BATCHING,
+                JMSBridgeDefinition.FORWARDING_LANES,
+                JMSBridgeDefinition.COMPRESS_MESSAGES,
+                JMSBridgeDefinition.TARGET_COMMIT_LATENCY);
     }
 
     private static void registerTransformers_WF_22(ResourceTransformationDescriptionBuilder subsystem) {
@@ -492,6 +492,14 @@ public class ServerDefinition extends PersistentResourceDefinition {
             .setRequired(false)
             .setAllowExpression(true)
             .build();
+    public static final SimpleAttributeDefinition DESTINATION_STATISTICS_TTL = create("destination-statistics-ttl", LONG)
+            .setAttributeGroup("statistics")
+            .setDefaultValue(new ModelNode(0L))
+            .setMeasurementUnit(MILLISECONDS)
+            .setValidator(new LongRangeValidator(0L, Long.MAX_VALUE, true, true))
+            .setRequired(false)
+            .setAllowExpression(true)
+            .build();
     /**
      * @see ActiveMQDefaultConfiguration#getDefaultMessageCounterSamplePeriod
      */
@@ -908,7 +916,7 @@ public class ServerDefinition extends PersistentResourceDefinition {
             THREAD_POOL_MAX_SIZE, SECURITY_DOMAIN, ELYTRON_DOMAIN, SECURITY_ENABLED, SECURITY_INVALIDATION_INTERVAL,
             OVERRIDE_IN_VM_SECURITY, WILD_CARD_ROUTING_ENABLED, MANAGEMENT_ADDRESS, MANAGEMENT_NOTIFICATION_ADDRESS,
             CLUSTER_USER, CLUSTER_PASSWORD, CREDENTIAL_REFERENCE, JMX_MANAGEMENT_ENABLED, JMX_DOMAIN, STATISTICS_ENABLED, MESSAGE_COUNTER_SAMPLE_PERIOD,
-            MESSAGE_COUNTER_MAX_DAY_HISTORY, CONNECTION_TTL_OVERRIDE, ASYNC_CONNECTION_EXECUTION_ENABLED, TRANSACTION_TIMEOUT,
+            MESSAGE_COUNTER_MAX_DAY_HISTORY, DESTINATION_STATISTICS_TTL, CONNECTION_TTL_OVERRIDE, ASYNC_CONNECTION_EXECUTION_ENABLED, TRANSACTION_TIMEOUT,
             TRANSACTION_TIMEOUT_SCAN_PERIOD, MESSAGE_EXPIRY_SCAN_PERIOD, MESSAGE_EXPIRY_THREAD_PRIORITY, ID_CACHE_SIZE, PERSIST_ID_CACHE,
             CommonAttributes.INCOMING_INTERCEPTORS, CommonAttributes.OUTGOING_INTERCEPTORS,
             PERSIST_DELIVERY_COUNT_BEFORE_DELIVERY,
@@ -22,6 +22,9 @@
 
 package org.wildfly.extension.messaging.activemq.broadcast;
 
+import java.util.AbstractMap;
+import java.util.UUID;
+
 import org.wildfly.clustering.dispatcher.Command;
 
 /**
@@ -32,14 +35,28 @@ public class BroadcastCommand implements Command<Void, BroadcastReceiver> {
     private static final long serialVersionUID = 4354035602902924182L;
 
     private final byte[] data;
+    // Null if sent by a member that does not identify itself
+    private final String sender;
+    // Distinguishes the endpoints of a member sharing a channel, e.g. the broadcast groups of collocated servers
+    private final UUID endpoint;
 
     public BroadcastCommand(byte[] data) {
+        this(null, null, data);
+    }
+
+    public BroadcastCommand(String sender, UUID endpoint, byte[] data) {
+        this.sender = sender;
+        this.endpoint = endpoint;
         this.data = data;
     }
 
     @Override
     public Void execute(BroadcastReceiver receiver) {
-        receiver.receive(this.data);
+        if (this.sender != null) {
+            receiver.receive((this.endpoint != null) ? new AbstractMap.SimpleImmutableEntry<>(this.sender, this.endpoint) : this.sender, this.data);
+        } else {
+            receiver.receive(this.data);
+        }
         return null;
     }
 }
@@ -34,4 +34,16 @@ public interface BroadcastManager extends BroadcastReceiver {
     byte[] getBroadcast(long timeout, TimeUnit unit) throws InterruptedException;
 
     void clear();
+
+    /**
+     * Returns the number of received broadcasts not yet consumed.
+     * @return the number of pending broadcasts
+     */
+    int getPendingBroadcasts();
+
+    /**
+     * Returns the number of received broadcasts that were discarded prior to consumption.
+     * @return the number of dropped broadcasts
+     */
+    long getDroppedBroadcasts();
 }
@@ -32,4 +32,13 @@ public interface BroadcastReceiver {
      * @param data broadcast data
      */
     void receive(byte[] data);
+
+    /**
+     * Receives the specified broadcast data from the specified sender.
+     * @param sender identifies the sender of the broadcast
+     * @param data broadcast data
+     */
+    default void receive(Object sender, byte[] data) {
+        this.receive(data);
+    }
 }
@@ -22,6 +22,7 @@
 
 package org.wildfly.extension.messaging.activemq.broadcast;
 
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -43,6 +44,8 @@ public class CommandDispatcherBroadcastEndpoint implements BroadcastEndpoint {
     private final CommandDispatcherFactory factory;
     private final String name;
     private final BroadcastManager manager;
+    // Pending broadcasts are conflated per endpoint, not per member, since a member may host several broadcast groups
+    private final UUID id = UUID.randomUUID();
     private final AtomicReference<Mode> mode = new AtomicReference<>(Mode.CLOSED);
 
     private volatile CommandDispatcher<BroadcastReceiver> dispatcher;
@@ -82,7 +85,7 @@ public class CommandDispatcherBroadcastEndpoint implements BroadcastEndpoint {
     @Override
     public void broadcast(byte[] data) throws Exception {
         if (this.mode.get() == Mode.BROADCASTER) {
-            this.dispatcher.executeOnGroup(new BroadcastCommand(data));
+            this.dispatcher.executeOnGroup(new BroadcastCommand(this.factory.getGroup().getLocalMember().getName(), this.id, data));
         }
     }
 
@@ -45,7 +45,16 @@ public class CommandDispatcherBroadcastEndpointFactory implements BroadcastEndpo
     public CommandDispatcherBroadcastEndpointFactory(CommandDispatcherFactory factory, String name) {
         this.factory = factory;
         this.name = name;
-        this.manager = BROADCAST_MANAGERS.computeIfAbsent(name, key -> new QueueBroadcastManager());
+        this.manager = BROADCAST_MANAGERS.computeIfAbsent(name, key -> new ConflatingBroadcastManager());
+    }
+
+    /**
+     * Returns the broadcast manager for the specified channel name, if one was created.
+     * @param name a channel name
+     * @return a broadcast manager, or null if no endpoint factory exists for the specified channel name
+     */
+    public static BroadcastManager getBroadcastManager(String name) {
+        return BROADCAST_MANAGERS.get(name);
     }
 
     @Override
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.broadcast;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link BroadcastManager} that retains at most one pending broadcast per sender, i.e. per broadcast endpoint.
+ * A broadcast received while a previous broadcast from the same sender is still pending replaces it,
+ * or is discarded if its payload is identical.
+ * Broadcasts from unidentified senders are keyed by their payload, so identical pending broadcasts are only delivered once.
+ * The number of pending broadcasts is bounded by the configured capacity; any broadcast from an additional sender is discarded.
+ */
+public class ConflatingBroadcastManager implements BroadcastManager {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Map<Object, Slot> slots = new ConcurrentHashMap<>();
+    private final Queue<Slot> ready = new ConcurrentLinkedQueue<>();
+    private final Semaphore available = new Semaphore(0);
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final int capacity;
+
+    public ConflatingBroadcastManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConflatingBroadcastManager(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void receive(byte[] broadcast) {
+        this.receive(ByteBuffer.wrap(broadcast), broadcast);
+    }
+
+    @Override
+    public void receive(Object sender, byte[] broadcast) {
+        Slot slot = this.slots.computeIfAbsent(sender, Slot::new);
+        while (true) {
+            byte[] current = slot.get();
+            if (current == null) {
+                if (this.pending.incrementAndGet() > this.capacity) {
+                    this.pending.decrementAndGet();
+                    this.dropped.increment();
+                    this.release(slot);
+                    return;
+                }
+                if (slot.compareAndSet(null, broadcast)) {
+                    this.ready.add(slot);
+                    this.available.release();
+                    return;
+                }
+                this.pending.decrementAndGet();
+            } else {
+                // Replace or discard a broadcast that was not yet consumed
+                if (Arrays.equals(current, broadcast) || slot.compareAndSet(current, broadcast)) {
+                    this.dropped.increment();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public byte[] getBroadcast() throws InterruptedException {
+        while (true) {
+            this.available.acquire();
+            byte[] broadcast = this.poll();
+            if (broadcast != null) {
+                return broadcast;
+            }
+        }
+    }
+
+    @Override
+    public byte[] getBroadcast(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining = unit.toNanos(timeout);
+        while (this.available.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+            byte[] broadcast = this.poll();
+            if (broadcast != null) {
+                return broadcast;
+            }
+            // Broadcast was cleared
+            remaining = deadline - System.nanoTime();
+        }
+        return null;
+    }
+
+    private byte[] poll() {
+        Slot slot = this.ready.poll();
+        if (slot == null) {
+            return null;
+        }
+        byte[] broadcast = slot.getAndSet(null);
+        if (broadcast != null) {
+            this.pending.decrementAndGet();
+            this.release(slot);
+        }
+        return broadcast;
+    }
+
+    private void release(Slot slot) {
+        // Slots of unidentified senders are keyed by payload, and are therefore not reused
+        if (slot.key instanceof ByteBuffer) {
+            this.slots.remove(slot.key, slot);
+        }
+    }
+
+    @Override
+    public void clear() {
+        // Drain permits first, so that a concurrently received broadcast leaves a surplus permit rather than an undeliverable broadcast
+        this.available.drainPermits();
+        Slot slot = this.ready.poll();
+        while (slot != null) {
+            if (slot.getAndSet(null) != null) {
+                this.pending.decrementAndGet();
+            }
+            slot = this.ready.poll();
+        }
+        this.slots.clear();
+    }
+
+    @Override
+    public int getPendingBroadcasts() {
+        return this.pending.get();
+    }
+
+    @Override
+    public long getDroppedBroadcasts() {
+        return this.dropped.sum();
+    }
+
+    private static class Slot extends AtomicReference<byte[]> {
+        private static final long serialVersionUID = -5587406547361245040L;
+
+        final Object key;
+
+        Slot(Object key) {
+            this.key = key;
+        }
+    }
+}
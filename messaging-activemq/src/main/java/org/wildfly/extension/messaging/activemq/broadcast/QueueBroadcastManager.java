@@ -51,4 +51,14 @@ public class QueueBroadcastManager implements BroadcastManager {
     public void clear() {
         this.broadcasts.clear();
     }
+
+    @Override
+    public int getPendingBroadcasts() {
+        return this.broadcasts.size();
+    }
+
+    @Override
+    public long getDroppedBroadcasts() {
+        return 0L;
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms;
+
+import static org.wildfly.extension.messaging.activemq.jms.JMSQueueService.JMS_QUEUE_PREFIX;
+import static org.wildfly.extension.messaging.activemq.jms.JMSTopicService.JMS_TOPIC_PREFIX;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.management.QueueControl;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.messaging.activemq.CommonAttributes;
+import org.wildfly.extension.messaging.activemq.ServerDefinition;
+
+/**
+ * Snapshot of the runtime counters of all the JMS queues and topics of an ActiveMQ server, taken in a single pass
+ * over the queue controls registered in its management service instead of one lookup per destination and attribute.
+ * <p>
+ * Snapshots are cached per server for the time to live configured by the destination-statistics-ttl attribute of the
+ * server resource. When it is 0, runtime attribute reads look up the destination controls directly.
+ */
+class DestinationStatistics {
+
+    private static final Map<ActiveMQServer, DestinationStatistics> SNAPSHOTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the time to live, in nanoseconds, of the snapshots of the server resource at the given address.
+     */
+    static long getTimeToLive(OperationContext context, PathAddress serverAddress) throws OperationFailedException {
+        ModelNode model = context.readResourceFromRoot(serverAddress, false).getModel();
+        return TimeUnit.MILLISECONDS.toNanos(ServerDefinition.DESTINATION_STATISTICS_TTL.resolveModelAttribute(context, model).asLong());
+    }
+
+    /**
+     * Returns the statistics of the server, reusing the last snapshot if it is younger than {@code maxAge} nanoseconds.
+     */
+    static DestinationStatistics of(ActiveMQServer server, long maxAge) {
+        if (maxAge > 0) {
+            DestinationStatistics snapshot = SNAPSHOTS.get(server);
+            if (snapshot != null && System.nanoTime() - snapshot.timestamp <= maxAge) {
+                return snapshot;
+            }
+        }
+        DestinationStatistics snapshot = new DestinationStatistics(server);
+        SNAPSHOTS.put(server, snapshot);
+        return snapshot;
+    }
+
+    private final long timestamp = System.nanoTime();
+    private final Map<String, QueueStatistics> queues = new TreeMap<>();
+    private final Map<String, TopicStatistics> topics = new TreeMap<>();
+
+    private DestinationStatistics(ActiveMQServer server) {
+        for (Object resource : server.getManagementService().getResources(QueueControl.class)) {
+            QueueControl control = (QueueControl) resource;
+            String name = control.getName();
+            String address = control.getAddress();
+            if (address.startsWith(JMS_TOPIC_PREFIX)) {
+                TopicStatistics topic = this.topics.computeIfAbsent(address.substring(JMS_TOPIC_PREFIX.length()), key -> new TopicStatistics());
+                topic.add(control, name.equals(address));
+            } else if (name.startsWith(JMS_QUEUE_PREFIX)) {
+                this.queues.put(name.substring(JMS_QUEUE_PREFIX.length()), new QueueStatistics(control));
+            }
+        }
+    }
+
+    /**
+     * @return the statistics of the JMS queue or {@code null} if it was not deployed when the snapshot was taken
+     */
+    QueueStatistics getQueue(String name) {
+        return this.queues.get(name);
+    }
+
+    /**
+     * @return the statistics of the JMS topic or {@code null} if it had no subscription when the snapshot was taken
+     */
+    TopicStatistics getTopic(String name) {
+        return this.topics.get(name);
+    }
+
+    ModelNode toModelNode() {
+        ModelNode result = new ModelNode();
+        ModelNode queues = result.get(CommonAttributes.JMS_QUEUE).setEmptyObject();
+        for (Map.Entry<String, QueueStatistics> entry : this.queues.entrySet()) {
+            entry.getValue().write(queues.get(entry.getKey()));
+        }
+        ModelNode topics = result.get(CommonAttributes.JMS_TOPIC).setEmptyObject();
+        for (Map.Entry<String, TopicStatistics> entry : this.topics.entrySet()) {
+            entry.getValue().write(topics.get(entry.getKey()));
+        }
+        return result;
+    }
+
+    static class QueueStatistics {
+        private final long messageCount;
+        private final int deliveringCount;
+        private final int consumerCount;
+        private final long scheduledCount;
+        private final long messagesAdded;
+
+        QueueStatistics(QueueControl control) {
+            this.messageCount = control.getMessageCount();
+            this.deliveringCount = control.getDeliveringCount();
+            this.consumerCount = control.getConsumerCount();
+            this.scheduledCount = control.getScheduledCount();
+            this.messagesAdded = control.getMessagesAdded();
+        }
+
+        /**
+         * Sets the value of the attribute in the result.
+         * @return {@code false} if the attribute is not part of the statistics
+         */
+        boolean read(String attributeName, ModelNode result) {
+            if (CommonAttributes.MESSAGE_COUNT.getName().equals(attributeName)) {
+                result.set(this.messageCount);
+            } else if (CommonAttributes.DELIVERING_COUNT.getName().equals(attributeName)) {
+                result.set(this.deliveringCount);
+            } else if (CommonAttributes.CONSUMER_COUNT.getName().equals(attributeName)) {
+                result.set(this.consumerCount);
+            } else if (CommonAttributes.SCHEDULED_COUNT.getName().equals(attributeName)) {
+                result.set(this.scheduledCount);
+            } else if (CommonAttributes.MESSAGES_ADDED.getName().equals(attributeName)) {
+                result.set(this.messagesAdded);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        void write(ModelNode node) {
+            node.get(CommonAttributes.MESSAGE_COUNT.getName()).set(this.messageCount);
+            node.get(CommonAttributes.DELIVERING_COUNT.getName()).set(this.deliveringCount);
+            node.get(CommonAttributes.CONSUMER_COUNT.getName()).set(this.consumerCount);
+            node.get(CommonAttributes.SCHEDULED_COUNT.getName()).set(this.scheduledCount);
+            node.get(CommonAttributes.MESSAGES_ADDED.getName()).set(this.messagesAdded);
+        }
+    }
+
+    static class TopicStatistics {
+        private long messageCount;
+        private int deliveringCount;
+        private long messagesAdded;
+        private int durableMessageCount;
+        private int nonDurableMessageCount;
+        private int durableSubscriptionCount;
+        private int nonDurableSubscriptionCount;
+
+        void add(QueueControl control, boolean special) {
+            long messageCount = control.getMessageCount();
+            this.messageCount += messageCount;
+            // the queue named after the topic address is not a subscription
+            if (!special) {
+                this.deliveringCount += control.getDeliveringCount();
+                this.messagesAdded += control.getMessagesAdded();
+                if (control.isDurable()) {
+                    this.durableMessageCount += (int) messageCount;
+                    this.durableSubscriptionCount += 1;
+                } else {
+                    this.nonDurableMessageCount += (int) messageCount;
+                    this.nonDurableSubscriptionCount += 1;
+                }
+            }
+        }
+
+        /**
+         * Sets the value of the attribute in the result.
+         * @return {@code false} if the attribute is not part of the statistics
+         */
+        boolean read(String attributeName, ModelNode result) {
+            if (CommonAttributes.MESSAGE_COUNT.getName().equals(attributeName)) {
+                result.set(this.messageCount);
+            } else if (CommonAttributes.DELIVERING_COUNT.getName().equals(attributeName)) {
+                result.set(this.deliveringCount);
+            } else if (CommonAttributes.MESSAGES_ADDED.getName().equals(attributeName)) {
+                result.set(this.messagesAdded);
+            } else if (JMSTopicDefinition.DURABLE_MESSAGE_COUNT.getName().equals(attributeName)) {
+                result.set(this.durableMessageCount);
+            } else if (JMSTopicDefinition.NON_DURABLE_MESSAGE_COUNT.getName().equals(attributeName)) {
+                result.set(this.nonDurableMessageCount);
+            } else if (JMSTopicDefinition.SUBSCRIPTION_COUNT.getName().equals(attributeName)) {
+                result.set(this.durableSubscriptionCount + this.nonDurableSubscriptionCount);
+            } else if (JMSTopicDefinition.DURABLE_SUBSCRIPTION_COUNT.getName().equals(attributeName)) {
+                result.set(this.durableSubscriptionCount);
+            } else if (JMSTopicDefinition.NON_DURABLE_SUBSCRIPTION_COUNT.getName().equals(attributeName)) {
+                result.set(this.nonDurableSubscriptionCount);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        void write(ModelNode node) {
+            node.get(CommonAttributes.MESSAGE_COUNT.getName()).set(this.messageCount);
+            node.get(CommonAttributes.DELIVERING_COUNT.getName()).set(this.deliveringCount);
+            node.get(CommonAttributes.MESSAGES_ADDED.getName()).set(this.messagesAdded);
+            node.get(JMSTopicDefinition.DURABLE_MESSAGE_COUNT.getName()).set(this.durableMessageCount);
+            node.get(JMSTopicDefinition.NON_DURABLE_MESSAGE_COUNT.getName()).set(this.nonDurableMessageCount);
+            node.get(JMSTopicDefinition.SUBSCRIPTION_COUNT.getName()).set(this.durableSubscriptionCount + this.nonDurableSubscriptionCount);
+            node.get(JMSTopicDefinition.DURABLE_SUBSCRIPTION_COUNT.getName()).set(this.durableSubscriptionCount);
+            node.get(JMSTopicDefinition.NON_DURABLE_SUBSCRIPTION_COUNT.getName()).set(this.nonDurableSubscriptionCount);
+        }
+    }
+}
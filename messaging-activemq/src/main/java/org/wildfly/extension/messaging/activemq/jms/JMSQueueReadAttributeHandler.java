@@ -72,6 +72,16 @@ public class JMSQueueReadAttributeHandler extends AbstractRuntimeOnlyHandler {
         validator.validate(operation);
         final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
 
+        PathAddress queueAddress = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR));
+        long timeToLive = DestinationStatistics.getTimeToLive(context, queueAddress.getParent());
+        if (timeToLive > 0) {
+            String queueName = queueAddress.getLastElement().getValue();
+            DestinationStatistics.QueueStatistics statistics = DestinationStatistics.of(getServer(context, operation), timeToLive).getQueue(queueName);
+            if (statistics != null && statistics.read(attributeName, context.getResult())) {
+                return;
+            }
+        }
+
         QueueControl control = getControl(context, operation);
         if (control == null) {
             PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
@@ -127,11 +137,14 @@ public class JMSQueueReadAttributeHandler extends AbstractRuntimeOnlyHandler {
 
     private QueueControl getControl(OperationContext context, ModelNode operation) {
         String queueName = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
-        final ServiceName serviceName = MessagingServices.getActiveMQServiceName(PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)));
-
-        ServiceController<?> service = context.getServiceRegistry(false).getService(serviceName);
-        ActiveMQServer server = ActiveMQServer.class.cast(service.getValue());
+        ActiveMQServer server = getServer(context, operation);
         QueueControl control = QueueControl.class.cast(server.getManagementService().getResource(ResourceNames.QUEUE + JMS_QUEUE_PREFIX + queueName));
         return control;
     }
+
+    private ActiveMQServer getServer(OperationContext context, ModelNode operation) {
+        final ServiceName serviceName = MessagingServices.getActiveMQServiceName(PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)));
+        ServiceController<?> service = context.getServiceRegistry(false).getService(serviceName);
+        return ActiveMQServer.class.cast(service.getValue());
+    }
 }
@@ -24,7 +24,10 @@ package org.wildfly.extension.messaging.activemq.jms;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.client.helpers.MeasurementUnit.MILLISECONDS;
 import static org.jboss.dmr.ModelType.LIST;
+import static org.jboss.dmr.ModelType.LONG;
+import static org.jboss.dmr.ModelType.OBJECT;
 import static org.jboss.dmr.ModelType.STRING;
 import static org.wildfly.extension.messaging.activemq.ActiveMQActivationService.rollbackOperationIfServerNotActive;
 import static org.wildfly.extension.messaging.activemq.ManagementUtil.reportListOfStrings;
@@ -38,6 +41,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.json.Json;
 import javax.json.JsonArray;
@@ -57,6 +61,7 @@ import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.logging.ControllerLogger;
@@ -77,6 +82,10 @@ public class JMSServerControlHandler extends AbstractRuntimeOnlyHandler {
     private static final AttributeDefinition ADDRESS_NAME = createNonEmptyStringAttribute("address-name");
     private static final AttributeDefinition SESSION_ID = createNonEmptyStringAttribute("session-id");
     private static final AttributeDefinition CONNECTION_ID = createNonEmptyStringAttribute("connection-id");
+    private static final AttributeDefinition MAX_AGE = SimpleAttributeDefinitionBuilder.create("max-age", LONG)
+            .setRequired(false)
+            .setMeasurementUnit(MILLISECONDS)
+            .build();
 
     public static final String LIST_CONNECTIONS_AS_JSON = "list-connections-as-json";
     public static final String LIST_CONSUMERS_AS_JSON = "list-consumers-as-json";
@@ -87,6 +96,7 @@ public class JMSServerControlHandler extends AbstractRuntimeOnlyHandler {
     public static final String LIST_SESSIONS_AS_JSON = "list-sessions-as-json";
     public static final String LIST_PREPARED_TRANSACTION_JMS_DETAILS_AS_JSON = "list-prepared-transaction-jms-details-as-json";
     public static final String LIST_PREPARED_TRANSACTION_JMS_DETAILS_AS_HTML = "list-prepared-transaction-jms-details-as-html";
+    public static final String READ_DESTINATION_STATISTICS = "read-destination-statistics";
 
     public static final JMSServerControlHandler INSTANCE = new JMSServerControlHandler();
 
@@ -208,6 +218,11 @@ public class JMSServerControlHandler extends AbstractRuntimeOnlyHandler {
             } else if (LIST_PREPARED_TRANSACTION_JMS_DETAILS_AS_HTML.equals(operationName)) {
                 String html = serverControl.listPreparedTransactionDetailsAsHTML();
                 context.getResult().set(html);
+            } else if (READ_DESTINATION_STATISTICS.equals(operationName)) {
+                ModelNode maxAge = MAX_AGE.resolveModelAttribute(context, operation);
+                long timeToLive = maxAge.isDefined() ? TimeUnit.MILLISECONDS.toNanos(maxAge.asLong()) : DestinationStatistics.getTimeToLive(context, PathAddress.pathAddress(operation.require(OP_ADDR)));
+                DestinationStatistics statistics = DestinationStatistics.of(server, timeToLive);
+                context.getResult().set(statistics.toModelNode());
             } else {
                 // Bug
                 throw MessagingLogger.ROOT_LOGGER.unsupportedOperation(operationName);
@@ -321,6 +336,11 @@ public class JMSServerControlHandler extends AbstractRuntimeOnlyHandler {
                 .setReplyType(STRING)
                 .build(),
                 this);
+        registry.registerOperationHandler(runtimeReadOnlyOperation(READ_DESTINATION_STATISTICS, resolver)
+                .setParameters(MAX_AGE)
+                .setReplyType(OBJECT)
+                .build(),
+                this);
     }
 
     private ActiveMQServer getServer(final OperationContext context, final ModelNode operation) {
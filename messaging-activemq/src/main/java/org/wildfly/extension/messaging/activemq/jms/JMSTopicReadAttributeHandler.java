@@ -90,6 +90,15 @@ public class JMSTopicReadAttributeHandler extends AbstractRuntimeOnlyHandler {
 
         ServiceController<?> service = context.getServiceRegistry(false).getService(serviceName);
         ActiveMQServer server = ActiveMQServer.class.cast(service.getValue());
+
+        long timeToLive = DestinationStatistics.getTimeToLive(context, PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getParent());
+        if (timeToLive > 0) {
+            DestinationStatistics.TopicStatistics statistics = DestinationStatistics.of(server, timeToLive).getTopic(topicName);
+            if (statistics != null && statistics.read(attributeName, context.getResult())) {
+                return;
+            }
+        }
+
         ManagementService managementService = server.getManagementService();
         AddressControl control = AddressControl.class.cast(managementService.getResource(ResourceNames.ADDRESS + JMS_TOPIC_PREFIX + topicName));
 
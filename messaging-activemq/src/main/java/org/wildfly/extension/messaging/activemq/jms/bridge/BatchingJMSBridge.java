@@ -0,0 +1,675 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms.bridge;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.Topic;
+import javax.jms.XAConnection;
+import javax.jms.XAConnectionFactory;
+import javax.jms.XASession;
+import javax.transaction.Status;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.xa.XAResource;
+
+import org.apache.activemq.artemis.api.jms.ActiveMQJMSConstants;
+import org.apache.activemq.artemis.jms.bridge.ConnectionFactoryFactory;
+import org.apache.activemq.artemis.jms.bridge.DestinationFactory;
+import org.apache.activemq.artemis.jms.bridge.QualityOfServiceMode;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.apache.activemq.artemis.jms.client.ActiveMQMessage;
+import org.apache.activemq.artemis.jms.client.ActiveMQXAConnectionFactory;
+import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * JMS bridge forwarding messages in transacted batches whose size adapts to the observed commit latency.
+ * <p>
+ * Messages are consumed by several forwarding lanes, each with its own source consumer and target producer.
+ * The source broker dispatches all messages of a message group to the same consumer, so the order of messages
+ * sharing a {@code JMSXGroupID} is kept while ungrouped messages are spread over the lanes.
+ * <p>
+ * Each lane grows its batch size while the average commit latency stays below the target and halves it as soon as
+ * the target is exceeded, bounded by {@code max-batch-size}.
+ */
+class BatchingJMSBridge implements ManagedJMSBridge {
+
+    // bounds the time a lane takes to notice that the bridge was stopped or paused
+    private static final long RECEIVE_TIMEOUT = 1000L;
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final String bridgeName;
+    private final ConnectionFactoryFactory sourceConnectionFactoryFactory;
+    private final ConnectionFactoryFactory targetConnectionFactoryFactory;
+    private final DestinationFactory sourceDestinationFactory;
+    private final DestinationFactory targetDestinationFactory;
+    private final String sourceUsername;
+    private final String targetUsername;
+    private final String selector;
+    private final long failureRetryInterval;
+    private final int maxRetries;
+    private final QualityOfServiceMode qualityOfServiceMode;
+    private final int maxBatchSize;
+    private final long maxBatchTime;
+    private final String subscriptionName;
+    private final String clientID;
+    private final boolean addMessageIDInHeader;
+    private final int lanes;
+    private final boolean compressMessages;
+    private final long targetCommitLatency;
+
+    private final LongAdder messageCount = new LongAdder();
+    private final LongAdder abortedMessageCount = new LongAdder();
+    private final ThroughputMeter throughput = new ThroughputMeter();
+    private final List<Lane> activeLanes = new CopyOnWriteArrayList<>();
+    private final List<FutureTask<Void>> tasks = new ArrayList<>();
+    private final Object pauseLock = new Object();
+
+    private volatile String sourcePassword;
+    private volatile String targetPassword;
+    private volatile TransactionManager transactionManager;
+    private volatile Executor executor;
+    private volatile boolean started;
+    private volatile boolean paused;
+    private ActiveMQConnectionFactory compressingConnectionFactory;
+
+    BatchingJMSBridge(String bridgeName,
+            ConnectionFactoryFactory sourceConnectionFactoryFactory,
+            ConnectionFactoryFactory targetConnectionFactoryFactory,
+            DestinationFactory sourceDestinationFactory,
+            DestinationFactory targetDestinationFactory,
+            String sourceUsername,
+            String sourcePassword,
+            String targetUsername,
+            String targetPassword,
+            String selector,
+            long failureRetryInterval,
+            int maxRetries,
+            QualityOfServiceMode qualityOfServiceMode,
+            int maxBatchSize,
+            long maxBatchTime,
+            String subscriptionName,
+            String clientID,
+            boolean addMessageIDInHeader,
+            int lanes,
+            boolean compressMessages,
+            long targetCommitLatency) {
+        this.bridgeName = bridgeName;
+        this.sourceConnectionFactoryFactory = sourceConnectionFactoryFactory;
+        this.targetConnectionFactoryFactory = targetConnectionFactoryFactory;
+        this.sourceDestinationFactory = sourceDestinationFactory;
+        this.targetDestinationFactory = targetDestinationFactory;
+        this.sourceUsername = sourceUsername;
+        this.sourcePassword = sourcePassword;
+        this.targetUsername = targetUsername;
+        this.targetPassword = targetPassword;
+        this.selector = selector;
+        this.failureRetryInterval = failureRetryInterval;
+        this.maxRetries = maxRetries;
+        this.qualityOfServiceMode = qualityOfServiceMode;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchTime = maxBatchTime;
+        this.subscriptionName = subscriptionName;
+        this.clientID = clientID;
+        this.addMessageIDInHeader = addMessageIDInHeader;
+        this.lanes = Math.max(1, lanes);
+        this.compressMessages = compressMessages;
+        this.targetCommitLatency = TimeUnit.MILLISECONDS.toNanos(targetCommitLatency);
+    }
+
+    @Override
+    public synchronized void start() throws Exception {
+        if (this.started) {
+            return;
+        }
+        if (this.qualityOfServiceMode == QualityOfServiceMode.ONCE_AND_ONLY_ONCE && this.transactionManager == null) {
+            throw MessagingLogger.ROOT_LOGGER.nullVar("transactionManager");
+        }
+        Executor executor = this.executor;
+        if (executor == null) {
+            throw MessagingLogger.ROOT_LOGGER.nullVar("executor");
+        }
+        Object sourceConnectionFactory = this.sourceConnectionFactoryFactory.createConnectionFactory();
+        Object targetConnectionFactory = this.targetConnectionFactoryFactory.createConnectionFactory();
+        if (this.compressMessages) {
+            targetConnectionFactory = this.enableCompression(targetConnectionFactory);
+        }
+        Destination sourceDestination = this.sourceDestinationFactory.createDestination();
+        Destination targetDestination = this.targetDestinationFactory.createDestination();
+
+        int laneCount = this.lanes;
+        if (laneCount > 1 && sourceDestination instanceof Topic && this.subscriptionName == null) {
+            // every lane would receive its own copy of each message
+            MessagingLogger.ROOT_LOGGER.bridgeSingleLaneForTopic(this.bridgeName, laneCount);
+            laneCount = 1;
+        }
+
+        ClassLoader loader = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+        this.started = true;
+        this.paused = false;
+        this.throughput.reset();
+        // lanes that gave up after a previous start are not restarted
+        this.activeLanes.clear();
+        this.tasks.clear();
+        for (int i = 0; i < laneCount; ++i) {
+            Lane lane = new Lane(i, sourceConnectionFactory, targetConnectionFactory, sourceDestination, targetDestination, laneCount > 1, loader);
+            this.activeLanes.add(lane);
+            this.tasks.add(new FutureTask<>(lane, null));
+        }
+        try {
+            for (FutureTask<Void> task : this.tasks) {
+                executor.execute(task);
+            }
+        } catch (RejectedExecutionException e) {
+            this.started = false;
+            for (FutureTask<Void> task : this.tasks) {
+                task.cancel(true);
+            }
+            this.stop();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void stop() throws Exception {
+        this.started = false;
+        this.resume();
+        // allow a lane blocked in receive to observe the stop and roll back its open batch
+        long timeout = 2 * (this.failureRetryInterval > 0 ? Math.max(RECEIVE_TIMEOUT, this.failureRetryInterval) : RECEIVE_TIMEOUT);
+        try {
+            for (FutureTask<Void> task : this.tasks) {
+                try {
+                    task.get(timeout, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | ExecutionException | CancellationException e) {
+                    // lane is still blocked on a broker, or was never run
+                }
+            }
+        } finally {
+            // force lanes still blocked on a broker to give up
+            for (Lane lane : this.activeLanes) {
+                lane.close();
+            }
+            for (FutureTask<Void> task : this.tasks) {
+                task.cancel(true);
+            }
+            this.activeLanes.clear();
+            this.tasks.clear();
+            if (this.compressingConnectionFactory != null) {
+                this.compressingConnectionFactory.close();
+                this.compressingConnectionFactory = null;
+            }
+        }
+    }
+
+    @Override
+    public void pause() throws Exception {
+        this.paused = true;
+    }
+
+    @Override
+    public void resume() throws Exception {
+        synchronized (this.pauseLock) {
+            this.paused = false;
+            this.pauseLock.notifyAll();
+        }
+    }
+
+    @Override
+    public boolean isStarted() {
+        return this.started;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return this.paused;
+    }
+
+    @Override
+    public long getMessageCount() {
+        return this.messageCount.sum();
+    }
+
+    @Override
+    public long getAbortedMessageCount() {
+        return this.abortedMessageCount.sum();
+    }
+
+    @Override
+    public double getMessagesPerSecond() {
+        return this.throughput.getRate();
+    }
+
+    @Override
+    public int getBatchSize() {
+        List<Lane> lanes = this.activeLanes;
+        if (lanes.isEmpty()) {
+            return 0;
+        }
+        long total = 0;
+        for (Lane lane : lanes) {
+            total += lane.batchSize;
+        }
+        return (int) (total / lanes.size());
+    }
+
+    @Override
+    public long getAverageCommitLatency() {
+        List<Lane> lanes = this.activeLanes;
+        if (lanes.isEmpty()) {
+            return 0L;
+        }
+        long total = 0;
+        for (Lane lane : lanes) {
+            total += lane.commitLatency;
+        }
+        return TimeUnit.NANOSECONDS.toMicros(total / lanes.size());
+    }
+
+    @Override
+    public void setTransactionManager(TransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void setSourcePassword(String password) {
+        this.sourcePassword = password;
+    }
+
+    @Override
+    public void setTargetPassword(String password) {
+        this.targetPassword = password;
+    }
+
+    /**
+     * Large message compression is a property of the Artemis connection factory, so the bridge sends with its own copy
+     * of the target connection factory rather than altering one that may be shared with applications.
+     */
+    private Object enableCompression(Object connectionFactory) {
+        if (connectionFactory instanceof ActiveMQConnectionFactory) {
+            ActiveMQConnectionFactory factory = (ActiveMQConnectionFactory) connectionFactory;
+            if (factory.isCompressLargeMessage()) {
+                return factory;
+            }
+            try {
+                String uri = factory.toURI().toString();
+                ActiveMQConnectionFactory copy = (factory instanceof ActiveMQXAConnectionFactory) ? new ActiveMQXAConnectionFactory(uri) : new ActiveMQConnectionFactory(uri);
+                copy.setCompressLargeMessage(true);
+                this.compressingConnectionFactory = copy;
+                return copy;
+            } catch (Exception e) {
+                MessagingLogger.ROOT_LOGGER.bridgeCompressionNotSupported(this.bridgeName, connectionFactory.getClass().getName(), e);
+                return connectionFactory;
+            }
+        }
+        MessagingLogger.ROOT_LOGGER.bridgeCompressionNotSupported(this.bridgeName, connectionFactory.getClass().getName(), null);
+        return connectionFactory;
+    }
+
+    /**
+     * Computes the exponentially weighted moving average of the commit latency.
+     */
+    static long averageCommitLatency(long average, long latency) {
+        return (average == 0L) ? latency : (long) (average * (1 - LATENCY_WEIGHT) + latency * LATENCY_WEIGHT);
+    }
+
+    /**
+     * Computes the size of the next batch: halved when the average commit latency exceeds its target,
+     * grown when the source could fill the current batch, unchanged otherwise.
+     */
+    static int nextBatchSize(int current, int size, long averageLatency, long targetLatency, int maxBatchSize) {
+        if (averageLatency > targetLatency) {
+            return Math.max(1, current / 2);
+        }
+        if (size >= current) {
+            return Math.min(maxBatchSize, current + Math.max(1, current >> 3));
+        }
+        return current;
+    }
+
+    private void awaitResume() throws InterruptedException {
+        synchronized (this.pauseLock) {
+            while (this.paused && this.started) {
+                this.pauseLock.wait(RECEIVE_TIMEOUT);
+            }
+        }
+    }
+
+    private static Connection createConnection(ConnectionFactory factory, String username, String password) throws JMSException {
+        return (username != null) ? factory.createConnection(username, password) : factory.createConnection();
+    }
+
+    private static XAConnection createXAConnection(XAConnectionFactory factory, String username, String password) throws JMSException {
+        return (username != null) ? factory.createXAConnection(username, password) : factory.createXAConnection();
+    }
+
+    private static void appendMessageID(Message message) throws JMSException {
+        String messageID = message.getJMSMessageID();
+        String list = message.getStringProperty(ActiveMQJMSConstants.AMQ_MESSAGING_BRIDGE_MESSAGE_ID_LIST);
+        // properties of a received message are read-only until they are cleared
+        Map<String, Object> properties = new HashMap<>();
+        Enumeration<?> names = message.getPropertyNames();
+        while (names.hasMoreElements()) {
+            String name = (String) names.nextElement();
+            properties.put(name, message.getObjectProperty(name));
+        }
+        message.clearProperties();
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            Object value = property.getValue();
+            if (!(value instanceof byte[])) {
+                message.setObjectProperty(property.getKey(), value);
+            } else if (message instanceof ActiveMQMessage) {
+                ((ActiveMQMessage) message).getCoreMessage().putBytesProperty(property.getKey(), (byte[]) value);
+            }
+        }
+        message.setStringProperty(ActiveMQJMSConstants.AMQ_MESSAGING_BRIDGE_MESSAGE_ID_LIST, (list != null) ? list + "," + messageID : messageID);
+    }
+
+    private class Lane implements Runnable {
+        private final int index;
+        private final Object sourceConnectionFactory;
+        private final Object targetConnectionFactory;
+        private final Destination sourceDestination;
+        private final Destination targetDestination;
+        private final boolean shared;
+        private final ClassLoader loader;
+
+        private Connection sourceConnection;
+        private Connection targetConnection;
+        private Session sourceSession;
+        private Session targetSession;
+        private XAResource sourceResource;
+        private XAResource targetResource;
+        private MessageConsumer consumer;
+        private MessageProducer producer;
+        private int attempts;
+
+        volatile int batchSize = 1;
+        volatile long commitLatency;
+
+        Lane(int index, Object sourceConnectionFactory, Object targetConnectionFactory, Destination sourceDestination, Destination targetDestination, boolean shared, ClassLoader loader) {
+            this.index = index;
+            this.sourceConnectionFactory = sourceConnectionFactory;
+            this.targetConnectionFactory = targetConnectionFactory;
+            this.sourceDestination = sourceDestination;
+            this.targetDestination = targetDestination;
+            this.shared = shared;
+            this.loader = loader;
+        }
+
+        @Override
+        public void run() {
+            ClassLoader current = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(this.loader);
+            try {
+                this.forwardUntilStopped();
+            } finally {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(current);
+            }
+        }
+
+        private void forwardUntilStopped() {
+            try {
+                while (BatchingJMSBridge.this.started) {
+                    try {
+                        this.connect();
+                        this.forward();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        this.close();
+                        if (!BatchingJMSBridge.this.started) {
+                            return;
+                        }
+                        this.attempts += 1;
+                        if (BatchingJMSBridge.this.maxRetries >= 0 && this.attempts > BatchingJMSBridge.this.maxRetries) {
+                            MessagingLogger.ROOT_LOGGER.bridgeLaneAborted(BatchingJMSBridge.this.bridgeName, this.index, this.attempts);
+                            BatchingJMSBridge.this.activeLanes.remove(this);
+                            if (BatchingJMSBridge.this.activeLanes.isEmpty()) {
+                                BatchingJMSBridge.this.started = false;
+                            }
+                            return;
+                        }
+                        MessagingLogger.ROOT_LOGGER.bridgeLaneFailed(BatchingJMSBridge.this.bridgeName, this.index, BatchingJMSBridge.this.failureRetryInterval, e);
+                        Thread.sleep(Math.max(0L, BatchingJMSBridge.this.failureRetryInterval));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.close();
+            }
+        }
+
+        private void connect() throws JMSException {
+            if (BatchingJMSBridge.this.qualityOfServiceMode == QualityOfServiceMode.ONCE_AND_ONLY_ONCE) {
+                XAConnection source = createXAConnection((XAConnectionFactory) this.sourceConnectionFactory, BatchingJMSBridge.this.sourceUsername, BatchingJMSBridge.this.sourcePassword);
+                this.sourceConnection = source;
+                XAConnection target = createXAConnection((XAConnectionFactory) this.targetConnectionFactory, BatchingJMSBridge.this.targetUsername, BatchingJMSBridge.this.targetPassword);
+                this.targetConnection = target;
+                this.setClientID();
+                XASession sourceSession = source.createXASession();
+                this.sourceSession = sourceSession;
+                this.sourceResource = sourceSession.getXAResource();
+                XASession targetSession = target.createXASession();
+                this.targetSession = targetSession;
+                this.targetResource = targetSession.getXAResource();
+            } else {
+                this.sourceConnection = createConnection((ConnectionFactory) this.sourceConnectionFactory, BatchingJMSBridge.this.sourceUsername, BatchingJMSBridge.this.sourcePassword);
+                this.targetConnection = createConnection((ConnectionFactory) this.targetConnectionFactory, BatchingJMSBridge.this.targetUsername, BatchingJMSBridge.this.targetPassword);
+                this.setClientID();
+                this.sourceSession = this.sourceConnection.createSession(true, Session.SESSION_TRANSACTED);
+                this.targetSession = this.targetConnection.createSession(true, Session.SESSION_TRANSACTED);
+            }
+            String subscriptionName = BatchingJMSBridge.this.subscriptionName;
+            String selector = BatchingJMSBridge.this.selector;
+            if (this.sourceDestination instanceof Topic && subscriptionName != null) {
+                Topic topic = (Topic) this.sourceDestination;
+                this.consumer = this.shared ? this.sourceSession.createSharedDurableConsumer(topic, subscriptionName, selector) : this.sourceSession.createDurableSubscriber(topic, subscriptionName, selector, false);
+            } else {
+                this.consumer = this.sourceSession.createConsumer(this.sourceDestination, selector);
+            }
+            this.producer = this.targetSession.createProducer(this.targetDestination);
+            this.sourceConnection.start();
+        }
+
+        private void setClientID() throws JMSException {
+            // a client ID can only be used by a single connection, so lanes sharing a subscription do not set it
+            if (BatchingJMSBridge.this.clientID != null && !this.shared) {
+                this.sourceConnection.setClientID(BatchingJMSBridge.this.clientID);
+            }
+        }
+
+        private void forward() throws Exception {
+            while (BatchingJMSBridge.this.started) {
+                if (BatchingJMSBridge.this.paused) {
+                    BatchingJMSBridge.this.awaitResume();
+                    continue;
+                }
+                this.begin();
+                List<Message> batch;
+                try {
+                    batch = this.receive();
+                } catch (Exception e) {
+                    this.rollback();
+                    throw e;
+                }
+                if (batch.isEmpty()) {
+                    this.rollback();
+                    continue;
+                }
+                try {
+                    if (BatchingJMSBridge.this.qualityOfServiceMode == QualityOfServiceMode.AT_MOST_ONCE) {
+                        // acknowledge before forwarding so that a failure loses the batch rather than duplicating it
+                        this.sourceSession.commit();
+                    }
+                    for (Message message : batch) {
+                        this.send(message);
+                    }
+                    long start = System.nanoTime();
+                    this.commit();
+                    this.adapt(batch.size(), System.nanoTime() - start);
+                } catch (Exception e) {
+                    BatchingJMSBridge.this.abortedMessageCount.add(batch.size());
+                    this.rollback();
+                    throw e;
+                }
+                BatchingJMSBridge.this.messageCount.add(batch.size());
+                BatchingJMSBridge.this.throughput.record(batch.size());
+                this.attempts = 0;
+            }
+        }
+
+        private List<Message> receive() throws JMSException {
+            int limit = this.batchSize;
+            List<Message> batch = new ArrayList<>(limit);
+            Message message = this.consumer.receive(RECEIVE_TIMEOUT);
+            if (message == null) {
+                return batch;
+            }
+            batch.add(message);
+            // without a max-batch-time, a batch is closed as soon as no message is immediately available
+            long deadline = (BatchingJMSBridge.this.maxBatchTime > 0) ? System.currentTimeMillis() + BatchingJMSBridge.this.maxBatchTime : 0L;
+            while (batch.size() < limit && BatchingJMSBridge.this.started) {
+                if (deadline > 0) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    message = this.consumer.receive(remaining);
+                } else {
+                    message = this.consumer.receiveNoWait();
+                }
+                if (message == null) {
+                    break;
+                }
+                batch.add(message);
+            }
+            return batch;
+        }
+
+        private void send(Message message) throws JMSException {
+            if (BatchingJMSBridge.this.addMessageIDInHeader) {
+                appendMessageID(message);
+            }
+            long timeToLive = 0L;
+            long expiration = message.getJMSExpiration();
+            if (expiration != 0L) {
+                timeToLive = Math.max(1L, expiration - System.currentTimeMillis());
+            }
+            this.producer.send(message, message.getJMSDeliveryMode(), message.getJMSPriority(), timeToLive);
+        }
+
+        private void adapt(int size, long latency) {
+            long average = averageCommitLatency(this.commitLatency, latency);
+            this.commitLatency = average;
+            this.batchSize = nextBatchSize(this.batchSize, size, average, BatchingJMSBridge.this.targetCommitLatency, BatchingJMSBridge.this.maxBatchSize);
+        }
+
+        private void begin() throws Exception {
+            if (BatchingJMSBridge.this.qualityOfServiceMode == QualityOfServiceMode.ONCE_AND_ONLY_ONCE) {
+                TransactionManager tm = BatchingJMSBridge.this.transactionManager;
+                tm.begin();
+                Transaction transaction = tm.getTransaction();
+                transaction.enlistResource(this.sourceResource);
+                transaction.enlistResource(this.targetResource);
+            }
+        }
+
+        private void commit() throws Exception {
+            switch (BatchingJMSBridge.this.qualityOfServiceMode) {
+                case ONCE_AND_ONLY_ONCE:
+                    BatchingJMSBridge.this.transactionManager.commit();
+                    break;
+                case DUPLICATES_OK:
+                    this.targetSession.commit();
+                    this.sourceSession.commit();
+                    break;
+                default:
+                    this.targetSession.commit();
+            }
+        }
+
+        private void rollback() {
+            try {
+                if (BatchingJMSBridge.this.qualityOfServiceMode == QualityOfServiceMode.ONCE_AND_ONLY_ONCE) {
+                    TransactionManager tm = BatchingJMSBridge.this.transactionManager;
+                    if (tm.getStatus() != Status.STATUS_NO_TRANSACTION) {
+                        tm.rollback();
+                    }
+                } else {
+                    this.targetSession.rollback();
+                    this.sourceSession.rollback();
+                }
+            } catch (Exception e) {
+                MessagingLogger.ROOT_LOGGER.debugf(e, "JMS Bridge %s failed to roll back lane %d", BatchingJMSBridge.this.bridgeName, this.index);
+            }
+        }
+
+        synchronized void close() {
+            for (Connection connection : new Connection[] { this.sourceConnection, this.targetConnection }) {
+                if (connection != null) {
+                    try {
+                        connection.close();
+                    } catch (Exception e) {
+                        MessagingLogger.ROOT_LOGGER.debugf(e, "JMS Bridge %s failed to close connection of lane %d", BatchingJMSBridge.this.bridgeName, this.index);
+                    }
+                }
+            }
+            this.sourceConnection = null;
+            this.targetConnection = null;
+            this.sourceSession = null;
+            this.targetSession = null;
+            this.sourceResource = null;
+            this.targetResource = null;
+            this.consumer = null;
+            this.producer = null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms.bridge;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.TransactionManager;
+
+import org.apache.activemq.artemis.jms.bridge.JMSBridge;
+
+/**
+ * Exposes the ActiveMQ Artemis {@link JMSBridge} implementation as a {@link ManagedJMSBridge}.
+ */
+class DefaultJMSBridge implements ManagedJMSBridge {
+
+    private final JMSBridge bridge;
+    private volatile long startTime;
+    private volatile long startCount;
+
+    DefaultJMSBridge(JMSBridge bridge) {
+        this.bridge = bridge;
+    }
+
+    @Override
+    public void start() throws Exception {
+        this.bridge.start();
+        this.startCount = this.bridge.getMessageCount();
+        this.startTime = System.nanoTime();
+    }
+
+    @Override
+    public void stop() throws Exception {
+        this.bridge.stop();
+    }
+
+    @Override
+    public void pause() throws Exception {
+        this.bridge.pause();
+    }
+
+    @Override
+    public void resume() throws Exception {
+        this.bridge.resume();
+    }
+
+    @Override
+    public boolean isStarted() {
+        return this.bridge.isStarted();
+    }
+
+    @Override
+    public boolean isPaused() {
+        return this.bridge.isPaused();
+    }
+
+    @Override
+    public long getMessageCount() {
+        return this.bridge.getMessageCount();
+    }
+
+    @Override
+    public long getAbortedMessageCount() {
+        return this.bridge.getAbortedMessageCount();
+    }
+
+    @Override
+    public double getMessagesPerSecond() {
+        // Artemis does not expose its forwarding path, so report the average rate since the bridge was started
+        long elapsed = System.nanoTime() - this.startTime;
+        return (elapsed > 0) ? Math.max(0L, this.bridge.getMessageCount() - this.startCount) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0d;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return this.bridge.getMaxBatchSize();
+    }
+
+    @Override
+    public long getAverageCommitLatency() {
+        return 0L;
+    }
+
+    @Override
+    public void setTransactionManager(TransactionManager transactionManager) {
+        this.bridge.setTransactionManager(transactionManager);
+    }
+
+    @Override
+    public void setExecutor(Executor executor) {
+        // Artemis bridge uses its own executor
+    }
+
+    @Override
+    public void setSourcePassword(String password) {
+        this.bridge.setSourcePassword(password);
+    }
+
+    @Override
+    public void setTargetPassword(String password) {
+        this.bridge.setTargetPassword(password);
+    }
+}
@@ -33,7 +33,6 @@ import java.util.function.Supplier;
 
 import org.apache.activemq.artemis.jms.bridge.ConnectionFactoryFactory;
 import org.apache.activemq.artemis.jms.bridge.DestinationFactory;
-import org.apache.activemq.artemis.jms.bridge.JMSBridge;
 import org.apache.activemq.artemis.jms.bridge.QualityOfServiceMode;
 import org.apache.activemq.artemis.jms.bridge.impl.JMSBridgeImpl;
 import org.apache.activemq.artemis.jms.bridge.impl.JNDIConnectionFactoryFactory;
@@ -95,7 +94,7 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
                 final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
 
                 String moduleName = resolveAttribute(JMSBridgeDefinition.MODULE, context, model);
-                final JMSBridge bridge = createJMSBridge(context, model);
+                final ManagedJMSBridge bridge = createJMSBridge(context, model);
 
                 final String bridgeName = address.getLastElement().getValue();
                 final ServiceName bridgeServiceName = MessagingServices.getJMSBridgeServiceName(bridgeName);
@@ -146,7 +145,7 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
         builder.requires(ContextNames.bindInfoFor(jndiName).getBinderServiceName());
     }
 
-    private JMSBridge createJMSBridge(OperationContext context, ModelNode model) throws OperationFailedException {
+    private ManagedJMSBridge createJMSBridge(OperationContext context, ModelNode model) throws OperationFailedException {
         final Properties sourceContextProperties = resolveContextProperties(JMSBridgeDefinition.SOURCE_CONTEXT, context, model);
         final String sourceConnectionFactoryName = JMSBridgeDefinition.SOURCE_CONNECTION_FACTORY.resolveModelAttribute(context, model).asString();
         final ConnectionFactoryFactory sourceCff = new JNDIConnectionFactoryFactory(sourceContextProperties , sourceConnectionFactoryName);
@@ -174,6 +173,11 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
         final String clientID = resolveAttribute(JMSBridgeDefinition.CLIENT_ID, context, model);
         final boolean addMessageIDInHeader = JMSBridgeDefinition.ADD_MESSAGE_ID_IN_HEADER.resolveModelAttribute(context, model).asBoolean();
 
+        final boolean adaptiveBatching = JMSBridgeDefinition.ADAPTIVE_BATCHING.resolveModelAttribute(context, model).asBoolean();
+        final int forwardingLanes = JMSBridgeDefinition.FORWARDING_LANES.resolveModelAttribute(context, model).asInt();
+        final boolean compressMessages = JMSBridgeDefinition.COMPRESS_MESSAGES.resolveModelAttribute(context, model).asBoolean();
+        final long targetCommitLatency = JMSBridgeDefinition.TARGET_COMMIT_LATENCY.resolveModelAttribute(context, model).asLong();
+
         final String moduleName = resolveAttribute(JMSBridgeDefinition.MODULE, context, model);
 
         final ClassLoader oldTccl= WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
@@ -184,7 +188,30 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
                 Module module = Module.getCallerModuleLoader().loadModule(ModuleIdentifier.fromString(moduleName));
                 WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(module.getClassLoader());
             }
-            return new JMSBridgeImpl(sourceCff,
+            if (adaptiveBatching) {
+                return new BatchingJMSBridge(context.getCurrentAddressValue(),
+                        sourceCff,
+                        targetCff,
+                        sourceDestinationFactory,
+                        targetDestinationFactory,
+                        sourceUsername,
+                        sourcePassword,
+                        targetUsername,
+                        targetPassword,
+                        selector,
+                        failureRetryInterval,
+                        maxRetries,
+                        qosMode,
+                        maxBatchSize,
+                        maxBatchTime,
+                        subName,
+                        clientID,
+                        addMessageIDInHeader,
+                        forwardingLanes,
+                        compressMessages,
+                        targetCommitLatency);
+            }
+            return new DefaultJMSBridge(new JMSBridgeImpl(sourceCff,
                     targetCff,
                     sourceDestinationFactory,
                     targetDestinationFactory,
@@ -200,7 +227,7 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
                     maxBatchTime,
                     subName,
                     clientID,
-                    addMessageIDInHeader).setBridgeName(context.getCurrentAddressValue());
+                    addMessageIDInHeader).setBridgeName(context.getCurrentAddressValue()));
         } catch (ModuleNotFoundException e) {
             throw MessagingLogger.ROOT_LOGGER.moduleNotFound(moduleName, e.getMessage(), e);
         } catch (ModuleLoadException e) {
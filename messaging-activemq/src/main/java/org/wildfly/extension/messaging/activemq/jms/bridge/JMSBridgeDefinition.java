@@ -23,9 +23,11 @@
 package org.wildfly.extension.messaging.activemq.jms.bridge;
 
 import static org.jboss.as.controller.SimpleAttributeDefinitionBuilder.create;
+import static org.jboss.as.controller.client.helpers.MeasurementUnit.MICROSECONDS;
 import static org.jboss.as.controller.client.helpers.MeasurementUnit.MILLISECONDS;
 import static org.jboss.as.controller.registry.AttributeAccess.Flag.COUNTER_METRIC;
 import static org.jboss.dmr.ModelType.BOOLEAN;
+import static org.jboss.dmr.ModelType.DOUBLE;
 import static org.jboss.dmr.ModelType.INT;
 import static org.jboss.dmr.ModelType.LONG;
 import static org.jboss.dmr.ModelType.STRING;
@@ -53,6 +55,7 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.security.CredentialReference;
 import org.jboss.as.controller.security.CredentialReferenceWriteAttributeHandler;
@@ -202,6 +205,29 @@ public class JMSBridgeDefinition extends PersistentResourceDefinition {
             .setDefaultValue(ModelNode.FALSE)
             .setAllowExpression(true)
             .build();
+    public static final SimpleAttributeDefinition ADAPTIVE_BATCHING = create("adaptive-batching", BOOLEAN)
+            .setRequired(false)
+            .setDefaultValue(ModelNode.FALSE)
+            .setAllowExpression(true)
+            .build();
+    public static final SimpleAttributeDefinition FORWARDING_LANES = create("forwarding-lanes", INT)
+            .setRequired(false)
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+            .setDefaultValue(new ModelNode(1))
+            .setAllowExpression(true)
+            .build();
+    public static final SimpleAttributeDefinition COMPRESS_MESSAGES = create("compress-messages", BOOLEAN)
+            .setRequired(false)
+            .setDefaultValue(ModelNode.FALSE)
+            .setAllowExpression(true)
+            .build();
+    public static final SimpleAttributeDefinition TARGET_COMMIT_LATENCY = create("target-commit-latency", LONG)
+            .setRequired(false)
+            .setMeasurementUnit(MILLISECONDS)
+            .setValidator(new LongRangeValidator(1L, Long.MAX_VALUE, true, true))
+            .setDefaultValue(new ModelNode(100L))
+            .setAllowExpression(true)
+            .build();
     public static final SimpleAttributeDefinition STARTED = create(CommonAttributes.STARTED, BOOLEAN)
             .setStorageRuntime()
             .build();
@@ -212,6 +238,22 @@ public class JMSBridgeDefinition extends PersistentResourceDefinition {
             .addFlag(COUNTER_METRIC)
             .build();
 
+    public static final SimpleAttributeDefinition MESSAGES_PER_SECOND = create("messages-per-second", DOUBLE)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0.0))
+            .build();
+
+    public static final SimpleAttributeDefinition BATCH_SIZE = create("batch-size", INT)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0))
+            .build();
+
+    public static final SimpleAttributeDefinition COMMIT_LATENCY = create("commit-latency", LONG)
+            .setStorageRuntime()
+            .setMeasurementUnit(MICROSECONDS)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .build();
+
     public static final AttributeDefinition[] ATTRIBUTES = {
             MODULE,
             QUALITY_OF_SERVICE,
@@ -221,6 +263,10 @@ public class JMSBridgeDefinition extends PersistentResourceDefinition {
             SUBSCRIPTION_NAME,
             CommonAttributes.CLIENT_ID,
             ADD_MESSAGE_ID_IN_HEADER,
+            ADAPTIVE_BATCHING,
+            FORWARDING_LANES,
+            COMPRESS_MESSAGES,
+            TARGET_COMMIT_LATENCY,
             SOURCE_CONNECTION_FACTORY,
             SOURCE_DESTINATION,
             SOURCE_USER,
@@ -240,7 +286,8 @@ public class JMSBridgeDefinition extends PersistentResourceDefinition {
     };
 
     public static final AttributeDefinition[] METRICS = {
-            CommonAttributes.MESSAGE_COUNT, ABORTED_MESSAGE_COUNT
+            CommonAttributes.MESSAGE_COUNT, ABORTED_MESSAGE_COUNT,
+            MESSAGES_PER_SECOND, BATCH_SIZE, COMMIT_LATENCY
     };
 
     public static final String[] OPERATIONS = {
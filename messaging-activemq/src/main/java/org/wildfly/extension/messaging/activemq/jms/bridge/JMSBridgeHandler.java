@@ -30,10 +30,12 @@ import static org.wildfly.extension.messaging.activemq.CommonAttributes.NAME;
 import static org.wildfly.extension.messaging.activemq.CommonAttributes.PAUSED;
 import static org.wildfly.extension.messaging.activemq.CommonAttributes.STARTED;
 import static org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition.ABORTED_MESSAGE_COUNT;
+import static org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition.BATCH_SIZE;
+import static org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition.COMMIT_LATENCY;
+import static org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition.MESSAGES_PER_SECOND;
 import static org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition.PAUSE;
 import static org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition.RESUME;
 
-import org.apache.activemq.artemis.jms.bridge.JMSBridge;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -79,7 +81,7 @@ public class JMSBridgeHandler extends AbstractRuntimeOnlyHandler {
             }
             return;
         }
-        final JMSBridge bridge = JMSBridge.class.cast(bridgeService.getValue());
+        final ManagedJMSBridge bridge = ManagedJMSBridge.class.cast(bridgeService.getValue());
         switch (operationName) {
             case READ_ATTRIBUTE_OPERATION:
                 readAttributeValidator.validate(operation);
@@ -92,6 +94,12 @@ public class JMSBridgeHandler extends AbstractRuntimeOnlyHandler {
                     context.getResult().set(bridge.getMessageCount());
                 }  else if (ABORTED_MESSAGE_COUNT.getName().equals(name)) {
                     context.getResult().set(bridge.getAbortedMessageCount());
+                }  else if (MESSAGES_PER_SECOND.getName().equals(name)) {
+                    context.getResult().set(bridge.getMessagesPerSecond());
+                }  else if (BATCH_SIZE.getName().equals(name)) {
+                    context.getResult().set(bridge.getBatchSize());
+                }  else if (COMMIT_LATENCY.getName().equals(name)) {
+                    context.getResult().set(bridge.getAverageCommitLatency());
                 } else {
                     throw MessagingLogger.ROOT_LOGGER.unsupportedAttribute(name);
                 }
@@ -27,7 +27,6 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-import org.apache.activemq.artemis.jms.bridge.JMSBridge;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.msc.service.Service;
@@ -47,15 +46,15 @@ import org.wildfly.transaction.client.ContextTransactionManager;
  *
  * @author Jeff Mesnil (c) 2012 Red Hat Inc.
  */
-class JMSBridgeService implements Service<JMSBridge> {
-    private final JMSBridge bridge;
+class JMSBridgeService implements Service<ManagedJMSBridge> {
+    private final ManagedJMSBridge bridge;
     private final String bridgeName;
     private final String moduleName;
     private final Supplier<ExecutorService> executorSupplier;
     private final ExceptionSupplier<CredentialSource, Exception> sourceCredentialSourceSupplier;
     private final ExceptionSupplier<CredentialSource, Exception> targetCredentialSourceSupplier;
 
-    public JMSBridgeService(final String moduleName, final String bridgeName, final JMSBridge bridge,
+    public JMSBridgeService(final String moduleName, final String bridgeName, final ManagedJMSBridge bridge,
             Supplier<ExecutorService> executorSupplier,
             ExceptionSupplier<CredentialSource, Exception> sourceCredentialSourceSupplier,
             ExceptionSupplier<CredentialSource, Exception> targetCredentialSourceSupplier) {
@@ -77,6 +76,7 @@ class JMSBridgeService implements Service<JMSBridge> {
             public void run() {
                 try {
                     bridge.setTransactionManager(ContextTransactionManager.getInstance());
+                    bridge.setExecutor(executorSupplier.get());
                     startBridge();
 
                     context.complete();
@@ -139,7 +139,7 @@ class JMSBridgeService implements Service<JMSBridge> {
     }
 
     @Override
-    public JMSBridge getValue() throws IllegalStateException {
+    public ManagedJMSBridge getValue() throws IllegalStateException {
         return bridge;
     }
 
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms.bridge;
+
+import java.util.concurrent.Executor;
+
+import javax.transaction.TransactionManager;
+
+/**
+ * Management view of a JMS bridge, independent of the implementation forwarding the messages.
+ */
+interface ManagedJMSBridge {
+
+    void start() throws Exception;
+
+    void stop() throws Exception;
+
+    void pause() throws Exception;
+
+    void resume() throws Exception;
+
+    boolean isStarted();
+
+    boolean isPaused();
+
+    long getMessageCount();
+
+    long getAbortedMessageCount();
+
+    /**
+     * @return the number of messages forwarded per second during the last complete one second window,
+     *         or on average since the bridge was started if the implementation does not expose its forwarding path
+     */
+    double getMessagesPerSecond();
+
+    /**
+     * @return the number of messages currently forwarded in a single transaction
+     */
+    int getBatchSize();
+
+    /**
+     * @return the average time spent committing a batch, in microseconds, or 0 if it is not tracked
+     */
+    long getAverageCommitLatency();
+
+    void setTransactionManager(TransactionManager transactionManager);
+
+    /**
+     * Sets the executor on which the bridge forwards messages, if it does not manage its own threads.
+     * @param executor a managed executor
+     */
+    void setExecutor(Executor executor);
+
+    void setSourcePassword(String password);
+
+    void setTargetPassword(String password);
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms.bridge;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures a forwarding rate over fixed one second windows.
+ * Forwarded messages are recorded by the forwarding path, while reading the rate of the last complete window has no side effects.
+ */
+class ThroughputMeter {
+
+    static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongSupplier clock;
+
+    private long windowStart;
+    private long windowCount;
+    private long previousWindowCount;
+
+    ThroughputMeter() {
+        this(System::nanoTime);
+    }
+
+    ThroughputMeter(LongSupplier clock) {
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    /**
+     * Records the specified number of forwarded messages.
+     * @param messages a number of forwarded messages
+     */
+    synchronized void record(long messages) {
+        long now = this.clock.getAsLong();
+        long elapsed = now - this.windowStart;
+        if (elapsed >= WINDOW) {
+            // The window preceding the current one is empty, unless it is the window that just ended
+            this.previousWindowCount = (elapsed < 2 * WINDOW) ? this.windowCount : 0L;
+            this.windowStart = now - (elapsed % WINDOW);
+            this.windowCount = 0L;
+        }
+        this.windowCount += messages;
+    }
+
+    /**
+     * Returns the number of messages forwarded per second during the last complete window.
+     * @return a forwarding rate
+     */
+    synchronized double getRate() {
+        long elapsed = this.clock.getAsLong() - this.windowStart;
+        long count = (elapsed < WINDOW) ? this.previousWindowCount : (elapsed < 2 * WINDOW) ? this.windowCount : 0L;
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / WINDOW;
+    }
+
+    synchronized void reset() {
+        this.windowStart = this.clock.getAsLong();
+        this.windowCount = 0L;
+        this.previousWindowCount = 0L;
+    }
+}
@@ -876,4 +876,20 @@ public interface MessagingLogger extends BasicLogger {
     @Message(id = 103, value = "Broker is not started. It cannot be managed yet.")
     IllegalStateException brokerNotStarted();
 
+    @LogMessage(level = WARN)
+    @Message(id = 104, value = "JMS Bridge %s failed to forward messages on lane %d, retrying in %d ms")
+    void bridgeLaneFailed(String bridgeName, int lane, long retryInterval, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 105, value = "JMS Bridge %s stopped forwarding messages on lane %d after %d failed attempts")
+    void bridgeLaneAborted(String bridgeName, int lane, int attempts);
+
+    @LogMessage(level = WARN)
+    @Message(id = 106, value = "JMS Bridge %s can not compress messages sent with connection factory %s, messages are sent uncompressed")
+    void bridgeCompressionNotSupported(String bridgeName, String connectionFactory, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 107, value = "JMS Bridge %s consumes from a non-durable topic subscription, messages are forwarded on a single lane instead of %d")
+    void bridgeSingleLaneForTopic(String bridgeName, int lanes);
+
 }
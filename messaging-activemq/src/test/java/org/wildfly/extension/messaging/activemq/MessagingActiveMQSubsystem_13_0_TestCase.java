@@ -67,6 +67,7 @@ import org.wildfly.clustering.spi.ClusteringDefaultRequirement;
 import org.wildfly.clustering.spi.ClusteringRequirement;
 import org.wildfly.extension.messaging.activemq.ha.HAAttributes;
 import org.wildfly.extension.messaging.activemq.jms.ConnectionFactoryAttributes;
+import org.wildfly.extension.messaging.activemq.jms.bridge.JMSBridgeDefinition;
 
 public class MessagingActiveMQSubsystem_13_0_TestCase extends AbstractSubsystemBaseTest {
 
@@ -253,6 +254,12 @@ public class MessagingActiveMQSubsystem_13_0_TestCase extends AbstractSubsystemB
 
         FailedOperationTransformationConfig config = new FailedOperationTransformationConfig();
 
+        config.addFailedAttribute(subsystemAddress.append(pathElement(JMS_BRIDGE, "adaptive-bridge")),
+                new FailedOperationTransformationConfig.NewAttributesConfig(
+                        JMSBridgeDefinition.ADAPTIVE_BATCHING,
+                        JMSBridgeDefinition.FORWARDING_LANES,
+                        JMSBridgeDefinition.COMPRESS_MESSAGES,
+                        JMSBridgeDefinition.TARGET_COMMIT_LATENCY));
         if (messagingVersion.compareTo(MessagingExtension.VERSION_9_0_0) > 0) {
             config.addFailedAttribute(subsystemAddress.append(pathElement(SERVER, "server1")),
                     FailedOperationTransformationConfig.REJECTED_RESOURCE);
@@ -297,7 +304,8 @@ public class MessagingActiveMQSubsystem_13_0_TestCase extends AbstractSubsystemB
                                 ServerDefinition.CRITICAL_ANALYZER_CHECK_PERIOD,
                                 ServerDefinition.CRITICAL_ANALYZER_POLICY,
                                 ServerDefinition.CRITICAL_ANALYZER_TIMEOUT,
-                                ServerDefinition.JOURNAL_MAX_ATTIC_FILES
+                                ServerDefinition.JOURNAL_MAX_ATTIC_FILES,
+                                ServerDefinition.DESTINATION_STATISTICS_TTL
                         ))
                 .addFailedAttribute(subsystemAddress.append(SERVER_PATH, REPLICATION_MASTER_PATH),
                         new ChangeToTrueConfig(HAAttributes.CHECK_FOR_LIVE_SERVER.getName()))
@@ -362,7 +370,8 @@ public class MessagingActiveMQSubsystem_13_0_TestCase extends AbstractSubsystemB
                                 ServerDefinition.CRITICAL_ANALYZER_CHECK_PERIOD,
                                 ServerDefinition.CRITICAL_ANALYZER_POLICY,
                                 ServerDefinition.CRITICAL_ANALYZER_TIMEOUT,
-                                ServerDefinition.JOURNAL_MAX_ATTIC_FILES
+                                ServerDefinition.JOURNAL_MAX_ATTIC_FILES,
+                                ServerDefinition.DESTINATION_STATISTICS_TTL
                         ))
                 .addFailedAttribute(subsystemAddress.append(SERVER_PATH, POOLED_CONNECTION_FACTORY_PATH),
                         new FailedOperationTransformationConfig.NewAttributesConfig(ConnectionFactoryAttributes.Common.USE_TOPOLOGY))
@@ -392,7 +401,8 @@ public class MessagingActiveMQSubsystem_13_0_TestCase extends AbstractSubsystemB
                             ServerDefinition.CRITICAL_ANALYZER_CHECK_PERIOD,
                             ServerDefinition.CRITICAL_ANALYZER_POLICY,
                             ServerDefinition.CRITICAL_ANALYZER_TIMEOUT,
-                            ServerDefinition.JOURNAL_MAX_ATTIC_FILES));
+                            ServerDefinition.JOURNAL_MAX_ATTIC_FILES,
+                            ServerDefinition.DESTINATION_STATISTICS_TTL));
             config.addFailedAttribute(subsystemAddress.append(SERVER_PATH, CONNECTION_FACTORY_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(ConnectionFactoryAttributes.Common.USE_TOPOLOGY));
             config.addFailedAttribute(subsystemAddress.append(SERVER_PATH, POOLED_CONNECTION_FACTORY_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(ConnectionFactoryAttributes.Common.USE_TOPOLOGY));
             config.addFailedAttribute(subsystemAddress.append(SERVER_PATH, BRIDGE_PATH),
@@ -412,7 +422,8 @@ public class MessagingActiveMQSubsystem_13_0_TestCase extends AbstractSubsystemB
                     ServerDefinition.CRITICAL_ANALYZER_CHECK_PERIOD,
                     ServerDefinition.CRITICAL_ANALYZER_POLICY,
                     ServerDefinition.CRITICAL_ANALYZER_TIMEOUT,
-                    ServerDefinition.JOURNAL_MAX_ATTIC_FILES
+                    ServerDefinition.JOURNAL_MAX_ATTIC_FILES,
+                    ServerDefinition.DESTINATION_STATISTICS_TTL
             ));
             config.addFailedAttribute(subsystemAddress.append(SERVER_PATH, CONNECTION_FACTORY_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(ConnectionFactoryAttributes.Common.USE_TOPOLOGY));
             config.addFailedAttribute(subsystemAddress.append(SERVER_PATH, POOLED_CONNECTION_FACTORY_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(ConnectionFactoryAttributes.Common.USE_TOPOLOGY));
@@ -531,7 +542,8 @@ public class MessagingActiveMQSubsystem_13_0_TestCase extends AbstractSubsystemB
                     ServerDefinition.CRITICAL_ANALYZER_CHECK_PERIOD,
                     ServerDefinition.CRITICAL_ANALYZER_POLICY,
                     ServerDefinition.CRITICAL_ANALYZER_TIMEOUT,
-                    ServerDefinition.JOURNAL_MAX_ATTIC_FILES
+                    ServerDefinition.JOURNAL_MAX_ATTIC_FILES,
+                    ServerDefinition.DESTINATION_STATISTICS_TTL
             ));
             config.addFailedAttribute(subsystemAddress.append(SERVER_PATH, BRIDGE_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(
                     BridgeDefinition.CALL_TIMEOUT));
@@ -0,0 +1,263 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.broadcast;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ConflatingBroadcastManager}.
+ */
+public class ConflatingBroadcastManagerTestCase {
+
+    @Test
+    public void conflation() throws InterruptedException {
+        BroadcastManager manager = new ConflatingBroadcastManager();
+
+        manager.receive("node1", new byte[] { 1 });
+        manager.receive("node1", new byte[] { 2 });
+        manager.receive("node2", new byte[] { 3 });
+
+        assertEquals(2, manager.getPendingBroadcasts());
+        assertEquals(1L, manager.getDroppedBroadcasts());
+
+        List<byte[]> broadcasts = new ArrayList<>();
+        broadcasts.add(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        broadcasts.add(manager.getBroadcast());
+
+        // Only the latest broadcast of each sender is delivered, in order of arrival
+        assertArrayEquals(new byte[] { 2 }, broadcasts.get(0));
+        assertArrayEquals(new byte[] { 3 }, broadcasts.get(1));
+        assertEquals(0, manager.getPendingBroadcasts());
+        assertNull(manager.getBroadcast(10, TimeUnit.MILLISECONDS));
+
+        // A sender whose broadcast was consumed can broadcast again
+        manager.receive("node1", new byte[] { 4 });
+
+        assertArrayEquals(new byte[] { 4 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void endpoints() throws InterruptedException {
+        BroadcastManager manager = new ConflatingBroadcastManager();
+        UUID live = UUID.randomUUID();
+        UUID backup = UUID.randomUUID();
+
+        // Collocated servers broadcast from the same member through distinct endpoints
+        new BroadcastCommand("node1", live, new byte[] { 1 }).execute(manager);
+        new BroadcastCommand("node1", backup, new byte[] { 2 }).execute(manager);
+        new BroadcastCommand("node1", live, new byte[] { 3 }).execute(manager);
+
+        assertEquals(2, manager.getPendingBroadcasts());
+        assertEquals(1L, manager.getDroppedBroadcasts());
+        assertArrayEquals(new byte[] { 3 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new byte[] { 2 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void deduplication() throws InterruptedException {
+        BroadcastManager manager = new ConflatingBroadcastManager();
+
+        // Identical broadcasts from unidentified senders are delivered once while pending
+        manager.receive(new byte[] { 1, 2 });
+        manager.receive(new byte[] { 1, 2 });
+        manager.receive(new byte[] { 3 });
+        // Identical broadcast from an identified sender
+        manager.receive("node1", new byte[] { 5 });
+        manager.receive("node1", new byte[] { 5 });
+
+        assertEquals(3, manager.getPendingBroadcasts());
+        assertEquals(2L, manager.getDroppedBroadcasts());
+
+        assertArrayEquals(new byte[] { 1, 2 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new byte[] { 3 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new byte[] { 5 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+
+        // Once consumed, an identical broadcast is delivered again
+        manager.receive(new byte[] { 1, 2 });
+        manager.receive("node1", new byte[] { 5 });
+
+        assertArrayEquals(new byte[] { 1, 2 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new byte[] { 5 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertEquals(2L, manager.getDroppedBroadcasts());
+    }
+
+    @Test
+    public void capacity() throws InterruptedException {
+        BroadcastManager manager = new ConflatingBroadcastManager(2);
+
+        manager.receive("node1", new byte[] { 1 });
+        manager.receive("node2", new byte[] { 2 });
+        manager.receive("node3", new byte[] { 3 });
+        manager.receive(new byte[] { 4 });
+
+        assertEquals(2, manager.getPendingBroadcasts());
+        assertEquals(2L, manager.getDroppedBroadcasts());
+
+        // Pending broadcasts of existing senders can still be replaced
+        manager.receive("node2", new byte[] { 5 });
+
+        assertEquals(2, manager.getPendingBroadcasts());
+
+        assertArrayEquals(new byte[] { 1 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+
+        // Consumption frees capacity for another sender
+        manager.receive("node3", new byte[] { 6 });
+
+        assertEquals(2, manager.getPendingBroadcasts());
+        assertArrayEquals(new byte[] { 5 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new byte[] { 6 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertEquals(0, manager.getPendingBroadcasts());
+    }
+
+    @Test
+    public void clear() throws InterruptedException {
+        BroadcastManager manager = new ConflatingBroadcastManager();
+
+        manager.receive("node1", new byte[] { 1 });
+        manager.receive(new byte[] { 2 });
+
+        manager.clear();
+
+        assertEquals(0, manager.getPendingBroadcasts());
+        assertNull(manager.getBroadcast(10, TimeUnit.MILLISECONDS));
+
+        manager.receive("node1", new byte[] { 1 });
+        manager.receive(new byte[] { 2 });
+
+        assertEquals(2, manager.getPendingBroadcasts());
+        assertArrayEquals(new byte[] { 1 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new byte[] { 2 }, manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void concurrentClear() throws Exception {
+        int senders = 8;
+        int broadcasts = 10000;
+        BroadcastManager manager = new ConflatingBroadcastManager(senders);
+        ExecutorService executor = Executors.newFixedThreadPool(senders + 2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(senders);
+            for (int i = 0; i < senders; ++i) {
+                String sender = "node" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < broadcasts; ++j) {
+                        manager.receive(sender, ByteBuffer.allocate(Integer.BYTES).putInt(j).array());
+                    }
+                    return null;
+                }));
+            }
+            Future<?> consumer = executor.submit(() -> {
+                start.await();
+                while (!Thread.currentThread().isInterrupted()) {
+                    manager.getBroadcast(1, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            });
+            Future<?> clearer = executor.submit(() -> {
+                start.await();
+                while (!Thread.currentThread().isInterrupted()) {
+                    manager.clear();
+                    Thread.yield();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            clearer.cancel(true);
+            consumer.cancel(true);
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        // Drain whatever survived the races
+        while (manager.getBroadcast(0, TimeUnit.MILLISECONDS) != null) {
+            // Discard
+        }
+        assertEquals(0, manager.getPendingBroadcasts());
+
+        // No sender may be left with an undeliverable slot, nor may capacity have leaked
+        Map<String, byte[]> expected = new HashMap<>();
+        for (int i = 0; i < senders; ++i) {
+            byte[] broadcast = new byte[] { (byte) i };
+            manager.receive("node" + i, broadcast);
+            expected.put("node" + i, broadcast);
+        }
+        assertEquals(senders, manager.getPendingBroadcasts());
+        for (int i = 0; i < senders; ++i) {
+            byte[] broadcast = manager.getBroadcast(0, TimeUnit.MILLISECONDS);
+            assertNotNull(broadcast);
+            assertSame(expected.remove("node" + broadcast[0]), broadcast);
+        }
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertEquals(0, manager.getPendingBroadcasts());
+    }
+
+    @Test
+    public void latestDelivered() throws Exception {
+        int broadcasts = 100000;
+        BroadcastManager manager = new ConflatingBroadcastManager();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> producer = executor.submit(() -> {
+                for (int i = 1; i <= broadcasts; ++i) {
+                    manager.receive("node", ByteBuffer.allocate(Integer.BYTES).putInt(i).array());
+                }
+            });
+            int last = 0;
+            while (last < broadcasts) {
+                byte[] broadcast = manager.getBroadcast(1, TimeUnit.SECONDS);
+                assertNotNull(broadcast);
+                int value = ByteBuffer.wrap(broadcast).getInt();
+                // Conflation never reorders the broadcasts of a sender
+                assertTrue(value > last);
+                last = value;
+            }
+            producer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        assertEquals(0, manager.getPendingBroadcasts());
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.management.AddressControl;
+import org.apache.activemq.artemis.api.core.management.QueueControl;
+import org.apache.activemq.artemis.api.core.management.ResourceNames;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.management.ManagementService;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.Test;
+import org.wildfly.extension.messaging.activemq.CommonAttributes;
+import org.wildfly.extension.messaging.activemq.MessagingExtension;
+
+/**
+ * Unit test for {@link DestinationStatistics}.
+ */
+public class DestinationStatisticsTestCase {
+
+    private static final PathAddress SERVER_ADDRESS = PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, MessagingExtension.SUBSYSTEM_NAME), PathElement.pathElement(CommonAttributes.SERVER, "default"));
+
+    private static final List<String> QUEUE_ATTRIBUTES = Arrays.asList(CommonAttributes.MESSAGE_COUNT.getName(), CommonAttributes.DELIVERING_COUNT.getName(),
+            CommonAttributes.CONSUMER_COUNT.getName(), CommonAttributes.SCHEDULED_COUNT.getName(), CommonAttributes.MESSAGES_ADDED.getName());
+    private static final List<String> TOPIC_ATTRIBUTES = Arrays.asList(CommonAttributes.MESSAGE_COUNT.getName(), CommonAttributes.DELIVERING_COUNT.getName(),
+            CommonAttributes.MESSAGES_ADDED.getName(), JMSTopicDefinition.DURABLE_MESSAGE_COUNT.getName(), JMSTopicDefinition.NON_DURABLE_MESSAGE_COUNT.getName(),
+            JMSTopicDefinition.SUBSCRIPTION_COUNT.getName(), JMSTopicDefinition.DURABLE_SUBSCRIPTION_COUNT.getName(),
+            JMSTopicDefinition.NON_DURABLE_SUBSCRIPTION_COUNT.getName());
+
+    @Test
+    public void queue() throws OperationFailedException {
+        Map<String, Object> resources = new HashMap<>();
+        QueueControl orders = queue("jms.queue.orders", "jms.queue.orders", true, 7L, 2, 3, 4L, 42L);
+        resources.put(ResourceNames.QUEUE + "jms.queue.orders", orders);
+        resources.put(ResourceNames.QUEUE + "jms.queue.empty", queue("jms.queue.empty", "jms.queue.empty", true, 0L, 0, 0, 0L, 0L));
+        ActiveMQServer server = server(resources);
+
+        DestinationStatistics statistics = DestinationStatistics.of(server, 0L);
+        assertNull(statistics.getQueue("missing"));
+        ModelNode model = statistics.toModelNode();
+        for (String queueName : Arrays.asList("orders", "empty")) {
+            DestinationStatistics.QueueStatistics queue = statistics.getQueue(queueName);
+            assertNotNull(queue);
+            for (String attributeName : QUEUE_ATTRIBUTES) {
+                ModelNode expected = read(JMSQueueReadAttributeHandler.INSTANCE, server, SERVER_ADDRESS.append(CommonAttributes.JMS_QUEUE, queueName), attributeName);
+                ModelNode result = new ModelNode();
+                assertTrue(attributeName, queue.read(attributeName, result));
+                assertEquals(attributeName, expected, result);
+                assertEquals(attributeName, expected, model.get(CommonAttributes.JMS_QUEUE, queueName, attributeName));
+            }
+            assertFalse(queue.read(CommonAttributes.PAUSED.getName(), new ModelNode()));
+        }
+    }
+
+    @Test
+    public void topic() throws OperationFailedException {
+        String address = "jms.topic.news";
+        Map<String, Object> resources = new HashMap<>();
+        // The queue named after the topic address is not a subscription
+        resources.put(ResourceNames.QUEUE + address, queue(address, address, true, 1L, 0, 0, 0L, 1L));
+        resources.put(ResourceNames.QUEUE + "durable1", queue("durable1", address, true, 5L, 1, 1, 0L, 20L));
+        resources.put(ResourceNames.QUEUE + "durable2", queue("durable2", address, true, 3L, 0, 1, 0L, 11L));
+        resources.put(ResourceNames.QUEUE + "volatile", queue("volatile", address, false, 2L, 2, 1, 0L, 9L));
+        resources.put(ResourceNames.ADDRESS + address, address(address, 11L, address, "durable1", "durable2", "volatile"));
+        ActiveMQServer server = server(resources);
+
+        DestinationStatistics statistics = DestinationStatistics.of(server, 0L);
+        DestinationStatistics.TopicStatistics topic = statistics.getTopic("news");
+        assertNotNull(topic);
+        ModelNode model = statistics.toModelNode();
+        for (String attributeName : TOPIC_ATTRIBUTES) {
+            ModelNode expected = read(JMSTopicReadAttributeHandler.INSTANCE, server, SERVER_ADDRESS.append(CommonAttributes.JMS_TOPIC, "news"), attributeName);
+            ModelNode result = new ModelNode();
+            assertTrue(attributeName, topic.read(attributeName, result));
+            assertEquals(attributeName, expected, result);
+            assertEquals(attributeName, expected, model.get(CommonAttributes.JMS_TOPIC, "news", attributeName));
+        }
+        assertFalse(topic.read(CommonAttributes.PAUSED.getName(), new ModelNode()));
+    }
+
+    @Test
+    public void maxAge() {
+        Map<String, Object> resources = new HashMap<>();
+        ActiveMQServer server = server(resources);
+
+        DestinationStatistics statistics = DestinationStatistics.of(server, 0L);
+        assertNull(statistics.getQueue("orders"));
+
+        resources.put(ResourceNames.QUEUE + "jms.queue.orders", queue("jms.queue.orders", "jms.queue.orders", true, 1L, 0, 0, 0L, 1L));
+        // A recent snapshot is reused
+        assertSame(statistics, DestinationStatistics.of(server, Long.MAX_VALUE));
+        // Otherwise a new snapshot is taken
+        DestinationStatistics snapshot = DestinationStatistics.of(server, 0L);
+        assertNotSame(statistics, snapshot);
+        assertNotNull(snapshot.getQueue("orders"));
+        assertSame(snapshot, DestinationStatistics.of(server, Long.MAX_VALUE));
+    }
+
+    private static ModelNode read(JMSQueueReadAttributeHandler handler, ActiveMQServer server, PathAddress address, String attributeName) throws OperationFailedException {
+        OperationContext context = context(server);
+        handler.executeRuntimeStep(context, operation(address, attributeName));
+        return context.getResult();
+    }
+
+    private static ModelNode read(JMSTopicReadAttributeHandler handler, ActiveMQServer server, PathAddress address, String attributeName) throws OperationFailedException {
+        OperationContext context = context(server);
+        handler.executeRuntimeStep(context, operation(address, attributeName));
+        return context.getResult();
+    }
+
+    private static ModelNode operation(PathAddress address, String attributeName) {
+        ModelNode operation = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, address);
+        operation.get(NAME).set(attributeName);
+        assertTrue(operation.hasDefined(OP));
+        assertTrue(operation.hasDefined(OP_ADDR));
+        return operation;
+    }
+
+    private static OperationContext context(ActiveMQServer server) {
+        ServiceController<?> controller = fake(ServiceController.class, "getValue", server);
+        ServiceRegistry registry = fake(ServiceRegistry.class, "getService", controller, "getRequiredService", controller);
+        return fake(OperationContext.class, "getServiceRegistry", registry, "getResult", new ModelNode(), "getFailureDescription", new ModelNode());
+    }
+
+    private static ActiveMQServer server(Map<String, Object> resources) {
+        ManagementService managementService = (ManagementService) Proxy.newProxyInstance(DestinationStatisticsTestCase.class.getClassLoader(), new Class<?>[] { ManagementService.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getResource":
+                    return resources.get(args[0]);
+                case "getResources":
+                    return resources.values().stream().filter(((Class<?>) args[0])::isInstance).toArray();
+                default:
+                    return defaultValue(proxy, method.getName(), method.getReturnType(), args);
+            }
+        });
+        return fake(ActiveMQServer.class, "getManagementService", managementService, "isStarted", true, "isActive", true);
+    }
+
+    private static QueueControl queue(String name, String address, boolean durable, long messageCount, int deliveringCount, int consumerCount, long scheduledCount, long messagesAdded) {
+        return fake(QueueControl.class, "getName", name, "getAddress", address, "isDurable", durable, "getMessageCount", messageCount, "getDeliveringCount", deliveringCount,
+                "getConsumerCount", consumerCount, "getScheduledCount", scheduledCount, "getMessagesAdded", messagesAdded);
+    }
+
+    private static AddressControl address(String address, long messageCount, String... queueNames) {
+        return fake(AddressControl.class, "getAddress", address, "getMessageCount", messageCount, "getQueueNames", queueNames);
+    }
+
+    /**
+     * Creates a fake returning the given values by method name, or a default value otherwise.
+     */
+    private static <T> T fake(Class<T> type, Object... values) {
+        Map<String, Object> results = new HashMap<>();
+        for (int i = 0; i < values.length; i += 2) {
+            results.put((String) values[i], values[i + 1]);
+        }
+        return type.cast(Proxy.newProxyInstance(DestinationStatisticsTestCase.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (results.containsKey(method.getName())) {
+                return results.get(method.getName());
+            }
+            return defaultValue(proxy, method.getName(), method.getReturnType(), args);
+        }));
+    }
+
+    private static Object defaultValue(Object proxy, String methodName, Class<?> type, Object[] args) {
+        switch (methodName) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return proxy.getClass().getInterfaces()[0].getSimpleName();
+            default:
+                if (type == boolean.class) {
+                    return false;
+                }
+                if (type == int.class) {
+                    return 0;
+                }
+                if (type == long.class) {
+                    return 0L;
+                }
+                return null;
+        }
+    }
+}
@@ -0,0 +1,609 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms.bridge;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.Queue;
+import javax.jms.Topic;
+import javax.jms.XAConnection;
+import javax.jms.XAConnectionFactory;
+import javax.jms.XASession;
+import javax.transaction.Status;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.xa.XAResource;
+
+import org.apache.activemq.artemis.jms.bridge.QualityOfServiceMode;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link BatchingJMSBridge}, forwarding between in-memory fake brokers.
+ */
+public class BatchingJMSBridgeTestCase {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void destroy() throws InterruptedException {
+        this.executor.shutdownNow();
+        assertTrue(this.executor.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void batching() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        List<Message> messages = source.send(50);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.queue, QualityOfServiceMode.DUPLICATES_OK, 8, 1, 1000L, null);
+        bridge.start();
+        try {
+            target.await(50);
+        } finally {
+            bridge.stop();
+        }
+
+        // A single lane forwards messages in order
+        assertEquals(messages, target.getMessages());
+        assertEquals(50L, bridge.getMessageCount());
+        assertEquals(0L, bridge.getAbortedMessageCount());
+        int largest = 0;
+        for (int size : target.getCommittedBatchSizes()) {
+            assertTrue(size <= 8);
+            largest = Math.max(largest, size);
+        }
+        // Batches grow while commits are fast and the source fills them
+        assertTrue(largest > 1);
+        assertTrue(source.isClosed());
+        assertTrue(target.isClosed());
+    }
+
+    @Test
+    public void adaptation() {
+        long target = TimeUnit.MILLISECONDS.toNanos(10);
+
+        // Grow by an eighth, at least by one, bounded by max-batch-size
+        assertEquals(2, BatchingJMSBridge.nextBatchSize(1, 1, target / 2, target, 100));
+        assertEquals(18, BatchingJMSBridge.nextBatchSize(16, 16, target / 2, target, 100));
+        assertEquals(100, BatchingJMSBridge.nextBatchSize(96, 96, target / 2, target, 100));
+        // No growth if the source could not fill the batch
+        assertEquals(16, BatchingJMSBridge.nextBatchSize(16, 3, target / 2, target, 100));
+        // Halve once the target latency is exceeded
+        assertEquals(8, BatchingJMSBridge.nextBatchSize(16, 16, target * 2, target, 100));
+        assertEquals(1, BatchingJMSBridge.nextBatchSize(1, 1, target * 2, target, 100));
+
+        assertEquals(100L, BatchingJMSBridge.averageCommitLatency(0L, 100L));
+        assertEquals(120L, BatchingJMSBridge.averageCommitLatency(100L, 200L));
+    }
+
+    @Test
+    public void slowCommits() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        target.commitDelay = 5L;
+        source.send(20);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.queue, QualityOfServiceMode.DUPLICATES_OK, 8, 1, 1L, null);
+        bridge.start();
+        try {
+            target.await(20);
+            // Commits exceeding the target latency never let a batch grow
+            for (int size : target.getCommittedBatchSizes()) {
+                assertEquals(1, size);
+            }
+            assertEquals(1, bridge.getBatchSize());
+            assertTrue(bridge.getAverageCommitLatency() >= TimeUnit.MILLISECONDS.toMicros(target.commitDelay));
+        } finally {
+            bridge.stop();
+        }
+    }
+
+    @Test
+    public void duplicatesOk() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        FakeBroker.Events events = new FakeBroker.Events();
+        source.events = events;
+        target.events = events;
+        source.send(10);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.queue, QualityOfServiceMode.DUPLICATES_OK, 4, 1, 1000L, null);
+        bridge.start();
+        try {
+            target.await(10);
+        } finally {
+            bridge.stop();
+        }
+
+        // Target is committed before the source, so a failure in between duplicates rather than loses messages
+        List<String> commits = events.filter("commit");
+        assertFalse(commits.isEmpty());
+        for (int i = 0; i < commits.size(); i += 2) {
+            assertEquals("target.commit", commits.get(i));
+            assertEquals("source.commit", commits.get(i + 1));
+        }
+    }
+
+    @Test
+    public void atMostOnce() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        FakeBroker.Events events = new FakeBroker.Events();
+        source.events = events;
+        target.events = events;
+        source.send(10);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.queue, QualityOfServiceMode.AT_MOST_ONCE, 4, 1, 1000L, null);
+        bridge.start();
+        try {
+            target.await(10);
+        } finally {
+            bridge.stop();
+        }
+
+        // Source is acknowledged before any message of the batch is sent, so a failure loses rather than duplicates messages
+        List<String> sequence = events.filter("commit", "send");
+        assertEquals("source.commit", sequence.get(0));
+        boolean acknowledged = false;
+        for (String event : sequence) {
+            if (event.equals("source.commit")) {
+                acknowledged = true;
+            } else if (event.equals("target.send")) {
+                assertTrue(acknowledged);
+            } else {
+                assertEquals("target.commit", event);
+                acknowledged = false;
+            }
+        }
+    }
+
+    @Test
+    public void onceAndOnlyOnce() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        FakeBroker.Events events = new FakeBroker.Events();
+        source.events = events;
+        target.events = events;
+        FakeTransactionManager tm = new FakeTransactionManager(events);
+        source.send(10);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.queue, QualityOfServiceMode.ONCE_AND_ONLY_ONCE, 4, 1, 1000L, null);
+        bridge.setTransactionManager(tm.proxy);
+        bridge.start();
+        try {
+            target.await(10);
+        } finally {
+            bridge.stop();
+        }
+
+        // Both sessions commit through a single transaction enlisting both resources
+        assertTrue(events.filter("source.commit", "target.commit").isEmpty());
+        List<String> sequence = events.filter("tm.");
+        assertFalse(sequence.isEmpty());
+        for (int i = 0; i < sequence.size(); ) {
+            assertEquals("tm.begin", sequence.get(i++));
+            assertEquals("tm.enlist", sequence.get(i++));
+            assertEquals("tm.enlist", sequence.get(i++));
+            String completion = sequence.get(i++);
+            assertTrue(completion, completion.equals("tm.commit") || completion.equals("tm.rollback"));
+        }
+        assertEquals(10, target.getMessages().size());
+        assertEquals(0, source.getPending());
+    }
+
+    @Test
+    public void lanes() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        List<Message> messages = source.send(200);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.queue, QualityOfServiceMode.DUPLICATES_OK, 8, 3, 1000L, null);
+        bridge.start();
+        try {
+            target.await(200);
+            assertEquals(3, source.consumers.get());
+        } finally {
+            bridge.stop();
+        }
+
+        // Every message is forwarded exactly once
+        Set<Message> forwarded = Collections.newSetFromMap(new IdentityHashMap<>());
+        forwarded.addAll(target.getMessages());
+        assertEquals(200, target.getMessages().size());
+        assertEquals(new HashSet<>(messages), new HashSet<>(forwarded));
+    }
+
+    @Test
+    public void nonDurableTopicLanes() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        source.send(10);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.topic, QualityOfServiceMode.DUPLICATES_OK, 8, 3, 1000L, null);
+        bridge.start();
+        try {
+            target.await(10);
+            // Each lane would receive its own copy of a topic message
+            assertEquals(1, source.consumers.get());
+            assertEquals(0, source.sharedConsumers.get());
+        } finally {
+            bridge.stop();
+        }
+    }
+
+    @Test
+    public void durableTopicLanes() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+        source.send(10);
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.topic, QualityOfServiceMode.DUPLICATES_OK, 8, 3, 1000L, "subscription");
+        bridge.start();
+        try {
+            target.await(10);
+            // Lanes share the durable subscription
+            assertEquals(3, source.sharedConsumers.get());
+        } finally {
+            bridge.stop();
+        }
+    }
+
+    @Test
+    public void executor() throws Exception {
+        FakeBroker source = new FakeBroker("source");
+        FakeBroker target = new FakeBroker("target");
+
+        BatchingJMSBridge bridge = this.createBridge(source, target, source.queue, QualityOfServiceMode.DUPLICATES_OK, 8, 2, 1000L, null);
+        bridge.setExecutor(null);
+        try {
+            bridge.start();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertFalse(bridge.isStarted());
+        }
+
+        AtomicInteger executed = new AtomicInteger();
+        bridge.setExecutor(task -> {
+            executed.incrementAndGet();
+            this.executor.execute(task);
+        });
+        bridge.start();
+        assertTrue(bridge.isStarted());
+        bridge.stop();
+        assertFalse(bridge.isStarted());
+
+        // Lanes run as tasks of the managed executor
+        assertEquals(2, executed.get());
+        assertTrue(source.isClosed());
+    }
+
+    private BatchingJMSBridge createBridge(FakeBroker source, FakeBroker target, Destination sourceDestination, QualityOfServiceMode mode, int maxBatchSize, int lanes, long targetCommitLatency, String subscriptionName) {
+        BatchingJMSBridge bridge = new BatchingJMSBridge("bridge", () -> source.connectionFactory, () -> target.connectionFactory, () -> sourceDestination, () -> target.queue,
+                null, null, null, null, null, 1000L, -1, mode, maxBatchSize, -1L, subscriptionName, null, false, lanes, false, targetCommitLatency);
+        bridge.setExecutor(this.executor);
+        return bridge;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T fake(Handler handler, Class<?>... types) {
+        return (T) Proxy.newProxyInstance(BatchingJMSBridgeTestCase.class.getClassLoader(), types, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return types[0].getSimpleName() + "@" + System.identityHashCode(proxy);
+                default:
+                    Object result = handler.invoke(method.getName(), (args != null) ? args : new Object[0]);
+                    if (result == null && method.getReturnType().isPrimitive()) {
+                        if (method.getReturnType() == boolean.class) {
+                            return false;
+                        }
+                        if (method.getReturnType() == long.class) {
+                            return 0L;
+                        }
+                        if (method.getReturnType() == int.class) {
+                            return 0;
+                        }
+                    }
+                    return result;
+            }
+        });
+    }
+
+    interface Handler {
+        Object invoke(String method, Object[] args) throws Exception;
+    }
+
+    /**
+     * In-memory broker exposing a single queue and topic through local and XA connections.
+     */
+    static class FakeBroker {
+        final String name;
+        final Object connectionFactory;
+        final Queue queue = fake((method, args) -> null, Queue.class);
+        final Topic topic = fake((method, args) -> null, Topic.class);
+        final AtomicInteger consumers = new AtomicInteger();
+        final AtomicInteger sharedConsumers = new AtomicInteger();
+        private final BlockingDeque<Message> pending = new LinkedBlockingDeque<>();
+        private final List<Message> messages = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final AtomicInteger openConnections = new AtomicInteger();
+        volatile Events events = new Events();
+        volatile long commitDelay;
+
+        FakeBroker(String name) {
+            this.name = name;
+            this.connectionFactory = fake((method, args) -> {
+                switch (method) {
+                    case "createConnection":
+                    case "createXAConnection":
+                        return this.createConnection();
+                    default:
+                        return null;
+                }
+            }, javax.jms.ConnectionFactory.class, XAConnectionFactory.class);
+        }
+
+        List<Message> send(int count) {
+            List<Message> sent = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                String id = "ID:" + i;
+                Message message = fake((method, args) -> {
+                    switch (method) {
+                        case "getJMSMessageID":
+                            return id;
+                        case "getJMSDeliveryMode":
+                            return DeliveryMode.PERSISTENT;
+                        case "getJMSPriority":
+                            return 4;
+                        default:
+                            return null;
+                    }
+                }, Message.class);
+                sent.add(message);
+            }
+            this.pending.addAll(sent);
+            return sent;
+        }
+
+        synchronized List<Message> getMessages() {
+            return new ArrayList<>(this.messages);
+        }
+
+        synchronized List<Integer> getCommittedBatchSizes() {
+            return new ArrayList<>(this.batchSizes);
+        }
+
+        int getPending() {
+            return this.pending.size();
+        }
+
+        boolean isClosed() {
+            return this.openConnections.get() == 0;
+        }
+
+        synchronized void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+            while (this.messages.size() < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                assertTrue("Timed out waiting for " + count + " messages on " + this.name, remaining > 0);
+                this.wait(remaining);
+            }
+        }
+
+        private XAConnection createConnection() {
+            this.openConnections.incrementAndGet();
+            AtomicInteger closed = new AtomicInteger();
+            return fake((method, args) -> {
+                switch (method) {
+                    case "createSession":
+                    case "createXASession":
+                        return this.createSession();
+                    case "close":
+                        if (closed.compareAndSet(0, 1)) {
+                            this.openConnections.decrementAndGet();
+                        }
+                        return null;
+                    default:
+                        return null;
+                }
+            }, XAConnection.class);
+        }
+
+        private XASession createSession() {
+            List<Message> received = new ArrayList<>();
+            List<Message> sent = new ArrayList<>();
+            Runnable commit = () -> {
+                synchronized (this) {
+                    received.clear();
+                    if (!sent.isEmpty()) {
+                        this.messages.addAll(sent);
+                        this.batchSizes.add(sent.size());
+                        sent.clear();
+                        this.notifyAll();
+                    }
+                }
+            };
+            Runnable rollback = () -> {
+                synchronized (this) {
+                    for (int i = received.size() - 1; i >= 0; --i) {
+                        this.pending.addFirst(received.get(i));
+                    }
+                    received.clear();
+                    sent.clear();
+                }
+            };
+            XAResource resource = fake((method, args) -> {
+                switch (method) {
+                    case "commit":
+                        commit.run();
+                        return null;
+                    case "rollback":
+                        rollback.run();
+                        return null;
+                    default:
+                        return null;
+                }
+            }, XAResource.class);
+            Object consumer = fake((method, args) -> {
+                Message message;
+                switch (method) {
+                    case "receive":
+                        message = this.pending.poll((Long) args[0], TimeUnit.MILLISECONDS);
+                        break;
+                    case "receiveNoWait":
+                        message = this.pending.poll();
+                        break;
+                    default:
+                        return null;
+                }
+                if (message != null) {
+                    synchronized (this) {
+                        received.add(message);
+                    }
+                }
+                return message;
+            }, javax.jms.MessageConsumer.class);
+            Object producer = fake((method, args) -> {
+                if (method.equals("send")) {
+                    this.events.add(this.name + ".send");
+                    synchronized (this) {
+                        sent.add((Message) args[0]);
+                    }
+                }
+                return null;
+            }, javax.jms.MessageProducer.class);
+            return fake((method, args) -> {
+                switch (method) {
+                    case "createConsumer":
+                        this.consumers.incrementAndGet();
+                        return consumer;
+                    case "createSharedDurableConsumer":
+                        this.sharedConsumers.incrementAndGet();
+                        return consumer;
+                    case "createProducer":
+                        return producer;
+                    case "getXAResource":
+                        return resource;
+                    case "commit":
+                        Thread.sleep(this.commitDelay);
+                        this.events.add(this.name + ".commit");
+                        commit.run();
+                        return null;
+                    case "rollback":
+                        rollback.run();
+                        return null;
+                    default:
+                        return null;
+                }
+            }, XASession.class);
+        }
+
+        static class Events {
+            private final List<String> events = new ArrayList<>();
+
+            synchronized void add(String event) {
+                this.events.add(event);
+            }
+
+            synchronized List<String> filter(String... fragments) {
+                List<String> result = new ArrayList<>();
+                for (String event : this.events) {
+                    for (String fragment : fragments) {
+                        if (event.contains(fragment)) {
+                            result.add(event);
+                            break;
+                        }
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Transaction manager completing the enlisted resources of a single thread bound transaction.
+     */
+    static class FakeTransactionManager {
+        final TransactionManager proxy;
+        private final ThreadLocal<List<XAResource>> transaction = new ThreadLocal<>();
+
+        FakeTransactionManager(FakeBroker.Events events) {
+            Transaction tx = fake((method, args) -> {
+                if (method.equals("enlistResource")) {
+                    events.add("tm.enlist");
+                    this.transaction.get().add((XAResource) args[0]);
+                    return true;
+                }
+                return null;
+            }, Transaction.class);
+            this.proxy = fake((method, args) -> {
+                List<XAResource> resources = this.transaction.get();
+                switch (method) {
+                    case "begin":
+                        events.add("tm.begin");
+                        this.transaction.set(new ArrayList<>());
+                        return null;
+                    case "getTransaction":
+                        return (resources != null) ? tx : null;
+                    case "getStatus":
+                        return (resources != null) ? Status.STATUS_ACTIVE : Status.STATUS_NO_TRANSACTION;
+                    case "commit":
+                    case "rollback":
+                        events.add("tm." + method);
+                        this.transaction.remove();
+                        for (XAResource resource : resources) {
+                            if (method.equals("commit")) {
+                                resource.commit(null, false);
+                            } else {
+                                resource.rollback(null);
+                            }
+                        }
+                        return null;
+                    default:
+                        return null;
+                }
+            }, TransactionManager.class);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.messaging.activemq.jms.bridge;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ThroughputMeter}.
+ */
+public class ThroughputMeterTestCase {
+
+    @Test
+    public void test() {
+        AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(10));
+        ThroughputMeter meter = new ThroughputMeter(clock::get);
+
+        meter.record(10);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        meter.record(20);
+
+        // First window is not yet complete
+        assertEquals(0d, meter.getRate(), 0d);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+
+        // Reads have no side effects
+        assertEquals(30d, meter.getRate(), 0d);
+        assertEquals(30d, meter.getRate(), 0d);
+
+        meter.record(5);
+
+        // Rate of the completed window until the current one completes
+        assertEquals(30d, meter.getRate(), 0d);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+
+        assertEquals(5d, meter.getRate(), 0d);
+
+        // Idle for more than a window
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertEquals(0d, meter.getRate(), 0d);
+
+        meter.record(7);
+
+        // The window preceding the current one was empty
+        assertEquals(0d, meter.getRate(), 0d);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertEquals(7d, meter.getRate(), 0d);
+
+        meter.reset();
+
+        assertEquals(0d, meter.getRate(), 0d);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(0d, meter.getRate(), 0d);
+    }
+}
@@ -33,6 +33,7 @@ import java.beans.PropertyChangeListener;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.jboss.as.controller.ControlledProcessState;
@@ -49,11 +50,19 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 public class MetricCollector {
-    private final LocalModelControllerClient modelControllerClient;
+    private final ResourceSnapshotReader snapshotReader;
     private final ProcessStateNotifier processStateNotifier;
 
     public MetricCollector(LocalModelControllerClient modelControllerClient, ProcessStateNotifier processStateNotifier) {
-        this.modelControllerClient = modelControllerClient;
+        this(modelControllerClient, processStateNotifier, 0L);
+    }
+
+    /**
+     * @param snapshotTimeToLive the time, in milliseconds, during which the runtime attributes read from a resource are reused
+     *                           by its metrics (0 to only share them between the metrics read by the same scrape)
+     */
+    public MetricCollector(LocalModelControllerClient modelControllerClient, ProcessStateNotifier processStateNotifier, long snapshotTimeToLive) {
+        this.snapshotReader = new ResourceSnapshotReader(modelControllerClient, snapshotTimeToLive, TimeUnit.MILLISECONDS);
         this.processStateNotifier = processStateNotifier;
     }
 
@@ -104,6 +113,7 @@ public class MetricCollector {
         }
 
         ModelNode resourceDescription = null;
+        PathAddress resourceAddress = null;
         for (Map.Entry<String, AttributeAccess> entry : attributes.entrySet()) {
             String attributeName = entry.getKey();
 
@@ -116,12 +126,17 @@ public class MetricCollector {
                 DescriptionProvider modelDescription = managementResourceRegistration.getModelDescription(address);
                 resourceDescription = modelDescription.getModelDescription(Locale.getDefault());
             }
-            PathAddress resourceAddress = resourceAddressResolver.apply(address);
+            if (resourceAddress == null) {
+                resourceAddress = resourceAddressResolver.apply(address);
+                // all the metrics of this resource share the same snapshot
+                PathAddress snapshotAddress = resourceAddress;
+                registration.addUnregistrationTask(() -> snapshotReader.remove(snapshotAddress));
+            }
             MeasurementUnit unit = attributeAccess.getAttributeDefinition().getMeasurementUnit();
             boolean isCounter = attributeAccess.getFlags().contains(AttributeAccess.Flag.COUNTER_METRIC);
             String attributeDescription = resourceDescription.get(ATTRIBUTES, attributeName, DESCRIPTION).asStringOrNull();
 
-            WildFlyMetric metric = new WildFlyMetric(modelControllerClient, resourceAddress, attributeName);
+            WildFlyMetric metric = new WildFlyMetric(snapshotReader, resourceAddress, attributeName);
             WildFlyMetricMetadata metadata = new WildFlyMetricMetadata(attributeName, resourceAddress, prefix, attributeDescription, unit, isCounter ? COUNTER : GAUGE);
 
             registration.addRegistrationTask(() -> registration.registerMetric(metric, metadata));
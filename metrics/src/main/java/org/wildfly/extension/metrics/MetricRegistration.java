@@ -27,7 +27,7 @@ import java.util.List;
 public class MetricRegistration {
 
     private final List<Runnable> registrationTasks = new ArrayList<>();
-    private final List<MetricID> unregistrationTasks = new ArrayList<>();
+    private final List<Runnable> unregistrationTasks = new ArrayList<>();
     private final MetricRegistry registry;
 
     public MetricRegistration(MetricRegistry registry) {
@@ -47,8 +47,8 @@ public class MetricRegistration {
 
     public void unregister() {
         synchronized (registry) {
-            for (MetricID id : unregistrationTasks) {
-                registry.unregister(id);
+            for (Runnable task : unregistrationTasks) {
+                task.run();
             }
             unregistrationTasks.clear();
         }
@@ -63,6 +63,10 @@ public class MetricRegistration {
     }
 
     public void addUnregistrationTask(MetricID metricID) {
-        unregistrationTasks.add(metricID);
+        unregistrationTasks.add(() -> registry.unregister(metricID));
+    }
+
+    public void addUnregistrationTask(Runnable task) {
+        unregistrationTasks.add(task);
     }
 }
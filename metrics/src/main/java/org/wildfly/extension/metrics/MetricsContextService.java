@@ -27,11 +27,16 @@ import static org.wildfly.extension.metrics.MetricsSubsystemDefinition.METRICS_H
 import static org.wildfly.extension.metrics.MetricsSubsystemDefinition.METRICS_HTTP_SECURITY_CAPABILITY;
 import static org.wildfly.extension.metrics.MetricsSubsystemDefinition.METRICS_REGISTRY_RUNTIME_CAPABILITY;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.server.mgmt.domain.ExtensibleHttpManagement;
 import org.jboss.msc.Service;
@@ -46,6 +51,8 @@ import org.jboss.msc.service.StopContext;
 public class MetricsContextService implements Service {
 
     private static final String CONTEXT_NAME = "/metrics";
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
 
     private final Consumer<MetricsContextService> consumer;
     private final Supplier<ExtensibleHttpManagement> extensibleHttpManagement;
@@ -85,6 +92,7 @@ public class MetricsContextService implements Service {
 
     @Override
     public void start(StartContext context) {
+        wildflyMetricRegistry.get().addUnregistrationListener(prometheusExporter);
         extensibleHttpManagement.get().addManagementHandler(CONTEXT_NAME, securityEnabledSupplier.get(), new HttpHandler() {
             @Override
             public void handleRequest(HttpServerExchange exchange) throws Exception {
@@ -93,8 +101,23 @@ public class MetricsContextService implements Service {
                     return;
                 }
 
-                String wildFlyMetrics = prometheusExporter.export(wildflyMetricRegistry.get());
-                exchange.getResponseSender().send(wildFlyMetrics);
+                // reading the metrics and streaming them to the response blocks
+                if (exchange.isInIoThread()) {
+                    exchange.dispatch(this);
+                    return;
+                }
+
+                PrometheusExporter.Format format = PrometheusExporter.Format.select(exchange.getRequestHeaders().get(Headers.ACCEPT));
+                boolean gzip = acceptsGzip(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING));
+                exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, format.getContentType());
+                exchange.getResponseHeaders().put(Headers.VARY, Headers.ACCEPT_STRING + ", " + Headers.ACCEPT_ENCODING_STRING);
+                if (gzip) {
+                    exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, GZIP);
+                }
+                exchange.startBlocking();
+                try (OutputStream output = gzip ? new BufferedOutputStream(new GZIPOutputStream(exchange.getOutputStream(), BUFFER_SIZE), BUFFER_SIZE) : exchange.getOutputStream()) {
+                    prometheusExporter.export(wildflyMetricRegistry.get(), format, output);
+                }
             }
         });
         consumer.accept(this);
@@ -103,9 +126,25 @@ public class MetricsContextService implements Service {
     @Override
     public void stop(StopContext context) {
         extensibleHttpManagement.get().removeContext(CONTEXT_NAME);
+        wildflyMetricRegistry.get().removeUnregistrationListener(prometheusExporter);
         consumer.accept(null);
     }
 
+    private static boolean acceptsGzip(HeaderValues acceptEncodings) {
+        if (acceptEncodings != null) {
+            for (String acceptEncoding : acceptEncodings) {
+                for (String coding : acceptEncoding.split(",")) {
+                    String[] parameters = coding.split(";");
+                    if (parameters[0].trim().equalsIgnoreCase(GZIP)) {
+                        // gzip;q=0 means that the client does not accept gzip
+                        return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     public void setOverrideableMetricHandler(HttpHandler handler) {
         this.overrideableMetricHandler = handler;
     }
@@ -32,6 +32,8 @@ import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceName;
@@ -79,7 +81,16 @@ public class MetricsSubsystemDefinition extends PersistentResourceDefinition {
             .setAllowExpression(true)
             .build();
 
-    static final AttributeDefinition[] ATTRIBUTES = { SECURITY_ENABLED, EXPOSED_SUBSYSTEMS, PREFIX };
+    static final AttributeDefinition SNAPSHOT_TTL = SimpleAttributeDefinitionBuilder.create("snapshot-ttl", ModelType.LONG)
+            .setDefaultValue(new ModelNode(0L))
+            .setRequired(false)
+            .setRestartAllServices()
+            .setAllowExpression(true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setValidator(new LongRangeValidator(0L, Long.MAX_VALUE, true, true))
+            .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = { SECURITY_ENABLED, EXPOSED_SUBSYSTEMS, PREFIX, SNAPSHOT_TTL };
 
     protected MetricsSubsystemDefinition() {
         super(new SimpleResourceDefinition.Parameters(MetricsExtension.SUBSYSTEM_PATH,
@@ -21,50 +21,161 @@
  */
 package org.wildfly.extension.metrics;
 
-import java.util.HashSet;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.OptionalDouble;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.wildfly.extension.metrics.MetricMetadata.MetricTag;
 
-public class PrometheusExporter {
+/**
+ * Exports the metrics of a {@link WildFlyMetricRegistry} using the Prometheus text format or the OpenMetrics format.
+ *
+ * The metrics are streamed to the output as they are read. The HELP/TYPE header of each metric family and the name and tags
+ * of each metric are rendered once and cached, so that a scrape only has to render the metric values. The cached renderings
+ * of a metric are discarded once it is unregistered from a registry this exporter listens to.
+ */
+public class PrometheusExporter implements WildFlyMetricRegistry.UnregistrationListener {
 
     private static final String LF = "\n";
+    private static final byte[] OPEN_METRICS_EOF = "# EOF\n".getBytes(UTF_8);
+
+    public enum Format {
+        PROMETHEUS_TEXT("text/plain; version=0.0.4; charset=utf-8"),
+        OPEN_METRICS("application/openmetrics-text; version=1.0.0; charset=utf-8"),
+        ;
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return this.contentType;
+        }
+
+        /**
+         * Selects the format to use for the given values of the Accept header.
+         * OpenMetrics is only used if explicitly requested by the client.
+         */
+        public static Format select(Iterable<String> acceptHeaders) {
+            if (acceptHeaders != null) {
+                for (String accept : acceptHeaders) {
+                    if (accept.contains("application/openmetrics-text")) {
+                        return OPEN_METRICS;
+                    }
+                }
+            }
+            return PROMETHEUS_TEXT;
+        }
+    }
+
+    // Rendered HELP/TYPE lines, keyed by metric name
+    private final Map<Format, Map<String, byte[]>> headers = new EnumMap<>(Format.class);
+    // Rendered metric name and tags (followed by a space), keyed by metric ID
+    private final Map<Format, Map<MetricID, byte[]>> samplePrefixes = new EnumMap<>(Format.class);
+
+    public PrometheusExporter() {
+        for (Format format : Format.values()) {
+            this.headers.put(format, new ConcurrentHashMap<>());
+            this.samplePrefixes.put(format, new ConcurrentHashMap<>());
+        }
+    }
 
     public String export(WildFlyMetricRegistry registry) {
-        Set<String> alreadyExportedMetrics = new HashSet<String>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            export(registry, Format.PROMETHEUS_TEXT, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(out.toByteArray(), UTF_8);
+    }
 
-        StringBuilder out = new StringBuilder();
+    public void export(WildFlyMetricRegistry registry, Format format, OutputStream out) throws IOException {
+        Map<String, byte[]> headers = this.headers.get(format);
+        Map<MetricID, byte[]> samplePrefixes = this.samplePrefixes.get(format);
+        // copies, so that metrics can be (un)registered while they are written to a slow client
+        Map<MetricID, Metric> metrics = registry.getMetrics();
+        Map<String, MetricMetadata> metadataMap = registry.getMetricMetadata();
+        // metrics are sorted by their IDs so all the metrics with the same name are exported together
+        String lastExportedMetric = null;
 
-        for (Map.Entry<MetricID, Metric> entry : registry.getMetrics().entrySet()) {
+        for (Map.Entry<MetricID, Metric> entry : metrics.entrySet()) {
             MetricID metricID = entry.getKey();
             String metricName = metricID.getMetricName();
-            MetricMetadata metadata = registry.getMetricMetadata().get(metricName);
-            String prometheusMetricName = toPrometheusMetricName(metricID, metadata);
             OptionalDouble metricValue = entry.getValue().getValue();
             // if the metric does not return a value, we skip printing the HELP and TYPE
             if (!metricValue.isPresent()) {
                 continue;
             }
-            if (!alreadyExportedMetrics.contains(metricName)) {
-                out.append("# HELP " + prometheusMetricName + " " + metadata.getDescription());
-                out.append(LF);
-                out.append("# TYPE " + prometheusMetricName + " " + metadata.getType());
-                out.append(LF);
-                alreadyExportedMetrics.add(metricName);
+            MetricMetadata metadata = metadataMap.get(metricName);
+            if (metadata == null) {
+                // unregistered since the metrics were copied
+                continue;
+            }
+            if (!metricName.equals(lastExportedMetric)) {
+                out.write(headers.computeIfAbsent(metricName, name -> renderHeader(format, metricID, metadata)));
+                lastExportedMetric = metricName;
             }
+            out.write(samplePrefixes.computeIfAbsent(metricID, id -> renderSamplePrefix(format, id, metadata)));
             double scaledValue = scaleToBaseUnit(metricValue.getAsDouble(), metadata.getMeasurementUnit());
+            writeAscii(out, Double.toString(scaledValue));
+            out.write('\n');
+        }
+        if (format == Format.OPEN_METRICS) {
+            out.write(OPEN_METRICS_EOF);
+        }
+    }
+
+    @Override
+    public void unregistered(MetricID metricID, boolean lastOfName) {
+        for (Map<MetricID, byte[]> samplePrefixes : this.samplePrefixes.values()) {
+            samplePrefixes.remove(metricID);
+        }
+        if (lastOfName) {
+            // the metric name may be registered again with different metadata
+            for (Map<String, byte[]> headers : this.headers.values()) {
+                headers.remove(metricID.getMetricName());
+            }
+        }
+    }
+
+    private static void writeAscii(OutputStream out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            out.write(value.charAt(i));
+        }
+    }
+
+    private static byte[] renderHeader(Format format, MetricID metricID, MetricMetadata metadata) {
+        String familyName = (format == Format.OPEN_METRICS) ? toOpenMetricsFamilyName(metricID, metadata) : toPrometheusMetricName(metricID, metadata);
+        String header = "# HELP " + familyName + " " + metadata.getDescription() + LF
+                + "# TYPE " + familyName + " " + metadata.getType() + LF;
+        return header.getBytes(UTF_8);
+    }
+
+    private static byte[] renderSamplePrefix(Format format, MetricID metricID, MetricMetadata metadata) {
+        String sampleName;
+        if (format == Format.OPEN_METRICS) {
+            sampleName = toOpenMetricsFamilyName(metricID, metadata);
+            if (metadata.getType() == MetricMetadata.Type.COUNTER) {
+                sampleName += "_total";
+            }
+        } else {
+            sampleName = toPrometheusMetricName(metricID, metadata);
             // I'm pretty sure this is incorrect but that aligns with smallrye-metrics OpenMetricsExporter behaviour
             if (metadata.getType() == MetricMetadata.Type.COUNTER && metadata.getMeasurementUnit() != MeasurementUnit.NONE) {
-                prometheusMetricName += "_" + metadata.getBaseMetricUnit();
+                sampleName += "_" + metadata.getBaseMetricUnit();
             }
-            out.append(prometheusMetricName + getTagsAsAString(metricID) + " " + scaledValue);
-            out.append(LF);
         }
-
-        return out.toString();
+        return (sampleName + getTagsAsAString(metricID) + " ").getBytes(UTF_8);
     }
 
     private static double scaleToBaseUnit(double value, MeasurementUnit unit) {
@@ -86,6 +197,16 @@ public class PrometheusExporter {
         return prometheusName;
     }
 
+    // OpenMetrics requires the unit to be a suffix of the family name and counter samples to end with _total
+    private static String toOpenMetricsFamilyName(MetricID metricID, MetricMetadata metadata) {
+        String familyName = metricID.getMetricName();
+        String baseUnit = metadata.getBaseMetricUnit();
+        if (!baseUnit.equals("none")) {
+            familyName += "_" + baseUnit;
+        }
+        return familyName;
+    }
+
     public static String getTagsAsAString(MetricID metricID) {
         MetricTag[] tags = metricID.getTags();
         if (tags.length == 0) {
@@ -97,8 +218,29 @@ public class PrometheusExporter {
                 out.append(",");
             }
             MetricTag tag = tags[i];
-            out.append(tag.getKey() + "=\"" + tag.getValue() + "\"");
+            out.append(tag.getKey()).append("=\"");
+            appendEscaped(out, tag.getValue());
+            out.append("\"");
         }
         return out.append("}").toString();
     }
-}
\ No newline at end of file
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+}
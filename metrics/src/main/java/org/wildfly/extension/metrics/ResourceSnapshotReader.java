@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES_ONLY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_UNDEFINED_METRIC_VALUES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.wildfly.extension.metrics._private.MetricsLogger.LOGGER;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads all the runtime attributes of a resource with a single {@code read-resource} operation and shares
+ * the resulting snapshot between the metrics of that resource.
+ *
+ * If no time-to-live is configured, a snapshot is only shared by the metrics of a single scrape: it is reused until one of
+ * its attributes is read a second time (i.e. by the next scrape) or until it is older than {@link #MAX_SCRAPE_DURATION},
+ * and while it is still being read by a concurrent scrape.
+ * Otherwise, a snapshot is reused by every scrape until it expires.
+ *
+ * Snapshots of resources that could not be read are never reused.
+ */
+class ResourceSnapshotReader {
+
+    /**
+     * The maximum time a snapshot is shared by the metrics of a single scrape if no time-to-live is configured.
+     */
+    static final long MAX_SCRAPE_DURATION = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ModelNode UNDEFINED = new ModelNode();
+
+    static {
+        // shared by all the reads that return no value
+        UNDEFINED.protect();
+    }
+
+    private final LocalModelControllerClient modelControllerClient;
+    private final long timeToLive;
+    private final LongSupplier nanoTime;
+    private final Map<PathAddress, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    ResourceSnapshotReader(LocalModelControllerClient modelControllerClient, long timeToLive, TimeUnit unit) {
+        this(modelControllerClient, timeToLive, unit, System::nanoTime);
+    }
+
+    ResourceSnapshotReader(LocalModelControllerClient modelControllerClient, long timeToLive, TimeUnit unit, LongSupplier nanoTime) {
+        this.modelControllerClient = modelControllerClient;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the value of the given attribute from the current snapshot of the resource at the given address,
+     * reading a new snapshot if the current one can not be reused.
+     * @param address the address of the resource
+     * @param attributeName the name of a runtime attribute
+     * @return the value of the attribute or an undefined node if it could not be read
+     */
+    ModelNode readAttribute(PathAddress address, String attributeName) {
+        long now = this.nanoTime.getAsLong();
+        Snapshot[] created = new Snapshot[1];
+        Snapshot snapshot = this.snapshots.compute(address, (key, current) -> {
+            if (current != null && current.reuse(attributeName, now, this.timeToLive)) {
+                return current;
+            }
+            Snapshot replacement = new Snapshot(attributeName, now);
+            created[0] = replacement;
+            return replacement;
+        });
+        if (snapshot == created[0]) {
+            // Perform the read-resource operation outside of the map lock
+            ModelNode resource = UNDEFINED;
+            try {
+                resource = this.readResource(address);
+            } finally {
+                if (!resource.isDefined()) {
+                    // Do not let later reads reuse a failed read
+                    this.snapshots.remove(address, snapshot);
+                }
+                // Never leave concurrent readers waiting on a failed read
+                snapshot.complete(resource);
+            }
+        }
+        ModelNode resource = snapshot.join();
+        return resource.hasDefined(attributeName) ? resource.get(attributeName) : UNDEFINED;
+    }
+
+    /**
+     * Discards the snapshot of the resource at the given address, if any.
+     * @param address the address of a resource
+     */
+    void remove(PathAddress address) {
+        this.snapshots.remove(address);
+    }
+
+    private ModelNode readResource(PathAddress address) {
+        final ModelNode readResourceOp = new ModelNode();
+        readResourceOp.get(OP).set(READ_RESOURCE_OPERATION);
+        readResourceOp.get(OP_ADDR).set(address.toModelNode());
+        readResourceOp.get(INCLUDE_RUNTIME).set(true);
+        readResourceOp.get(INCLUDE_UNDEFINED_METRIC_VALUES).set(false);
+        readResourceOp.get(ATTRIBUTES_ONLY).set(true);
+        readResourceOp.get(RECURSIVE).set(false);
+        try {
+            ModelNode response = this.modelControllerClient.execute(readResourceOp);
+            if (response.hasDefined(FAILURE_DESCRIPTION)) {
+                String error = response.get(FAILURE_DESCRIPTION).toString();
+                // [WFLY-11933] if the value can not be read if the management resource is not accessible due to RBAC,
+                // it is logged it at a lower level.
+                if (error.contains("WFLYCTL0216")) {
+                    LOGGER.debugf("Unable to read resource %s: %s.", address, error);
+                } else {
+                    LOGGER.unableToReadResource(address, error);
+                }
+                return UNDEFINED;
+            }
+            return response.get(RESULT);
+        } catch (RuntimeException e) {
+            LOGGER.unableToReadResource(address, e.getLocalizedMessage());
+            return UNDEFINED;
+        }
+    }
+
+    private static class Snapshot {
+        private final long timestamp;
+        // Only accessed while holding the lock of the snapshot map entry
+        private final Set<String> readAttributes = new HashSet<>();
+        private final CompletableFuture<ModelNode> resource = new CompletableFuture<>();
+
+        Snapshot(String attributeName, long timestamp) {
+            this.timestamp = timestamp;
+            this.readAttributes.add(attributeName);
+        }
+
+        boolean reuse(String attributeName, long now, long timeToLive) {
+            long age = now - this.timestamp;
+            if (timeToLive > 0) {
+                return age < timeToLive;
+            }
+            if (!this.resource.isDone()) {
+                return true;
+            }
+            return age < MAX_SCRAPE_DURATION && this.readAttributes.add(attributeName);
+        }
+
+        void complete(ModelNode resource) {
+            this.resource.complete(resource);
+        }
+
+        ModelNode join() {
+            return this.resource.join();
+        }
+    }
+}
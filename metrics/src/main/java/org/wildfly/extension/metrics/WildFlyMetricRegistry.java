@@ -25,28 +25,49 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.Closeable;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 public class WildFlyMetricRegistry implements Closeable, MetricRegistry {
 
     /* Key is the metric name */
     private Map<String, MetricMetadata> metadataMap = new HashMap();
-    private Map<MetricID, Metric> metricMap = new TreeMap<>();
+    private NavigableMap<MetricID, Metric> metricMap = new TreeMap<>();
+    private final List<UnregistrationListener> unregistrationListeners = new CopyOnWriteArrayList<>();
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        for (MetricID metricID : metricMap.keySet()) {
+            notifyUnregistered(metricID, true);
+        }
         metricMap.clear();
         metadataMap.clear();
     }
 
-    Map<MetricID, Metric> getMetrics() {
-        return metricMap;
+    /**
+     * Returns a copy of the registered metrics, sorted by their IDs, which can be iterated while metrics are (un)registered.
+     */
+    synchronized Map<MetricID, Metric> getMetrics() {
+        return new TreeMap<>(metricMap);
+    }
+
+    /**
+     * Returns a copy of the metadata of the registered metrics, keyed by metric name.
+     */
+    synchronized Map<String, MetricMetadata> getMetricMetadata() {
+        return new HashMap<>(metadataMap);
     }
 
-    Map<String, MetricMetadata> getMetricMetadata() {
-        return metadataMap;
+    void addUnregistrationListener(UnregistrationListener listener) {
+        unregistrationListeners.add(listener);
+    }
+
+    void removeUnregistrationListener(UnregistrationListener listener) {
+        unregistrationListeners.remove(listener);
     }
 
     @Override
@@ -62,7 +83,35 @@ public class WildFlyMetricRegistry implements Closeable, MetricRegistry {
     }
 
     @Override
-    public void unregister(MetricID metricID) {
-        metricMap.remove(metricID);
+    public synchronized void unregister(MetricID metricID) {
+        if (metricMap.remove(metricID) == null) {
+            return;
+        }
+        // metrics are sorted by name first, so any other metric with the same name is adjacent
+        String metricName = metricID.getMetricName();
+        MetricID lower = metricMap.lowerKey(metricID);
+        MetricID higher = metricMap.higherKey(metricID);
+        boolean lastOfName = (lower == null || !lower.getMetricName().equals(metricName)) && (higher == null || !higher.getMetricName().equals(metricName));
+        if (lastOfName) {
+            metadataMap.remove(metricName);
+        }
+        notifyUnregistered(metricID, lastOfName);
+    }
+
+    private void notifyUnregistered(MetricID metricID, boolean lastOfName) {
+        for (UnregistrationListener listener : unregistrationListeners) {
+            listener.unregistered(metricID, lastOfName);
+        }
+    }
+
+    /**
+     * Listener notified of the metrics removed from the registry, e.g. to discard what was cached for them.
+     */
+    interface UnregistrationListener {
+        /**
+         * @param metricID the ID of the unregistered metric
+         * @param lastOfName true if no other metric with the same name remains registered
+         */
+        void unregistered(MetricID metricID, boolean lastOfName);
     }
-}
\ No newline at end of file
+}
@@ -63,4 +63,8 @@ public interface MetricsLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 4, value = "Unable to convert attribute %s on %s to Double value.")
     void unableToConvertAttribute(String attributeName, PathAddress address, @Cause Exception exception);
-}
\ No newline at end of file
+
+    @LogMessage(level = WARN)
+    @Message(id = 5, value = "Unable to read the runtime attributes of %s: %s.")
+    void unableToReadResource(PathAddress address, String error);
+}
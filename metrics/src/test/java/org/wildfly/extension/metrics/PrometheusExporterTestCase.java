@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.wildfly.extension.metrics.MetricMetadata.Type.COUNTER;
+import static org.wildfly.extension.metrics.MetricMetadata.Type.GAUGE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.OptionalDouble;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrometheusExporterTestCase {
+
+    private final PrometheusExporter exporter = new PrometheusExporter();
+    private WildFlyMetricRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new WildFlyMetricRegistry();
+        registry.addUnregistrationListener(exporter);
+        PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "undertow"), PathElement.pathElement("server", "default-server"));
+        registry.registerMetric(() -> OptionalDouble.of(5), new WildFlyMetricMetadata("request-count", address, "wildfly", "Requests", MeasurementUnit.NONE, COUNTER));
+        registry.registerMetric(() -> OptionalDouble.of(10), new WildFlyMetricMetadata("bytes-sent", address, "wildfly", "Bytes sent", MeasurementUnit.BYTES, GAUGE));
+        registry.registerMetric(OptionalDouble::empty, new WildFlyMetricMetadata("error-count", address, "wildfly", "Errors", MeasurementUnit.NONE, COUNTER));
+    }
+
+    @Test
+    public void testPrometheusTextFormat() throws IOException {
+        String expected = "# HELP wildfly_undertow_bytes_sent_bytes Bytes sent\n" +
+                "# TYPE wildfly_undertow_bytes_sent_bytes gauge\n" +
+                "wildfly_undertow_bytes_sent_bytes{server=\"default-server\"} 10.0\n" +
+                "# HELP wildfly_undertow_request_count_total Requests\n" +
+                "# TYPE wildfly_undertow_request_count_total counter\n" +
+                "wildfly_undertow_request_count_total{server=\"default-server\"} 5.0\n";
+
+        assertEquals(expected, export(PrometheusExporter.Format.PROMETHEUS_TEXT));
+        // rendered names and tags are cached between scrapes
+        assertEquals(expected, export(PrometheusExporter.Format.PROMETHEUS_TEXT));
+        assertEquals(expected, exporter.export(registry));
+    }
+
+    @Test
+    public void testOpenMetricsFormat() throws IOException {
+        String expected = "# HELP wildfly_undertow_bytes_sent_bytes Bytes sent\n" +
+                "# TYPE wildfly_undertow_bytes_sent_bytes gauge\n" +
+                "wildfly_undertow_bytes_sent_bytes{server=\"default-server\"} 10.0\n" +
+                "# HELP wildfly_undertow_request_count Requests\n" +
+                "# TYPE wildfly_undertow_request_count counter\n" +
+                "wildfly_undertow_request_count_total{server=\"default-server\"} 5.0\n" +
+                "# EOF\n";
+
+        assertEquals(expected, export(PrometheusExporter.Format.OPEN_METRICS));
+    }
+
+    @Test
+    public void testUnregisteredMetricIsNotExported() throws IOException {
+        export(PrometheusExporter.Format.PROMETHEUS_TEXT);
+        PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "undertow"), PathElement.pathElement("server", "default-server"));
+        registry.unregister(new WildFlyMetricMetadata("request-count", address, "wildfly", "Requests", MeasurementUnit.NONE, COUNTER).getMetricID());
+
+        String expected = "# HELP wildfly_undertow_bytes_sent_bytes Bytes sent\n" +
+                "# TYPE wildfly_undertow_bytes_sent_bytes gauge\n" +
+                "wildfly_undertow_bytes_sent_bytes{server=\"default-server\"} 10.0\n";
+        assertEquals(expected, export(PrometheusExporter.Format.PROMETHEUS_TEXT));
+    }
+
+    @Test
+    public void testReregisteredMetricIsRenderedAgain() throws IOException {
+        export(PrometheusExporter.Format.PROMETHEUS_TEXT);
+        PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "undertow"), PathElement.pathElement("server", "default-server"));
+        WildFlyMetricMetadata metadata = new WildFlyMetricMetadata("bytes-sent", address, "wildfly", "Bytes sent", MeasurementUnit.BYTES, GAUGE);
+        registry.unregister(metadata.getMetricID());
+        // the metric is registered again with a different description and unit
+        registry.registerMetric(() -> OptionalDouble.of(20), new WildFlyMetricMetadata("bytes-sent", address, "wildfly", "Bytes sent to clients", MeasurementUnit.NONE, COUNTER));
+
+        String expected = "# HELP wildfly_undertow_bytes_sent_total Bytes sent to clients\n" +
+                "# TYPE wildfly_undertow_bytes_sent_total counter\n" +
+                "wildfly_undertow_bytes_sent_total{server=\"default-server\"} 20.0\n" +
+                "# HELP wildfly_undertow_request_count_total Requests\n" +
+                "# TYPE wildfly_undertow_request_count_total counter\n" +
+                "wildfly_undertow_request_count_total{server=\"default-server\"} 5.0\n";
+        assertEquals(expected, export(PrometheusExporter.Format.PROMETHEUS_TEXT));
+    }
+
+    @Test
+    public void testUnregisterWhileExporting() throws IOException {
+        PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "undertow"), PathElement.pathElement("server", "default-server"));
+        MetricID requestCount = new WildFlyMetricMetadata("request-count", address, "wildfly", "Requests", MeasurementUnit.NONE, COUNTER).getMetricID();
+        // a client reading the response slowly, while the metrics of a deployment are unregistered
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(int b) {
+                registry.unregister(requestCount);
+                super.write(b);
+            }
+        };
+        exporter.export(registry, PrometheusExporter.Format.PROMETHEUS_TEXT, out);
+        assertTrue(out.toString().contains("wildfly_undertow_request_count_total{server=\"default-server\"} 5.0\n"));
+    }
+
+    @Test
+    public void testFormatSelection() {
+        assertEquals(PrometheusExporter.Format.PROMETHEUS_TEXT, PrometheusExporter.Format.select(null));
+        assertEquals(PrometheusExporter.Format.PROMETHEUS_TEXT, PrometheusExporter.Format.select(Collections.singletonList("text/plain")));
+        assertEquals(PrometheusExporter.Format.OPEN_METRICS, PrometheusExporter.Format.select(Arrays.asList("text/plain;q=0.5", "application/openmetrics-text; version=1.0.0")));
+    }
+
+    @Test
+    public void testTagValuesAreEscaped() {
+        MetricID metricID = new MetricID("metric", new MetricMetadata.MetricTag[] { new MetricMetadata.MetricTag("path", "C:\\dir \"a\"") });
+        assertEquals("{path=\"C:\\\\dir \\\"a\\\"\"}", PrometheusExporter.getTagsAsAString(metricID));
+    }
+
+    private String export(PrometheusExporter.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(registry, format, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class ResourceSnapshotReaderTestCase {
+
+    private static final PathAddress ADDRESS = PathAddress.pathAddress(PathElement.pathElement("subsystem", "undertow"));
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private LocalModelControllerClient client(Supplier<ModelNode> response) {
+        return (LocalModelControllerClient) Proxy.newProxyInstance(LocalModelControllerClient.class.getClassLoader(),
+                new Class<?>[] { LocalModelControllerClient.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("execute") && args.length > 0 && args[0] instanceof ModelNode) {
+                        this.reads.incrementAndGet();
+                        return response.get();
+                    }
+                    return null;
+                });
+    }
+
+    private Supplier<ModelNode> success() {
+        return () -> {
+            ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            response.get(RESULT, "request-count").set(this.reads.get());
+            response.get(RESULT, "bytes-sent").set(this.reads.get() * 10);
+            return response;
+        };
+    }
+
+    private ResourceSnapshotReader reader(Supplier<ModelNode> response, long timeToLive) {
+        return new ResourceSnapshotReader(this.client(response), timeToLive, TimeUnit.MILLISECONDS, this.nanoTime::get);
+    }
+
+    @Test
+    public void testSnapshotSharedWithinScrape() {
+        ResourceSnapshotReader reader = this.reader(this.success(), 0);
+
+        assertEquals(1, reader.readAttribute(ADDRESS, "request-count").asInt());
+        assertEquals(10, reader.readAttribute(ADDRESS, "bytes-sent").asInt());
+        assertEquals(1, this.reads.get());
+    }
+
+    @Test
+    public void testSnapshotNotReusedByNextScrape() {
+        ResourceSnapshotReader reader = this.reader(this.success(), 0);
+
+        reader.readAttribute(ADDRESS, "request-count");
+        // The next scrape reads the same attribute again
+        assertEquals(2, reader.readAttribute(ADDRESS, "request-count").asInt());
+        assertEquals(2, this.reads.get());
+    }
+
+    @Test
+    public void testSnapshotExpiresWithoutTimeToLive() {
+        ResourceSnapshotReader reader = this.reader(this.success(), 0);
+
+        reader.readAttribute(ADDRESS, "request-count");
+        this.nanoTime.addAndGet(ResourceSnapshotReader.MAX_SCRAPE_DURATION);
+        // A later scrape reading a different attribute first must not get the old snapshot
+        assertEquals(20, reader.readAttribute(ADDRESS, "bytes-sent").asInt());
+        assertEquals(2, this.reads.get());
+    }
+
+    @Test
+    public void testSnapshotReusedUntilTimeToLiveExpires() {
+        ResourceSnapshotReader reader = this.reader(this.success(), 100);
+
+        reader.readAttribute(ADDRESS, "request-count");
+        this.nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(99));
+        assertEquals(1, reader.readAttribute(ADDRESS, "request-count").asInt());
+        assertEquals(1, this.reads.get());
+
+        this.nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(2, reader.readAttribute(ADDRESS, "request-count").asInt());
+        assertEquals(2, this.reads.get());
+    }
+
+    @Test
+    public void testRemove() {
+        ResourceSnapshotReader reader = this.reader(this.success(), 100);
+
+        reader.readAttribute(ADDRESS, "request-count");
+        reader.remove(ADDRESS);
+        assertEquals(2, reader.readAttribute(ADDRESS, "request-count").asInt());
+    }
+
+    @Test
+    public void testFailedReadIsNotReused() {
+        ResourceSnapshotReader reader = this.reader(() -> {
+            ModelNode response = new ModelNode();
+            response.get(OUTCOME).set("failed");
+            response.get(FAILURE_DESCRIPTION).set("WFLYCTL0216: Management resource not found");
+            return response;
+        }, 100);
+
+        assertFalse(reader.readAttribute(ADDRESS, "request-count").isDefined());
+        assertFalse(reader.readAttribute(ADDRESS, "bytes-sent").isDefined());
+        assertEquals(2, this.reads.get());
+    }
+
+    @Test
+    public void testReadException() {
+        ResourceSnapshotReader reader = this.reader(() -> {
+            throw new IllegalStateException();
+        }, 100);
+
+        assertFalse(reader.readAttribute(ADDRESS, "request-count").isDefined());
+        assertFalse(reader.readAttribute(ADDRESS, "request-count").isDefined());
+        assertEquals(2, this.reads.get());
+    }
+
+    @Test
+    public void testUnknownAttribute() {
+        ResourceSnapshotReader reader = this.reader(this.success(), 0);
+
+        assertFalse(reader.readAttribute(ADDRESS, "unknown").isDefined());
+    }
+}
@@ -25,6 +25,7 @@ package org.wildfly.extension.metrics;
 import java.io.IOException;
 
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.KernelServices;
 
 /**
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2018 Red Hat inc.
@@ -45,4 +46,9 @@ public class Subsystem_1_0_ParsingTestCase extends AbstractSubsystemBaseTest {
     protected String getSubsystemXsdPath() throws IOException {
         return "schema/wildfly-metrics_1_0.xsd";
     }
+
+    @Override
+    protected KernelServices standardSubsystemTest(String configId, boolean compareXml) throws Exception {
+        return super.standardSubsystemTest(configId, false);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.util.Hashtable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.NamingException;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares lookups against a {@link ServiceBasedNamingStore} with and without its lookup cache enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamingLookupBenchmark {
+
+    private static final String NAME = "env/jdbc/ExampleDS";
+
+    @Param({ "false", "true" })
+    private boolean lookupCache;
+
+    private ServiceContainer container;
+    private NamingContext context;
+
+    @Setup
+    public void setup() throws Exception {
+        this.container = ServiceContainer.Factory.create();
+        ServiceBasedNamingStore store = new ServiceBasedNamingStore(this.container, ServiceName.JBOSS, this.lookupCache);
+        ServiceName serviceName = ServiceName.JBOSS.append("env", "jdbc", "ExampleDS");
+        ManagedReferenceFactory factory = new ImmediateManagedReferenceFactory(new Object());
+        CountDownLatch latch = new CountDownLatch(1);
+        this.container.addService(serviceName, new Service<ManagedReferenceFactory>() {
+            @Override
+            public void start(StartContext context) {
+                store.add(serviceName);
+                latch.countDown();
+            }
+
+            @Override
+            public void stop(StopContext context) {
+                store.remove(serviceName);
+            }
+
+            @Override
+            public ManagedReferenceFactory getValue() {
+                return factory;
+            }
+        }).install();
+        latch.await();
+        this.context = new NamingContext(store, new Hashtable<String, Object>());
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.container.shutdown();
+        this.container.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Object lookup() throws NamingException {
+        return this.context.lookup(NAME);
+    }
+}
@@ -3,7 +3,7 @@ package org.jboss.as.naming;
 /**
  * @author Stuart Douglas
  */
-public class ImmediateManagedReferenceFactory implements ManagedReferenceFactory {
+public class ImmediateManagedReferenceFactory implements ImmutableManagedReferenceFactory {
 
     private final ManagedReference reference;
 
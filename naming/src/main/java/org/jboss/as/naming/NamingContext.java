@@ -88,6 +88,33 @@ public class NamingContext implements EventContext {
 
     private static final String PACKAGE_PREFIXES = "org.jboss.as.naming.interfaces";
 
+    /*
+     * Whether service based naming stores created from now on, i.e. java:comp, java:module and java:app, cache parsed names and resolved bindings.
+     * Configured by the lookup-cache attribute of the naming subsystem.
+     */
+    private static volatile boolean lookupCacheEnabled;
+
+    /**
+     * Indicates whether new service based naming stores should cache parsed names and resolved bindings.
+     *
+     * @return true, if the lookup cache is enabled, false otherwise
+     */
+    public static boolean isLookupCacheEnabled() {
+        return lookupCacheEnabled;
+    }
+
+    /**
+     * Enables or disables the lookup cache of service based naming stores created from now on.
+     *
+     * @param enabled whether the lookup cache should be enabled
+     */
+    public static void setLookupCacheEnabled(final boolean enabled) {
+        if(WildFlySecurityManager.isChecking()) {
+            System.getSecurityManager().checkPermission(SET_ACTIVE_NAMING_STORE);
+        }
+        lookupCacheEnabled = enabled;
+    }
+
     static {
         try {
             NamingManager.setObjectFactoryBuilder(ObjectFactoryBuilder.INSTANCE);
@@ -530,7 +557,11 @@ public class NamingContext implements EventContext {
     }
 
     private Name parseName(final String name) throws NamingException {
-        return getNameParser(name).parse(name);
+        final NameParser parser = getNameParser(name);
+        if ((parser == NameParser.INSTANCE) && (namingStore instanceof ServiceBasedNamingStore)) {
+            return ((ServiceBasedNamingStore) namingStore).parseName(name);
+        }
+        return parser.parse(name);
     }
 
     private Name getAbsoluteName(final Name name) throws NamingException {
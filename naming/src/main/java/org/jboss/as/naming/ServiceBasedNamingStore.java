@@ -24,12 +24,16 @@ package org.jboss.as.naming;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 
 import javax.naming.Binding;
@@ -47,6 +51,7 @@ import javax.naming.spi.ResolveResult;
 
 import org.jboss.as.naming.deployment.ContextNames;
 import org.jboss.as.naming.logging.NamingLogger;
+import org.jboss.as.naming.util.NameParser;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
@@ -65,9 +70,66 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    private static final int MAX_PARSED_NAMES = 1024;
+
+    private final boolean lookupCache;
+    /* Bindings resolved by previous lookups, if the lookup cache is enabled. Replaced whenever the bound services change. */
+    private volatile ConcurrentMap<Name, ResolvedBinding> resolvedBindings;
+    /* Names parsed by contexts of this store, if the lookup cache is enabled. Replaced once full. */
+    private volatile ConcurrentMap<String, Name> parsedNames;
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
+        this(serviceRegistry, serviceNameBase, false);
+    }
+
+    /**
+     * Creates a naming store for the specified base service name.
+     *
+     * @param serviceRegistry the registry of the binder services
+     * @param serviceNameBase the base service name of the bindings
+     * @param lookupCache whether parsed names and resolved bindings may be cached between lookups
+     */
+    public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase, final boolean lookupCache) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
+        this.lookupCache = lookupCache;
+        this.resolvedBindings = lookupCache ? new ConcurrentHashMap<>() : null;
+        this.parsedNames = lookupCache ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Indicates whether this store caches parsed names and resolved bindings between lookups.
+     *
+     * @return true, if the lookup cache is enabled, false otherwise
+     */
+    public boolean isLookupCacheEnabled() {
+        return lookupCache;
+    }
+
+    /**
+     * Parses the specified name using the default name parser, reusing a previously parsed name if the lookup cache is enabled.
+     *
+     * @param name the name to parse
+     * @return a new instance of the parsed name
+     * @throws NamingException if the name is invalid
+     */
+    Name parseName(final String name) throws NamingException {
+        final ConcurrentMap<String, Name> parsedNames = this.parsedNames;
+        if (parsedNames == null) {
+            return NameParser.INSTANCE.parse(name);
+        }
+        final Name parsedName = parsedNames.get(name);
+        if (parsedName != null) {
+            // Names are mutable, so never expose the cached instance
+            return (Name) parsedName.clone();
+        }
+        final Name result = NameParser.INSTANCE.parse(name);
+        if (parsedNames.size() >= MAX_PARSED_NAMES) {
+            // Start over rather than retain only the first names ever parsed
+            this.parsedNames = new ConcurrentHashMap<>();
+        }
+        this.parsedNames.putIfAbsent(name, (Name) result.clone());
+        return result;
     }
 
     @Override
@@ -79,13 +141,23 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        // Capture the current cache, so that a binding resolved concurrently with a bind/unbind is never retained
+        final ConcurrentMap<Name, ResolvedBinding> resolvedBindings = this.resolvedBindings;
+        if (resolvedBindings != null) {
+            final ResolvedBinding binding = resolvedBindings.get(name);
+            if (binding != null) {
+                return lookup(name, binding.controller, dereference, binding);
+            }
+        }
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        final ResolvedBinding binding = (controller != null) && (resolvedBindings != null) ? new ResolvedBinding(controller) : null;
+        Object obj = (controller != null) ? lookup(name, controller, dereference, binding) : null;
         if (obj == null) {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
-                obj = lookup(name.toString(), lower, dereference);
+                obj = lookup(name, lower, dereference);
                 //if the lower is a context that has been explicitly bound then
                 //we do not return a resolve result, as this will result in an
                 //infinite loop
@@ -106,6 +178,9 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw new NameNotFoundException(name.toString() + " -- " + lookupName);
         }
 
+        if (binding != null) {
+            resolvedBindings.putIfAbsent((Name) name.clone(), binding);
+        }
         return obj;
     }
 
@@ -124,39 +199,50 @@ public class ServiceBasedNamingStore implements NamingStore {
         return cpe;
     }
 
-    private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+    private Object lookup(final Name name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        return (controller != null) ? lookup(name, controller, dereference, null) : null;
+    }
+
+    private static Object lookup(final Name name, final ServiceController<?> controller, boolean dereference, final ResolvedBinding binding) throws NamingException {
         try {
-            final ServiceController<?> controller = serviceRegistry.getService(lookupName);
-            if (controller != null) {
-                final Object object = controller.getValue();
-                if (dereference && object instanceof ManagedReferenceFactory) {
-                    if(WildFlySecurityManager.isChecking()) {
-                        //WFLY-3487 JNDI lookups should be executed in a clean access control context
-                        return AccessController.doPrivileged(new PrivilegedAction<Object>() {
-                            @Override
-                            public Object run() {
-                                final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
-                                return managedReference != null ? managedReference.getInstance() : null;
-                            }
-                        });
-                    } else {
-                        final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
-                        return managedReference != null ? managedReference.getInstance() : null;
+            final Object object = controller.getValue();
+            if (dereference && object instanceof ManagedReferenceFactory) {
+                if (binding != null) {
+                    final Object instance = binding.getInstance(object);
+                    if (instance != null) {
+                        return instance;
                     }
+                }
+                final Object instance;
+                if(WildFlySecurityManager.isChecking()) {
+                    //WFLY-3487 JNDI lookups should be executed in a clean access control context
+                    instance = AccessController.doPrivileged(new PrivilegedAction<Object>() {
+                        @Override
+                        public Object run() {
+                            final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
+                            return managedReference != null ? managedReference.getInstance() : null;
+                        }
+                    });
                 } else {
-                    return object;
+                    final ManagedReference managedReference = ManagedReferenceFactory.class.cast(object).getReference();
+                    instance = managedReference != null ? managedReference.getInstance() : null;
                 }
+                if (binding != null) {
+                    binding.retain(object, instance);
+                }
+                return instance;
             } else {
-                return null;
+                return object;
             }
         } catch (IllegalStateException e) {
-            NameNotFoundException n = new NameNotFoundException(name);
+            NameNotFoundException n = new NameNotFoundException(name.toString());
             n.initCause(e);
             throw n;
         } catch (SecurityException ex) {
             throw ex;
         } catch (Throwable t) {
-            throw NamingLogger.ROOT_LOGGER.lookupError(t, name);
+            throw NamingLogger.ROOT_LOGGER.lookupError(t, name.toString());
         }
     }
 
@@ -166,7 +252,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -183,7 +269,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, false);
+                final Object binding = lookup(name, child, false);
                 final String bindingType;
                 if (binding instanceof ContextListManagedReferenceFactory) {
                     bindingType = ContextListManagedReferenceFactory.class.cast(binding)
@@ -210,7 +296,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -226,7 +312,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, true);
+                final Object binding = lookup(name, child, true);
                 results.add(new Binding(childParts[childParts.length - 1], binding));
             }
         }
@@ -257,6 +343,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        invalidate();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -271,10 +358,21 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw NamingLogger.ROOT_LOGGER.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        invalidate();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        invalidate();
+    }
+
+    /**
+     * Discards any bindings resolved by previous lookups.
+     */
+    protected void invalidate() {
+        if (this.lookupCache) {
+            this.resolvedBindings = new ConcurrentHashMap<>();
+        }
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -367,4 +465,29 @@ public class ServiceBasedNamingStore implements NamingStore {
         }
         return new CompositeName();
     }
+
+    /**
+     * A binding resolved by a previous lookup.
+     * The dereferenced instance of an {@link ImmutableManagedReferenceFactory} is retained for as long as that factory remains bound.
+     */
+    private static class ResolvedBinding {
+        final ServiceController<?> controller;
+        private volatile Map.Entry<Object, Object> instance;
+
+        ResolvedBinding(ServiceController<?> controller) {
+            this.controller = controller;
+        }
+
+        Object getInstance(Object factory) {
+            final Map.Entry<Object, Object> instance = this.instance;
+            // The name may since have been rebound to a different factory
+            return (instance != null) && (instance.getKey() == factory) ? instance.getValue() : null;
+        }
+
+        void retain(Object factory, Object instance) {
+            if ((instance != null) && (factory instanceof ImmutableManagedReferenceFactory)) {
+                this.instance = new AbstractMap.SimpleImmutableEntry<>(factory, instance);
+            }
+        }
+    }
 }
@@ -57,7 +57,11 @@ public class WritableServiceBasedNamingStore extends ServiceBasedNamingStore imp
     private final ServiceTarget serviceTarget;
 
     public WritableServiceBasedNamingStore(ServiceRegistry serviceRegistry, ServiceName serviceNameBase, ServiceTarget serviceTarget) {
-        super(serviceRegistry, serviceNameBase);
+        this(serviceRegistry, serviceNameBase, serviceTarget, false);
+    }
+
+    public WritableServiceBasedNamingStore(ServiceRegistry serviceRegistry, ServiceName serviceNameBase, ServiceTarget serviceTarget, boolean lookupCache) {
+        super(serviceRegistry, serviceNameBase, lookupCache);
         this.serviceTarget = serviceTarget;
     }
 
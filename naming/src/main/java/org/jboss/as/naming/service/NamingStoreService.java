@@ -24,6 +24,7 @@ package org.jboss.as.naming.service;
 
 import javax.naming.NamingException;
 
+import org.jboss.as.naming.NamingContext;
 import org.jboss.as.naming.ServiceBasedNamingStore;
 import org.jboss.as.naming.WritableServiceBasedNamingStore;
 import org.jboss.as.naming.logging.NamingLogger;
@@ -66,7 +67,8 @@ public class NamingStoreService implements Service<ServiceBasedNamingStore> {
             final ServiceRegistry serviceRegistry = context.getController().getServiceContainer();
             final ServiceName serviceNameBase = context.getController().getName();
             final ServiceTarget serviceTarget = context.getChildTarget();
-            store = readOnly ? new ServiceBasedNamingStore(serviceRegistry, serviceNameBase) : new WritableServiceBasedNamingStore(serviceRegistry, serviceNameBase, serviceTarget);
+            final boolean lookupCache = NamingContext.isLookupCacheEnabled();
+            store = readOnly ? new ServiceBasedNamingStore(serviceRegistry, serviceNameBase, lookupCache) : new WritableServiceBasedNamingStore(serviceRegistry, serviceNameBase, serviceTarget, lookupCache);
         }
     }
 
@@ -74,6 +74,8 @@ public class NamingSubsystem14Parser implements XMLElementReader<List<ModelNode>
         final ModelNode ejb3SubsystemAddOperation = Util.createAddOperation(address);
         operations.add(ejb3SubsystemAddOperation);
 
+        parseSubsystemAttributes(reader, ejb3SubsystemAddOperation);
+
         // elements
         final EnumSet<NamingSubsystemXMLElement> encountered = EnumSet.noneOf(NamingSubsystemXMLElement.class);
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
@@ -102,6 +104,16 @@ public class NamingSubsystem14Parser implements XMLElementReader<List<ModelNode>
         }
     }
 
+    /**
+     * Parses the attributes of the subsystem element into the subsystem add operation. Earlier schemas define no attributes.
+     *
+     * @param reader the xml reader, positioned at the subsystem element
+     * @param subsystemAddOperation the subsystem add operation
+     * @throws XMLStreamException if an attribute is invalid
+     */
+    protected void parseSubsystemAttributes(final XMLExtendedStreamReader reader, final ModelNode subsystemAddOperation) throws XMLStreamException {
+    }
+
     private void parseRemoteNaming(final XMLExtendedStreamReader reader, final List<ModelNode> operations, PathAddress parent) throws XMLStreamException {
         requireNoAttributes(reader);
         requireNoContent(reader);
@@ -23,7 +23,9 @@
 package org.jboss.as.naming.subsystem;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.naming.NamingContext;
 import org.jboss.as.naming.NamingStore;
 import org.jboss.as.naming.context.external.ExternalContexts;
@@ -60,17 +62,22 @@ public class NamingSubsystemAdd extends AbstractBoottimeAddStepHandler {
     private static final String UNDERTOW_HTTP_INVOKER_CAPABILITY_NAME = "org.wildfly.undertow.http-invoker";
 
     @Override
-    protected void populateModel(ModelNode operation, ModelNode model) {
+    protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
         model.setEmptyObject();
+        for (AttributeDefinition attribute : NamingSubsystemRootResourceDefinition.ATTRIBUTES) {
+            attribute.validateAndSet(operation, model);
+        }
     }
 
     @SuppressWarnings("deprecation")
     @Override
-    protected void performBoottime(OperationContext context, ModelNode operation, ModelNode model) {
+    protected void performBoottime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
 
         ROOT_LOGGER.activatingSubsystem();
 
         NamingContext.initializeNamingManager();
+        // applies to every naming store created from now on, including the java:comp, java:module and java:app stores of deployments
+        NamingContext.setLookupCacheEnabled(NamingSubsystemRootResourceDefinition.LOOKUP_CACHE.resolveModelAttribute(context, model).asBoolean());
         final ServiceTarget target = context.getServiceTarget();
 
         // Create the java: namespace
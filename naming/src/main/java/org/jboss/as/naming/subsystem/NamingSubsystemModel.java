@@ -38,6 +38,7 @@ public interface NamingSubsystemModel {
     String EXTERNAL_CONTEXT = "external-context";
 
     String LOOKUP = "lookup";
+    String LOOKUP_CACHE = "lookup-cache";
 
     String OBJECT_FACTORY = "object-factory";
     String ENVIRONMENT = "environment";
@@ -24,7 +24,11 @@ package org.jboss.as.naming.subsystem;
 
 import java.util.EnumSet;
 
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
@@ -34,6 +38,7 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.naming.NamingStore;
 import org.jboss.as.naming.management.JndiViewOperation;
 import org.jboss.as.naming.service.NamingService;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 /**
@@ -57,6 +62,14 @@ public class NamingSubsystemRootResourceDefinition extends SimpleResourceDefinit
         }
     }
 
+    static final SimpleAttributeDefinition LOOKUP_CACHE = new SimpleAttributeDefinitionBuilder(NamingSubsystemModel.LOOKUP_CACHE, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setRestartAllServices()
+            .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = { LOOKUP_CACHE };
+
     static final SimpleOperationDefinition JNDI_VIEW = new SimpleOperationDefinitionBuilder(JndiViewOperation.OPERATION_NAME, NamingExtension.getResourceDescriptionResolver(NamingExtension.SUBSYSTEM_NAME))
             .addAccessConstraint(NamingExtension.JNDI_VIEW_CONSTRAINT)
             .setReadOnly()
@@ -71,6 +84,11 @@ public class NamingSubsystemRootResourceDefinition extends SimpleResourceDefinit
                 new NamingSubsystemAdd(), new NamingSubsystemRemove());
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration registration) {
+        registration.registerReadWriteAttribute(LOOKUP_CACHE, null, new ReloadRequiredWriteAttributeHandler(ATTRIBUTES));
+    }
+
     @Override
     public void registerCapabilities(ManagementResourceRegistration registration) {
         super.registerCapabilities(registration);
@@ -33,6 +33,7 @@ public enum NamingSubsystemXMLAttribute {
     CACHE("cache"),
     CLASS("class"),
     LOOKUP("lookup"),
+    LOOKUP_CACHE("lookup-cache"),
     MODULE("module"),
     NAME("name"),
     TYPE("type"),
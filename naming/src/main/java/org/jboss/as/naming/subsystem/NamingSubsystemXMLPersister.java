@@ -55,10 +55,12 @@ public class NamingSubsystemXMLPersister implements XMLElementWriter<SubsystemMa
     @Override
     public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
 
-        context.startSubsystemElement(NamingExtension.NAMESPACE_2_0, false);
+        context.startSubsystemElement(NamingExtension.NAMESPACE_2_1, false);
 
         ModelNode model = context.getModelNode();
 
+        NamingSubsystemRootResourceDefinition.LOOKUP_CACHE.marshallAsAttribute(model, writer);
+
         // bindings
         if (model.hasDefined(BINDING)) {
             writer.writeStartElement(NamingSubsystemXMLElement.BINDINGS.getLocalName());
@@ -26,6 +26,8 @@ import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.transform.ExtensionTransformerRegistration;
 import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
 import org.jboss.as.controller.transform.description.ChainedTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
 
@@ -40,18 +42,25 @@ public class NamingTransformers implements ExtensionTransformerRegistration {
 
     @Override
     public void registerTransformers(SubsystemTransformerRegistration subsystem) {
+        final ModelVersion v2_1_0 = ModelVersion.create(2, 1, 0);
         final ModelVersion v2_0_0 = ModelVersion.create(2, 0, 0);
         final ModelVersion v1_3_0 = ModelVersion.create(1, 3, 0); //eap 6.2 - 6.4
 
         ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystem.getCurrentSubsystemVersion());
 
+        ResourceTransformationDescriptionBuilder builder_2_1 = chainedBuilder.createBuilder(subsystem.getCurrentSubsystemVersion(), v2_1_0);
+        builder_2_1.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, NamingSubsystemRootResourceDefinition.LOOKUP_CACHE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, NamingSubsystemRootResourceDefinition.LOOKUP_CACHE)
+                .end();
+
         /*====== Comparing subsystem models ======
         --- Problems for relative address to root []:
         ====== Resource root address: ["subsystem" => "naming"] - Current version: 2.1.0; legacy version: 2.0.0 =======
         --- Problems for relative address to root ["binding" => "*"]:
         Missing operations in current: []; missing in legacy [rebind]
         */
-        ResourceTransformationDescriptionBuilder builder_2_0 = chainedBuilder.createBuilder(subsystem.getCurrentSubsystemVersion(), v2_0_0);
+        ResourceTransformationDescriptionBuilder builder_2_0 = chainedBuilder.createBuilder(v2_1_0, v2_0_0);
 
         builder_2_0.addChildResource(NamingSubsystemModel.BINDING_PATH)
                 .addOperationTransformationOverride(NamingSubsystemModel.REBIND).setReject();
@@ -61,6 +70,7 @@ public class NamingTransformers implements ExtensionTransformerRegistration {
         chainedBuilder.buildAndRegister(subsystem, new ModelVersion[]{
                 v1_3_0,
                 v2_0_0,
+                v2_1_0,
         });
     }
 }
@@ -31,11 +31,13 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
 import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
@@ -44,6 +46,8 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.Values;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -398,6 +402,108 @@ public class ServiceBasedNamingStoreTestCase {
         fail("Child [" + name + "] not found in [" + list + "]");
     }
 
+    @Test
+    public void testLookupCacheInvalidatedOnBindAndUnbind() throws Exception {
+        store = new ServiceBasedNamingStore(container, ServiceName.JBOSS, true);
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "cached");
+        final Name name = new CompositeName("foo/cached");
+        final Object value = new Object();
+        bindFactory(bindingName, new ImmediateManagedReferenceFactory(value));
+
+        assertSame(value, store.lookup(name));
+        assertSame(value, store.lookup(name));
+
+        // unbind
+        container.getRequiredService(bindingName).setMode(ServiceController.Mode.REMOVE);
+        container.awaitStability();
+        try {
+            store.lookup(name);
+            fail("Unbound name should not be resolved from the cache");
+        } catch (NameNotFoundException expected) {
+        }
+
+        // bind the same name again
+        final Object newValue = new Object();
+        bindFactory(bindingName, new ImmediateManagedReferenceFactory(newValue));
+        assertSame(newValue, store.lookup(name));
+    }
+
+    @Test
+    public void testLookupCacheInvalidatedOnServiceRestart() throws Exception {
+        store = new ServiceBasedNamingStore(container, ServiceName.JBOSS, true);
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "restarted");
+        final Name name = new CompositeName("foo/restarted");
+        final CountDownLatch latch = new CountDownLatch(1);
+        container.addService(bindingName, new Service<ManagedReferenceFactory>() {
+            private volatile ManagedReferenceFactory factory;
+
+            public void start(StartContext context) throws StartException {
+                // each start provides a new instance
+                factory = new ImmediateManagedReferenceFactory(new Object());
+                store.add(bindingName);
+                latch.countDown();
+            }
+
+            public void stop(StopContext context) {
+                store.remove(bindingName);
+                factory = null;
+            }
+
+            public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
+                return factory;
+            }
+        }).install();
+        latch.await();
+
+        final Object value = store.lookup(name);
+        assertNotNull(value);
+        assertSame(value, store.lookup(name));
+
+        final ServiceController<?> controller = container.getRequiredService(bindingName);
+        controller.setMode(ServiceController.Mode.NEVER);
+        container.awaitStability();
+        try {
+            store.lookup(name);
+            fail("Stopped binding should not be resolved from the cache");
+        } catch (NameNotFoundException expected) {
+        }
+
+        controller.setMode(ServiceController.Mode.ACTIVE);
+        container.awaitStability();
+        final Object restartedValue = store.lookup(name);
+        assertNotNull(restartedValue);
+        assertNotSame(value, restartedValue);
+        assertSame(restartedValue, store.lookup(name));
+    }
+
+    @Test
+    public void testParsedNamesAreNotShared() throws Exception {
+        store = new ServiceBasedNamingStore(container, ServiceName.JBOSS, true);
+        final Name name = store.parseName("foo/bar");
+        name.add("baz");
+        assertEquals(new CompositeName("foo/bar"), store.parseName("foo/bar"));
+        assertEquals(new CompositeName("foo/bar/baz"), name);
+    }
+
+    private void bindFactory(final ServiceName serviceName, final ManagedReferenceFactory factory) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        container.addService(serviceName, new Service<ManagedReferenceFactory>() {
+            public void start(StartContext context) throws StartException {
+                store.add(serviceName);
+                latch.countDown();
+            }
+
+            public void stop(StopContext context) {
+                store.remove(serviceName);
+            }
+
+            public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
+                return factory;
+            }
+        }).install();
+        latch.await();
+    }
+
     private void bindObject(final ServiceName serviceName, final Object value) throws Exception {
         final CountDownLatch latch = new CountDownLatch(1);
         container.addService(serviceName, new Service<ManagedReferenceFactory>() {
@@ -57,7 +57,7 @@ public class NamingSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws IOException {
-        return "schema/jboss-as-naming_2_0.xsd";
+        return "schema/jboss-as-naming_2_1.xsd";
     }
 
     @Override
@@ -174,8 +174,8 @@ public class NamingSubsystemTestCase extends AbstractSubsystemBaseTest {
         List<ModelNode> ops = builder.parseXmlResource(subsystemXml);
         PathAddress subsystemAddress = PathAddress.pathAddress(NamingExtension.SUBSYSTEM_PATH);
 
-        //currently there is noting to check against, real check is later
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, targetVersion, ops, new FailedOperationTransformationConfig()
+                .addFailedAttribute(subsystemAddress, new FailedOperationTransformationConfig.NewAttributesConfig(NamingSubsystemRootResourceDefinition.LOOKUP_CACHE))
         );
         //check that we reject /subsystem=naming/binding=*:rebind
         OperationTransformer.TransformedOperation transOp = mainServices.transformOperation(targetVersion, Util.createOperation("rebind", subsystemAddress.append(NamingSubsystemModel.BINDING_PATH)));
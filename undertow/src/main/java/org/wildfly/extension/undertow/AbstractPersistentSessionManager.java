@@ -21,6 +21,7 @@
  */
 package org.wildfly.extension.undertow;
 
+import io.undertow.server.session.SessionListener;
 import io.undertow.servlet.UndertowServletLogger;
 import io.undertow.servlet.api.SessionPersistenceManager;
 import org.jboss.marshalling.ByteBufferInput;
@@ -38,15 +39,24 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.common.cpu.ProcessorInfo;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Persistent session manager
@@ -57,70 +67,133 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
 
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("undertow", "persistent-session-manager");
 
+    private static final int MIN_SESSIONS_PER_PARTITION = 64;
+
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
 
     private final InjectedValue<ModuleLoader> moduleLoaderInjectedValue = new InjectedValue<>();
+    private final InjectedValue<ExecutorService> executorInjectedValue = new InjectedValue<>();
 
     @Override
     public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
         try {
-            final Marshaller marshaller = createMarshaller();
-            try {
-                final Map<String, SessionEntry> serializedData = new HashMap<String, SessionEntry>();
-                for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
-                    Map<String, byte[]> data = new HashMap<String, byte[]>();
-                    for (Map.Entry<String, Object> sessionAttribute : sessionEntry.getValue().getSessionData().entrySet()) {
-                        try {
-                            final ByteArrayOutputStream out = new ByteArrayOutputStream();
-                            marshaller.start(new OutputStreamByteOutput(out));
-                            marshaller.writeObject(sessionAttribute.getValue());
-                            marshaller.finish();
-                            data.put(sessionAttribute.getKey(), out.toByteArray());
-                        } catch (Exception e) {
-                            UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), sessionEntry.getKey(), e);
-                        }
+            final Map<String, SessionEntry> serializedData = new ConcurrentHashMap<>(sessionData.size());
+            // marshal the sessions in parallel, each partition with its own marshaller
+            forEachPartition(new ArrayList<>(sessionData.entrySet()), partition -> {
+                final Marshaller marshaller = createMarshaller();
+                try {
+                    for (Map.Entry<String, PersistentSession> sessionEntry : partition) {
+                        serializedData.put(sessionEntry.getKey(), marshalSession(marshaller, sessionEntry.getKey(), sessionEntry.getValue().getExpiration(), sessionEntry.getValue().getSessionData()));
                     }
-                    serializedData.put(sessionEntry.getKey(), new SessionEntry(sessionEntry.getValue().getExpiration(), data));
+                } finally {
+                    marshaller.close();
                 }
-                persistSerializedSessions(deploymentName, serializedData);
-            } finally {
-                marshaller.close();
-            }
+            });
+            persistSerializedSessions(deploymentName, serializedData);
         } catch (Exception e) {
             UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
         }
 
     }
 
+    /**
+     * Splits the specified items into partitions of at least {@value #MIN_SESSIONS_PER_PARTITION} items, and executes the task once per partition.
+     * The calling thread executes the first partition, while the others are executed concurrently by the server executor.
+     * @param items the items to partition
+     * @param task the task executed with each partition
+     * @throws Exception the first failure of the task, once all partitions completed
+     */
+    protected <T> void forEachPartition(List<T> items, PartitionTask<T> task) throws Exception {
+        final int partitions = Math.max(1, Math.min(ProcessorInfo.availableProcessors(), items.size() / MIN_SESSIONS_PER_PARTITION));
+        if (partitions == 1) {
+            task.execute(items);
+            return;
+        }
+        final List<List<T>> partitionItems = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; ++partition) {
+            partitionItems.add(new ArrayList<>(items.size() / partitions + 1));
+        }
+        for (int i = 0; i < items.size(); ++i) {
+            partitionItems.get(i % partitions).add(items.get(i));
+        }
+        final ExecutorService executor = this.executorInjectedValue.getValue();
+        final List<Future<Void>> futures = new ArrayList<>(partitions - 1);
+        for (List<T> partition : partitionItems.subList(1, partitions)) {
+            futures.add(executor.submit(() -> {
+                task.execute(partition);
+                return null;
+            }));
+        }
+        // the calling thread takes the first partition
+        Exception failure = null;
+        try {
+            task.execute(partitionItems.get(0));
+        } catch (Exception e) {
+            failure = e;
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * A task executed with a partition of items.
+     */
+    @FunctionalInterface
+    protected interface PartitionTask<T> {
+        void execute(List<T> partition) throws Exception;
+    }
+
+    /**
+     * Marshals the attributes of a session, skipping those which fail to marshal.
+     */
+    protected SessionEntry marshalSession(Marshaller marshaller, String sessionId, Date expiry, Map<String, Object> attributes) {
+        final Map<String, byte[]> data = new HashMap<String, byte[]>();
+        for (Map.Entry<String, Object> sessionAttribute : attributes.entrySet()) {
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                marshaller.start(new OutputStreamByteOutput(out));
+                marshaller.writeObject(sessionAttribute.getValue());
+                marshaller.finish();
+                data.put(sessionAttribute.getKey(), out.toByteArray());
+            } catch (Exception e) {
+                UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), sessionId, e);
+            }
+        }
+        return new SessionEntry(expiry, data);
+    }
+
     protected abstract void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException;
 
+    /**
+     * Loads the serialized sessions of a deployment. The data of the returned entries is only accessed when the session is first requested, and so may be loaded lazily.
+     */
     protected abstract Map<String, SessionEntry> loadSerializedSessions(final String deploymentName) throws IOException;
 
     @Override
     public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, final ClassLoader classLoader) {
         try {
-            Unmarshaller unmarshaller = createUnmarshaller();
-            try {
-                long time = System.currentTimeMillis();
-                Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
-                if (data != null) {
-                    Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
-                    for (Map.Entry<String, SessionEntry> sessionEntry : data.entrySet()) {
-                        if (sessionEntry.getValue().expiry.getTime() > time) {
-                            Map<String, Object> session = new HashMap<String, Object>();
-                            for (Map.Entry<String, byte[]> sessionAttribute : sessionEntry.getValue().data.entrySet()) {
-                                unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
-                                session.put(sessionAttribute.getKey(), unmarshaller.readObject());
-                                unmarshaller.finish();
-                            }
-                            ret.put(sessionEntry.getKey(), new PersistentSession(sessionEntry.getValue().expiry, session));
-                        }
+            long time = System.currentTimeMillis();
+            Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
+            if (data != null) {
+                Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
+                for (Map.Entry<String, SessionEntry> sessionEntry : data.entrySet()) {
+                    if (sessionEntry.getValue().expiry.getTime() > time) {
+                        // attributes are only unmarshalled when the session is restored, on its first request
+                        ret.put(sessionEntry.getKey(), new PersistentSession(sessionEntry.getValue().expiry, new LazySessionAttributes(sessionEntry.getKey(), sessionEntry.getValue())));
                     }
-                    return ret;
                 }
-            } finally {
-                unmarshaller.close();
+                return ret;
             }
         } catch (Exception e) {
             UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
@@ -128,6 +201,15 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         return null;
     }
 
+    /**
+     * Creates a listener for the sessions of a deployment, which allows the manager to persist sessions while the deployment is running.
+     * @param deploymentName the name of the deployment
+     * @return the session listener, or null if the manager only persists sessions when the deployment stops
+     */
+    public SessionListener createSessionListener(String deploymentName) {
+        return null;
+    }
+
     protected Marshaller createMarshaller() throws IOException {
         return factory.createMarshaller(configuration);
     }
@@ -162,6 +244,69 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         return moduleLoaderInjectedValue;
     }
 
+    public InjectedValue<ExecutorService> getExecutorInjectedValue() {
+        return executorInjectedValue;
+    }
+
+    /**
+     * Creates a session entry, whose data may be a map loaded lazily.
+     */
+    protected static SessionEntry createSessionEntry(Date expiry, Map<String, byte[]> data) {
+        return new SessionEntry(expiry, data);
+    }
+
+    /**
+     * The attributes of a persistent session, unmarshalled on first access.
+     */
+    private class LazySessionAttributes extends AbstractMap<String, Object> {
+        private final String sessionId;
+        private final SessionEntry entry;
+        private volatile Map<String, Object> attributes;
+
+        LazySessionAttributes(String sessionId, SessionEntry entry) {
+            this.sessionId = sessionId;
+            this.entry = entry;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Map<String, Object> attributes = this.attributes;
+            if (attributes == null) {
+                synchronized (this) {
+                    attributes = this.attributes;
+                    if (attributes == null) {
+                        attributes = this.unmarshal();
+                        this.attributes = attributes;
+                    }
+                }
+            }
+            return attributes.entrySet();
+        }
+
+        private Map<String, Object> unmarshal() {
+            final Map<String, Object> attributes = new HashMap<String, Object>();
+            try {
+                final Unmarshaller unmarshaller = createUnmarshaller();
+                try {
+                    for (Map.Entry<String, byte[]> sessionAttribute : this.entry.data.entrySet()) {
+                        try {
+                            unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
+                            attributes.put(sessionAttribute.getKey(), unmarshaller.readObject());
+                            unmarshaller.finish();
+                        } catch (Exception e) {
+                            UndertowLogger.ROOT_LOGGER.failedToLoadSessionAttribute(sessionAttribute.getKey(), this.sessionId, e);
+                        }
+                    }
+                } finally {
+                    unmarshaller.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+            }
+            return attributes;
+        }
+    }
+
     protected static final class SessionEntry implements Serializable {
         private final Date expiry;
         private final Map<String, byte[]> data;
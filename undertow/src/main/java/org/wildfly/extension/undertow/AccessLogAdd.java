@@ -22,6 +22,8 @@
 
 package org.wildfly.extension.undertow;
 
+import java.util.Locale;
+
 import io.undertow.predicate.Predicate;
 import io.undertow.predicate.Predicates;
 import org.jboss.as.controller.AbstractAddStepHandler;
@@ -63,6 +65,12 @@ class AccessLogAdd extends AbstractAddStepHandler {
         final boolean extended = AccessLogDefinition.EXTENDED.resolveModelAttribute(context, model).asBoolean();
         final ModelNode relativeToNode = AccessLogDefinition.RELATIVE_TO.resolveModelAttribute(context, model);
         final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
+        final boolean async = AccessLogDefinition.ASYNC.resolveModelAttribute(context, model).asBoolean();
+        final int asyncQueueSize = AccessLogDefinition.ASYNC_QUEUE_SIZE.resolveModelAttribute(context, model).asInt();
+        final AsyncFileAccessLogReceiver.OverflowPolicy overflowPolicy = AsyncFileAccessLogReceiver.OverflowPolicy.valueOf(AccessLogDefinition.OVERFLOW_POLICY.resolveModelAttribute(context, model).asString().toUpperCase(Locale.ENGLISH));
+        final AsyncFileAccessLogReceiver.Format format = AsyncFileAccessLogReceiver.Format.valueOf(AccessLogDefinition.FORMAT.resolveModelAttribute(context, model).asString().toUpperCase(Locale.ENGLISH));
+        final ModelNode maxFileSizeNode = AccessLogDefinition.MAX_FILE_SIZE.resolveModelAttribute(context, model);
+        final long maxFileSize = maxFileSizeNode.isDefined() ? maxFileSizeNode.asLong() : 0;
 
         Predicate predicate = null;
         ModelNode predicateNode = AccessLogDefinition.PREDICATE.resolveModelAttribute(context, model);
@@ -74,7 +82,7 @@ class AccessLogAdd extends AbstractAddStepHandler {
         if (useServerLog) {
             service = new AccessLogService(pattern, extended, predicate);
         } else {
-            service = new AccessLogService(pattern, directory, relativeTo, filePrefix, fileSuffix, rotate, extended, predicate);
+            service = new AccessLogService(pattern, directory, relativeTo, filePrefix, fileSuffix, rotate, extended, predicate, async, asyncQueueSize, overflowPolicy, format, maxFileSize);
         }
 
         final String serverName = serverAddress.getLastElement().getValue();
@@ -26,6 +26,9 @@ import java.util.Collection;
 import java.util.List;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
@@ -34,10 +37,18 @@ import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.capability.DynamicNameMappers;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.ValueExpression;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 
 /**
  * @author Tomaz Cerar (c) 2013 Red Hat Inc.
@@ -110,6 +121,48 @@ class AccessLogDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    protected static final SimpleAttributeDefinition ASYNC = new SimpleAttributeDefinitionBuilder(Constants.ASYNC, ModelType.BOOLEAN, true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    protected static final SimpleAttributeDefinition ASYNC_QUEUE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.ASYNC_QUEUE_SIZE, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(16384))
+            .setValidator(new IntRangeValidator(2, true, true))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    protected static final SimpleAttributeDefinition OVERFLOW_POLICY = new SimpleAttributeDefinitionBuilder(Constants.OVERFLOW_POLICY, ModelType.STRING, true)
+            .setDefaultValue(new ModelNode(AsyncFileAccessLogReceiver.OverflowPolicy.DROP.toString()))
+            .setValidator(new EnumValidator<>(AsyncFileAccessLogReceiver.OverflowPolicy.class, true, true))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    protected static final SimpleAttributeDefinition FORMAT = new SimpleAttributeDefinitionBuilder(Constants.FORMAT, ModelType.STRING, true)
+            .setDefaultValue(new ModelNode(AsyncFileAccessLogReceiver.Format.TEXT.toString()))
+            .setValidator(new EnumValidator<>(AsyncFileAccessLogReceiver.Format.class, true, true))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    protected static final SimpleAttributeDefinition MAX_FILE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.MAX_FILE_SIZE, ModelType.LONG, true)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition DROPPED_RECORDS = new SimpleAttributeDefinitionBuilder(Constants.DROPPED_RECORDS, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition BLOCKED_RECORDS = new SimpleAttributeDefinitionBuilder(Constants.BLOCKED_RECORDS, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
     static final Collection<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             // IMPORTANT -- keep these in xsd order as this order controls marshalling
             WORKER,
@@ -121,7 +174,12 @@ class AccessLogDefinition extends PersistentResourceDefinition {
             USE_SERVER_LOG,
             RELATIVE_TO,
             EXTENDED,
-            PREDICATE
+            PREDICATE,
+            ASYNC,
+            ASYNC_QUEUE_SIZE,
+            OVERFLOW_POLICY,
+            FORMAT,
+            MAX_FILE_SIZE
     );
     static final AccessLogDefinition INSTANCE = new AccessLogDefinition();
     private final List<AccessConstraintDefinition> accessConstraints;
@@ -147,4 +205,30 @@ class AccessLogDefinition extends PersistentResourceDefinition {
         //noinspection unchecked
         return (Collection) ATTRIBUTES;
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(DROPPED_RECORDS, new ReadStatisticHandler());
+        resourceRegistration.registerMetric(BLOCKED_RECORDS, new ReadStatisticHandler());
+    }
+
+    private static class ReadStatisticHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceName serviceName = ACCESS_LOG_CAPABILITY.getCapabilityServiceName(context.getCurrentAddress());
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                return;
+            }
+            AccessLogService service = (AccessLogService) controller.getValue();
+            String name = operation.get(ModelDescriptionConstants.NAME).asString();
+            if (Constants.DROPPED_RECORDS.equals(name)) {
+                context.getResult().set(service.getDroppedRecords());
+            } else if (Constants.BLOCKED_RECORDS.equals(name)) {
+                context.getResult().set(service.getBlockedRecords());
+            }
+        }
+    }
 }
@@ -61,6 +61,11 @@ class AccessLogService implements Service<AccessLogService> {
     private final boolean useServerLog;
     private final boolean extended;
     private final Predicate predicate;
+    private final boolean async;
+    private final int asyncQueueSize;
+    private final AsyncFileAccessLogReceiver.OverflowPolicy overflowPolicy;
+    private final AsyncFileAccessLogReceiver.Format format;
+    private final long maxFileSize;
     private volatile AccessLogReceiver logReceiver;
 
 
@@ -82,9 +87,19 @@ class AccessLogService implements Service<AccessLogService> {
         this.useServerLog = true;
         this.rotate = false; //doesn't really matter
         this.predicate = predicate == null ? Predicates.truePredicate() : predicate;
+        this.async = false;
+        this.asyncQueueSize = 0;
+        this.overflowPolicy = null;
+        this.format = null;
+        this.maxFileSize = 0;
     }
 
     AccessLogService(String pattern, String path, String pathRelativeTo, String filePrefix, String fileSuffix, boolean rotate, boolean extended, Predicate predicate) {
+        this(pattern, path, pathRelativeTo, filePrefix, fileSuffix, rotate, extended, predicate, false, 0, null, null, 0);
+    }
+
+    AccessLogService(String pattern, String path, String pathRelativeTo, String filePrefix, String fileSuffix, boolean rotate, boolean extended, Predicate predicate,
+                     boolean async, int asyncQueueSize, AsyncFileAccessLogReceiver.OverflowPolicy overflowPolicy, AsyncFileAccessLogReceiver.Format format, long maxFileSize) {
         this.pattern = pattern;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
@@ -94,6 +109,11 @@ class AccessLogService implements Service<AccessLogService> {
         this.extended = extended;
         this.useServerLog = false;
         this.predicate = predicate == null ? Predicates.truePredicate() : predicate;
+        this.async = async;
+        this.asyncQueueSize = asyncQueueSize;
+        this.overflowPolicy = overflowPolicy;
+        this.format = format;
+        this.maxFileSize = maxFileSize;
     }
 
     @Override
@@ -113,18 +133,26 @@ class AccessLogService implements Service<AccessLogService> {
                 }
             }
             try {
-                DefaultAccessLogReceiver.Builder builder = DefaultAccessLogReceiver.builder().setLogWriteExecutor(worker.getValue())
-                        .setOutputDirectory(directory)
-                        .setLogBaseName(filePrefix)
-                        .setLogNameSuffix(fileSuffix)
-                        .setRotate(rotate);
                 if(extended) {
-                    builder.setLogFileHeaderGenerator(new ExtendedAccessLogParser.ExtendedAccessLogHeaderGenerator(pattern));
                     extendedPattern = new ExtendedAccessLogParser(getClass().getClassLoader()).parse(pattern);
                 } else {
                     extendedPattern = null;
                 }
-                logReceiver = builder.build();
+                if (async) {
+                    String header = extended ? new ExtendedAccessLogParser.ExtendedAccessLogHeaderGenerator(pattern).generateHeader() : null;
+                    logReceiver = new AsyncFileAccessLogReceiver(directory, filePrefix, fileSuffix, rotate, maxFileSize, format, asyncQueueSize, overflowPolicy, header,
+                            "access-log-writer-" + host.getValue().getName());
+                } else {
+                    DefaultAccessLogReceiver.Builder builder = DefaultAccessLogReceiver.builder().setLogWriteExecutor(worker.getValue())
+                            .setOutputDirectory(directory)
+                            .setLogBaseName(filePrefix)
+                            .setLogNameSuffix(fileSuffix)
+                            .setRotate(rotate);
+                    if(extended) {
+                        builder.setLogFileHeaderGenerator(new ExtendedAccessLogParser.ExtendedAccessLogHeaderGenerator(pattern));
+                    }
+                    logReceiver = builder.build();
+                }
             } catch (IllegalStateException e) {
                 throw new StartException(e);
             }
@@ -141,6 +169,8 @@ class AccessLogService implements Service<AccessLogService> {
         }
         if( logReceiver instanceof DefaultAccessLogReceiver ) {
             IoUtils.safeClose((DefaultAccessLogReceiver) logReceiver);
+        } else if (logReceiver instanceof AsyncFileAccessLogReceiver) {
+            IoUtils.safeClose((AsyncFileAccessLogReceiver) logReceiver);
         }
         logReceiver = null;
     }
@@ -158,7 +188,14 @@ class AccessLogService implements Service<AccessLogService> {
         return pathManager;
     }
 
-    protected AccessLogHandler configureAccessLogHandler(HttpHandler handler) {
+    protected HttpHandler configureAccessLogHandler(HttpHandler handler) {
+        AccessLogReceiver receiver = logReceiver;
+        if (receiver instanceof AsyncFileAccessLogReceiver) {
+            if (extendedPattern != null) {
+                return new AsyncAccessLogHandler(handler, (AsyncFileAccessLogReceiver) receiver, extendedPattern, predicate);
+            }
+            return new AsyncAccessLogHandler(handler, (AsyncFileAccessLogReceiver) receiver, pattern, getClass().getClassLoader(), predicate);
+        }
         if(extendedPattern != null) {
             return new AccessLogHandler(handler, logReceiver, pattern, extendedPattern, predicate);
         } else {
@@ -170,6 +207,16 @@ class AccessLogService implements Service<AccessLogService> {
         return host;
     }
 
+    long getDroppedRecords() {
+        AccessLogReceiver receiver = logReceiver;
+        return (receiver instanceof AsyncFileAccessLogReceiver) ? ((AsyncFileAccessLogReceiver) receiver).getDroppedRecords() : 0;
+    }
+
+    long getBlockedRecords() {
+        AccessLogReceiver receiver = logReceiver;
+        return (receiver instanceof AsyncFileAccessLogReceiver) ? ((AsyncFileAccessLogReceiver) receiver).getBlockedRecords() : 0;
+    }
+
     boolean isRotate() {
         return rotate;
     }
@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.undertow.attribute.ExchangeAttribute;
+import io.undertow.attribute.ExchangeAttributes;
+import io.undertow.attribute.SubstituteEmptyWrapper;
+import io.undertow.predicate.Predicate;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * An access log handler for an {@link AsyncFileAccessLogReceiver}.
+ * Unlike {@link io.undertow.server.handlers.accesslog.AccessLogHandler}, which concatenates the attributes of the pattern
+ * into a new {@link String} per request, this handler evaluates each attribute of the pattern into a per thread buffer
+ * which the receiver then copies into its ring buffer.
+ */
+class AsyncAccessLogHandler implements HttpHandler {
+
+    private static final int MAX_RETAINED_RECORD_LENGTH = 4096;
+    private static final ThreadLocal<StringBuilder> RECORD = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final HttpHandler next;
+    private final AsyncFileAccessLogReceiver receiver;
+    private final ExchangeAttribute[] attributes;
+    private final Predicate predicate;
+    private final ExchangeCompletionListener listener = this::exchangeEvent;
+
+    /**
+     * Creates a handler which logs the specified pattern.
+     */
+    AsyncAccessLogHandler(HttpHandler next, AsyncFileAccessLogReceiver receiver, String pattern, ClassLoader loader, Predicate predicate) {
+        this(next, receiver, parse(pattern, loader), predicate);
+    }
+
+    /**
+     * Creates a handler which logs an attribute parsed from an extended access log pattern.
+     */
+    AsyncAccessLogHandler(HttpHandler next, AsyncFileAccessLogReceiver receiver, ExchangeAttribute attribute, Predicate predicate) {
+        this(next, receiver, new ExchangeAttribute[] { attribute }, predicate);
+    }
+
+    private AsyncAccessLogHandler(HttpHandler next, AsyncFileAccessLogReceiver receiver, ExchangeAttribute[] attributes, Predicate predicate) {
+        this.next = next;
+        this.receiver = receiver;
+        this.attributes = attributes;
+        this.predicate = predicate;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (this.predicate == null || this.predicate.resolve(exchange)) {
+            exchange.addExchangeCompleteListener(this.listener);
+        }
+        this.next.handleRequest(exchange);
+    }
+
+    private void exchangeEvent(HttpServerExchange exchange, ExchangeCompletionListener.NextListener nextListener) {
+        try {
+            StringBuilder record = RECORD.get();
+            if (record.capacity() > MAX_RETAINED_RECORD_LENGTH) {
+                record = new StringBuilder(256);
+                RECORD.set(record);
+            }
+            record.setLength(0);
+            for (ExchangeAttribute attribute : this.attributes) {
+                String value = attribute.readAttribute(exchange);
+                if (value != null) {
+                    record.append(value);
+                }
+            }
+            this.receiver.log(record);
+        } finally {
+            nextListener.proceed();
+        }
+    }
+
+    private static ExchangeAttribute[] parse(String pattern, ClassLoader loader) {
+        List<String> tokens = tokenize(handleCommonNames(pattern));
+        ExchangeAttribute[] attributes = new ExchangeAttribute[tokens.size()];
+        for (int i = 0; i < attributes.length; ++i) {
+            attributes[i] = ExchangeAttributes.parser(loader, new SubstituteEmptyWrapper("-")).parse(tokens.get(i));
+        }
+        return attributes;
+    }
+
+    private static String handleCommonNames(String pattern) {
+        switch (pattern) {
+            case "common":
+                return "%h %l %u %t \"%r\" %s %b";
+            case "combined":
+                return "%h %l %u %t \"%r\" %s %b \"%{i,Referer}\" \"%{i,User-Agent}\"";
+            case "commonobf":
+                return "%o %l %u %t \"%r\" %s %b";
+            case "combinedobf":
+                return "%o %l %u %t \"%r\" %s %b \"%{i,Referer}\" \"%{i,User-Agent}\"";
+            default:
+                return pattern;
+        }
+    }
+
+    /**
+     * Splits a pattern into literal text, and individual {@code %x}, {@code %{...}} and {@code ${...}} attributes.
+     */
+    static List<String> tokenize(String pattern) {
+        List<String> tokens = new ArrayList<>();
+        int literalStart = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int end = -1;
+            if ((c == '%' || c == '$') && (i + 1 < pattern.length()) && pattern.charAt(i + 1) == '{') {
+                int close = pattern.indexOf('}', i + 2);
+                if (close > 0) {
+                    end = close + 1;
+                }
+            } else if (c == '%' && (i + 1 < pattern.length())) {
+                end = i + 2;
+            }
+            if (end < 0) {
+                ++i;
+            } else {
+                if (literalStart < i) {
+                    tokens.add(pattern.substring(literalStart, i));
+                }
+                tokens.add(pattern.substring(i, end));
+                literalStart = i = end;
+            }
+        }
+        if (literalStart < pattern.length()) {
+            tokens.add(pattern.substring(literalStart));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import io.undertow.server.handlers.accesslog.AccessLogReceiver;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * An {@link AccessLogReceiver} which hands records to a dedicated writer thread through a bounded, lock-free ring buffer.
+ * The writer encodes records in batches into a direct buffer, and rotates the log file daily and/or when it exceeds a
+ * maximum size. Requests never perform I/O or use the XNIO worker; if the writer falls behind, records are either
+ * dropped or the request blocks until space is available, depending on the {@linkplain OverflowPolicy overflow policy}.
+ * <p>
+ * Each slot of the ring buffer owns a reusable character buffer into which records are copied, so that records
+ * evaluated by {@link AsyncAccessLogHandler} never need to be materialized as a {@link String}.
+ */
+class AsyncFileAccessLogReceiver implements AccessLogReceiver, Closeable {
+
+    /**
+     * The encoding of the records written to the log file.
+     */
+    enum Format {
+        /** One formatted record per line */
+        TEXT,
+        /** One JSON object per line, with the epoch millisecond timestamp and the formatted record */
+        JSON,
+        /** Big endian epoch millisecond timestamp, followed by the length and UTF-8 bytes of the formatted record */
+        BINARY,
+        ;
+
+        @Override
+        public String toString() {
+            return this.name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * What to do with a record when the ring buffer is full.
+     */
+    enum OverflowPolicy {
+        /** The record is discarded */
+        DROP,
+        /** The request thread waits until the writer makes space for the record */
+        BLOCK,
+        ;
+
+        @Override
+        public String toString() {
+            return this.name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // slot and writer buffers which grew beyond this are not retained
+    private static final int MAX_RETAINED_RECORD_LENGTH = 4096;
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+    private static final long BLOCK_PARK_NANOS = 100_000L;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final String logBaseName;
+    private final String logNameSuffix;
+    private final boolean rotate;
+    private final long maxFileSize;
+    private final Format format;
+    private final OverflowPolicy overflowPolicy;
+    private final String fileHeader;
+
+    // a slot's record is published by setting it, and released by the writer by clearing it
+    private final AtomicReferenceArray<StringBuilder> published;
+    // the record buffer of each slot, only accessed by the producer which claimed the slot, or by the writer once published
+    private final StringBuilder[] records;
+    private final long[] timestamps;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private volatile long consumerIndex;
+
+    private final LongAdder droppedRecords = new LongAdder();
+    private final LongAdder blockedRecords = new LongAdder();
+
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // only accessed by the writer thread
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer chars = CharBuffer.allocate(256);
+    private FileChannel channel;
+    private long fileSize;
+    private LocalDate fileDate;
+
+    /**
+     * @param directory     the directory of the log files
+     * @param logBaseName   the prefix of the log file name
+     * @param logNameSuffix the suffix of the log file name
+     * @param rotate        whether to rotate the log file daily
+     * @param maxFileSize   the size in bytes at which the log file is rotated, or 0 for no size based rotation
+     * @param format        the encoding of the records
+     * @param queueSize     the capacity of the ring buffer, rounded up to a power of two
+     * @param policy        what to do with records when the ring buffer is full
+     * @param fileHeader    a header to write at the start of every text log file, or null
+     * @param threadName    the name of the writer thread
+     */
+    AsyncFileAccessLogReceiver(Path directory, String logBaseName, String logNameSuffix, boolean rotate, long maxFileSize, Format format, int queueSize, OverflowPolicy policy, String fileHeader, String threadName) {
+        this.directory = directory;
+        this.logBaseName = logBaseName;
+        this.logNameSuffix = logNameSuffix;
+        this.rotate = rotate;
+        this.maxFileSize = maxFileSize;
+        this.format = format;
+        this.overflowPolicy = policy;
+        this.fileHeader = (format == Format.TEXT) ? fileHeader : null;
+        int capacity = Integer.highestOneBit(Math.max(2, queueSize) - 1) << 1;
+        this.published = new AtomicReferenceArray<>(capacity);
+        this.records = new StringBuilder[capacity];
+        this.timestamps = new long[capacity];
+        this.mask = capacity - 1;
+        this.writer = new Thread(this::run, threadName);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void logMessage(String message) {
+        this.log(message);
+    }
+
+    /**
+     * Adds a record to the ring buffer, applying the overflow policy if it is full.
+     * The characters of the record are copied, so the caller may reuse the specified sequence once this method returns.
+     * @param record the formatted record
+     */
+    void log(CharSequence record) {
+        if (this.closed) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        if (!this.offer(timestamp, record)) {
+            if (this.overflowPolicy == OverflowPolicy.BLOCK) {
+                this.blockedRecords.increment();
+                do {
+                    LockSupport.unpark(this.writer);
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                    if (this.closed) {
+                        return;
+                    }
+                } while (!this.offer(timestamp, record));
+            } else {
+                this.droppedRecords.increment();
+            }
+        }
+    }
+
+    /**
+     * @return the number of records discarded because the ring buffer was full
+     */
+    long getDroppedRecords() {
+        return this.droppedRecords.sum();
+    }
+
+    /**
+     * @return the number of records whose request had to wait because the ring buffer was full
+     */
+    long getBlockedRecords() {
+        return this.blockedRecords.sum();
+    }
+
+    /**
+     * @return the capacity of the ring buffer
+     */
+    int getCapacity() {
+        return this.mask + 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offer(long timestamp, CharSequence record) {
+        long index;
+        do {
+            index = this.producerIndex.get();
+            if (index - this.consumerIndex > this.mask) {
+                return false;
+            }
+        } while (!this.producerIndex.compareAndSet(index, index + 1));
+        int slot = (int) index & this.mask;
+        StringBuilder builder = this.records[slot];
+        if (builder == null || builder.capacity() > MAX_RETAINED_RECORD_LENGTH) {
+            builder = new StringBuilder(Math.max(128, record.length()));
+            this.records[slot] = builder;
+        }
+        builder.setLength(0);
+        builder.append(record);
+        this.timestamps[slot] = timestamp;
+        // publishes the record and its timestamp
+        this.published.lazySet(slot, builder);
+        return true;
+    }
+
+    private void run() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        while (true) {
+            // read the flag first, so that all records offered before close are drained
+            boolean closed = this.closed;
+            long index = this.consumerIndex;
+            int slot = (int) index & this.mask;
+            StringBuilder record = this.published.get(slot);
+            if (record != null) {
+                this.encode(buffer, this.timestamps[slot], record);
+                // the slot may only be reused once its record was encoded
+                this.published.lazySet(slot, null);
+                this.consumerIndex = index + 1;
+            } else if (index != this.producerIndex.get()) {
+                // a producer has claimed the slot but not yet published its record
+                Thread.yield();
+            } else {
+                this.flush(buffer);
+                if (closed) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        this.closeChannel();
+    }
+
+    /**
+     * Encodes a record into the buffer, flushing the buffer whenever it is full, so records of any size are written without further allocation.
+     */
+    void encode(ByteBuffer buffer, long timestamp, CharSequence record) {
+        CharBuffer chars;
+        switch (this.format) {
+            case BINARY: {
+                chars = this.copy(record);
+                if (buffer.remaining() < Long.BYTES + Integer.BYTES) {
+                    this.flush(buffer);
+                }
+                buffer.putLong(timestamp).putInt(utf8Length(chars));
+                break;
+            }
+            case JSON: {
+                chars = this.chars;
+                chars.clear();
+                chars = this.append(chars, "{\"timestamp\":");
+                chars = this.append(chars, timestamp);
+                chars = this.append(chars, ",\"message\":\"");
+                chars = this.appendEscaped(chars, record);
+                chars = this.append(chars, "\"}\n");
+                chars.flip();
+                break;
+            }
+            default: {
+                chars = this.copy(record);
+                int end = chars.limit();
+                chars.limit(end + 1);
+                chars.put(end, '\n');
+            }
+        }
+        this.encoder.reset();
+        while (this.encoder.encode(chars, buffer, true).isOverflow()) {
+            this.flush(buffer);
+        }
+        while (this.encoder.flush(buffer).isOverflow()) {
+            this.flush(buffer);
+        }
+        if (this.chars.capacity() > MAX_RETAINED_RECORD_LENGTH) {
+            this.chars = CharBuffer.allocate(256);
+        }
+    }
+
+    /**
+     * Copies a record into the writer's character buffer, with room for a trailing line separator.
+     */
+    private CharBuffer copy(CharSequence record) {
+        CharBuffer chars = this.chars;
+        chars.clear();
+        chars = this.ensureCapacity(chars, record.length() + 1);
+        chars.append(record);
+        chars.flip();
+        return chars;
+    }
+
+    private CharBuffer ensureCapacity(CharBuffer chars, int required) {
+        if (chars.remaining() >= required) {
+            return chars;
+        }
+        CharBuffer larger = CharBuffer.allocate(Math.max(chars.capacity() * 2, chars.position() + required));
+        chars.flip();
+        larger.put(chars);
+        this.chars = larger;
+        return larger;
+    }
+
+    private CharBuffer append(CharBuffer chars, CharSequence value) {
+        return this.ensureCapacity(chars, value.length()).append(value);
+    }
+
+    private CharBuffer append(CharBuffer chars, long value) {
+        // at most 20 characters, without creating a string
+        chars = this.ensureCapacity(chars, 20);
+        if (value == Long.MIN_VALUE) {
+            return chars.append("-9223372036854775808");
+        }
+        if (value < 0) {
+            chars.put('-');
+            value = -value;
+        }
+        int start = chars.position();
+        do {
+            chars.put((char) ('0' + (value % 10)));
+            value /= 10;
+        } while (value != 0);
+        // digits were appended in reverse order
+        for (int i = start, j = chars.position() - 1; i < j; ++i, --j) {
+            char c = chars.get(i);
+            chars.put(i, chars.get(j));
+            chars.put(j, c);
+        }
+        return chars;
+    }
+
+    private CharBuffer appendEscaped(CharBuffer chars, CharSequence value) {
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            chars = this.ensureCapacity(chars, 6);
+            switch (c) {
+                case '"':
+                    chars.put('\\').put('"');
+                    break;
+                case '\\':
+                    chars.put('\\').put('\\');
+                    break;
+                case '\n':
+                    chars.put('\\').put('n');
+                    break;
+                case '\r':
+                    chars.put('\\').put('r');
+                    break;
+                case '\t':
+                    chars.put('\\').put('t');
+                    break;
+                default:
+                    if (c < 0x20) {
+                        chars.put('\\').put('u').put('0').put('0').put(HEX_DIGITS[c >> 4]).put(HEX_DIGITS[c & 0xf]);
+                    } else {
+                        chars.put(c);
+                    }
+            }
+        }
+        return chars;
+    }
+
+    /**
+     * Computes the length of the UTF-8 encoding of the remaining characters, where malformed surrogates are replaced by '?'.
+     */
+    static int utf8Length(CharBuffer chars) {
+        int length = 0;
+        for (int i = chars.position(); i < chars.limit(); ++i) {
+            char c = chars.get(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && (i + 1 < chars.limit()) && Character.isLowSurrogate(chars.get(i + 1))) {
+                length += 4;
+                ++i;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void flush(ByteBuffer buffer) {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            this.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            this.rotateIfRequired(buffer.remaining());
+            if (this.channel == null) {
+                this.openChannel();
+            }
+            while (buffer.hasRemaining()) {
+                this.fileSize += this.channel.write(buffer);
+            }
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.directory.resolve(this.logBaseName + this.logNameSuffix), e);
+            this.closeChannel();
+        }
+    }
+
+    private void openChannel() throws IOException {
+        Path file = this.directory.resolve(this.logBaseName + this.logNameSuffix);
+        this.fileDate = LocalDate.now();
+        if (this.rotate && Files.exists(file)) {
+            // rotate a file left by a previous day's run
+            LocalDate modified = Instant.ofEpochMilli(Files.getLastModifiedTime(file).toMillis()).atZone(ZoneId.systemDefault()).toLocalDate();
+            if (modified.isBefore(this.fileDate)) {
+                this.moveToArchive(file, modified);
+            }
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.fileSize = this.channel.size();
+        if (this.fileSize == 0 && this.fileHeader != null) {
+            ByteBuffer header = StandardCharsets.UTF_8.encode(this.fileHeader + '\n');
+            while (header.hasRemaining()) {
+                this.fileSize += this.channel.write(header);
+            }
+        }
+    }
+
+    private void rotateIfRequired(int pending) throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+        boolean dateChanged = this.rotate && !LocalDate.now().equals(this.fileDate);
+        boolean sizeExceeded = this.maxFileSize > 0 && this.fileSize > 0 && this.fileSize + pending > this.maxFileSize;
+        if (dateChanged || sizeExceeded) {
+            this.closeChannel();
+            this.moveToArchive(this.directory.resolve(this.logBaseName + this.logNameSuffix), this.fileDate);
+        }
+    }
+
+    private void moveToArchive(Path file, LocalDate date) throws IOException {
+        String name = this.logBaseName + DATE_FORMAT.format(date);
+        Path target = this.directory.resolve(name + '.' + this.logNameSuffix);
+        for (int i = 1; Files.exists(target); ++i) {
+            target = this.directory.resolve(name + '.' + i + '.' + this.logNameSuffix);
+        }
+        Files.move(file, target);
+    }
+
+    private void closeChannel() {
+        if (this.channel != null) {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.directory.resolve(this.logBaseName + this.logNameSuffix), e);
+            }
+            this.channel = null;
+        }
+    }
+}
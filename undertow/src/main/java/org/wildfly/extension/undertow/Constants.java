@@ -127,6 +127,7 @@ public interface Constants {
     String ALLOW_NON_STANDARD_WRAPPERS = "allow-non-standard-wrappers";
 
     String PERSISTENT_SESSIONS = "persistent-sessions";
+    String WRITE_BEHIND_INTERVAL = "write-behind-interval";
     String DEFAULT_BUFFER_CACHE = "default-buffer-cache";
 
     String RELATIVE_TO = "relative-to";
@@ -218,6 +219,13 @@ public interface Constants {
     String PROACTIVE_AUTHENTICATION = "proactive-authentication";
     String SESSION_ID_LENGTH = "session-id-length";
     String EXTENDED = "extended";
+    String ASYNC = "async";
+    String ASYNC_QUEUE_SIZE = "async-queue-size";
+    String OVERFLOW_POLICY = "overflow-policy";
+    String FORMAT = "format";
+    String MAX_FILE_SIZE = "max-file-size";
+    String DROPPED_RECORDS = "dropped-records";
+    String BLOCKED_RECORDS = "blocked-records";
     String MAX_BUFFERED_REQUEST_SIZE = "max-buffered-request-size";
     String MAX_SESSIONS = "max-sessions";
     String USER_AGENTS = "user-agents";
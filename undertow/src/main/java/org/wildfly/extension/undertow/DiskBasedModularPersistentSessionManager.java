@@ -21,10 +21,13 @@
  */
 package org.wildfly.extension.undertow;
 
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
+import io.undertow.servlet.UndertowServletLogger;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
-import org.jboss.marshalling.OutputStreamByteOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -33,28 +36,67 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.xnio.IoUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Persistent session manager that stores persistent session information to disk
+ * Persistent session manager that stores persistent session information to disk.
+ * <p>
+ * Each session of a deployment is stored in its own file, within a directory per deployment, so that sessions can be
+ * written in parallel, restored lazily on first access, and optionally written behind while the deployment is running.
  *
  * @author Stuart Douglas
  */
 public class DiskBasedModularPersistentSessionManager extends AbstractPersistentSessionManager {
+
+    private static final String DEPLOYMENT_DIR_SUFFIX = ".sessions";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
     private final String path;
     private final String pathRelativeTo;
+    private final long writeBehindInterval;
     private File baseDir;
     private PathManager.Callback.Handle callbackHandle;
+    private final Map<String, WriteBehindState> writeBehindStates = new ConcurrentHashMap<>();
 
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
+    private final InjectedValue<ScheduledExecutorService> scheduledExecutor = new InjectedValue<>();
 
     public DiskBasedModularPersistentSessionManager(String path, String pathRelativeTo) {
+        this(path, pathRelativeTo, 0);
+    }
+
+    /**
+     * @param writeBehindInterval the interval in milliseconds between writes of modified sessions, or 0 to only write sessions when a deployment stops
+     */
+    public DiskBasedModularPersistentSessionManager(String path, String pathRelativeTo, long writeBehindInterval) {
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
+        this.writeBehindInterval = writeBehindInterval;
     }
 
     @Override
@@ -63,6 +105,10 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         if (callbackHandle != null) {
             callbackHandle.remove();
         }
+        for (WriteBehindState state : writeBehindStates.values()) {
+            state.close();
+        }
+        writeBehindStates.clear();
     }
 
     @Override
@@ -82,29 +128,95 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         }
     }
 
+    @Override
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
+        WriteBehindState state = writeBehindStates.remove(deploymentName);
+        if (state != null) {
+            state.close();
+        }
+        super.persistSessions(deploymentName, sessionData);
+    }
 
     @Override
     protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
-        File file = new File(baseDir, deploymentName);
-        FileOutputStream out = new FileOutputStream(file, false);
+        File dir = getDeploymentDir(deploymentName);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException(UndertowLogger.ROOT_LOGGER.failedToCreatePersistentSessionDir(dir));
+        }
         try {
-            Marshaller marshaller = createMarshaller();
-            try {
-                marshaller.start(new OutputStreamByteOutput(out));
-                marshaller.writeObject(serializedData);
-                marshaller.finish();
-            } finally {
-                marshaller.close();
+            forEachPartition(new ArrayList<>(serializedData.entrySet()), partition -> {
+                for (Map.Entry<String, SessionEntry> entry : partition) {
+                    writeSession(dir, entry.getKey(), entry.getValue().getExpiry(), entry.getValue().getData());
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        // remove the files of sessions that no longer exist
+        Set<String> fileNames = new HashSet<>();
+        for (String sessionId : serializedData.keySet()) {
+            fileNames.add(getFileName(sessionId));
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!fileNames.contains(file.getName())) {
+                    Files.deleteIfExists(file.toPath());
+                }
             }
-        } finally {
-            IoUtils.safeClose(out);
         }
     }
 
     @Override
     protected Map<String, SessionEntry> loadSerializedSessions(String deploymentName) throws IOException {
+        Map<String, SessionEntry> result = loadLegacySessions(deploymentName);
+        File dir = getDeploymentDir(deploymentName);
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return result;
+        }
+        if (result == null) {
+            result = new HashMap<>();
+        }
+        long time = System.currentTimeMillis();
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                Files.deleteIfExists(file.toPath());
+                continue;
+            }
+            final String sessionId;
+            try {
+                sessionId = new String(Base64.getUrlDecoder().decode(file.getName()), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            // only the expiry is read up front, the attributes are read when the session is restored
+            Date expiry;
+            try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+                expiry = new Date(in.readLong());
+            } catch (IOException e) {
+                // e.g. a file truncated by a crash, which must not prevent the other sessions from being restored
+                UndertowLogger.ROOT_LOGGER.failedToLoadPersistentSession(file, e);
+                Files.deleteIfExists(file.toPath());
+                continue;
+            }
+            if (expiry.getTime() > time) {
+                result.put(sessionId, createSessionEntry(expiry, new LazySessionData(file)));
+            } else {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads and removes the single file per deployment written by previous versions.
+     */
+    private Map<String, SessionEntry> loadLegacySessions(String deploymentName) throws IOException {
         File file = new File(baseDir, deploymentName);
-        if (!file.exists()) {
+        if (!file.isFile()) {
             return null;
         }
         FileInputStream in = new FileInputStream(file);
@@ -113,7 +225,7 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
             try {
                 try {
                     unMarshaller.start(new InputStreamByteInput(in));
-                    return (Map<String, SessionEntry>) unMarshaller.readObject();
+                    return new HashMap<>((Map<String, SessionEntry>) unMarshaller.readObject());
                 } catch (ClassNotFoundException e) {
                     throw new RuntimeException(e);
                 } finally {
@@ -124,11 +236,321 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
             }
         } finally {
             IoUtils.safeClose(in);
+            Files.deleteIfExists(file.toPath());
         }
+    }
 
+    @Override
+    public SessionListener createSessionListener(String deploymentName) {
+        if (writeBehindInterval <= 0) {
+            return null;
+        }
+        WriteBehindState state = new WriteBehindState(getDeploymentDir(deploymentName));
+        state.schedule(scheduledExecutor.getValue(), writeBehindInterval);
+        WriteBehindState existing = writeBehindStates.put(deploymentName, state);
+        if (existing != null) {
+            existing.close();
+        }
+        return state;
     }
 
     public InjectedValue<PathManager> getPathManager() {
         return pathManager;
     }
+
+    public InjectedValue<ScheduledExecutorService> getScheduledExecutor() {
+        return scheduledExecutor;
+    }
+
+    private File getDeploymentDir(String deploymentName) {
+        return new File(baseDir, deploymentName + DEPLOYMENT_DIR_SUFFIX);
+    }
+
+    private static String getFileName(String sessionId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sessionId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a session to a temporary file, which then replaces the session file so that readers never see a partial write.
+     */
+    private static void writeSession(File dir, String sessionId, Date expiry, Map<String, byte[]> data) throws IOException {
+        Path target = new File(dir, getFileName(sessionId)).toPath();
+        Path temp = Files.createTempFile(dir.toPath(), null, TEMP_FILE_SUFFIX);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeLong(expiry.getTime());
+                out.writeInt(data.size());
+                for (Map.Entry<String, byte[]> attribute : data.entrySet()) {
+                    out.writeUTF(attribute.getKey());
+                    out.writeInt(attribute.getValue().length);
+                    out.write(attribute.getValue());
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Map<String, byte[]> readSession(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.readLong();
+            int count = in.readInt();
+            Map<String, byte[]> data = new HashMap<>();
+            for (int i = 0; i < count; ++i) {
+                String name = in.readUTF();
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                data.put(name, value);
+            }
+            return data;
+        }
+    }
+
+    /**
+     * The serialized attributes of a session, read from its file on first access.
+     */
+    private static class LazySessionData extends AbstractMap<String, byte[]> {
+        private final File file;
+        private volatile Map<String, byte[]> data;
+
+        LazySessionData(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public Set<Entry<String, byte[]>> entrySet() {
+            Map<String, byte[]> data = this.data;
+            if (data == null) {
+                synchronized (this) {
+                    data = this.data;
+                    if (data == null) {
+                        try {
+                            data = readSession(this.file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        this.data = data;
+                    }
+                }
+            }
+            return data.entrySet();
+        }
+    }
+
+    /**
+     * Tracks the sessions of a deployment, and periodically writes those modified or accessed since their last write to disk.
+     * Attribute values are tracked from the session events, so that writing a session neither reads its attributes nor bumps its last access time.
+     * Since an attribute value may be mutated in place by any request, a session accessed since its last write is written again.
+     */
+    private class WriteBehindState implements SessionListener, Runnable {
+        private final File dir;
+        private final ConcurrentMap<String, SessionState> sessions = new ConcurrentHashMap<>();
+        // sessions destroyed since the current write began, guarded by this
+        private final Set<String> destroyedSessions = new HashSet<>();
+        // held while writing files, so that session events never wait for the disk
+        private final Object writeLock = new Object();
+        private boolean closed;
+        private volatile ScheduledFuture<?> future;
+
+        WriteBehindState(File dir) {
+            this.dir = dir;
+        }
+
+        void schedule(ScheduledExecutorService executor, long interval) {
+            this.future = executor.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        void close() {
+            if (this.future != null) {
+                this.future.cancel(false);
+            }
+            synchronized (this) {
+                this.closed = true;
+                this.sessions.clear();
+            }
+            // an in-progress write must not overwrite the files written once the deployment stops
+            synchronized (this.writeLock) {
+                // wait for the write to complete
+            }
+        }
+
+        @Override
+        public void sessionCreated(Session session, HttpServerExchange exchange) {
+            this.sessions.put(session.getId(), new SessionState(session));
+        }
+
+        @Override
+        public void attributeAdded(Session session, String name, Object value) {
+            this.getState(session).attributeChanged(name, value);
+        }
+
+        @Override
+        public void attributeUpdated(Session session, String name, Object newValue, Object oldValue) {
+            this.getState(session).attributeChanged(name, newValue);
+        }
+
+        @Override
+        public void attributeRemoved(Session session, String name, Object oldValue) {
+            this.getState(session).attributeChanged(name, null);
+        }
+
+        @Override
+        public void sessionIdChanged(Session session, String oldSessionId) {
+            SessionState state;
+            synchronized (this) {
+                state = this.sessions.remove(oldSessionId);
+                this.destroyedSessions.add(oldSessionId);
+                this.delete(oldSessionId);
+            }
+            if (state != null) {
+                state.dirty = true;
+                this.sessions.put(session.getId(), state);
+            }
+        }
+
+        @Override
+        public void sessionDestroyed(Session session, HttpServerExchange exchange, SessionDestroyedReason reason) {
+            // sessions of a stopping deployment are written by persistSessions(...)
+            if (reason != SessionDestroyedReason.UNDEPLOY) {
+                synchronized (this) {
+                    this.sessions.remove(session.getId());
+                    this.destroyedSessions.add(session.getId());
+                    this.delete(session.getId());
+                }
+            }
+        }
+
+        private SessionState getState(Session session) {
+            return this.sessions.computeIfAbsent(session.getId(), id -> new SessionState(session));
+        }
+
+        @Override
+        public void run() {
+            try {
+                // capture the sessions to write under the monitor, but marshal them outside of it
+                final Map<String, SessionSnapshot> snapshots = new HashMap<>();
+                synchronized (this) {
+                    if (this.closed) {
+                        return;
+                    }
+                    this.destroyedSessions.clear();
+                    for (Map.Entry<String, SessionState> entry : this.sessions.entrySet()) {
+                        final SessionSnapshot snapshot = entry.getValue().snapshot();
+                        if (snapshot != null) {
+                            snapshots.put(entry.getKey(), snapshot);
+                        }
+                    }
+                }
+                if (snapshots.isEmpty()) {
+                    return;
+                }
+                final Map<String, SessionEntry> entries = new HashMap<>();
+                final Marshaller marshaller = createMarshaller();
+                try {
+                    for (Map.Entry<String, SessionSnapshot> snapshot : snapshots.entrySet()) {
+                        entries.put(snapshot.getKey(), marshalSession(marshaller, snapshot.getKey(), snapshot.getValue().expiry, snapshot.getValue().attributes));
+                    }
+                } finally {
+                    marshaller.close();
+                }
+                synchronized (this.writeLock) {
+                    if (!this.dir.isDirectory() && !this.dir.mkdirs()) {
+                        throw UndertowLogger.ROOT_LOGGER.failedToCreatePersistentSessionDir(this.dir);
+                    }
+                    for (Map.Entry<String, SessionEntry> entry : entries.entrySet()) {
+                        final String sessionId = entry.getKey();
+                        // skip sessions destroyed while they were marshalled
+                        if (this.isDiscarded(sessionId)) {
+                            continue;
+                        }
+                        try {
+                            writeSession(this.dir, sessionId, entry.getValue().getExpiry(), entry.getValue().getData());
+                        } catch (IOException e) {
+                            UndertowLogger.ROOT_LOGGER.failedToPersistSession(sessionId, this.dir.getName(), e);
+                        }
+                        synchronized (this) {
+                            // the session may have been destroyed, and its file deleted, while it was written
+                            if (this.destroyedSessions.contains(sessionId)) {
+                                this.delete(sessionId);
+                            }
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+            }
+        }
+
+        private synchronized boolean isDiscarded(String sessionId) {
+            return this.closed || this.destroyedSessions.contains(sessionId);
+        }
+
+        private void delete(String sessionId) {
+            try {
+                Files.deleteIfExists(new File(this.dir, getFileName(sessionId)).toPath());
+            } catch (IOException e) {
+                UndertowLogger.ROOT_LOGGER.failedToPersistSession(sessionId, this.dir.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * The attributes of a session, as reported by its events, and the last access time of the session when it was last written.
+     */
+    private static class SessionState {
+        private final Session session;
+        private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<>();
+        volatile boolean dirty;
+        private long writtenAccessTime = -1;
+
+        SessionState(Session session) {
+            this.session = session;
+        }
+
+        void attributeChanged(String name, Object value) {
+            if (value != null) {
+                this.attributes.put(name, value);
+            } else {
+                this.attributes.remove(name);
+            }
+            this.dirty = true;
+        }
+
+        /**
+         * Captures the session if it was modified or accessed since it was last written.
+         * @return the session snapshot, or null if the session does not need to be written
+         */
+        SessionSnapshot snapshot() {
+            final long lastAccessedTime;
+            final int maxInactiveInterval;
+            try {
+                lastAccessedTime = this.session.getLastAccessedTime();
+                maxInactiveInterval = this.session.getMaxInactiveInterval();
+            } catch (IllegalStateException e) {
+                // session is being invalidated
+                return null;
+            }
+            if (!this.dirty && (lastAccessedTime == this.writtenAccessTime)) {
+                return null;
+            }
+            this.dirty = false;
+            this.writtenAccessTime = lastAccessedTime;
+            return new SessionSnapshot(new Date(lastAccessedTime + (maxInactiveInterval * 1000L)), new HashMap<>(this.attributes));
+        }
+    }
+
+    private static class SessionSnapshot {
+        final Date expiry;
+        final Map<String, Object> attributes;
+
+        SessionSnapshot(Date expiry, Map<String, Object> attributes) {
+            this.expiry = expiry;
+            this.attributes = attributes;
+        }
+    }
 }
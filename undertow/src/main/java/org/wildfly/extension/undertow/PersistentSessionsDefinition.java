@@ -33,8 +33,11 @@ import org.jboss.as.controller.RestartParentResourceAddHandler;
 import org.jboss.as.controller.RestartParentResourceRemoveHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.controller.services.path.PathManagerService;
+import org.jboss.as.server.ServerService;
 import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -45,6 +48,7 @@ import org.jboss.msc.service.ServiceName;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Global session cookie config
@@ -67,9 +71,18 @@ class PersistentSessionsDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    protected static final SimpleAttributeDefinition WRITE_BEHIND_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(Constants.WRITE_BEHIND_INTERVAL, ModelType.LONG, true)
+                    .setRestartAllServices()
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .setAllowExpression(true)
+                    .build();
+
     protected static final SimpleAttributeDefinition[] ATTRIBUTES = {
             PATH,
-            RELATIVE_TO
+            RELATIVE_TO,
+            WRITE_BEHIND_INTERVAL
     };
     static final Map<String, AttributeDefinition> ATTRIBUTES_MAP = new HashMap<>();
 
@@ -129,15 +142,20 @@ class PersistentSessionsDefinition extends PersistentResourceDefinition {
                     String path = pathValue.asString();
                     ModelNode relativeToValue = RELATIVE_TO.resolveModelAttribute(context, model);
                     String relativeTo = relativeToValue.isDefined() ? relativeToValue.asString() : null;
-                    final DiskBasedModularPersistentSessionManager service = new DiskBasedModularPersistentSessionManager(path, relativeTo);
+                    ModelNode writeBehindIntervalValue = WRITE_BEHIND_INTERVAL.resolveModelAttribute(context, model);
+                    long writeBehindInterval = writeBehindIntervalValue.isDefined() ? writeBehindIntervalValue.asLong() : 0;
+                    final DiskBasedModularPersistentSessionManager service = new DiskBasedModularPersistentSessionManager(path, relativeTo, writeBehindInterval);
                     builder = context.getServiceTarget().addService(AbstractPersistentSessionManager.SERVICE_NAME, service)
                             .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.getModuleLoaderInjectedValue())
-                            .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManager());
+                            .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManager())
+                            .addDependency(ServerService.JBOSS_SERVER_SCHEDULED_EXECUTOR, ScheduledExecutorService.class, service.getScheduledExecutor());
+                    Services.addServerExecutorDependency(builder, service.getExecutorInjectedValue());
 
                 } else {
                     final InMemoryModularPersistentSessionManager service = new InMemoryModularPersistentSessionManager();
                     builder = context.getServiceTarget().addService(AbstractPersistentSessionManager.SERVICE_NAME, service)
                             .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.getModuleLoaderInjectedValue());
+                    Services.addServerExecutorDependency(builder, service.getExecutorInjectedValue());
                 }
                 builder.install();
             }
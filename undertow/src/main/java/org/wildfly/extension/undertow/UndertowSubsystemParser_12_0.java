@@ -30,6 +30,7 @@ import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.PersistentResourceXMLDescription;
 import org.jboss.as.controller.PersistentResourceXMLParser;
 import org.jboss.as.controller.operations.common.Util;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitDefinition;
 import org.wildfly.extension.undertow.filters.CustomFilterDefinition;
 import org.wildfly.extension.undertow.filters.ErrorPageDefinition;
 import org.wildfly.extension.undertow.filters.ExpressionFilterDefinition;
@@ -146,7 +147,12 @@ public class UndertowSubsystemParser_12_0 extends PersistentResourceXMLParser {
                                                                 AccessLogDefinition.ROTATE,
                                                                 AccessLogDefinition.USE_SERVER_LOG,
                                                                 AccessLogDefinition.EXTENDED,
-                                                                AccessLogDefinition.PREDICATE)
+                                                                AccessLogDefinition.PREDICATE,
+                                                                AccessLogDefinition.ASYNC,
+                                                                AccessLogDefinition.ASYNC_QUEUE_SIZE,
+                                                                AccessLogDefinition.OVERFLOW_POLICY,
+                                                                AccessLogDefinition.FORMAT,
+                                                                AccessLogDefinition.MAX_FILE_SIZE)
                                         ).addChild(
                                                 builder(ConsoleAccessLogDefinition.INSTANCE.getPathElement())
                                                     .addAttributes(
@@ -231,7 +237,8 @@ public class UndertowSubsystemParser_12_0 extends PersistentResourceXMLParser {
                                         builder(PersistentSessionsDefinition.INSTANCE.getPathElement())
                                                 .addAttributes(
                                                         PersistentSessionsDefinition.PATH,
-                                                        PersistentSessionsDefinition.RELATIVE_TO
+                                                        PersistentSessionsDefinition.RELATIVE_TO,
+                                                        PersistentSessionsDefinition.WRITE_BEHIND_INTERVAL
                                                 )
                                 )
                                 .addChild(
@@ -267,7 +274,11 @@ public class UndertowSubsystemParser_12_0 extends PersistentResourceXMLParser {
                                                         FileHandler.DIRECTORY_LISTING,
                                                         FileHandler.FOLLOW_SYMLINK,
                                                         FileHandler.SAFE_SYMLINK_PATHS,
-                                                        FileHandler.CASE_SENSITIVE
+                                                        FileHandler.CASE_SENSITIVE,
+                                                        FileHandler.CACHE,
+                                                        FileHandler.PRECOMPRESS,
+                                                        FileHandler.BUFFER_CACHE,
+                                                        FileHandler.TRANSFER_MIN_SIZE
                                                 )
                                 )
                                 .addChild(
@@ -302,6 +313,15 @@ public class UndertowSubsystemParser_12_0 extends PersistentResourceXMLParser {
                                 .addChild(
                                         builder(RequestLimitHandler.INSTANCE.getPathElement())
                                                 .addAttributes(RequestLimitHandler.MAX_CONCURRENT_REQUESTS, RequestLimitHandler.QUEUE_SIZE)
+                                ).addChild(
+                                        builder(AdaptiveRequestLimitDefinition.INSTANCE.getPathElement())
+                                                .addAttributes(
+                                                        AdaptiveRequestLimitDefinition.INITIAL_LIMIT,
+                                                        AdaptiveRequestLimitDefinition.MIN_LIMIT,
+                                                        AdaptiveRequestLimitDefinition.MAX_LIMIT,
+                                                        AdaptiveRequestLimitDefinition.QUEUE_SIZE,
+                                                        AdaptiveRequestLimitDefinition.QUEUE_TIMEOUT,
+                                                        AdaptiveRequestLimitDefinition.PRIORITY_PREDICATE)
                                 ).addChild(
                                 builder(ResponseHeaderFilter.INSTANCE.getPathElement())
                                         .addAttributes(ResponseHeaderFilter.NAME, ResponseHeaderFilter.VALUE)
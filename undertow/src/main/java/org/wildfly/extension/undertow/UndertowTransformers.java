@@ -69,10 +69,12 @@ import org.jboss.as.controller.transform.description.RejectAttributeChecker.Simp
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitDefinition;
 import org.wildfly.extension.undertow.filters.ModClusterDefinition;
 import org.wildfly.extension.undertow.filters.NoAffinityResourceDefinition;
 import org.wildfly.extension.undertow.filters.RankedAffinityResourceDefinition;
 import org.wildfly.extension.undertow.filters.SingleAffinityResourceDefinition;
+import org.wildfly.extension.undertow.handlers.FileHandler;
 
 
 /**
@@ -111,6 +113,32 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
         subsystemBuilder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, OBFUSCATE_SESSION_ROUTE)
                 .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, OBFUSCATE_SESSION_ROUTE)
                 .end();
+
+        subsystemBuilder.addChildResource(UndertowExtension.PATH_FILTERS)
+                .rejectChildResource(AdaptiveRequestLimitDefinition.INSTANCE.getPathElement());
+
+        subsystemBuilder.addChildResource(UndertowExtension.SERVER_PATH)
+                .addChildResource(UndertowExtension.HOST_PATH)
+                .addChildResource(UndertowExtension.PATH_ACCESS_LOG)
+                .getAttributeBuilder()
+                    .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, AccessLogDefinition.ASYNC, AccessLogDefinition.ASYNC_QUEUE_SIZE, AccessLogDefinition.OVERFLOW_POLICY, AccessLogDefinition.FORMAT, AccessLogDefinition.MAX_FILE_SIZE)
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, AccessLogDefinition.ASYNC, AccessLogDefinition.ASYNC_QUEUE_SIZE, AccessLogDefinition.OVERFLOW_POLICY, AccessLogDefinition.FORMAT, AccessLogDefinition.MAX_FILE_SIZE)
+                .end();
+
+        subsystemBuilder.addChildResource(UndertowExtension.PATH_SERVLET_CONTAINER)
+                .addChildResource(UndertowExtension.PATH_PERSISTENT_SESSIONS)
+                .getAttributeBuilder()
+                    .setDiscard(DiscardAttributeChecker.UNDEFINED, PersistentSessionsDefinition.WRITE_BEHIND_INTERVAL)
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, PersistentSessionsDefinition.WRITE_BEHIND_INTERVAL)
+                .end();
+
+        subsystemBuilder.addChildResource(UndertowExtension.PATH_HANDLERS)
+                .addChildResource(FileHandler.INSTANCE.getPathElement())
+                .getAttributeBuilder()
+                    .setDiscard(DiscardAttributeChecker.DEFAULT_VALUE, FileHandler.CACHE, FileHandler.PRECOMPRESS, FileHandler.BUFFER_CACHE)
+                    .setDiscard(DiscardAttributeChecker.UNDEFINED, FileHandler.TRANSFER_MIN_SIZE)
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, FileHandler.CACHE, FileHandler.PRECOMPRESS, FileHandler.BUFFER_CACHE, FileHandler.TRANSFER_MIN_SIZE)
+                .end();
     }
 
     private static void registerTransformersWildFly18(ResourceTransformationDescriptionBuilder subsystemBuilder) {
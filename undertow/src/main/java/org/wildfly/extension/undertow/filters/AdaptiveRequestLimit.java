@@ -0,0 +1,335 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.filters;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.undertow.server.Connectors;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.util.SameThreadExecutor;
+import io.undertow.util.StatusCodes;
+import org.xnio.XnioExecutor;
+
+/**
+ * A concurrency limit which adapts to the latency of the requests it admits, in the style of a gradient limit.
+ * <p>
+ * The limit grows while the average latency of recent requests stays close to the long term average, and shrinks in
+ * proportion to the latency gradient once requests start queuing within the server. Requests which cannot be admitted
+ * are queued, with priority requests always admitted before the others, and are rejected with a 503 if they cannot be
+ * admitted before their queue timeout, or if the queue is full.
+ */
+class AdaptiveRequestLimit {
+
+    private static final HttpHandler SERVICE_UNAVAILABLE = new ResponseCodeHandler(StatusCodes.SERVICE_UNAVAILABLE);
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // smoothing of the long term latency average, per window
+    private static final double LONG_RTT_SMOOTHING = 0.05;
+    // smoothing of limit changes, per window
+    private static final double LIMIT_SMOOTHING = 0.2;
+    // how much the short term latency may exceed the long term latency before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long queueTimeout;
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+    // guards both queues
+    private final Lock queueLock = new ReentrantLock();
+    private final Deque<QueuedRequest> priorityQueue = new ArrayDeque<>();
+    private final Deque<QueuedRequest> queue = new ArrayDeque<>();
+
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder shedRequests = new LongAdder();
+    private final LongAdder dequeuedRequests = new LongAdder();
+    private final LongAdder totalQueueTime = new LongAdder();
+    private final AtomicLong maxQueueTime = new AtomicLong();
+
+    private final LongAdder windowLatency = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxActiveRequests = new AtomicInteger();
+    private final Lock updateLock = new ReentrantLock();
+    private volatile long windowStart = System.nanoTime();
+    private double longLatency;
+    private double estimatedLimit;
+    private volatile int limit;
+
+    /**
+     * @param initialLimit the initial concurrency limit
+     * @param minLimit     the lowest the limit may shrink to
+     * @param maxLimit     the highest the limit may grow to
+     * @param queueSize    the maximum number of requests waiting for admission
+     * @param queueTimeout the maximum time in milliseconds a request may wait for admission
+     * @throws IllegalArgumentException if the limits do not satisfy {@code 1 <= minLimit <= initialLimit <= maxLimit}
+     */
+    AdaptiveRequestLimit(int initialLimit, int minLimit, int maxLimit, int queueSize, long queueTimeout) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException();
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.queueTimeout = queueTimeout;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    void handleRequest(HttpServerExchange exchange, HttpHandler next, boolean priority) throws Exception {
+        long start = System.nanoTime();
+        if (this.tryAcquire()) {
+            this.admit(exchange, start);
+            next.handleRequest(exchange);
+        } else if (this.queueSize == 0) {
+            this.rejectedRequests.increment();
+            SERVICE_UNAVAILABLE.handleRequest(exchange);
+        } else {
+            // the exchange must be dispatched before it is visible to other threads
+            exchange.dispatch(SameThreadExecutor.INSTANCE, () -> this.enqueue(new QueuedRequest(exchange, next, start), priority));
+        }
+    }
+
+    int getLimit() {
+        return this.limit;
+    }
+
+    int getActiveRequests() {
+        return this.activeRequests.get();
+    }
+
+    int getQueuedRequests() {
+        return this.queuedRequests.get();
+    }
+
+    long getRejectedRequests() {
+        return this.rejectedRequests.sum();
+    }
+
+    long getShedRequests() {
+        return this.shedRequests.sum();
+    }
+
+    /**
+     * @return the average time in milliseconds admitted requests waited in the queue
+     */
+    long getAverageQueueTime() {
+        long count = this.dequeuedRequests.sum();
+        return (count > 0) ? TimeUnit.NANOSECONDS.toMillis(this.totalQueueTime.sum() / count) : 0;
+    }
+
+    /**
+     * @return the longest time in milliseconds an admitted request waited in the queue
+     */
+    long getMaxQueueTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxQueueTime.get());
+    }
+
+    private boolean tryAcquire() {
+        int active;
+        do {
+            active = this.activeRequests.get();
+            if (active >= this.limit) {
+                return false;
+            }
+        } while (!this.activeRequests.compareAndSet(active, active + 1));
+        return true;
+    }
+
+    private void admit(HttpServerExchange exchange, long start) {
+        int active = this.activeRequests.get();
+        this.windowMaxActiveRequests.accumulateAndGet(active, Math::max);
+        exchange.addExchangeCompleteListener(new ExchangeCompletionListener() {
+            @Override
+            public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+                try {
+                    AdaptiveRequestLimit.this.complete(System.nanoTime() - start);
+                } finally {
+                    nextListener.proceed();
+                }
+            }
+        });
+    }
+
+    private void enqueue(QueuedRequest request, boolean priority) {
+        if (this.queuedRequests.incrementAndGet() > this.queueSize) {
+            this.queuedRequests.decrementAndGet();
+            this.rejectedRequests.increment();
+            Connectors.executeRootHandler(SERVICE_UNAVAILABLE, request.exchange);
+            return;
+        }
+        Deque<QueuedRequest> queue = priority ? this.priorityQueue : this.queue;
+        this.queueLock.lock();
+        try {
+            queue.addLast(request);
+        } finally {
+            this.queueLock.unlock();
+        }
+        request.timeoutKey = request.exchange.getIoThread().executeAfter(() -> this.shed(request, queue), this.queueTimeout, TimeUnit.MILLISECONDS);
+        // a request may have completed since this request failed to acquire
+        this.drain();
+    }
+
+    private void shed(QueuedRequest request, Deque<QueuedRequest> queue) {
+        if (request.claim()) {
+            // a shed request is left in its queue, rather than searching for it, and skipped once it reaches the head
+            // since all requests of a queue share the same timeout, shed requests accumulate at the head of their queue
+            this.queueLock.lock();
+            try {
+                QueuedRequest head;
+                while ((head = queue.peekFirst()) != null && head.isClaimed()) {
+                    queue.removeFirst();
+                }
+            } finally {
+                this.queueLock.unlock();
+            }
+            this.queuedRequests.decrementAndGet();
+            this.shedRequests.increment();
+            Connectors.executeRootHandler(SERVICE_UNAVAILABLE, request.exchange);
+        }
+    }
+
+    private void complete(long latency) {
+        this.activeRequests.decrementAndGet();
+        this.windowLatency.add(latency);
+        this.windowSamples.increment();
+        long now = System.nanoTime();
+        if (now - this.windowStart >= WINDOW_NANOS && this.updateLock.tryLock()) {
+            try {
+                if (now - this.windowStart >= WINDOW_NANOS) {
+                    this.windowStart = now;
+                    this.updateLimit();
+                }
+            } finally {
+                this.updateLock.unlock();
+            }
+        }
+        this.drain();
+    }
+
+    private void updateLimit() {
+        long samples = this.windowSamples.sumThenReset();
+        long latency = this.windowLatency.sumThenReset();
+        int maxActiveRequests = this.windowMaxActiveRequests.getAndSet(0);
+        if (samples > 0) {
+            this.updateLimit((double) latency / samples, maxActiveRequests);
+        }
+    }
+
+    /**
+     * Updates the limit from the measurements of a window. Must be called by at most one thread at a time.
+     * @param shortLatency      the average latency of the requests completed during the window
+     * @param maxActiveRequests the highest number of concurrently active requests during the window
+     */
+    void updateLimit(double shortLatency, int maxActiveRequests) {
+        if (this.longLatency == 0) {
+            this.longLatency = shortLatency;
+        } else {
+            this.longLatency = this.longLatency * (1 - LONG_RTT_SMOOTHING) + shortLatency * LONG_RTT_SMOOTHING;
+            // recover quickly from a period of high latency, so that it is not mistaken for the new normal
+            if (this.longLatency / shortLatency > 2) {
+                this.longLatency *= 0.95;
+            }
+        }
+        // do not grow the limit while the application is not using it
+        if (maxActiveRequests < this.estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * this.longLatency / shortLatency));
+        double newLimit = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+        newLimit = this.estimatedLimit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+        this.estimatedLimit = Math.min(Math.max(newLimit, this.minLimit), this.maxLimit);
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    private void drain() {
+        while (this.queuedRequests.get() > 0 && this.tryAcquire()) {
+            QueuedRequest request = this.poll();
+            if (request == null) {
+                this.activeRequests.decrementAndGet();
+                return;
+            }
+            XnioExecutor.Key timeoutKey = request.timeoutKey;
+            if (timeoutKey != null) {
+                timeoutKey.remove();
+            }
+            long queueTime = System.nanoTime() - request.start;
+            this.dequeuedRequests.increment();
+            this.totalQueueTime.add(queueTime);
+            this.maxQueueTime.accumulateAndGet(queueTime, Math::max);
+            this.admit(request.exchange, System.nanoTime());
+            request.exchange.dispatch(request.next);
+        }
+    }
+
+    private QueuedRequest poll() {
+        this.queueLock.lock();
+        try {
+            QueuedRequest request;
+            while ((request = this.priorityQueue.pollFirst()) != null || (request = this.queue.pollFirst()) != null) {
+                if (request.claim()) {
+                    this.queuedRequests.decrementAndGet();
+                    return request;
+                }
+            }
+            return null;
+        } finally {
+            this.queueLock.unlock();
+        }
+    }
+
+    private static class QueuedRequest {
+        final HttpServerExchange exchange;
+        final HttpHandler next;
+        final long start;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        volatile XnioExecutor.Key timeoutKey;
+
+        QueuedRequest(HttpServerExchange exchange, HttpHandler next, long start) {
+            this.exchange = exchange;
+            this.next = next;
+            this.start = start;
+        }
+
+        /**
+         * Claims this request for either admission or shedding.
+         */
+        boolean claim() {
+            return this.claimed.compareAndSet(false, true);
+        }
+
+        boolean isClaimed() {
+            return this.claimed.get();
+        }
+    }
+}
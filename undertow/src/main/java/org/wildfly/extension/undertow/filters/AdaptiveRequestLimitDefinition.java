@@ -0,0 +1,238 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.filters;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import io.undertow.Handlers;
+import io.undertow.predicate.Predicate;
+import io.undertow.predicate.Predicates;
+import io.undertow.server.HttpHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.PredicateValidator;
+import org.wildfly.extension.undertow.UndertowService;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * A request limit whose concurrency limit adapts to the latency of requests, and which admits priority requests first.
+ */
+public class AdaptiveRequestLimitDefinition extends Filter {
+
+    public static final AttributeDefinition INITIAL_LIMIT = new SimpleAttributeDefinitionBuilder("initial-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(20))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MIN_LIMIT = new SimpleAttributeDefinitionBuilder("min-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(1))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MAX_LIMIT = new SimpleAttributeDefinitionBuilder("max-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(1000))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder("queue-size", ModelType.INT)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(100))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition QUEUE_TIMEOUT = new SimpleAttributeDefinitionBuilder("queue-timeout", ModelType.LONG)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(1000L))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition PRIORITY_PREDICATE = new SimpleAttributeDefinitionBuilder("priority-predicate", ModelType.STRING)
+            .setValidator(PredicateValidator.INSTANCE)
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition CURRENT_LIMIT = new SimpleAttributeDefinitionBuilder("current-limit", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition ACTIVE_REQUESTS = new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition QUEUED_REQUESTS = new SimpleAttributeDefinitionBuilder("queued-requests", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition REJECTED_REQUESTS = new SimpleAttributeDefinitionBuilder("rejected-requests", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition SHED_REQUESTS = new SimpleAttributeDefinitionBuilder("shed-requests", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition AVERAGE_QUEUE_TIME = new SimpleAttributeDefinitionBuilder("average-queue-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition MAX_QUEUE_TIME = new SimpleAttributeDefinitionBuilder("max-queue-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final AdaptiveRequestLimitDefinition INSTANCE = new AdaptiveRequestLimitDefinition();
+
+    private AdaptiveRequestLimitDefinition() {
+        super("adaptive-request-limit");
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(INITIAL_LIMIT, MIN_LIMIT, MAX_LIMIT, QUEUE_SIZE, QUEUE_TIMEOUT, PRIORITY_PREDICATE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        OperationStepHandler handler = new ReadMetricHandler();
+        for (SimpleAttributeDefinition metric : Arrays.asList(CURRENT_LIMIT, ACTIVE_REQUESTS, QUEUED_REQUESTS, REJECTED_REQUESTS, SHED_REQUESTS, AVERAGE_QUEUE_TIME, MAX_QUEUE_TIME)) {
+            resourceRegistration.registerMetric(metric, handler);
+        }
+    }
+
+    @Override
+    FilterService createFilterService(ModelNode model) throws OperationFailedException {
+        int initialLimit = model.get(INITIAL_LIMIT.getName()).asInt();
+        int minLimit = model.get(MIN_LIMIT.getName()).asInt();
+        int maxLimit = model.get(MAX_LIMIT.getName()).asInt();
+        if (minLimit > initialLimit || initialLimit > maxLimit) {
+            throw UndertowLogger.ROOT_LOGGER.invalidAdaptiveRequestLimits(MIN_LIMIT.getName(), minLimit, INITIAL_LIMIT.getName(), initialLimit, MAX_LIMIT.getName(), maxLimit);
+        }
+        return new AdaptiveRequestLimitService(this, model, createLimit(model));
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, ModelNode model, HttpHandler next) {
+        return createHttpHandler(createLimit(model), predicate, model, next);
+    }
+
+    static HttpHandler createHttpHandler(AdaptiveRequestLimit limit, Predicate predicate, ModelNode model, HttpHandler next) {
+        Predicate priorityPredicate = model.hasDefined(PRIORITY_PREDICATE.getName()) ? Predicates.parse(model.get(PRIORITY_PREDICATE.getName()).asString(), AdaptiveRequestLimitDefinition.class.getClassLoader()) : Predicates.falsePredicate();
+        HttpHandler handler = exchange -> limit.handleRequest(exchange, next, priorityPredicate.resolve(exchange));
+        if (predicate != null) {
+            return Handlers.predicate(predicate, handler, next);
+        } else {
+            return handler;
+        }
+    }
+
+    private static AdaptiveRequestLimit createLimit(ModelNode model) {
+        return new AdaptiveRequestLimit(model.get(INITIAL_LIMIT.getName()).asInt(), model.get(MIN_LIMIT.getName()).asInt(), model.get(MAX_LIMIT.getName()).asInt(),
+                model.get(QUEUE_SIZE.getName()).asInt(), model.get(QUEUE_TIMEOUT.getName()).asLong());
+    }
+
+    @Override
+    protected Class[] getConstructorSignature() {
+        throw new IllegalStateException(); //should not be used, as the handler is constructed above
+    }
+
+    /**
+     * The limit shared by every filter-ref of an adaptive request limit.
+     */
+    static class AdaptiveRequestLimitService extends FilterService {
+        private final ModelNode model;
+        private final AdaptiveRequestLimit limit;
+
+        AdaptiveRequestLimitService(AdaptiveRequestLimitDefinition definition, ModelNode model, AdaptiveRequestLimit limit) {
+            super(definition, model);
+            this.model = model;
+            this.limit = limit;
+        }
+
+        @Override
+        public HttpHandler createHttpHandler(Predicate predicate, HttpHandler next) {
+            return AdaptiveRequestLimitDefinition.createHttpHandler(this.limit, predicate, this.model, next);
+        }
+
+        AdaptiveRequestLimit getLimit() {
+            return this.limit;
+        }
+    }
+
+    private static class ReadMetricHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.FILTER.append(context.getCurrentAddressValue()));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                return;
+            }
+            AdaptiveRequestLimit limit = ((AdaptiveRequestLimitService) controller.getValue()).getLimit();
+            String name = operation.get(ModelDescriptionConstants.NAME).asString();
+            if (CURRENT_LIMIT.getName().equals(name)) {
+                context.getResult().set(limit.getLimit());
+            } else if (ACTIVE_REQUESTS.getName().equals(name)) {
+                context.getResult().set(limit.getActiveRequests());
+            } else if (QUEUED_REQUESTS.getName().equals(name)) {
+                context.getResult().set(limit.getQueuedRequests());
+            } else if (REJECTED_REQUESTS.getName().equals(name)) {
+                context.getResult().set(limit.getRejectedRequests());
+            } else if (SHED_REQUESTS.getName().equals(name)) {
+                context.getResult().set(limit.getShedRequests());
+            } else if (AVERAGE_QUEUE_TIME.getName().equals(name)) {
+                context.getResult().set(limit.getAverageQueueTime());
+            } else if (MAX_QUEUE_TIME.getName().equals(name)) {
+                context.getResult().set(limit.getMaxQueueTime());
+            }
+        }
+    }
+}
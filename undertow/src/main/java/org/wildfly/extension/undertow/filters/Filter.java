@@ -30,6 +30,7 @@ import io.undertow.Handlers;
 import io.undertow.predicate.Predicate;
 import io.undertow.server.HttpHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -57,6 +58,10 @@ abstract class Filter extends AbstractHandlerDefinition {
         registerRemoveOperation(resourceRegistration, new ServiceRemoveStepHandler(UndertowService.FILTER, add), OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
     }
 
+    FilterService createFilterService(ModelNode model) throws OperationFailedException {
+        return new FilterService(this, model);
+    }
+
     public HttpHandler createHttpHandler(final Predicate predicate, final ModelNode model, HttpHandler next) {
         List<AttributeDefinition> attributes = new ArrayList<>(getAttributes());
         HttpHandler handler = createHandler(getHandlerClass(), model, attributes, next);
@@ -46,6 +46,7 @@ public class FilterDefinitions extends PersistentResourceDefinition {
     public static final FilterDefinitions INSTANCE = new FilterDefinitions();
     private static List<? extends PersistentResourceDefinition> FILTERS = Collections.unmodifiableList(Arrays.asList(
             RequestLimitHandler.INSTANCE,
+            AdaptiveRequestLimitDefinition.INSTANCE,
             ResponseHeaderFilter.INSTANCE,
             GzipFilter.INSTANCE,
             ErrorPageDefinition.INSTANCE,
@@ -35,13 +35,21 @@ import io.undertow.server.handlers.resource.ResourceHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.Constants;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * @author <a href="mailto:tomaz.cerar@redhat.com">Tomaz Cerar</a> (c) 2013 Red Hat Inc.
@@ -95,13 +103,68 @@ public class FileHandler extends Handler {
             .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
             .build();
 
+    public static final AttributeDefinition CACHE = new SimpleAttributeDefinitionBuilder("cache", ModelType.BOOLEAN)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .build();
+
+    public static final AttributeDefinition PRECOMPRESS = new SimpleAttributeDefinitionBuilder("precompress", ModelType.BOOLEAN)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .setDefaultValue(ModelNode.FALSE)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .build();
+
+    public static final AttributeDefinition BUFFER_CACHE = new SimpleAttributeDefinitionBuilder("buffer-cache", ModelType.STRING)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode("default"))
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .build();
+
+    public static final AttributeDefinition TRANSFER_MIN_SIZE = new SimpleAttributeDefinitionBuilder("transfer-min-size", ModelType.LONG)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_HITS = new SimpleAttributeDefinitionBuilder("cache-hits", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISSES = new SimpleAttributeDefinitionBuilder("cache-misses", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_HIT_RATIO = new SimpleAttributeDefinitionBuilder("cache-hit-ratio", ModelType.DOUBLE)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition COMPRESSION_BYTES_SAVED = new SimpleAttributeDefinitionBuilder("compression-bytes-saved", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+
     private FileHandler() {
         super(Constants.FILE);
     }
 
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING, FOLLOW_SYMLINK, CASE_SENSITIVE, SAFE_SYMLINK_PATHS);
+        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING, FOLLOW_SYMLINK, CASE_SENSITIVE, SAFE_SYMLINK_PATHS, CACHE, PRECOMPRESS, BUFFER_CACHE, TRANSFER_MIN_SIZE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        OperationStepHandler handler = new ReadMetricHandler();
+        for (SimpleAttributeDefinition metric : Arrays.asList(CACHE_HITS, CACHE_MISSES, CACHE_HIT_RATIO, COMPRESSION_BYTES_SAVED)) {
+            resourceRegistration.registerMetric(metric, handler);
+        }
     }
 
     @Override
@@ -114,6 +177,10 @@ public class FileHandler extends Handler {
         final int cacheBuffers = CACHE_BUFFERS.resolveModelAttribute(context, model).asInt();
         final List<String> safePaths = SAFE_SYMLINK_PATHS.unwrap(context, model);
         final String[] paths = safePaths.toArray(new String[safePaths.size()]);
+        final boolean cache = CACHE.resolveModelAttribute(context, model).asBoolean();
+        final boolean precompress = PRECOMPRESS.resolveModelAttribute(context, model).asBoolean();
+        final ModelNode transferMinSizeNode = TRANSFER_MIN_SIZE.resolveModelAttribute(context, model);
+        final long transferMinSize = transferMinSizeNode.isDefined() ? transferMinSizeNode.asLong() : cacheBufferSize * cacheBuffers;
 
         UndertowLogger.ROOT_LOGGER.creatingFileHandler(path, directoryListing, followSymlink, caseSensitive, safePaths);
         Path base;
@@ -122,9 +189,46 @@ public class FileHandler extends Handler {
         } catch (IOException e) {
             throw new OperationFailedException(UndertowLogger.ROOT_LOGGER.unableAddHandlerForPath(path));
         }
-        PathResourceManager resourceManager = new PathResourceManager(base, cacheBufferSize * cacheBuffers, caseSensitive, followSymlink, paths);
+        if (cache || precompress) {
+            Path encodedResourcesRoot = null;
+            if (precompress) {
+                String tempDir = WildFlySecurityManager.getPropertyPrivileged("jboss.server.temp.dir", WildFlySecurityManager.getPropertyPrivileged("java.io.tmpdir", "."));
+                encodedResourcesRoot = Paths.get(tempDir, "undertow-encoded", context.getCurrentAddressValue());
+            }
+            final String bufferCache = BUFFER_CACHE.resolveModelAttribute(context, model).asString();
+            return new StaticResourceHandler(base, transferMinSize, caseSensitive, followSymlink, paths, bufferCache, cacheBufferSize * cacheBuffers / 8, directoryListing, encodedResourcesRoot);
+        }
+        PathResourceManager resourceManager = new PathResourceManager(base, transferMinSize, caseSensitive, followSymlink, paths);
         ResourceHandler handler = new ResourceHandler(resourceManager);
         handler.setDirectoryListingEnabled(directoryListing);
         return handler;
     }
+
+    static class ReadMetricHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(Handler.CAPABILITY.getCapabilityServiceName(context.getCurrentAddress()));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                return;
+            }
+            HttpHandler httpHandler = ((HandlerService) controller.getService()).getHttpHandler();
+            if (!(httpHandler instanceof StaticResourceHandler)) {
+                return;
+            }
+            StaticResourceHandler handler = (StaticResourceHandler) httpHandler;
+            String name = operation.get(ModelDescriptionConstants.NAME).asString();
+            if (CACHE_HITS.getName().equals(name)) {
+                context.getResult().set(handler.getCacheHits());
+            } else if (CACHE_MISSES.getName().equals(name)) {
+                context.getResult().set(handler.getCacheMisses());
+            } else if (CACHE_HIT_RATIO.getName().equals(name)) {
+                long hits = handler.getCacheHits();
+                long total = hits + handler.getCacheMisses();
+                context.getResult().set((total > 0) ? (double) hits / total : 0d);
+            } else if (COMPRESSION_BYTES_SAVED.getName().equals(name)) {
+                context.getResult().set(handler.getBytesSaved());
+            }
+        }
+    }
 }
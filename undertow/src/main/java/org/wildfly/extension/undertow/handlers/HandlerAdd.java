@@ -22,6 +22,8 @@
 
 package org.wildfly.extension.undertow.handlers;
 
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.cache.DirectBufferCache;
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.CapabilityServiceBuilder;
 import org.jboss.as.controller.OperationContext;
@@ -30,6 +32,7 @@ import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.requestcontroller.RequestController;
+import org.wildfly.extension.undertow.BufferCacheService;
 import org.wildfly.extension.undertow.Capabilities;
 
 /**
@@ -48,7 +51,8 @@ class HandlerAdd extends AbstractAddStepHandler {
     protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
         final String name = context.getCurrentAddressValue();
 
-        final HandlerService service = new HandlerService(handler.createHandler(context, model), name);
+        final HttpHandler httpHandler = handler.createHandler(context, model);
+        final HandlerService service = new HandlerService(httpHandler, name);
 
         CapabilityServiceBuilder<?> builder = context.getCapabilityServiceTarget().addCapability(Handler.CAPABILITY)
                 .setInstance(service)
@@ -58,6 +62,11 @@ class HandlerAdd extends AbstractAddStepHandler {
             builder.addCapabilityRequirement(Capabilities.REF_REQUEST_CONTROLLER, RequestController.class, service.getRequestControllerInjectedValue());
         }
 
+        if (httpHandler instanceof StaticResourceHandler) {
+            StaticResourceHandler staticResourceHandler = (StaticResourceHandler) httpHandler;
+            builder.addDependency(BufferCacheService.SERVICE_NAME.append(staticResourceHandler.getBufferCacheName()), DirectBufferCache.class, staticResourceHandler.getBufferCache());
+        }
+
         builder.install();
     }
 }
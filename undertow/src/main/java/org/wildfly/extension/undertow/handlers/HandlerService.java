@@ -22,6 +22,7 @@
 
 package org.wildfly.extension.undertow.handlers;
 
+import java.io.IOException;
 import java.util.Collections;
 
 import io.undertow.server.HttpHandler;
@@ -53,6 +54,13 @@ public class HandlerService implements Service<HttpHandler> {
     @Override
     public void start(StartContext context) throws StartException {
         UndertowLogger.ROOT_LOGGER.tracef("starting handler: %s", httpHandler);
+        if (httpHandler instanceof StaticResourceHandler) {
+            try {
+                ((StaticResourceHandler) httpHandler).start();
+            } catch (IOException e) {
+                throw new StartException(e);
+            }
+        }
         if(requestControllerInjectedValue.getOptionalValue() != null) {
             controlPoint = requestControllerInjectedValue.getValue().getControlPoint("org.wildfly.extension.undertow.handlers", name);
             realHandler = new GlobalRequestControllerHandler(httpHandler, controlPoint, Collections.emptyList());
@@ -67,6 +75,9 @@ public class HandlerService implements Service<HttpHandler> {
             requestControllerInjectedValue.getValue().removeControlPoint(controlPoint);
             controlPoint = null;
         }
+        if (httpHandler instanceof StaticResourceHandler) {
+            ((StaticResourceHandler) httpHandler).stop();
+        }
     }
 
     @Override
@@ -74,6 +85,10 @@ public class HandlerService implements Service<HttpHandler> {
         return realHandler;
     }
 
+    HttpHandler getHttpHandler() {
+        return httpHandler;
+    }
+
     public InjectedValue<RequestController> getRequestControllerInjectedValue() {
         return requestControllerInjectedValue;
     }
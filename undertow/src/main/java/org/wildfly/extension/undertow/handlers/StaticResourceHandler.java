@@ -0,0 +1,277 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+import io.undertow.predicate.Predicates;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.encoding.ContentEncodedResource;
+import io.undertow.server.handlers.encoding.ContentEncodedResourceManager;
+import io.undertow.server.handlers.encoding.ContentEncodingRepository;
+import io.undertow.server.handlers.encoding.DeflateEncodingProvider;
+import io.undertow.server.handlers.encoding.GzipEncodingProvider;
+import io.undertow.server.handlers.resource.CachingResourceManager;
+import io.undertow.server.handlers.resource.PathResourceManager;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceHandler;
+import io.undertow.server.handlers.resource.ResourceManager;
+import org.jboss.msc.value.InjectedValue;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.xnio.IoUtils;
+
+/**
+ * Serves static resources from a shared {@link DirectBufferCache}, optionally along with gzip and deflate variants which
+ * are compressed once and then cached. Cached entries do not expire, but are invalidated when the underlying files change,
+ * and are removed from the buffer cache when the handler stops.
+ * Resources larger than the transfer size are served with {@link java.nio.channels.FileChannel#transferTo}.
+ */
+class StaticResourceHandler implements HttpHandler {
+
+    private static final int METADATA_CACHE_SIZE = 1024;
+    private static final int MIN_ENCODED_RESOURCE_SIZE = 1024;
+    private static final int MAX_ENCODED_RESOURCE_SIZE = 10 * 1024 * 1024;
+    private static final String[] ENCODINGS = { "gzip", "deflate" };
+    // the suffix, followed by the encoding, of the files in which ContentEncodedResourceManager stores compressed variants
+    private static final String ENCODED_RESOURCE_SUFFIX = ".undertow.encoding.";
+    private static final String[] COMPRESSIBLE_SUFFIXES = { ".html", ".htm", ".css", ".js", ".mjs", ".json", ".map", ".xml", ".svg", ".txt", ".csv", ".ico" };
+
+    private final Path base;
+    private final Path encodedResourcesRoot;
+    private final long transferMinSize;
+    private final boolean caseSensitive;
+    private final boolean followSymlink;
+    private final String[] safePaths;
+    private final String bufferCacheName;
+    private final long maxCachedFileSize;
+    private final boolean directoryListing;
+    private final InjectedValue<DirectBufferCache> bufferCache = new InjectedValue<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    private volatile ResourceHandler handler;
+    private TrackingBufferCache cache;
+    private ResourceManager resourceManager;
+    private ResourceManager encodedResourceManager;
+
+    /**
+     * @param bufferCacheName      the name of the buffer cache in which resources are cached
+     * @param maxCachedFileSize    the size in bytes above which resources are not cached
+     * @param encodedResourcesRoot the directory in which to store compressed resources, or null to not compress resources
+     */
+    StaticResourceHandler(Path base, long transferMinSize, boolean caseSensitive, boolean followSymlink, String[] safePaths, String bufferCacheName, long maxCachedFileSize, boolean directoryListing, Path encodedResourcesRoot) {
+        this.base = base;
+        this.transferMinSize = transferMinSize;
+        this.caseSensitive = caseSensitive;
+        this.followSymlink = followSymlink;
+        this.safePaths = safePaths;
+        this.bufferCacheName = bufferCacheName;
+        this.maxCachedFileSize = maxCachedFileSize;
+        this.directoryListing = directoryListing;
+        this.encodedResourcesRoot = encodedResourcesRoot;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        this.handler.handleRequest(exchange);
+    }
+
+    String getBufferCacheName() {
+        return this.bufferCacheName;
+    }
+
+    InjectedValue<DirectBufferCache> getBufferCache() {
+        return this.bufferCache;
+    }
+
+    synchronized void start() throws IOException {
+        TrackingBufferCache cache = new TrackingBufferCache(this.bufferCache.getValue(), this.cacheHits, this.cacheMisses);
+        // cached entries never expire, the resource manager invalidates them when files change
+        PathResourceManager pathResourceManager = new PathResourceManager(this.base, this.transferMinSize, this.caseSensitive, this.followSymlink, this.safePaths);
+        ResourceManager resourceManager = new CachingResourceManager(METADATA_CACHE_SIZE, this.maxCachedFileSize, cache, pathResourceManager, -1);
+        ResourceHandler handler = new ResourceHandler(resourceManager);
+        handler.setDirectoryListingEnabled(this.directoryListing);
+        if (this.encodedResourcesRoot != null) {
+            Files.createDirectories(this.encodedResourcesRoot);
+            Path encodedResourcesRoot = this.encodedResourcesRoot;
+            CachingResourceManager encodedResourceManager = new CachingResourceManager(METADATA_CACHE_SIZE, this.maxCachedFileSize, cache, new PathResourceManager(encodedResourcesRoot, this.transferMinSize), -1);
+            ContentEncodingRepository encodings = new ContentEncodingRepository()
+                    .addEncodingHandler(ENCODINGS[0], new GzipEncodingProvider(Deflater.BEST_COMPRESSION), 50)
+                    .addEncodingHandler(ENCODINGS[1], new DeflateEncodingProvider(Deflater.BEST_COMPRESSION), 10);
+            ContentEncodedResourceManager contentEncodedResourceManager = new ContentEncodedResourceManager(encodedResourcesRoot,
+                    encodedResourceManager, encodings, MIN_ENCODED_RESOURCE_SIZE, MAX_ENCODED_RESOURCE_SIZE, Predicates.suffixes(COMPRESSIBLE_SUFFIXES)) {
+                @Override
+                public ContentEncodedResource getResource(Resource resource, HttpServerExchange exchange) throws IOException {
+                    ContentEncodedResource encoded = super.getResource(resource, exchange);
+                    if (encoded != null) {
+                        Long length = resource.getContentLength();
+                        Long encodedLength = encoded.getResource().getContentLength();
+                        if (length != null && encodedLength != null) {
+                            StaticResourceHandler.this.bytesSaved.add(length - encodedLength);
+                        }
+                    }
+                    return encoded;
+                }
+            };
+            // compressed variants are stale once the original changes
+            pathResourceManager.registerResourceChangeListener(changes -> {
+                for (ResourceChangeEvent change : changes) {
+                    String path = change.getResource();
+                    for (String encoding : ENCODINGS) {
+                        String encodedPath = path + ENCODED_RESOURCE_SUFFIX + encoding;
+                        try {
+                            Files.deleteIfExists(encodedResourcesRoot.resolve(encodedPath.startsWith("/") ? encodedPath.substring(1) : encodedPath));
+                        } catch (IOException e) {
+                            UndertowLogger.ROOT_LOGGER.debugf(e, "Failed to remove %s", encodedPath);
+                        }
+                        encodedResourceManager.invalidate(encodedPath);
+                    }
+                }
+            });
+            handler.setContentEncodedResourceManager(contentEncodedResourceManager);
+            this.encodedResourceManager = encodedResourceManager;
+        }
+        this.cache = cache;
+        this.resourceManager = resourceManager;
+        this.handler = handler;
+    }
+
+    synchronized void stop() {
+        // stops the file watchers, and discards the cached metadata
+        IoUtils.safeClose(this.resourceManager);
+        IoUtils.safeClose(this.encodedResourceManager);
+        this.resourceManager = null;
+        this.encodedResourceManager = null;
+        // the buffer cache outlives this handler
+        if (this.cache != null) {
+            this.cache.clear();
+            this.cache = null;
+        }
+        if (this.encodedResourcesRoot != null) {
+            try (Stream<Path> paths = Files.walk(this.encodedResourcesRoot)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                UndertowLogger.ROOT_LOGGER.debugf(e, "Failed to remove %s", this.encodedResourcesRoot);
+            }
+        }
+    }
+
+    long getCacheHits() {
+        return this.cacheHits.sum();
+    }
+
+    long getCacheMisses() {
+        return this.cacheMisses.sum();
+    }
+
+    long getBytesSaved() {
+        return this.bytesSaved.sum();
+    }
+
+    /**
+     * A view of a shared buffer cache which counts hits and misses, and tracks the entries it added so they can be removed when the handler stops.
+     */
+    static class TrackingBufferCache extends DirectBufferCache {
+        private final DirectBufferCache cache;
+        private final LongAdder hits;
+        private final LongAdder misses;
+        private final Set<Object> keys = ConcurrentHashMap.newKeySet();
+
+        TrackingBufferCache(DirectBufferCache cache, LongAdder hits, LongAdder misses) {
+            // the buffers of this cache are never used, every operation is delegated to the shared cache
+            super(1, 1, 1);
+            this.cache = cache;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        @Override
+        public CacheEntry add(Object key, int size) {
+            CacheEntry entry = this.cache.add(key, size);
+            if (entry != null) {
+                this.keys.add(key);
+            }
+            return entry;
+        }
+
+        @Override
+        public CacheEntry add(Object key, int size, int expires) {
+            CacheEntry entry = this.cache.add(key, size, expires);
+            if (entry != null) {
+                this.keys.add(key);
+            }
+            return entry;
+        }
+
+        @Override
+        public CacheEntry get(Object key) {
+            CacheEntry entry = this.cache.get(key);
+            if (entry != null && entry.enabled()) {
+                this.hits.increment();
+            } else {
+                this.misses.increment();
+                if (entry == null) {
+                    // evicted by the shared cache
+                    this.keys.remove(key);
+                }
+            }
+            return entry;
+        }
+
+        @Override
+        public Set<Object> getAllKeys() {
+            return Collections.unmodifiableSet(this.keys);
+        }
+
+        @Override
+        public void remove(Object key) {
+            this.cache.remove(key);
+            this.keys.remove(key);
+        }
+
+        /**
+         * Removes the entries added through this view from the shared cache.
+         */
+        void clear() {
+            Iterator<Object> keys = this.keys.iterator();
+            while (keys.hasNext()) {
+                this.cache.remove(keys.next());
+                keys.remove();
+            }
+        }
+    }
+}
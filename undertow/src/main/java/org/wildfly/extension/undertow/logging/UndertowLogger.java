@@ -432,4 +432,23 @@ public interface UndertowLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 107, value = "Generated obfuscated session route '%s' from '%s'")
     void obfuscatedSessionRoute(String obfuscatedRoute, String route);
+
+    @LogMessage(level = WARN)
+    @Message(id = 108, value = "Failed to load persistent session attribute %s for session %s")
+    void failedToLoadSessionAttribute(String attributeName, String sessionID, @Cause Exception e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 109, value = "Failed to persist session %s of deployment %s")
+    void failedToPersistSession(String sessionID, String deploymentName, @Cause Exception e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 110, value = "Failed to write access log records to %s")
+    void failedToWriteAccessLog(Path file, @Cause IOException e);
+
+    @Message(id = 111, value = "%s (%d) must not exceed %s (%d), which must not exceed %s (%d)")
+    OperationFailedException invalidAdaptiveRequestLimits(String minName, int min, String initialName, int initial, String maxName, int max);
+
+    @LogMessage(level = WARN)
+    @Message(id = 112, value = "Failed to restore persistent session from %s, the session is discarded")
+    void failedToLoadPersistentSession(File file, @Cause IOException e);
 }
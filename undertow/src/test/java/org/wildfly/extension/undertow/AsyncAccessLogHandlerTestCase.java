@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.undertow.Undertow;
+import io.undertow.predicate.Predicate;
+import io.undertow.predicate.Predicates;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.server.handlers.accesslog.AccessLogHandler;
+import io.undertow.server.handlers.accesslog.AccessLogReceiver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extension.undertow.AsyncFileAccessLogReceiver.Format;
+import org.wildfly.extension.undertow.AsyncFileAccessLogReceiver.OverflowPolicy;
+
+/**
+ * Unit test for {@link AsyncAccessLogHandler}.
+ */
+public class AsyncAccessLogHandlerTestCase {
+
+    private static final Predicate PREDICATE = Predicates.not(Predicates.path("/ignored"));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void log() throws Exception {
+        // records must match those of the Undertow access log handler
+        for (String pattern : Arrays.asList("common", "combined", "%m %U%q %s \"%{i,X-Test}\" %{i,X-Missing} ${REQUEST_LINE} 100%%")) {
+            Path directory = this.folder.newFolder().toPath();
+            List<String> expected = new ArrayList<>();
+            AccessLogReceiver receiver = expected::add;
+            this.log(new AccessLogHandler(ResponseCodeHandler.HANDLE_200, receiver, pattern, this.getClass().getClassLoader(), PREDICATE));
+            AsyncFileAccessLogReceiver asyncReceiver = new AsyncFileAccessLogReceiver(directory, "access.", "log", false, 0, Format.TEXT, 16, OverflowPolicy.BLOCK, null, "test-access-log-writer");
+            try {
+                this.log(new AsyncAccessLogHandler(ResponseCodeHandler.HANDLE_200, asyncReceiver, pattern, this.getClass().getClassLoader(), PREDICATE));
+            } finally {
+                asyncReceiver.close();
+            }
+            assertEquals(2, expected.size());
+            List<String> records = Files.readAllLines(directory.resolve("access.log"), StandardCharsets.UTF_8);
+            assertEquals(pattern, expected.size(), records.size());
+            for (int i = 0; i < records.size(); ++i) {
+                // ignore the time of the request
+                assertEquals(pattern, expected.get(i).replaceAll("\\[.*\\]", "[]"), records.get(i).replaceAll("\\[.*\\]", "[]"));
+            }
+        }
+    }
+
+    private void log(HttpHandler handler) throws Exception {
+        Undertow server = Undertow.builder().addHttpListener(0, "localhost").setHandler(handler).build();
+        server.start();
+        try {
+            int port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+            for (String path : Arrays.asList("/first?a=b", "/ignored", "/second")) {
+                HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+                connection.setRequestProperty("X-Test", "value");
+                try {
+                    connection.getResponseCode();
+                } finally {
+                    connection.disconnect();
+                }
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void tokenize() {
+        assertEquals(Collections.emptyList(), AsyncAccessLogHandler.tokenize(""));
+        assertEquals(Arrays.asList("literal"), AsyncAccessLogHandler.tokenize("literal"));
+        assertEquals(Arrays.asList("%h", " ", "%l", " [", "%t", "] \"", "%r", "\" ", "%s"), AsyncAccessLogHandler.tokenize("%h %l [%t] \"%r\" %s"));
+        assertEquals(Arrays.asList("%{i,User-Agent}", " ", "${REMOTE_HOST}", "-", "%{c,id}"), AsyncAccessLogHandler.tokenize("%{i,User-Agent} ${REMOTE_HOST}-%{c,id}"));
+        // unterminated or incomplete attributes are literal text
+        assertEquals(Arrays.asList("100", "%%", " done ${unterminated"), AsyncAccessLogHandler.tokenize("100%% done ${unterminated"));
+        assertEquals(Arrays.asList("$5 ", "%h", "%"), AsyncAccessLogHandler.tokenize("$5 %h%"));
+    }
+}
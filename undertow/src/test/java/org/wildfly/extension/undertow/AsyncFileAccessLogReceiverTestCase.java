@@ -0,0 +1,274 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extension.undertow.AsyncFileAccessLogReceiver.Format;
+import org.wildfly.extension.undertow.AsyncFileAccessLogReceiver.OverflowPolicy;
+
+/**
+ * Unit test for {@link AsyncFileAccessLogReceiver}.
+ */
+public class AsyncFileAccessLogReceiverTestCase {
+
+    private static final String PREFIX = "access.";
+    private static final String SUFFIX = "log";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AsyncFileAccessLogReceiver createReceiver(Path directory, long maxFileSize, Format format, int queueSize, OverflowPolicy policy) {
+        return new AsyncFileAccessLogReceiver(directory, PREFIX, SUFFIX, false, maxFileSize, format, queueSize, policy, null, "test-access-log-writer");
+    }
+
+    @Test
+    public void capacity() throws IOException {
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(this.folder.getRoot().toPath(), 0, Format.TEXT, 5, OverflowPolicy.DROP);
+        try {
+            assertEquals(8, receiver.getCapacity());
+        } finally {
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void blockingProducers() throws Exception {
+        Path directory = this.folder.getRoot().toPath();
+        int producers = 4;
+        int records = 2000;
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(directory, 0, Format.TEXT, 4, OverflowPolicy.BLOCK);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(producers);
+            for (int i = 0; i < producers; ++i) {
+                int producer = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    StringBuilder record = new StringBuilder();
+                    for (int j = 0; j < records; ++j) {
+                        // the receiver must copy the record, since the buffer is reused
+                        record.setLength(0);
+                        record.append(producer).append('-').append(j);
+                        receiver.log(record);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            receiver.close();
+        }
+        assertEquals(0, receiver.getDroppedRecords());
+
+        List<String> lines = Files.readAllLines(directory.resolve(PREFIX + SUFFIX), StandardCharsets.UTF_8);
+        assertEquals(producers * records, lines.size());
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < producers; ++i) {
+            for (int j = 0; j < records; ++j) {
+                expected.add(i + "-" + j);
+            }
+        }
+        assertEquals(expected, new HashSet<>(lines));
+    }
+
+    @Test
+    public void droppingProducer() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        int records = 10000;
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(directory, 0, Format.TEXT, 2, OverflowPolicy.DROP);
+        try {
+            for (int i = 0; i < records; ++i) {
+                receiver.logMessage(Integer.toString(i));
+            }
+        } finally {
+            receiver.close();
+        }
+        assertEquals(0, receiver.getBlockedRecords());
+
+        List<String> lines = Files.readAllLines(directory.resolve(PREFIX + SUFFIX), StandardCharsets.UTF_8);
+        assertEquals(records, lines.size() + receiver.getDroppedRecords());
+        // records which were not dropped are written in order
+        for (int i = 1; i < lines.size(); ++i) {
+            assertTrue(Integer.parseInt(lines.get(i - 1)) < Integer.parseInt(lines.get(i)));
+        }
+    }
+
+    @Test
+    public void logAfterClose() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(directory, 0, Format.TEXT, 4, OverflowPolicy.BLOCK);
+        receiver.logMessage("before");
+        receiver.close();
+        receiver.logMessage("after");
+
+        assertEquals(Stream.of("before").collect(Collectors.toList()), Files.readAllLines(directory.resolve(PREFIX + SUFFIX), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void sizeRotation() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        int maxFileSize = 100;
+        int records = 20;
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(directory, maxFileSize, Format.TEXT, 64, OverflowPolicy.BLOCK);
+        try {
+            for (int i = 0; i < records; ++i) {
+                // 30 bytes per line, including the line separator
+                receiver.logMessage(String.format("record-%022d", i));
+                if (i % 3 == 2) {
+                    // force the writer to flush, so that the log is written in several batches
+                    this.awaitFileSize(directory.resolve(PREFIX + SUFFIX), 30);
+                }
+            }
+        } finally {
+            receiver.close();
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.sorted().collect(Collectors.toList());
+        }
+        assertTrue(files.toString(), files.size() > 1);
+        Set<String> lines = new HashSet<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            assertTrue(name, name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+            if (!name.equals(PREFIX + SUFFIX)) {
+                // archived files are named after the day of their records
+                assertTrue(name, name.matches("access\\.\\d{4}-\\d{2}-\\d{2}(\\.\\d+)?\\.log"));
+            }
+            lines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+        }
+        assertEquals(records, lines.size());
+    }
+
+    private void awaitFileSize(Path file, long size) throws IOException {
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (!Files.exists(file) || Files.size(file) < size) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.yield();
+        }
+    }
+
+    @Test
+    public void text() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 200_000) {
+            large.append("h\u00e9llo \ud83d\ude00 ");
+        }
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(directory, 0, Format.TEXT, 4, OverflowPolicy.BLOCK);
+        try {
+            receiver.logMessage("first");
+            // larger than the write buffer
+            receiver.log(large);
+            receiver.logMessage("last");
+        } finally {
+            receiver.close();
+        }
+
+        List<String> lines = Files.readAllLines(directory.resolve(PREFIX + SUFFIX), StandardCharsets.UTF_8);
+        assertEquals(Stream.of("first", large.toString(), "last").collect(Collectors.toList()), lines);
+    }
+
+    @Test
+    public void json() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        long before = System.currentTimeMillis();
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(directory, 0, Format.JSON, 4, OverflowPolicy.BLOCK);
+        try {
+            receiver.logMessage("GET /a?b=\"c\"\\d\n\r\t\u0001\u001f \u00e9");
+        } finally {
+            receiver.close();
+        }
+        long after = System.currentTimeMillis();
+
+        List<String> lines = Files.readAllLines(directory.resolve(PREFIX + SUFFIX), StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        String prefix = "{\"timestamp\":";
+        String suffix = ",\"message\":\"GET /a?b=\\\"c\\\"\\\\d\\n\\r\\t\\u0001\\u001f \u00e9\"}";
+        assertTrue(line, line.startsWith(prefix) && line.endsWith(suffix));
+        long timestamp = Long.parseLong(line.substring(prefix.length(), line.length() - suffix.length()));
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    public void binary() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        String[] records = new String[] { "", "ascii", "h\u00e9llo \u20ac \ud83d\ude00", "unpaired \ud83d surrogate" };
+        long before = System.currentTimeMillis();
+        AsyncFileAccessLogReceiver receiver = this.createReceiver(directory, 0, Format.BINARY, 4, OverflowPolicy.BLOCK);
+        try {
+            for (String record : records) {
+                receiver.logMessage(record);
+            }
+        } finally {
+            receiver.close();
+        }
+        long after = System.currentTimeMillis();
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(PREFIX + SUFFIX)));
+        for (String record : records) {
+            long timestamp = buffer.getLong();
+            assertTrue(timestamp >= before && timestamp <= after);
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            assertEquals(new String(record.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), new String(bytes, StandardCharsets.UTF_8));
+        }
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void utf8Length() {
+        for (String value : new String[] { "", "ascii", "\u00e9\u07ff", "\u0800\u20ac\uffff", "\ud83d\ude00", "\ud83d", "\ude00\ud83d" }) {
+            CharBuffer chars = CharBuffer.wrap(value);
+            assertEquals(value, StandardCharsets.UTF_8.encode(chars.duplicate()).remaining(), AsyncFileAccessLogReceiver.utf8Length(chars));
+        }
+    }
+}
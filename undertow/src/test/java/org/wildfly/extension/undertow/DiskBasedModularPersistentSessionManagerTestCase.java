@@ -0,0 +1,232 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
+import io.undertow.servlet.api.SessionPersistenceManager.PersistentSession;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the per session files, lazy restore and write-behind of {@link DiskBasedModularPersistentSessionManager}.
+ */
+public class DiskBasedModularPersistentSessionManagerTestCase {
+
+    private static final String DEPLOYMENT = "test.war";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    private DiskBasedModularPersistentSessionManager manager;
+
+    private DiskBasedModularPersistentSessionManager start(long writeBehindInterval) throws Exception {
+        final PathManager pathManager = mock(PathManager.class);
+        when(pathManager.resolveRelativePathEntry("sessions", null)).thenReturn(new File(this.folder.getRoot(), "sessions").getAbsolutePath());
+        this.manager = new DiskBasedModularPersistentSessionManager("sessions", null, writeBehindInterval);
+        this.manager.getPathManager().inject(pathManager);
+        this.manager.getModuleLoaderInjectedValue().inject(mock(ModuleLoader.class));
+        this.manager.getExecutorInjectedValue().inject(this.executor);
+        this.manager.getScheduledExecutor().inject(this.executor);
+        this.manager.start(mock(StartContext.class));
+        return this.manager;
+    }
+
+    @After
+    public void stop() {
+        if (this.manager != null) {
+            this.manager.stop(mock(StopContext.class));
+        }
+        this.executor.shutdownNow();
+    }
+
+    private File getDeploymentDir() {
+        return new File(new File(this.folder.getRoot(), "sessions"), DEPLOYMENT + ".sessions");
+    }
+
+    private static Date expiry(long delay) {
+        return new Date(System.currentTimeMillis() + delay);
+    }
+
+    @Test
+    public void testSessionPerFile() throws Exception {
+        final DiskBasedModularPersistentSessionManager manager = this.start(0);
+        final Map<String, PersistentSession> sessions = new HashMap<>();
+        sessions.put("session1", new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("a", "1")));
+        sessions.put("session2", new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("b", new ArrayList<>(Collections.singletonList("2")))));
+        manager.persistSessions(DEPLOYMENT, sessions);
+
+        final File[] files = this.getDeploymentDir().listFiles();
+        assertNotNull(files);
+        assertEquals(2, files.length);
+
+        final Map<String, PersistentSession> loaded = manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(2, loaded.size());
+        assertEquals(Collections.singletonMap("a", "1"), new HashMap<>(loaded.get("session1").getSessionData()));
+        assertEquals(Collections.singletonMap("b", Collections.singletonList("2")), new HashMap<>(loaded.get("session2").getSessionData()));
+
+        // files of sessions which no longer exist are removed
+        manager.persistSessions(DEPLOYMENT, Collections.singletonMap("session1", sessions.get("session1")));
+        assertEquals(1, this.getDeploymentDir().listFiles().length);
+    }
+
+    @Test
+    public void testPartitionedPersist() throws Exception {
+        final DiskBasedModularPersistentSessionManager manager = this.start(0);
+        // enough sessions to be written by several threads
+        final Map<String, PersistentSession> sessions = new HashMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            sessions.put("session" + i, new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("a", i)));
+        }
+        manager.persistSessions(DEPLOYMENT, sessions);
+        assertEquals(1000, this.getDeploymentDir().listFiles().length);
+
+        final Map<String, PersistentSession> loaded = manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(1000, loaded.size());
+        assertEquals(999, loaded.get("session999").getSessionData().get("a"));
+    }
+
+    @Test
+    public void testTruncatedSessionFile() throws Exception {
+        final DiskBasedModularPersistentSessionManager manager = this.start(0);
+        final Map<String, PersistentSession> sessions = new HashMap<>();
+        sessions.put("session1", new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("a", "1")));
+        sessions.put("session2", new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("b", "2")));
+        manager.persistSessions(DEPLOYMENT, sessions);
+
+        // truncate one of the files within its expiry, as if the server crashed while writing it
+        final File[] files = this.getDeploymentDir().listFiles();
+        assertNotNull(files);
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            file.setLength(4);
+        }
+
+        // the other session is still restored, and the truncated file is removed
+        final Map<String, PersistentSession> loaded = manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(1, loaded.size());
+        assertEquals(1, this.getDeploymentDir().listFiles().length);
+        assertTrue(files[1].exists());
+    }
+
+    @Test
+    public void testLazyRestore() throws Exception {
+        final DiskBasedModularPersistentSessionManager manager = this.start(0);
+        final Map<String, PersistentSession> sessions = new HashMap<>();
+        sessions.put("session", new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("a", "1")));
+        sessions.put("other", new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("b", "1")));
+        manager.persistSessions(DEPLOYMENT, sessions);
+
+        final Map<String, PersistentSession> loaded = manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(2, loaded.size());
+
+        // the attributes are only read from the session file on first access
+        manager.persistSessions(DEPLOYMENT, Collections.singletonMap("session", new PersistentSession(expiry(TimeUnit.HOURS.toMillis(1)), Collections.singletonMap("a", "2"))));
+        assertEquals("2", loaded.get("session").getSessionData().get("a"));
+
+        // expired sessions are neither restored, nor retained
+        manager.persistSessions(DEPLOYMENT, Collections.singletonMap("expired", new PersistentSession(expiry(-1), Collections.singletonMap("a", "1"))));
+        assertTrue(manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()).isEmpty());
+        assertEquals(0, this.getDeploymentDir().listFiles().length);
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception {
+        // the interval is long enough for the test to trigger each write
+        final DiskBasedModularPersistentSessionManager manager = this.start(TimeUnit.HOURS.toMillis(1));
+        final SessionListener listener = manager.createSessionListener(DEPLOYMENT);
+        assertNotNull(listener);
+        final Runnable writer = (Runnable) listener;
+
+        final Session session = mock(Session.class);
+        when(session.getId()).thenReturn("session");
+        when(session.getLastAccessedTime()).thenReturn(System.currentTimeMillis());
+        when(session.getMaxInactiveInterval()).thenReturn(1800);
+
+        listener.sessionCreated(session, null);
+        final List<String> list = new ArrayList<>();
+        listener.attributeAdded(session, "a", "1");
+        listener.attributeAdded(session, "list", list);
+        writer.run();
+
+        Map<String, Object> attributes = this.loadAttributes(manager, "session");
+        assertEquals("1", attributes.get("a"));
+        assertEquals(Collections.emptyList(), attributes.get("list"));
+
+        listener.attributeUpdated(session, "a", "2", "1");
+        listener.attributeRemoved(session, "list", list);
+        writer.run();
+        attributes = this.loadAttributes(manager, "session");
+        assertEquals(Collections.singletonMap("a", "2"), attributes);
+
+        // a value mutated in place is written once the session was accessed again
+        listener.attributeAdded(session, "list", list);
+        writer.run();
+        list.add("x");
+        when(session.getLastAccessedTime()).thenReturn(System.currentTimeMillis() + 1);
+        writer.run();
+        assertEquals(Collections.singletonList("x"), this.loadAttributes(manager, "session").get("list"));
+
+        // writing sessions neither reads their attributes, nor bumps their last access time
+        verify(session, never()).getAttribute(anyString());
+        verify(session, never()).getAttributeNames();
+
+        listener.sessionDestroyed(session, null, SessionListener.SessionDestroyedReason.INVALIDATED);
+        assertEquals(0, this.getDeploymentDir().listFiles().length);
+        writer.run();
+        assertNull(manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()).get("session"));
+    }
+
+    private Map<String, Object> loadAttributes(DiskBasedModularPersistentSessionManager manager, String sessionId) {
+        final PersistentSession session = manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()).get(sessionId);
+        assertNotNull(session);
+        return new HashMap<>(session.getSessionData());
+    }
+}
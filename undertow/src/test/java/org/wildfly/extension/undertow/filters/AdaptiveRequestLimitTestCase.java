@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.BlockingHandler;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link AdaptiveRequestLimit}.
+ */
+public class AdaptiveRequestLimitTestCase {
+
+    private static final String PRIORITY_HEADER = "X-Priority";
+    private static final double LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Queue<String> handled = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Undertow server;
+    private String url;
+
+    @After
+    public void destroy() {
+        this.release.countDown();
+        if (this.server != null) {
+            this.server.stop();
+        }
+        this.executor.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void initialLimitBelowMinimum() {
+        new AdaptiveRequestLimit(1, 2, 10, 0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void initialLimitAboveMaximum() {
+        new AdaptiveRequestLimit(11, 1, 10, 0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minimumBelowOne() {
+        new AdaptiveRequestLimit(1, 0, 10, 0, 1000);
+    }
+
+    @Test
+    public void growsWhileLatencyIsStable() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(10, 1, 50, 0, 1000);
+        int previous = limit.getLimit();
+        for (int i = 0; i < 100; ++i) {
+            limit.updateLimit(LATENCY, limit.getLimit());
+            assertTrue(limit.getLimit() >= previous);
+            previous = limit.getLimit();
+        }
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    public void doesNotGrowWhileUnused() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(10, 1, 50, 0, 1000);
+        for (int i = 0; i < 100; ++i) {
+            limit.updateLimit(LATENCY, 4);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void shrinksWhileLatencyIncreases() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(40, 5, 50, 0, 1000);
+        for (int i = 0; i < 10; ++i) {
+            limit.updateLimit(LATENCY, limit.getLimit());
+        }
+        int stable = limit.getLimit();
+        limit.updateLimit(LATENCY * 4, stable);
+        assertTrue(limit.getLimit() < stable);
+        double latency = LATENCY * 4;
+        for (int i = 0; i < 100; ++i) {
+            latency *= 2;
+            limit.updateLimit(latency, limit.getLimit());
+            assertTrue(limit.getLimit() >= 5);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void priorityRequestsAreAdmittedFirst() throws Exception {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(1, 1, 1, 10, TimeUnit.MINUTES.toMillis(1));
+        this.start(limit);
+
+        Future<Integer> held = this.send("/held", false);
+        this.await(limit::getActiveRequests, 1);
+        List<Future<Integer>> queued = new ArrayList<>();
+        queued.add(this.send("/normal-1", false));
+        this.await(limit::getQueuedRequests, 1);
+        queued.add(this.send("/normal-2", false));
+        this.await(limit::getQueuedRequests, 2);
+        queued.add(this.send("/priority", true));
+        this.await(limit::getQueuedRequests, 3);
+
+        this.release.countDown();
+        assertEquals(200, held.get().intValue());
+        for (Future<Integer> response : queued) {
+            assertEquals(200, response.get().intValue());
+        }
+        assertEquals(Arrays.asList("/held", "/priority", "/normal-1", "/normal-2"), new ArrayList<>(this.handled));
+        assertEquals(0, limit.getRejectedRequests());
+        assertEquals(0, limit.getShedRequests());
+    }
+
+    @Test
+    public void queuedRequestsAreShedAfterTimeout() throws Exception {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(1, 1, 1, 10, 100);
+        this.start(limit);
+
+        Future<Integer> held = this.send("/held", false);
+        this.await(limit::getActiveRequests, 1);
+        Future<Integer> shed = this.send("/shed", false);
+        assertEquals(503, shed.get().intValue());
+        assertEquals(1, limit.getShedRequests());
+        assertEquals(0, limit.getQueuedRequests());
+
+        this.release.countDown();
+        assertEquals(200, held.get().intValue());
+        // the shed request must not be admitted once the limit allows it
+        assertEquals(200, this.send("/next", false).get().intValue());
+        assertEquals(Arrays.asList("/held", "/next"), new ArrayList<>(this.handled));
+    }
+
+    @Test
+    public void requestsAreRejectedWhileQueueIsFull() throws Exception {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(1, 1, 1, 1, TimeUnit.MINUTES.toMillis(1));
+        this.start(limit);
+
+        Future<Integer> held = this.send("/held", false);
+        this.await(limit::getActiveRequests, 1);
+        Future<Integer> queued = this.send("/queued", false);
+        this.await(limit::getQueuedRequests, 1);
+        assertEquals(503, this.send("/rejected", true).get().intValue());
+        assertEquals(1, limit.getRejectedRequests());
+
+        this.release.countDown();
+        assertEquals(200, held.get().intValue());
+        assertEquals(200, queued.get().intValue());
+        assertEquals(Arrays.asList("/held", "/queued"), new ArrayList<>(this.handled));
+    }
+
+    private void start(AdaptiveRequestLimit limit) {
+        HttpHandler next = new BlockingHandler(exchange -> {
+            this.handled.add(exchange.getRequestPath());
+            if (exchange.getRequestPath().equals("/held")) {
+                this.release.await();
+            }
+        });
+        this.server = Undertow.builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(exchange -> limit.handleRequest(exchange, next, exchange.getRequestHeaders().contains(PRIORITY_HEADER)))
+                .build();
+        this.server.start();
+        InetSocketAddress address = (InetSocketAddress) this.server.getListenerInfo().get(0).getAddress();
+        this.url = "http://localhost:" + address.getPort();
+    }
+
+    private Future<Integer> send(String path, boolean priority) {
+        return this.executor.submit(() -> {
+            HttpURLConnection connection = (HttpURLConnection) new URL(this.url + path).openConnection();
+            try {
+                if (priority) {
+                    connection.setRequestProperty(PRIORITY_HEADER, "true");
+                }
+                return connection.getResponseCode();
+            } finally {
+                connection.disconnect();
+            }
+        });
+    }
+
+    private void await(IntSupplier value, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (value.getAsInt() != expected) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.undertow.server.HttpHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.extension.undertow.Constants;
+import org.wildfly.extension.undertow.UndertowExtension;
+
+/**
+ * Unit test for the runtime metrics of {@link FileHandler}.
+ */
+public class FileHandlerMetricsTestCase {
+
+    private final OperationContext context = mock(OperationContext.class);
+    private final ServiceRegistry registry = mock(ServiceRegistry.class);
+    private final ServiceController<?> controller = mock(ServiceController.class);
+    private final StaticResourceHandler handler = mock(StaticResourceHandler.class);
+    private final ModelNode result = new ModelNode();
+
+    @Before
+    public void init() {
+        PathAddress address = PathAddress.pathAddress(UndertowExtension.SUBSYSTEM_PATH, UndertowExtension.PATH_HANDLERS, PathElement.pathElement(Constants.FILE, "static"));
+        when(this.context.getCurrentAddress()).thenReturn(address);
+        when(this.context.getServiceRegistry(false)).thenReturn(this.registry);
+        when(this.context.getResult()).thenReturn(this.result);
+        doReturn(this.controller).when(this.registry).getService(Handler.CAPABILITY.getCapabilityServiceName(address));
+        when(this.controller.getState()).thenReturn(ServiceController.State.UP);
+        when(this.handler.getCacheHits()).thenReturn(3L);
+        when(this.handler.getCacheMisses()).thenReturn(1L);
+        when(this.handler.getBytesSaved()).thenReturn(1000L);
+    }
+
+    @Test
+    public void metrics() throws Exception {
+        doReturn(new HandlerService(this.handler, "static")).when(this.controller).getService();
+
+        assertEquals(3L, this.read(FileHandler.CACHE_HITS.getName()).asLong());
+        assertEquals(1L, this.read(FileHandler.CACHE_MISSES.getName()).asLong());
+        assertEquals(0.75d, this.read(FileHandler.CACHE_HIT_RATIO.getName()).asDouble(), 0d);
+        assertEquals(1000L, this.read(FileHandler.COMPRESSION_BYTES_SAVED.getName()).asLong());
+    }
+
+    @Test
+    public void uncachedHandler() throws Exception {
+        doReturn(new HandlerService(mock(HttpHandler.class), "static")).when(this.controller).getService();
+
+        assertFalse(this.read(FileHandler.CACHE_HITS.getName()).isDefined());
+    }
+
+    @Test
+    public void stoppedHandler() throws Exception {
+        doReturn(new HandlerService(this.handler, "static")).when(this.controller).getService();
+        when(this.controller.getState()).thenReturn(ServiceController.State.DOWN);
+
+        assertFalse(this.read(FileHandler.CACHE_HITS.getName()).isDefined());
+    }
+
+    private ModelNode read(String name) throws Exception {
+        this.result.set(new ModelNode());
+        ModelNode operation = new ModelNode();
+        operation.get(ModelDescriptionConstants.NAME).set(name);
+        new FileHandler.ReadMetricHandler().execute(this.context, operation);
+        return this.result;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2021, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import io.undertow.Undertow;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link StaticResourceHandler}.
+ */
+public class StaticResourceHandlerTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final DirectBufferCache bufferCache = new DirectBufferCache(1024, 16, 1024 * 1024);
+    private Path base;
+    private Path encodedResourcesRoot;
+    private StaticResourceHandler handler;
+    private Undertow server;
+    private String url;
+
+    @Before
+    public void init() throws IOException {
+        this.base = this.folder.newFolder("base").toPath();
+        this.encodedResourcesRoot = this.folder.getRoot().toPath().resolve("encoded");
+    }
+
+    @After
+    public void destroy() {
+        if (this.server != null) {
+            this.server.stop();
+        }
+        if (this.handler != null) {
+            this.handler.stop();
+        }
+    }
+
+    private void start(boolean precompress) throws IOException {
+        this.handler = new StaticResourceHandler(this.base, 64 * 1024, true, false, new String[0], "default", 64 * 1024, false, precompress ? this.encodedResourcesRoot : null);
+        this.handler.getBufferCache().inject(this.bufferCache);
+        this.handler.start();
+        this.server = Undertow.builder()
+                .addHttpListener(0, "localhost")
+                .setHandler(this.handler)
+                .build();
+        this.server.start();
+        InetSocketAddress address = (InetSocketAddress) this.server.getListenerInfo().get(0).getAddress();
+        this.url = "http://localhost:" + address.getPort();
+    }
+
+    @Test
+    public void cache() throws IOException {
+        String content = content("cached");
+        Files.write(this.base.resolve("cached.txt"), content.getBytes(StandardCharsets.UTF_8));
+        this.start(false);
+
+        for (int i = 0; i < 5; ++i) {
+            Response response = this.get("/cached.txt", false);
+            assertEquals(200, response.status);
+            assertNull(response.encoding);
+            assertEquals(content, response.content);
+        }
+        assertTrue(this.handler.getCacheMisses() > 0);
+        assertTrue(this.handler.getCacheHits() > 0);
+        assertFalse(this.bufferCache.getAllKeys().isEmpty());
+
+        assertEquals(404, this.get("/missing.txt", false).status);
+    }
+
+    @Test
+    public void invalidation() throws Exception {
+        Path file = this.base.resolve("changed.txt");
+        Files.write(file, content("original").getBytes(StandardCharsets.UTF_8));
+        this.start(false);
+
+        assertEquals(content("original"), this.get("/changed.txt", false).content);
+        assertEquals(content("original"), this.get("/changed.txt", false).content);
+
+        String changed = content("changed");
+        Files.write(file, changed.getBytes(StandardCharsets.UTF_8));
+        this.awaitContent("/changed.txt", false, changed);
+    }
+
+    @Test
+    public void precompression() throws Exception {
+        Path file = this.base.resolve("compressible.txt");
+        String content = content("compressible");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        this.start(true);
+
+        Response response = this.get("/compressible.txt", true);
+        assertEquals(200, response.status);
+        assertEquals("gzip", response.encoding);
+        assertEquals(content, response.content);
+        assertTrue(this.handler.getBytesSaved() > 0);
+
+        // clients which do not accept an encoding get the original resource
+        response = this.get("/compressible.txt", false);
+        assertNull(response.encoding);
+        assertEquals(content, response.content);
+
+        // the compressed variant is stale once the original changes
+        String changed = content("changed");
+        Files.write(file, changed.getBytes(StandardCharsets.UTF_8));
+        this.awaitContent("/compressible.txt", true, changed);
+    }
+
+    @Test
+    public void stop() throws IOException {
+        Files.write(this.base.resolve("cached.txt"), content("cached").getBytes(StandardCharsets.UTF_8));
+        Files.write(this.base.resolve("compressible.txt"), content("compressible").getBytes(StandardCharsets.UTF_8));
+        // an entry of another handler sharing the buffer cache
+        this.bufferCache.add("other", 16);
+        this.start(true);
+
+        this.get("/cached.txt", false);
+        this.get("/cached.txt", false);
+        this.get("/compressible.txt", true);
+        this.get("/compressible.txt", true);
+        assertTrue(this.bufferCache.getAllKeys().size() > 1);
+        assertTrue(Files.exists(this.encodedResourcesRoot));
+
+        this.server.stop();
+        this.server = null;
+        this.handler.stop();
+        this.handler = null;
+
+        assertEquals(1, this.bufferCache.getAllKeys().size());
+        assertTrue(this.bufferCache.getAllKeys().contains("other"));
+        assertFalse(Files.exists(this.encodedResourcesRoot));
+    }
+
+    private static String content(String value) {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 8192) {
+            builder.append(value).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private void awaitContent(String path, boolean gzip, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!expected.equals(this.get(path, gzip).content)) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    private Response get(String path, boolean gzip) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(this.url + path).openConnection();
+        try {
+            if (gzip) {
+                connection.setRequestProperty("Accept-Encoding", "gzip");
+            }
+            int status = connection.getResponseCode();
+            if (status != 200) {
+                return new Response(status, null, null);
+            }
+            String encoding = connection.getHeaderField("Content-Encoding");
+            try (InputStream input = "gzip".equals(encoding) ? new GZIPInputStream(connection.getInputStream()) : connection.getInputStream()) {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = input.read(buffer)) >= 0) {
+                    output.write(buffer, 0, read);
+                }
+                return new Response(status, encoding, new String(output.toByteArray(), StandardCharsets.UTF_8));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static class Response {
+        final int status;
+        final String encoding;
+        final String content;
+
+        Response(int status, String encoding, String content) {
+            this.status = status;
+            this.encoding = encoding;
+            this.content = content;
+        }
+    }
+}